@@ -0,0 +1,222 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.affinity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The topology of the CPUs of the machine, i.e. the socket and physical core of each logical CPU, as described by
+ * Linux.
+ * <p/>
+ * This makes it possible to tell whether two sets of CPUs share a core (hyper-threads), a socket (last-level cache) or
+ * nothing, e.g. to compare the measurement thread running on the same core as the rest of the JVM, on the same socket
+ * or on another socket.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class CpuTopology {
+
+    /** The directory describing the CPUs on Linux. */
+    private static final String CPU_DIRECTORY = "/sys/devices/system/cpu";
+
+    /** The relation of two sets of CPUs sharing the same CPUs. */
+    public static final String SAME_CPU = "same CPU";
+    /** The relation of two sets of CPUs sharing a physical core. */
+    public static final String SAME_CORE = "same core";
+    /** The relation of two sets of CPUs sharing a socket. */
+    public static final String SAME_SOCKET = "same socket";
+    /** The relation of two sets of CPUs on different sockets. */
+    public static final String CROSS_SOCKET = "cross-socket";
+
+    private static final int SOCKET = 0;
+    private static final int CORE = 1;
+
+    private final Map<Integer, int[]> cpus;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param cpus
+     *            the socket and core of each logical CPU, by CPU number
+     */
+    CpuTopology(Map<Integer, int[]> cpus) {
+        this.cpus = new TreeMap<>(cpus);
+    }
+
+    /**
+     * Reads the topology of the CPUs of this machine.
+     *
+     * @return the topology, empty if it cannot be read, e.g. on another system than Linux
+     */
+    public static CpuTopology read() {
+        Map<Integer, int[]> cpus = new TreeMap<>();
+        File[] directories = new File(CPU_DIRECTORY).listFiles();
+        if (directories != null) {
+            for (File directory : directories) {
+                if (directory.getName().matches("cpu\\d+")) {
+                    try {
+                        int socket = readInt(new File(directory, "topology/physical_package_id"));
+                        int core = readInt(new File(directory, "topology/core_id"));
+                        cpus.put(Integer.parseInt(directory.getName().substring(3)), new int[] { socket, core });
+                    } catch (IOException | NumberFormatException e) {
+                        // offline or not described, ignore this CPU
+                    }
+                }
+            }
+        }
+        return new CpuTopology(cpus);
+    }
+
+    private static int readInt(File file) throws IOException {
+        return Integer.parseInt(new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII).trim());
+    }
+
+    /**
+     * Parses a list of CPUs in the format of {@code taskset}, e.g. {@code 0-3,6}.
+     *
+     * @param list
+     *            the list of CPUs
+     * @return the numbers of the CPUs
+     * @throws NumberFormatException
+     *             if the list is malformed
+     */
+    public static List<Integer> parseList(String list) {
+        List<Integer> numbers = new ArrayList<>();
+        for (String range : list.trim().split(",")) {
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                numbers.add(Integer.parseInt(range.trim()));
+            } else {
+                int last = Integer.parseInt(range.substring(dash + 1).trim());
+                for (int cpu = Integer.parseInt(range.substring(0, dash).trim()); cpu <= last; cpu++) {
+                    numbers.add(cpu);
+                }
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Returns the number of logical CPUs.
+     *
+     * @return the number of CPUs, {@code 0} if unknown
+     */
+    public int getCpus() {
+        return cpus.size();
+    }
+
+    /**
+     * Returns the number of physical cores.
+     *
+     * @return the number of cores, {@code 0} if unknown
+     */
+    public int getCores() {
+        Set<List<Integer>> cores = new HashSet<>();
+        for (int[] cpu : cpus.values()) {
+            List<Integer> core = new ArrayList<>();
+            core.add(cpu[SOCKET]);
+            core.add(cpu[CORE]);
+            cores.add(core);
+        }
+        return cores.size();
+    }
+
+    /**
+     * Returns the number of sockets.
+     *
+     * @return the number of sockets, {@code 0} if unknown
+     */
+    public int getSockets() {
+        Set<Integer> sockets = new HashSet<>();
+        for (int[] cpu : cpus.values()) {
+            sockets.add(cpu[SOCKET]);
+        }
+        return sockets.size();
+    }
+
+    /**
+     * Describes where a set of CPUs lies in the topology.
+     *
+     * @param list
+     *            the list of CPUs, e.g. {@code 0-3,6}
+     * @return the socket and core of each CPU, e.g. {@code 2 (socket 0, core 1)}
+     */
+    public String describe(String list) {
+        StringBuilder description = new StringBuilder();
+        for (int number : parseList(list)) {
+            if (description.length() > 0) {
+                description.append(", ");
+            }
+            description.append(number);
+            int[] cpu = cpus.get(number);
+            if (cpu != null) {
+                description.append(" (socket ").append(cpu[SOCKET]).append(", core ").append(cpu[CORE]).append(')');
+            }
+        }
+        return description.toString();
+    }
+
+    /**
+     * Tells how close two sets of CPUs are: whether they are the same CPUs, or all share a core, or a socket.
+     *
+     * @param first
+     *            the first list of CPUs, e.g. {@code 2}
+     * @param second
+     *            the second list of CPUs, e.g. {@code 3}
+     * @return one of {@link #SAME_CPU}, {@link #SAME_CORE}, {@link #SAME_SOCKET} and {@link #CROSS_SOCKET}, or
+     *         {@code null} if a CPU is not described
+     */
+    public String relate(String first, String second) {
+        Set<Integer> firstCpus = new HashSet<>(parseList(first));
+        Set<Integer> secondCpus = new HashSet<>(parseList(second));
+        if (firstCpus.equals(secondCpus)) {
+            return SAME_CPU;
+        }
+        boolean sameCore = true;
+        boolean sameSocket = true;
+        for (int a : firstCpus) {
+            for (int b : secondCpus) {
+                int[] cpuA = cpus.get(a);
+                int[] cpuB = cpus.get(b);
+                if (cpuA == null || cpuB == null) {
+                    return null;
+                }
+                sameSocket &= cpuA[SOCKET] == cpuB[SOCKET];
+                sameCore &= cpuA[SOCKET] == cpuB[SOCKET] && cpuA[CORE] == cpuB[CORE];
+            }
+        }
+        return sameCore ? SAME_CORE : sameSocket ? SAME_SOCKET : CROSS_SOCKET;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return cpus.isEmpty() ? "unknown topology"
+                : getSockets() + " socket(s), " + getCores() + " core(s), " + getCpus() + " CPU(s)";
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.affinity;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A utility to pin processes and threads to chosen CPUs on Linux, with {@code taskset}.
+ * <p/>
+ * A JVM is pinned by prefixing its command, so that all its threads inherit the affinity. A single thread, typically
+ * the measurement thread, can then be pinned to other CPUs, so that it does not share them with the compiler, the
+ * garbage collector or the logging of the harness.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ThreadAffinity {
+
+    /** The command pinning processes and threads. */
+    private static final String TASKSET = "taskset";
+    /** The file describing the current thread on Linux 3.17 or later. */
+    private static final String THREAD_SELF = "/proc/thread-self";
+    /** The line of the status of a thread listing the CPUs it may run on. */
+    private static final String ALLOWED_CPUS = "Cpus_allowed_list:";
+
+    /** Private constructor to avoid instantiation. */
+    private ThreadAffinity() {
+    }
+
+    /**
+     * Returns whether threads can be pinned, i.e. this is Linux and {@code taskset} is on the path.
+     *
+     * @return {@code true} if threads can be pinned
+     */
+    public static boolean isSupported() {
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("linux")
+                || !new File(THREAD_SELF).exists()) {
+            return false;
+        }
+        String path = System.getenv("PATH");
+        if (path != null) {
+            for (String directory : path.split(File.pathSeparator)) {
+                if (new File(directory, TASKSET).canExecute()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the prefix of a command pinning the started process to a list of CPUs.
+     *
+     * @param cpus
+     *            the list of CPUs, e.g. {@code 0-3,6}
+     * @return the prefix of the command
+     */
+    public static List<String> commandPrefix(String cpus) {
+        return Arrays.asList(TASKSET, "-c", cpus);
+    }
+
+    /**
+     * Pins the current thread to a list of CPUs. Threads it starts afterwards inherit this affinity.
+     *
+     * @param cpus
+     *            the list of CPUs, e.g. {@code 0-3,6}
+     * @throws IOException
+     *             if the thread cannot be pinned
+     */
+    public static void pinCurrentThread(String cpus) throws IOException {
+        // /proc/thread-self links to /proc/<pid>/task/<tid>
+        String tid = new File(THREAD_SELF).getCanonicalFile().getName();
+        Process process = new ProcessBuilder(TASKSET, "-p", "-c", cpus, tid).redirectErrorStream(true).start();
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append(System.lineSeparator());
+            }
+        }
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while pinning the thread to CPUs " + cpus, e);
+        }
+        if (exitCode != 0) {
+            throw new IOException("Could not pin the thread to CPUs " + cpus + ": " + output.toString().trim());
+        }
+    }
+
+    /**
+     * Returns the CPUs the current thread may run on.
+     *
+     * @return the list of CPUs, e.g. {@code 0-3,6}
+     * @throws IOException
+     *             if the status of the thread cannot be read
+     */
+    public static String getAllowedCpus() throws IOException {
+        for (String line : Files.readAllLines(new File(THREAD_SELF, "status").toPath(), StandardCharsets.US_ASCII)) {
+            if (line.startsWith(ALLOWED_CPUS)) {
+                return line.substring(ALLOWED_CPUS.length()).trim();
+            }
+        }
+        throw new IOException("The CPUs of the thread are not listed in " + THREAD_SELF + "/status");
+    }
+}
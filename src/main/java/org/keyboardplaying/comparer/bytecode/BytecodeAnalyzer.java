@@ -0,0 +1,374 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.bytecode;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.keyboardplaying.comparer.model.BytecodeInfo;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A utility to read the bytecode of a method from the class file declaring it.
+ * <p/>
+ * The class file is read from the resources of the class loader of the declaring class and parsed just enough to reach
+ * the {@code Code} attribute of the method (see chapter 4 of the Java Virtual Machine Specification).
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class BytecodeAnalyzer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BytecodeAnalyzer.class);
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    // Constant pool tags
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    // Opcodes with a length which is not given by the table
+    private static final int TABLESWITCH = 0xaa;
+    private static final int LOOKUPSWITCH = 0xab;
+    private static final int WIDE = 0xc4;
+    private static final int IINC = 0x84;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKEDYNAMIC = 0xba;
+
+    /** The length of each instruction, operands included; 0 for variable-length instructions. */
+    private static final int[] INSTRUCTION_LENGTHS = new int[256];
+
+    static {
+        // By default, instructions have no operand
+        for (int opcode = 0; opcode < INSTRUCTION_LENGTHS.length; opcode++) {
+            INSTRUCTION_LENGTHS[opcode] = 1;
+        }
+        // bipush, ldc, *load, *store, ret, newarray
+        for (int opcode : new int[] { 0x10, 0x12, 0x15, 0x16, 0x17, 0x18, 0x19, 0x36, 0x37, 0x38, 0x39, 0x3a, 0xa9,
+                0xbc }) {
+            INSTRUCTION_LENGTHS[opcode] = 2;
+        }
+        // sipush, ldc_w, ldc2_w, iinc, branches, field accesses, invokes, new, anewarray, checkcast, instanceof
+        for (int opcode : new int[] { 0x11, 0x13, 0x14, IINC, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xbb, 0xbd,
+                0xc0, 0xc1, 0xc6, 0xc7 }) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        for (int opcode = 0x99; opcode <= 0xa8; opcode++) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        // multianewarray
+        INSTRUCTION_LENGTHS[0xc5] = 4;
+        // invokeinterface, invokedynamic, goto_w, jsr_w
+        for (int opcode : new int[] { 0xb9, INVOKEDYNAMIC, 0xc8, 0xc9 }) {
+            INSTRUCTION_LENGTHS[opcode] = 5;
+        }
+        INSTRUCTION_LENGTHS[TABLESWITCH] = 0;
+        INSTRUCTION_LENGTHS[LOOKUPSWITCH] = 0;
+        INSTRUCTION_LENGTHS[WIDE] = 0;
+    }
+
+    /**
+     * Reads the bytecode of the method of each result and attaches its characteristics to the result.
+     * <p/>
+     * Methods which cannot be analyzed are logged and left without bytecode information.
+     *
+     * @param results
+     *            the results to enrich with bytecode information
+     */
+    public void analyze(List<ImplCheckResult> results) {
+        for (ImplCheckResult result : results) {
+            Method method = result.getMethod();
+            try {
+                BytecodeInfo bytecode = analyze(method);
+                result.setBytecode(bytecode);
+                if (bytecode != null) {
+                    LOG.debug("<{}>: {} bytes of bytecode, max stack {}, max locals {}, {} invoke(s), {} handler(s)",
+                            method.getName(), bytecode.getCodeLength(), bytecode.getMaxStack(),
+                            bytecode.getMaxLocals(), bytecode.getInvokeCount(), bytecode.getExceptionHandlerCount());
+                }
+            } catch (IOException e) {
+                LOG.warn("Could not analyze the bytecode of <{}>", method.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads the bytecode of a method and returns its characteristics.
+     *
+     * @param method
+     *            the method to analyze
+     * @return the characteristics of the bytecode, or {@code null} if the method has no bytecode (abstract or native
+     *         methods) or its class file cannot be found
+     * @throws IOException
+     *             if the class file cannot be read or is malformed
+     */
+    public BytecodeInfo analyze(Method method) throws IOException {
+        Class<?> klass = method.getDeclaringClass();
+        ClassLoader loader = klass.getClassLoader() == null ? ClassLoader.getSystemClassLoader()
+                : klass.getClassLoader();
+        InputStream classFile = loader.getResourceAsStream(klass.getName().replace('.', '/') + ".class");
+        if (classFile == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(classFile))) {
+            return analyze(in, method.getName(), getDescriptor(method));
+        }
+    }
+
+    /**
+     * Parses a class file until the {@code Code} attribute of the requested method is found.
+     *
+     * @param in
+     *            the class file
+     * @param name
+     *            the name of the method
+     * @param descriptor
+     *            the descriptor of the method
+     * @return the characteristics of the bytecode, or {@code null} if the method has no {@code Code} attribute
+     * @throws IOException
+     *             if the class file cannot be read or is malformed
+     */
+    private BytecodeInfo analyze(DataInputStream in, String name, String descriptor) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+        String[] utf8 = readConstantPool(in);
+
+        in.readUnsignedShort(); // access flags
+        in.readUnsignedShort(); // this class
+        in.readUnsignedShort(); // super class
+        skipFully(in, 2 * in.readUnsignedShort()); // interfaces
+
+        int fields = in.readUnsignedShort();
+        for (int i = 0; i < fields; i++) {
+            skipFully(in, 6); // access flags, name, descriptor
+            skipAttributes(in);
+        }
+
+        int methods = in.readUnsignedShort();
+        for (int i = 0; i < methods; i++) {
+            in.readUnsignedShort(); // access flags
+            String methodName = utf8[in.readUnsignedShort()];
+            String methodDescriptor = utf8[in.readUnsignedShort()];
+            boolean found = name.equals(methodName) && descriptor.equals(methodDescriptor);
+
+            int attributes = in.readUnsignedShort();
+            for (int a = 0; a < attributes; a++) {
+                String attributeName = utf8[in.readUnsignedShort()];
+                int length = in.readInt();
+                if (found && "Code".equals(attributeName)) {
+                    return readCode(in);
+                }
+                skipFully(in, length);
+            }
+            if (found) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the constant pool and returns its UTF-8 entries.
+     *
+     * @param in
+     *            the class file, positioned on the constant pool count
+     * @return the UTF-8 entries, indexed like the constant pool; other entries are {@code null}
+     * @throws IOException
+     *             if the class file cannot be read or is malformed
+     */
+    private String[] readConstantPool(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+            case CONSTANT_UTF8:
+                utf8[i] = in.readUTF();
+                break;
+            case CONSTANT_CLASS:
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                skipFully(in, 2);
+                break;
+            case CONSTANT_METHOD_HANDLE:
+                skipFully(in, 3);
+                break;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                skipFully(in, 4);
+                break;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                skipFully(in, 8);
+                i++; // takes two entries
+                break;
+            default:
+                throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        return utf8;
+    }
+
+    /**
+     * Reads the content of a {@code Code} attribute.
+     *
+     * @param in
+     *            the class file, positioned after the attribute length
+     * @return the characteristics of the bytecode
+     * @throws IOException
+     *             if the class file cannot be read or is malformed
+     */
+    private BytecodeInfo readCode(DataInputStream in) throws IOException {
+        int maxStack = in.readUnsignedShort();
+        int maxLocals = in.readUnsignedShort();
+        byte[] code = new byte[in.readInt()];
+        in.readFully(code);
+        int exceptionHandlers = in.readUnsignedShort();
+        return new BytecodeInfo(code.length, maxStack, maxLocals, countInvokes(code), exceptionHandlers);
+    }
+
+    /**
+     * Walks the instructions of a method and counts the invoke instructions.
+     *
+     * @param code
+     *            the bytecode of the method
+     * @return the number of invoke instructions
+     */
+    private int countInvokes(byte[] code) {
+        int invokes = 0;
+        int pc = 0;
+        while (pc < code.length) {
+            int opcode = code[pc] & 0xff;
+            if (opcode >= INVOKEVIRTUAL && opcode <= INVOKEDYNAMIC) {
+                invokes++;
+            }
+
+            int length = INSTRUCTION_LENGTHS[opcode];
+            if (opcode == WIDE) {
+                length = (code[pc + 1] & 0xff) == IINC ? 6 : 4;
+            } else if (opcode == TABLESWITCH || opcode == LOOKUPSWITCH) {
+                // operands are aligned on 4 bytes from the beginning of the code
+                int operands = pc + 1 + (4 - (pc + 1) % 4) % 4;
+                if (opcode == TABLESWITCH) {
+                    int low = readInt(code, operands + 4);
+                    int high = readInt(code, operands + 8);
+                    length = operands - pc + 12 + 4 * (high - low + 1);
+                } else {
+                    int pairs = readInt(code, operands + 4);
+                    length = operands - pc + 8 + 8 * pairs;
+                }
+            }
+            pc += length;
+        }
+        return invokes;
+    }
+
+    private static int readInt(byte[] code, int index) {
+        return (code[index] & 0xff) << 24 | (code[index + 1] & 0xff) << 16 | (code[index + 2] & 0xff) << 8
+                | code[index + 3] & 0xff;
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        int attributes = in.readUnsignedShort();
+        for (int a = 0; a < attributes; a++) {
+            in.readUnsignedShort(); // name
+            skipFully(in, in.readInt());
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new IOException("Unexpected end of class file");
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Returns the descriptor of a method, e.g. {@code (Ljava/lang/String;I)V}.
+     *
+     * @param method
+     *            the method
+     * @return the descriptor of the method
+     */
+    static String getDescriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> type : method.getParameterTypes()) {
+            descriptor.append(getDescriptor(type));
+        }
+        return descriptor.append(')').append(getDescriptor(method.getReturnType())).toString();
+    }
+
+    private static String getDescriptor(Class<?> type) {
+        String descriptor;
+        if (type.isArray()) {
+            descriptor = type.getName().replace('.', '/');
+        } else if (type.isPrimitive()) {
+            descriptor = String.valueOf(getPrimitiveDescriptor(type));
+        } else {
+            descriptor = "L" + type.getName().replace('.', '/') + ";";
+        }
+        return descriptor;
+    }
+
+    private static char getPrimitiveDescriptor(Class<?> type) {
+        char descriptor;
+        if (type == void.class) {
+            descriptor = 'V';
+        } else if (type == boolean.class) {
+            descriptor = 'Z';
+        } else if (type == long.class) {
+            descriptor = 'J';
+        } else {
+            // B, C, D, F, I, S: the first letter of the type
+            descriptor = Character.toUpperCase(type.getName().charAt(0));
+        }
+        return descriptor;
+    }
+}
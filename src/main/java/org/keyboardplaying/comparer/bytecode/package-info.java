@@ -0,0 +1,16 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with java-implementation-comparer. If not,
+ * see <http://www.gnu.org/licenses/>.
+ */
+/** Static analysis of the bytecode of the methods under comparison. */
+package org.keyboardplaying.comparer.bytecode;
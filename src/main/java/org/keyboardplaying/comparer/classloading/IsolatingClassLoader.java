@@ -0,0 +1,200 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.classloading;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A child-first {@link ClassLoader} giving a fresh copy of application classes.
+ * <p/>
+ * Classes are read from the resources of the parent loader and defined again by this loader, so that each instance
+ * gets its own copy of the bytecode, its own static state and, from the JIT's point of view, its own profiles.
+ * <p/>
+ * The following classes are always delegated to the parent:
+ * <ul>
+ * <li>classes from the JDK;</li>
+ * <li>classes of the comparer itself, unless supplied as <em>copied</em> when creating the loader, e.g. built-in
+ * workloads which must get their own profiles;</li>
+ * <li>the classes supplied as <em>shared</em> when creating the loader, typically the types of the parameters and
+ * return value, so that values can still be exchanged with the isolated code.</li>
+ * </ul>
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class IsolatingClassLoader extends ClassLoader {
+
+    private static final String[] SYSTEM_PREFIXES = { "java.", "javax.", "jdk.", "sun.", "com.sun.", "org.w3c.",
+            "org.xml.", "org.ietf.", "org.omg." };
+    private static final String CLASS_EXTENSION = ".class";
+    private static final int BUFFER_SIZE = 4096;
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Set<String> sharedClasses = new HashSet<>();
+    private final Set<String> copiedClasses = new HashSet<>();
+    private final Set<String> definedPackages = ConcurrentHashMap.newKeySet();
+    private final String harnessLocation;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param parent
+     *            the loader to read the classes from and to delegate to
+     * @param sharedClasses
+     *            the classes which must not be isolated; {@code null} tolerated
+     */
+    public IsolatingClassLoader(ClassLoader parent, Collection<Class<?>> sharedClasses) {
+        this(parent, sharedClasses, null);
+    }
+
+    /**
+     * Creates a new instance copying some classes of the comparer as well.
+     *
+     * @param parent
+     *            the loader to read the classes from and to delegate to
+     * @param sharedClasses
+     *            the classes which must not be isolated; {@code null} tolerated
+     * @param copiedClasses
+     *            the classes of the comparer which must be isolated nonetheless; {@code null} tolerated
+     */
+    public IsolatingClassLoader(ClassLoader parent, Collection<Class<?>> sharedClasses,
+            Collection<Class<?>> copiedClasses) {
+        super(parent);
+        if (copiedClasses != null) {
+            for (Class<?> klass : copiedClasses) {
+                this.copiedClasses.add(klass.getName());
+            }
+        }
+        if (sharedClasses != null) {
+            for (Class<?> klass : sharedClasses) {
+                Class<?> type = klass;
+                while (type.isArray()) {
+                    type = type.getComponentType();
+                }
+                this.sharedClasses.add(type.getName());
+            }
+        }
+        CodeSource harness = IsolatingClassLoader.class.getProtectionDomain().getCodeSource();
+        this.harnessLocation = harness == null || harness.getLocation() == null ? null
+                : harness.getLocation().toString();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.ClassLoader#loadClass(java.lang.String, boolean)
+     */
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> klass = findLoadedClass(name);
+            if (klass == null) {
+                URL resource = isIsolatable(name) ? getResource(name.replace('.', '/') + CLASS_EXTENSION) : null;
+                if (resource != null && (!isHarness(resource) || copiedClasses.contains(name))) {
+                    klass = defineIsolatedClass(name, resource);
+                } else {
+                    klass = super.loadClass(name, false);
+                }
+            }
+            if (resolve) {
+                resolveClass(klass);
+            }
+            return klass;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the class is neither a JDK class nor a shared one.
+     *
+     * @param name
+     *            the binary name of the class
+     * @return {@code true} if the class may be loaded by this loader
+     */
+    private boolean isIsolatable(String name) {
+        for (String prefix : SYSTEM_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return !sharedClasses.contains(name);
+    }
+
+    /**
+     * Returns {@code true} if the resource belongs to the comparer itself.
+     *
+     * @param resource
+     *            the location of the class file
+     * @return {@code true} if the resource comes from the comparer
+     */
+    private boolean isHarness(URL resource) {
+        String location = resource.toString();
+        return !(location.startsWith("file:") || location.startsWith("jar:"))
+                || harnessLocation != null && location.contains(harnessLocation);
+    }
+
+    /**
+     * Reads the class file and defines a new class from it.
+     *
+     * @param name
+     *            the binary name of the class
+     * @param resource
+     *            the location of the class file
+     * @return the newly defined class
+     * @throws ClassNotFoundException
+     *             if the class file cannot be read
+     */
+    private Class<?> defineIsolatedClass(String name, URL resource) throws ClassNotFoundException {
+        byte[] bytes;
+        try (InputStream in = resource.openStream()) {
+            bytes = readFully(in);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot > 0) {
+            String packageName = name.substring(0, lastDot);
+            // tracked here, as getPackage(String) is deprecated and getDefinedPackage(String) requires Java 9
+            if (definedPackages.add(packageName)) {
+                try {
+                    definePackage(packageName, null, null, null, null, null, null, null);
+                } catch (IllegalArgumentException e) {
+                    // already defined, e.g. by an ancestor on Java 8, nothing to do
+                }
+            }
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
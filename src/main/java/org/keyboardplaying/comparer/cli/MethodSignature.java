@@ -0,0 +1,171 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.cli;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.keyboardplaying.comparer.model.ComparisonException;
+
+/**
+ * A method signature as written on the command line, e.g. {@code bar(String,int)}, and the conversion of textual
+ * arguments to its parameter types.
+ * <p/>
+ * Parameter types are primitive types or JDK classes; classes of the {@code java.lang} package may be written with
+ * their simple name. Arguments are converted with the static {@code valueOf(String)} method or the {@code String}
+ * constructor of the parameter type.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+final class MethodSignature {
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+
+    static {
+        Class<?>[] primitives = { boolean.class, byte.class, char.class, short.class, int.class, long.class,
+                float.class, double.class };
+        Class<?>[] wrappers = { Boolean.class, Byte.class, Character.class, Short.class, Integer.class, Long.class,
+                Float.class, Double.class };
+        for (int i = 0; i < primitives.length; i++) {
+            PRIMITIVES.put(primitives[i].getName(), primitives[i]);
+            WRAPPERS.put(primitives[i], wrappers[i]);
+        }
+    }
+
+    private final String name;
+    private final Class<?>[] erasure;
+
+    private MethodSignature(String name, Class<?>[] erasure) {
+        this.name = name;
+        this.erasure = erasure;
+    }
+
+    /**
+     * Parses a signature.
+     *
+     * @param signature
+     *            the signature, e.g. {@code bar(String,int)}; the parentheses may be omitted for a no-arg method
+     * @return the parsed signature
+     * @throws ComparisonException
+     *             if the signature is malformed or a type cannot be found
+     */
+    static MethodSignature parse(String signature) throws ComparisonException {
+        int open = signature.indexOf('(');
+        if (open < 0) {
+            return new MethodSignature(signature.trim(), new Class<?>[0]);
+        }
+        if (!signature.endsWith(")")) {
+            throw new ComparisonException("Malformed method signature: " + signature);
+        }
+
+        String types = signature.substring(open + 1, signature.length() - 1).trim();
+        String[] typeNames = types.isEmpty() ? new String[0] : types.split(",");
+        Class<?>[] erasure = new Class<?>[typeNames.length];
+        for (int i = 0; i < typeNames.length; i++) {
+            erasure[i] = toType(typeNames[i].trim());
+        }
+        return new MethodSignature(signature.substring(0, open).trim(), erasure);
+    }
+
+    private static Class<?> toType(String typeName) throws ComparisonException {
+        Class<?> type = PRIMITIVES.get(typeName);
+        if (type == null) {
+            String qualified = typeName.indexOf('.') < 0 ? "java.lang." + typeName : typeName;
+            try {
+                type = Class.forName(qualified, false, ClassLoader.getSystemClassLoader().getParent());
+            } catch (ClassNotFoundException e) {
+                throw new ComparisonException("Unknown parameter type " + typeName
+                        + "; only primitive types and JDK classes are supported", e);
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Returns the name of the method.
+     *
+     * @return the name of the method
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the types of the parameters.
+     *
+     * @return the types of the parameters
+     */
+    Class<?>[] getErasure() {
+        return erasure.clone();
+    }
+
+    /**
+     * Converts textual arguments to the types of the parameters.
+     *
+     * @param arguments
+     *            the arguments, as many as there are parameters
+     * @return the converted arguments
+     * @throws ComparisonException
+     *             if the number of arguments does not match, or an argument cannot be converted
+     */
+    Object[] convert(String[] arguments) throws ComparisonException {
+        if (arguments.length != erasure.length) {
+            throw new ComparisonException(name + " expects " + erasure.length + " argument(s), " + arguments.length
+                    + " supplied");
+        }
+        Object[] converted = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            converted[i] = convert(arguments[i], erasure[i]);
+        }
+        return converted;
+    }
+
+    private static Object convert(String argument, Class<?> type) throws ComparisonException {
+        Class<?> target = type.isPrimitive() ? WRAPPERS.get(type) : type;
+        Object converted;
+        try {
+            if (target == String.class || target == Object.class || target == CharSequence.class) {
+                converted = argument;
+            } else if (target == Character.class) {
+                if (argument.length() != 1) {
+                    throw new ComparisonException("Not a single character: " + argument);
+                }
+                converted = argument.charAt(0);
+            } else {
+                converted = valueOf(argument, target);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException("Cannot convert " + argument + " to " + type.getName(), e);
+        }
+        return converted;
+    }
+
+    private static Object valueOf(String argument, Class<?> target) throws ReflectiveOperationException {
+        Object converted;
+        try {
+            Method valueOf = target.getMethod("valueOf", String.class);
+            if (!Modifier.isStatic(valueOf.getModifiers())) {
+                throw new NoSuchMethodException(target.getName() + ".valueOf(String) is not static");
+            }
+            converted = valueOf.invoke(null, argument);
+        } catch (NoSuchMethodException e) {
+            converted = target.getConstructor(String.class).newInstance(argument);
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.JvmConfiguration;
+
+/**
+ * A suite of comparisons, as declared in a properties file.
+ * <p/>
+ * The file declares suite-wide settings, then each comparison under the {@code comparison.<id>.} prefix:
+ *
+ * <pre>
+ * checks=3
+ * iterations=10000
+ * classpath=target/classes
+ * formats=log,csv,html
+ * output=target/perf
+ * jvms=default,c1
+ * jvm.c1.options=-XX:TieredStopAtLevel=1
+ * comparisons=greeting
+ * comparison.greeting.class=com.example.ToBeTested
+ * comparison.greeting.method=hello(String)
+ * comparison.greeting.arguments=Chop
+ * comparison.greeting.iterations=100000
+ * </pre>
+ * <p/>
+ * When JVM configurations are declared, comparisons are run in forked JVMs, once per configuration; otherwise they
+ * are run in the current JVM.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+final class Suite {
+
+    /** The output format logging the results as tables. */
+    static final String FORMAT_LOG = "log";
+    /** The output format writing the results to a consolidated CSV file. */
+    static final String FORMAT_CSV = "csv";
+    /** The output format drawing the results as an SVG bar chart. */
+    static final String FORMAT_SVG = "svg";
+    /** The output format drawing the results as a bar chart in an HTML page. */
+    static final String FORMAT_HTML = "html";
+
+    private static final Set<String> FORMATS = new LinkedHashSet<>(
+            Arrays.asList(FORMAT_LOG, FORMAT_CSV, FORMAT_SVG, FORMAT_HTML));
+    private static final int DEFAULT_CHECKS = 3;
+    private static final int DEFAULT_ITERATIONS = 10000;
+    private static final String LIST_SEPARATOR = ",";
+
+    private final String name;
+    private final String classPath;
+    private final Set<String> formats;
+    private final Path output;
+    private final List<JvmConfiguration> jvms;
+    private final List<Comparison> comparisons;
+
+    private Suite(String name, Properties properties, Path base) throws ComparisonException {
+        this.name = name;
+        this.classPath = resolveClassPath(properties.getProperty("classpath"), base);
+        this.formats = new LinkedHashSet<>(split(properties.getProperty("formats", FORMAT_LOG)));
+        for (String format : formats) {
+            if (!FORMATS.contains(format)) {
+                throw new ComparisonException("Unknown format " + format + "; supported formats are " + FORMATS);
+            }
+        }
+        this.output = base.resolve(properties.getProperty("output", "."));
+
+        this.jvms = new ArrayList<>();
+        for (String jvm : split(properties.getProperty("jvms", ""))) {
+            String options = properties.getProperty("jvm." + jvm + ".options", "").trim();
+            jvms.add(new JvmConfiguration(jvm, options.isEmpty() ? new String[0] : options.split("\\s+")));
+        }
+
+        int checks = getInt(properties, "checks", DEFAULT_CHECKS);
+        int iterations = getInt(properties, "iterations", DEFAULT_ITERATIONS);
+        List<String> ids = split(properties.getProperty("comparisons", ""));
+        if (ids.isEmpty()) {
+            throw new ComparisonException("The suite " + name + " declares no comparisons");
+        }
+        this.comparisons = new ArrayList<>();
+        for (String id : ids) {
+            comparisons.add(new Comparison(id, properties, checks, iterations));
+        }
+    }
+
+    /**
+     * Reads a suite file.
+     * <p/>
+     * Relative paths of the suite file are resolved against the directory containing it.
+     *
+     * @param file
+     *            the suite file
+     * @return the suite, named after the file without its extension
+     * @throws IOException
+     *             if the file cannot be read
+     * @throws ComparisonException
+     *             if the suite is invalid
+     */
+    static Suite load(Path file) throws IOException, ComparisonException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        Path base = file.toAbsolutePath().getParent();
+        return new Suite(dot > 0 ? fileName.substring(0, dot) : fileName, properties, base);
+    }
+
+    private static String resolveClassPath(String classPath, Path base) {
+        if (classPath == null || classPath.trim().isEmpty()) {
+            return null;
+        }
+        StringBuilder resolved = new StringBuilder();
+        for (String entry : classPath.trim().split(File.pathSeparator)) {
+            if (resolved.length() > 0) {
+                resolved.append(File.pathSeparator);
+            }
+            resolved.append(base.resolve(entry.trim()));
+        }
+        return resolved.toString();
+    }
+
+    private static List<String> split(String list) {
+        List<String> values = new ArrayList<>();
+        for (String value : list.split(LIST_SEPARATOR)) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    private static int getInt(Properties properties, String key, int defaultValue) throws ComparisonException {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ComparisonException("Not a number for " + key + ": " + value, e);
+        }
+    }
+
+    private static String getRequired(Properties properties, String key) throws ComparisonException {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new ComparisonException("Missing property " + key);
+        }
+        return value.trim();
+    }
+
+    /**
+     * Returns the name of the suite.
+     *
+     * @return the name of the suite
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the class path to load the compared classes from, in addition to the one of the current JVM.
+     *
+     * @return the class path, with absolute entries, or {@code null} if none
+     */
+    String getClassPath() {
+        return classPath;
+    }
+
+    /**
+     * Returns the URLs of the class path to load the compared classes from.
+     *
+     * @return the URLs of the class path entries
+     * @throws IOException
+     *             if an entry cannot be converted to a URL
+     */
+    List<URL> getClassPathUrls() throws IOException {
+        List<URL> urls = new ArrayList<>();
+        if (classPath != null) {
+            for (String entry : classPath.split(File.pathSeparator)) {
+                urls.add(Paths.get(entry).toUri().toURL());
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Returns whether the results should be written in a given format.
+     *
+     * @param format
+     *            the format
+     * @return {@code true} if the format is requested
+     */
+    boolean hasFormat(String format) {
+        return formats.contains(format);
+    }
+
+    /**
+     * Returns the directory reports are written to.
+     *
+     * @return the output directory
+     */
+    Path getOutput() {
+        return output;
+    }
+
+    /**
+     * Returns the configurations of the forked JVMs.
+     *
+     * @return the JVM configurations, empty if comparisons must run in the current JVM
+     */
+    List<JvmConfiguration> getJvms() {
+        return Collections.unmodifiableList(jvms);
+    }
+
+    /**
+     * Returns the comparisons of the suite.
+     *
+     * @return the comparisons, in the declaration order
+     */
+    List<Comparison> getComparisons() {
+        return Collections.unmodifiableList(comparisons);
+    }
+
+    /**
+     * A comparison declared in a suite.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    static final class Comparison {
+
+        private final String id;
+        private final String className;
+        private final MethodSignature signature;
+        private final String[] arguments;
+        private final int checks;
+        private final int iterations;
+
+        private Comparison(String id, Properties properties, int defaultChecks, int defaultIterations)
+                throws ComparisonException {
+            String prefix = "comparison." + id + ".";
+            this.id = id;
+            this.className = getRequired(properties, prefix + "class");
+            this.signature = MethodSignature.parse(getRequired(properties, prefix + "method"));
+            List<String> args = split(properties.getProperty(prefix + "arguments", ""));
+            this.arguments = args.toArray(new String[args.size()]);
+            this.checks = getInt(properties, prefix + "checks", defaultChecks);
+            this.iterations = getInt(properties, prefix + "iterations", defaultIterations);
+        }
+
+        /**
+         * Returns the identifier of the comparison in the suite.
+         *
+         * @return the identifier
+         */
+        String getId() {
+            return id;
+        }
+
+        /**
+         * Returns the fully qualified name of the class declaring the compared method.
+         *
+         * @return the class name
+         */
+        String getClassName() {
+            return className;
+        }
+
+        /**
+         * Returns the signature of the original method.
+         *
+         * @return the signature
+         */
+        MethodSignature getSignature() {
+            return signature;
+        }
+
+        /**
+         * Returns the arguments to call the method with, converted to the types of its parameters.
+         *
+         * @return the arguments
+         * @throws ComparisonException
+         *             if the arguments do not match the signature
+         */
+        Object[] getParameters() throws ComparisonException {
+            return signature.convert(arguments);
+        }
+
+        /**
+         * Returns the number of checks of the comparison.
+         *
+         * @return the number of checks
+         */
+        int getChecks() {
+            return checks;
+        }
+
+        /**
+         * Returns the number of iterations per check of the comparison.
+         *
+         * @return the number of iterations
+         */
+        int getIterations() {
+            return iterations;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.cli;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.keyboardplaying.comparer.core.ImplComparer;
+import org.keyboardplaying.comparer.core.ImplComparisonLogger;
+import org.keyboardplaying.comparer.fork.ForkedComparer;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.report.BarChart;
+import org.keyboardplaying.comparer.report.CsvReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A command-line entry point running all comparisons declared in a suite file, e.g. for nightly performance runs.
+ * <p/>
+ * Usage: {@code SuiteRunner <suite file>}. See {@link Suite} for the format of the suite file.
+ * <p/>
+ * A failing comparison does not prevent the following ones from running; reports are written with the results of the
+ * successful comparisons, then the runner exits with an error.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class SuiteRunner {
+
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SuiteRunner.class);
+
+    private SuiteRunner() {
+        // entry point only
+    }
+
+    /**
+     * Runs the suite declared in the file supplied as argument.
+     *
+     * @param args
+     *            the path to the suite file
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: SuiteRunner <suite file>");
+            System.exit(EXIT_USAGE);
+        }
+        try {
+            run(Paths.get(args[0]));
+        } catch (IOException | ComparisonException e) {
+            LOG.error("Suite {} failed", args[0], e);
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Runs a suite and writes its reports.
+     *
+     * @param suiteFile
+     *            the suite file
+     * @return the results of the successful comparisons, mapped by comparison identifier then by JVM configuration
+     *         name; the configuration name is empty for comparisons run in the current JVM
+     * @throws IOException
+     *             if the suite file cannot be read or a report cannot be written
+     * @throws ComparisonException
+     *             if the suite is invalid or any comparison failed
+     */
+    static Map<String, Map<String, List<ImplCheckResult>>> run(Path suiteFile)
+            throws IOException, ComparisonException {
+        Suite suite = Suite.load(suiteFile);
+        LOG.info("Running suite {} ({} comparison(s))", suite.getName(), suite.getComparisons().size());
+
+        Map<String, Map<String, List<ImplCheckResult>>> results = new LinkedHashMap<>();
+        int failures = 0;
+        List<URL> classPath = suite.getClassPathUrls();
+        try (URLClassLoader loader = new URLClassLoader(classPath.toArray(new URL[classPath.size()]),
+                SuiteRunner.class.getClassLoader())) {
+            for (Suite.Comparison comparison : suite.getComparisons()) {
+                try {
+                    results.put(comparison.getId(), run(suite, comparison, loader));
+                } catch (ComparisonException e) {
+                    LOG.error("Comparison {} failed", comparison.getId(), e);
+                    failures++;
+                }
+            }
+        }
+
+        writeReports(suite, results);
+        if (failures > 0) {
+            throw new ComparisonException(failures + " comparison(s) of suite " + suite.getName() + " failed");
+        }
+        return results;
+    }
+
+    /**
+     * Runs a comparison of a suite.
+     *
+     * @param suite
+     *            the suite
+     * @param comparison
+     *            the comparison to run
+     * @param loader
+     *            the loader to load the compared class with
+     * @return the results, mapped by JVM configuration name
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    private static Map<String, List<ImplCheckResult>> run(Suite suite, Suite.Comparison comparison,
+            ClassLoader loader) throws ComparisonException {
+        LOG.info("Running comparison {}", comparison.getId());
+        MethodSignature signature = comparison.getSignature();
+        Object[] parameters = comparison.getParameters();
+
+        Class<?> klass;
+        Object target;
+        try {
+            klass = Class.forName(comparison.getClassName(), true, loader);
+            Method method = klass.getMethod(signature.getName(), signature.getErasure());
+            target = Modifier.isStatic(method.getModifiers()) ? null : klass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException("Cannot prepare comparison " + comparison.getId(), e);
+        }
+
+        Map<String, List<ImplCheckResult>> results;
+        if (suite.getJvms().isEmpty()) {
+            ImplComparer comparer = new ImplComparer();
+            comparer.setChecks(comparison.getChecks());
+            comparer.setIterations(comparison.getIterations());
+            results = new LinkedHashMap<>();
+            results.put("", target == null
+                    ? comparer.compareStatic(klass, signature.getName(), signature.getErasure(), parameters)
+                    : comparer.compare(target, signature.getName(), signature.getErasure(), parameters));
+        } else {
+            ForkedComparer comparer = new ForkedComparer();
+            comparer.setChecks(comparison.getChecks());
+            comparer.setIterations(comparison.getIterations());
+            comparer.setAdditionalClassPath(suite.getClassPath());
+            results = target == null
+                    ? comparer.compareStatic(suite.getJvms(), klass, signature.getName(), signature.getErasure(),
+                            parameters)
+                    : comparer.compare(suite.getJvms(), target, signature.getName(), signature.getErasure(),
+                            parameters);
+        }
+
+        if (suite.hasFormat(Suite.FORMAT_LOG)) {
+            ImplComparisonLogger logger = new ImplComparisonLogger();
+            if (suite.getJvms().isEmpty()) {
+                logger.log(results.get(""));
+            } else {
+                logger.logMatrix(results);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Writes the file reports of a suite.
+     *
+     * @param suite
+     *            the suite
+     * @param results
+     *            the results of the successful comparisons
+     * @throws IOException
+     *             if a report cannot be written
+     */
+    private static void writeReports(Suite suite, Map<String, Map<String, List<ImplCheckResult>>> results)
+            throws IOException {
+        if (suite.hasFormat(Suite.FORMAT_CSV)) {
+            CsvReport report = new CsvReport();
+            for (Map.Entry<String, Map<String, List<ImplCheckResult>>> comparison : results.entrySet()) {
+                for (Map.Entry<String, List<ImplCheckResult>> configuration : comparison.getValue().entrySet()) {
+                    report.add(comparison.getKey(), configuration.getKey(), configuration.getValue());
+                }
+            }
+            Path file = Files.createDirectories(suite.getOutput()).resolve(suite.getName() + ".csv");
+            report.write(file);
+            LOG.info("CSV report written to {}", file);
+        }
+        if (suite.hasFormat(Suite.FORMAT_SVG) || suite.hasFormat(Suite.FORMAT_HTML)) {
+            BarChart chart = new BarChart();
+            for (Map.Entry<String, Map<String, List<ImplCheckResult>>> comparison : results.entrySet()) {
+                for (Map.Entry<String, List<ImplCheckResult>> configuration : comparison.getValue().entrySet()) {
+                    chart.add(configuration.getKey().isEmpty() ? comparison.getKey()
+                            : comparison.getKey() + " (" + configuration.getKey() + ")", configuration.getValue());
+                }
+            }
+            Path output = Files.createDirectories(suite.getOutput());
+            if (suite.hasFormat(Suite.FORMAT_SVG)) {
+                Path file = output.resolve(suite.getName() + ".svg");
+                chart.writeSvg(file);
+                LOG.info("SVG chart written to {}", file);
+            }
+            if (suite.hasFormat(Suite.FORMAT_HTML)) {
+                Path file = output.resolve(suite.getName() + ".html");
+                chart.writeHtml(file);
+                LOG.info("HTML chart written to {}", file);
+            }
+        }
+    }
+}
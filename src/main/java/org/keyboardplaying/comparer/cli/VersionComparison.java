@@ -0,0 +1,134 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.cli;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.keyboardplaying.comparer.core.ImplComparer;
+import org.keyboardplaying.comparer.core.ImplComparisonLogger;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+
+/**
+ * A command-line entry point to compare the same method across several versions of a library.
+ * <p/>
+ * Usage:
+ *
+ * <pre>
+ * VersionComparison [--checks=N] [--iterations=N] &lt;class&gt; &lt;method(types)&gt; &lt;jar&gt; &lt;jar&gt;...
+ *         [-- &lt;argument&gt;...]
+ * </pre>
+ * <p/>
+ * For instance, {@code VersionComparison com.example.Foo "bar(String,int)" foo-1.0.jar foo-1.1.jar -- hello 3}
+ * compares {@code Foo.bar("hello", 3)} in both versions, the first jar being the reference, and logs the results.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ * @see ImplComparer#compareVersions(List, String, String, Class[], Object[])
+ */
+public final class VersionComparison {
+
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = "Usage: VersionComparison [--checks=N] [--iterations=N] <class> "
+            + "<method(types)> <jar> <jar>... [-- <argument>...]";
+    private static final String CHECKS = "--checks=";
+    private static final String ITERATIONS = "--iterations=";
+    private static final String ARGUMENTS = "--";
+
+    private VersionComparison() {
+        // entry point only
+    }
+
+    /**
+     * Runs the comparison described by the command-line arguments and logs the results.
+     *
+     * @param args
+     *            the command-line arguments
+     */
+    public static void main(String[] args) {
+        try {
+            new ImplComparisonLogger().log(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(EXIT_USAGE);
+        } catch (ComparisonException e) {
+            e.printStackTrace();
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Runs the comparison described by the command-line arguments.
+     *
+     * @param args
+     *            the command-line arguments
+     * @return the results of the comparison
+     * @throws IllegalArgumentException
+     *             if the command line is invalid
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    static List<ImplCheckResult> run(String[] args) throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        List<String> positional = new ArrayList<>();
+        String[] arguments = new String[0];
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith(CHECKS)) {
+                comparer.setChecks(parsePositive(args[i], CHECKS));
+            } else if (args[i].startsWith(ITERATIONS)) {
+                comparer.setIterations(parsePositive(args[i], ITERATIONS));
+            } else if (ARGUMENTS.equals(args[i])) {
+                arguments = Arrays.copyOfRange(args, i + 1, args.length);
+                break;
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 4) {
+            throw new IllegalArgumentException("A class, a method and at least two jars are required");
+        }
+
+        MethodSignature signature = MethodSignature.parse(positional.get(1));
+        List<File> jars = new ArrayList<>();
+        for (String jar : positional.subList(2, positional.size())) {
+            File file = new File(jar);
+            if (!file.isFile()) {
+                throw new IllegalArgumentException("No such jar: " + jar);
+            }
+            jars.add(file);
+        }
+
+        return comparer.compareVersions(jars, positional.get(0), signature.getName(), signature.getErasure(),
+                signature.convert(arguments));
+    }
+
+    private static int parsePositive(String option, String prefix) {
+        String value = option.substring(prefix.length());
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed <= 0) {
+                throw new IllegalArgumentException(prefix + " must be positive: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + option, e);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.keyboardplaying.comparer.model.AsyncResult;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.stats.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a utility to compare asynchronous implementations of a method, until the work they hand off completes.
+ * <p/>
+ * Timing an asynchronous method with the {@link ImplComparer} only measures how long it takes to hand the work off.
+ * This comparer tracks each call until it completes instead, keeping a configurable number of calls in flight, and
+ * reports the completion latencies and the throughput. Two kinds of asynchronous methods are supported:
+ * <ul>
+ * <li>methods returning a {@link CompletionStage}, e.g. a {@link java.util.concurrent.CompletableFuture}: a call
+ * completes with the stage;</li>
+ * <li>methods taking a callback, whose type must be an interface, e.g. {@link java.util.function.Consumer}: the
+ * callback parameter is marked with {@link #CALLBACK} and a call completes when the callback is first called. It
+ * fails if the callback receives a {@link Throwable}.</li>
+ * </ul>
+ * <p/>
+ * Calls are started from a single thread, as soon as the number of calls in flight allows it, so the compared methods
+ * must support concurrent calls.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class AsyncComparer {
+
+    /** The placeholder of the callback in the parameters of a method taking a callback. */
+    public static final Object CALLBACK = new Object() {
+        @Override
+        public String toString() {
+            return "CALLBACK";
+        }
+    };
+
+    /** The default number of measured calls of each variant. */
+    private static final int DEFAULT_CALLS = 10000;
+    /** The default number of calls of each variant before the measure. */
+    private static final int DEFAULT_WARMUP_CALLS = 1000;
+    /** The default maximal number of calls in flight. */
+    private static final int DEFAULT_CONCURRENCY = 16;
+    /** The default time to wait for the calls of a variant to complete, in milliseconds. */
+    private static final long DEFAULT_TIMEOUT = 60000L;
+    /** The latency recorded for failed calls, which are left out of the histogram. */
+    private static final long FAILED = -1L;
+    /** {@code InvocationHandler.invokeDefault}, to call default methods of callbacks; {@code null} before Java 16. */
+    private static final Method INVOKE_DEFAULT = findInvokeDefault();
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncComparer.class);
+
+    private int calls = DEFAULT_CALLS;
+    private int warmupCalls = DEFAULT_WARMUP_CALLS;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private long timeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Returns the number of measured calls of each variant.
+     *
+     * @return the number of calls
+     */
+    public int getCalls() {
+        return calls;
+    }
+
+    /**
+     * Sets the number of measured calls of each variant (default: 10000).
+     *
+     * @param calls
+     *            the number of calls
+     */
+    public void setCalls(int calls) {
+        this.calls = calls;
+    }
+
+    /**
+     * Returns the number of calls of each variant before the measure.
+     *
+     * @return the number of warm-up calls
+     */
+    public int getWarmupCalls() {
+        return warmupCalls;
+    }
+
+    /**
+     * Sets the number of calls of each variant before the measure (default: 1000).
+     * <p/>
+     * Warm-up calls are made with the same concurrency, and must all complete before the measure begins.
+     *
+     * @param warmupCalls
+     *            the number of warm-up calls
+     */
+    public void setWarmupCalls(int warmupCalls) {
+        this.warmupCalls = warmupCalls;
+    }
+
+    /**
+     * Returns the maximal number of calls in flight.
+     *
+     * @return the concurrency
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Sets the maximal number of calls in flight (default: 16). A new call is started as soon as one completes.
+     *
+     * @param concurrency
+     *            the concurrency
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Returns the time to wait for the calls of a variant to complete.
+     *
+     * @return the timeout, in milliseconds
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the time to wait for the calls of a variant to complete, warm-up and measure included (default: 60
+     * seconds).
+     *
+     * @param timeout
+     *            the timeout, in milliseconds
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Compares the completion latency and throughput of an asynchronous method and its variants.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param target
+     *            the instance to call the method on
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method, the callback being marked with {@link #CALLBACK};
+     *            {@code null} tolerated in case of a no-arg method
+     * @return one result per variant, the reference first
+     * @throws ComparisonException
+     *             if the methods could not be found, are not asynchronous, or their calls failed to complete in time
+     */
+    public List<AsyncResult> compare(Object target, String methodName, Class<?>[] erasure, Object... parameters)
+            throws ComparisonException {
+        return compare(target, target.getClass(), methodName, erasure, parameters);
+    }
+
+    /**
+     * Compares the completion latency and throughput of an asynchronous static method and its variants.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param klass
+     *            the class declaring the method
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method, the callback being marked with {@link #CALLBACK};
+     *            {@code null} tolerated in case of a no-arg method
+     * @return one result per variant, the reference first
+     * @throws ComparisonException
+     *             if the methods could not be found, are not asynchronous, or their calls failed to complete in time
+     */
+    public List<AsyncResult> compareStatic(Class<?> klass, String methodName, Class<?>[] erasure,
+            Object... parameters) throws ComparisonException {
+        return compare(null, klass, methodName, erasure, parameters);
+    }
+
+    private List<AsyncResult> compare(Object target, Class<?> klass, String methodName, Class<?>[] erasure,
+            Object[] parameters) throws ComparisonException {
+        List<Method> methods;
+        try {
+            methods = VariantMethods.load(klass, methodName, erasure);
+        } catch (NoSuchMethodException e) {
+            throw new ComparisonException(e);
+        }
+
+        int callback = findCallback(methods.get(0), parameters);
+        List<AsyncResult> results = new ArrayList<>();
+        for (Method method : methods) {
+            LOG.debug("Running {} with {} call(s) in flight", method.getName(), concurrency);
+            Run warmup = new Run(target, method, parameters, callback, warmupCalls);
+            Run measure = new Run(target, method, parameters, callback, calls);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            warmup.execute(deadline);
+            measure.execute(deadline);
+            results.add(measure.toResult());
+        }
+        return results;
+    }
+
+    /**
+     * Finds out how the calls of a method complete.
+     *
+     * @param method
+     *            the original method
+     * @param parameters
+     *            the parameters to use when calling the method
+     * @return the index of the callback in the parameters, or {@code -1} if the method returns a
+     *         {@link CompletionStage}
+     * @throws ComparisonException
+     *             if the method neither returns a {@link CompletionStage} nor takes a callback
+     */
+    private static int findCallback(Method method, Object[] parameters) throws ComparisonException {
+        if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+            return -1;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; parameters != null && i < parameters.length; i++) {
+            if (parameters[i] == CALLBACK) {
+                if (!types[i].isInterface()) {
+                    throw new ComparisonException("The callback of " + method.getName() + " must be an interface");
+                }
+                return i;
+            }
+        }
+        throw new ComparisonException(method.getName() + " neither returns a CompletionStage nor takes a callback "
+                + "marked with AsyncComparer.CALLBACK");
+    }
+
+    /**
+     * Returns the value an abstract method of a callback returns: {@code null}, {@code false} or zero.
+     *
+     * @param type
+     *            the return type of the method
+     * @return the zero value of the type
+     */
+    private static Object zeroValue(Class<?> type) {
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    private static Method findInvokeDefault() {
+        try {
+            return InvocationHandler.class.getMethod("invokeDefault", Object.class, Method.class, Object[].class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A series of calls of a method, with a bounded number of calls in flight.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private final class Run {
+
+        private final Object target;
+        private final Method method;
+        private final Object[] parameters;
+        private final int callback;
+        private final int count;
+
+        private final long[] latencies;
+        private final Semaphore inFlight = new Semaphore(concurrency);
+        private final CountDownLatch completed;
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicLong lastCompletion = new AtomicLong();
+        private long handOffTime;
+        private long startTime;
+
+        Run(Object target, Method method, Object[] parameters, int callback, int count) {
+            this.target = target;
+            this.method = method;
+            this.parameters = parameters;
+            this.callback = callback;
+            this.count = count;
+            this.latencies = new long[count];
+            this.completed = new CountDownLatch(count);
+        }
+
+        /**
+         * Makes all the calls and waits for them to complete.
+         *
+         * @param deadline
+         *            the time at which to give up, as given by {@link System#nanoTime()}
+         * @throws ComparisonException
+         *             if the method could not be invoked, or its calls did not complete before the deadline
+         */
+        void execute(long deadline) throws ComparisonException {
+            try {
+                startTime = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    if (!inFlight.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        throw timeout();
+                    }
+                    call(i);
+                }
+                if (!completed.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw timeout();
+                }
+            } catch (IllegalAccessException e) {
+                throw new ComparisonException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ComparisonException("Interrupted while running " + method.getName(), e);
+            }
+        }
+
+        private ComparisonException timeout() {
+            return new ComparisonException(
+                    method.getName() + ": " + completed.getCount() + " call(s) did not complete within " + timeout
+                            + " ms");
+        }
+
+        /**
+         * Starts a call and arranges for its completion to be recorded.
+         *
+         * @param call
+         *            the index of the call
+         * @throws IllegalAccessException
+         *             if this {@code Method} object is enforcing Java language access control and the underlying
+         *             method is inaccessible.
+         */
+        private void call(final int call) throws IllegalAccessException {
+            Object[] actual = parameters;
+            final AtomicBoolean done = new AtomicBoolean();
+            if (callback >= 0) {
+                actual = parameters.clone();
+                actual[callback] = Proxy.newProxyInstance(method.getParameterTypes()[callback].getClassLoader(),
+                        new Class<?>[] { method.getParameterTypes()[callback] }, (proxy, callee, arguments) -> {
+                            if (callee.getDeclaringClass() == Object.class) {
+                                return invokeObjectMethod(proxy, callee, arguments);
+                            } else if (callee.isDefault()) {
+                                return invokeDefaultMethod(proxy, callee, arguments);
+                            }
+                            complete(call, done, hasThrowable(arguments));
+                            return zeroValue(callee.getReturnType());
+                        });
+            }
+
+            long start = System.nanoTime();
+            synchronized (latencies) {
+                latencies[call] = start;
+            }
+            Object result = VariantMethods.invoke(target, method, actual);
+            handOffTime += System.nanoTime() - start;
+
+            if (result instanceof Throwable) {
+                complete(call, done, true);
+            } else if (callback < 0) {
+                if (result == null) {
+                    complete(call, done, true);
+                } else {
+                    ((CompletionStage<?>) result).whenComplete((value, error) -> complete(call, done, error != null));
+                }
+            }
+        }
+
+        /**
+         * Records the completion of a call, unless it was already recorded.
+         *
+         * @param call
+         *            the index of the call
+         * @param done
+         *            whether the call already completed
+         * @param failed
+         *            {@code true} if the call failed
+         */
+        private void complete(int call, AtomicBoolean done, boolean failed) {
+            if (done.compareAndSet(false, true)) {
+                long completion = System.nanoTime();
+                synchronized (latencies) {
+                    // failed calls are kept out of the latencies, as they may complete much faster or slower
+                    latencies[call] = failed ? FAILED : completion - latencies[call];
+                }
+                lastCompletion.accumulateAndGet(completion, Math::max);
+                if (failed) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+                completed.countDown();
+            }
+        }
+
+        /**
+         * Implements the methods a callback inherits from {@link Object}.
+         *
+         * @param proxy
+         *            the callback
+         * @param callee
+         *            the called method: {@code equals}, {@code hashCode} or {@code toString}
+         * @param arguments
+         *            the arguments of the call
+         * @return the result of the call
+         */
+        private Object invokeObjectMethod(Object proxy, Method callee, Object[] arguments) {
+            Object result;
+            switch (callee.getName()) {
+            case "equals":
+                result = proxy == arguments[0];
+                break;
+            case "hashCode":
+                result = System.identityHashCode(proxy);
+                break;
+            default:
+                result = "callback of " + method.getName();
+                break;
+            }
+            return result;
+        }
+
+        /**
+         * Calls a default method of a callback, which may in turn call its abstract method.
+         *
+         * @param proxy
+         *            the callback
+         * @param callee
+         *            the called default method
+         * @param arguments
+         *            the arguments of the call
+         * @return the result of the call
+         * @throws Throwable
+         *             if the default method throws it
+         */
+        private Object invokeDefaultMethod(Object proxy, Method callee, Object[] arguments) throws Throwable {
+            try {
+                if (INVOKE_DEFAULT != null) {
+                    // Java 16+: InvocationHandler.invokeDefault(proxy, callee, arguments)
+                    return INVOKE_DEFAULT.invoke(null, proxy, callee, arguments);
+                }
+                // Java 8: a lookup with private access to the interface may call its default methods
+                Class<?> declarer = callee.getDeclaringClass();
+                Constructor<Lookup> constructor = Lookup.class.getDeclaredConstructor(Class.class, int.class);
+                constructor.setAccessible(true);
+                return constructor.newInstance(declarer, Lookup.PRIVATE).unreflectSpecial(callee, declarer)
+                        .bindTo(proxy).invokeWithArguments(arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private boolean hasThrowable(Object[] arguments) {
+            if (arguments != null) {
+                for (Object argument : arguments) {
+                    if (argument instanceof Throwable) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Summarizes the calls, once they all completed.
+         *
+         * @return the result of the method
+         */
+        AsyncResult toResult() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            synchronized (latencies) {
+                for (long latency : latencies) {
+                    if (latency != FAILED) {
+                        histogram.record(latency);
+                    }
+                }
+            }
+            long elapsed = lastCompletion.get() - startTime;
+            double throughput = elapsed <= 0 ? 0. : count * 1e9 / elapsed;
+            double handOff = count == 0 ? 0. : handOffTime / 1000. / count;
+            return new AsyncResult(method, concurrency, histogram, handOff, throughput, failures.get());
+        }
+    }
+}
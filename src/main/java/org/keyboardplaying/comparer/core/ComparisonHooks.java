@@ -0,0 +1,212 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+/**
+ * The setup and teardown hooks of a comparison, run outside of the timing.
+ * <p/>
+ * Hooks are available at three levels:
+ * <ul>
+ * <li><em>trial</em> hooks run once per variant, before its first call and after its last one;</li>
+ * <li><em>check</em> hooks run before and after each time check of each variant;</li>
+ * <li><em>invocation</em> hooks run before and after each call, e.g. to restore a fresh copy of an input the compared
+ * methods sort in place.</li>
+ * </ul>
+ * Invocation hooks require each call to be timed separately, so that the reading of the clock is included in the
+ * execution time. Their cost is recorded in the results, and the {@link ImplComparer} warns when the calls are too
+ * short to be measured reliably this way.
+ * <p/>
+ * Trial and check hooks receive the first parameter set of the comparison; invocation hooks receive the parameter set
+ * of the call, which they may modify or fill. As the other sets would not be restored, the {@link ImplComparer}
+ * rejects trial and check hooks when comparing with several generated parameter sets.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ComparisonHooks {
+
+    private Hook beforeTrial;
+    private Hook afterTrial;
+    private Hook beforeCheck;
+    private Hook afterCheck;
+    private Hook beforeInvocation;
+    private Hook afterInvocation;
+
+    /**
+     * Returns the hook run before the first call of each variant.
+     *
+     * @return the hook, or {@code null} if none
+     */
+    public Hook getBeforeTrial() {
+        return beforeTrial;
+    }
+
+    /**
+     * Sets the hook run before the first call of each variant.
+     *
+     * @param beforeTrial
+     *            the hook; {@code null} tolerated
+     */
+    public void setBeforeTrial(Hook beforeTrial) {
+        this.beforeTrial = beforeTrial;
+    }
+
+    /**
+     * Returns the hook run after the last call of each variant.
+     *
+     * @return the hook, or {@code null} if none
+     */
+    public Hook getAfterTrial() {
+        return afterTrial;
+    }
+
+    /**
+     * Sets the hook run after the last call of each variant.
+     *
+     * @param afterTrial
+     *            the hook; {@code null} tolerated
+     */
+    public void setAfterTrial(Hook afterTrial) {
+        this.afterTrial = afterTrial;
+    }
+
+    /**
+     * Returns the hook run before each time check of each variant.
+     *
+     * @return the hook, or {@code null} if none
+     */
+    public Hook getBeforeCheck() {
+        return beforeCheck;
+    }
+
+    /**
+     * Sets the hook run before each time check of each variant.
+     *
+     * @param beforeCheck
+     *            the hook; {@code null} tolerated
+     */
+    public void setBeforeCheck(Hook beforeCheck) {
+        this.beforeCheck = beforeCheck;
+    }
+
+    /**
+     * Returns the hook run after each time check of each variant.
+     *
+     * @return the hook, or {@code null} if none
+     */
+    public Hook getAfterCheck() {
+        return afterCheck;
+    }
+
+    /**
+     * Sets the hook run after each time check of each variant.
+     *
+     * @param afterCheck
+     *            the hook; {@code null} tolerated
+     */
+    public void setAfterCheck(Hook afterCheck) {
+        this.afterCheck = afterCheck;
+    }
+
+    /**
+     * Returns the hook run before each call.
+     *
+     * @return the hook, or {@code null} if none
+     */
+    public Hook getBeforeInvocation() {
+        return beforeInvocation;
+    }
+
+    /**
+     * Sets the hook run before each call.
+     *
+     * @param beforeInvocation
+     *            the hook; {@code null} tolerated
+     */
+    public void setBeforeInvocation(Hook beforeInvocation) {
+        this.beforeInvocation = beforeInvocation;
+    }
+
+    /**
+     * Returns the hook run after each call.
+     *
+     * @return the hook, or {@code null} if none
+     */
+    public Hook getAfterInvocation() {
+        return afterInvocation;
+    }
+
+    /**
+     * Sets the hook run after each call.
+     *
+     * @param afterInvocation
+     *            the hook; {@code null} tolerated
+     */
+    public void setAfterInvocation(Hook afterInvocation) {
+        this.afterInvocation = afterInvocation;
+    }
+
+    /**
+     * Returns {@code true} if a hook is run before or after each call.
+     *
+     * @return {@code true} if calls must be timed separately
+     */
+    boolean hasInvocationHooks() {
+        return beforeInvocation != null || afterInvocation != null;
+    }
+
+    /**
+     * Returns {@code true} if a hook is run around each trial or each check.
+     *
+     * @return {@code true} if hooks only receiving the first parameter set are defined
+     */
+    boolean hasTrialOrCheckHooks() {
+        return beforeTrial != null || afterTrial != null || beforeCheck != null || afterCheck != null;
+    }
+
+    /**
+     * Runs a hook, if any.
+     *
+     * @param hook
+     *            the hook; {@code null} tolerated
+     * @param target
+     *            the instance the method is called on
+     * @param parameters
+     *            the parameter set
+     */
+    static void run(Hook hook, Object target, Object[] parameters) {
+        if (hook != null) {
+            hook.run(target, parameters);
+        }
+    }
+
+    /**
+     * A setup or teardown action.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    @FunctionalInterface
+    public interface Hook {
+
+        /**
+         * Runs the action.
+         *
+         * @param target
+         *            the instance the method is called on; {@code null} for static methods
+         * @param parameters
+         *            the parameter set
+         */
+        void run(Object target, Object[] parameters);
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ConcurrentResult;
+import org.keyboardplaying.comparer.model.ThreadMode;
+import org.keyboardplaying.comparer.stats.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a utility to compare blocking implementations of a method called concurrently by many platform or
+ * virtual threads.
+ * <p/>
+ * Each variant is called a fixed number of times by concurrent threads, each thread making calls until all of them
+ * are made: first by a pool of platform threads, as in a classic server, then by thousands of virtual threads. A
+ * variant blocking while its virtual thread is pinned to its carrier, e.g. in a {@code synchronized} block before
+ * Java 24, may scale with platform threads but not with virtual ones: the {@code jdk.VirtualThreadPinned} events are
+ * counted with Flight Recorder during the virtual-thread runs.
+ * <p/>
+ * Virtual threads are created through reflection, so that this library still runs on Java 8: on a JVM older than Java
+ * 21, the virtual-thread runs are skipped with a warning. Since calls are made concurrently, the compared methods must
+ * be thread-safe.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ConcurrentComparer {
+
+    /** The default number of calls of each variant in each mode. */
+    private static final int DEFAULT_CALLS = 100000;
+    /** The default number of platform threads. */
+    private static final int DEFAULT_PLATFORM_THREADS = 200;
+    /** The default number of virtual threads. */
+    private static final int DEFAULT_VIRTUAL_THREADS = 10000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrentComparer.class);
+
+    private int calls = DEFAULT_CALLS;
+    private int platformThreads = DEFAULT_PLATFORM_THREADS;
+    private int virtualThreads = DEFAULT_VIRTUAL_THREADS;
+    private List<ThreadMode> modes = Arrays.asList(ThreadMode.values());
+
+    /**
+     * Returns the number of calls of each variant in each mode.
+     *
+     * @return the number of calls
+     */
+    public int getCalls() {
+        return calls;
+    }
+
+    /**
+     * Sets the number of calls of each variant in each mode (default: 100000).
+     *
+     * @param calls
+     *            the number of calls
+     */
+    public void setCalls(int calls) {
+        this.calls = calls;
+    }
+
+    /**
+     * Returns the number of platform threads calling each variant concurrently.
+     *
+     * @return the number of platform threads
+     */
+    public int getPlatformThreads() {
+        return platformThreads;
+    }
+
+    /**
+     * Sets the number of platform threads calling each variant concurrently (default: 200, the default size of the
+     * thread pool of many servlet containers).
+     *
+     * @param platformThreads
+     *            the number of platform threads
+     */
+    public void setPlatformThreads(int platformThreads) {
+        this.platformThreads = platformThreads;
+    }
+
+    /**
+     * Returns the number of virtual threads calling each variant concurrently.
+     *
+     * @return the number of virtual threads
+     */
+    public int getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Sets the number of virtual threads calling each variant concurrently (default: 10000).
+     *
+     * @param virtualThreads
+     *            the number of virtual threads
+     */
+    public void setVirtualThreads(int virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Returns the kinds of threads each variant is run with.
+     *
+     * @return the thread modes
+     */
+    public List<ThreadMode> getModes() {
+        return modes;
+    }
+
+    /**
+     * Sets the kinds of threads each variant is run with (default: platform, then virtual threads).
+     *
+     * @param modes
+     *            the thread modes
+     */
+    public void setModes(ThreadMode... modes) {
+        this.modes = Arrays.asList(modes.clone());
+    }
+
+    /**
+     * Returns whether virtual threads are available on this JVM.
+     *
+     * @return {@code true} on Java 21 or later
+     */
+    public static boolean isVirtualThreadSupported() {
+        return newVirtualThreadFactory() != null;
+    }
+
+    /**
+     * Compares a blocking method and its variants, called concurrently by platform and virtual threads.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param target
+     *            the instance to call the method on
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     * @return one result per variant and thread mode, grouped by variant
+     * @throws ComparisonException
+     *             if the methods could not be found or invoked
+     */
+    public List<ConcurrentResult> compare(Object target, String methodName, Class<?>[] erasure,
+            Object... parameters) throws ComparisonException {
+        return compare(target, target.getClass(), methodName, erasure, parameters);
+    }
+
+    /**
+     * Compares a blocking static method and its variants, called concurrently by platform and virtual threads.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param klass
+     *            the class declaring the method
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     * @return one result per variant and thread mode, grouped by variant
+     * @throws ComparisonException
+     *             if the methods could not be found or invoked
+     */
+    public List<ConcurrentResult> compareStatic(Class<?> klass, String methodName, Class<?>[] erasure,
+            Object... parameters) throws ComparisonException {
+        return compare(null, klass, methodName, erasure, parameters);
+    }
+
+    private List<ConcurrentResult> compare(Object target, Class<?> klass, String methodName, Class<?>[] erasure,
+            Object[] parameters) throws ComparisonException {
+        List<Method> methods;
+        try {
+            methods = VariantMethods.load(klass, methodName, erasure);
+        } catch (NoSuchMethodException e) {
+            throw new ComparisonException(e);
+        }
+
+        ThreadFactory virtualFactory = null;
+        if (modes.contains(ThreadMode.VIRTUAL)) {
+            virtualFactory = newVirtualThreadFactory();
+            if (virtualFactory == null) {
+                LOG.warn("Virtual threads require Java 21 or later: only platform threads will be used");
+            }
+        }
+
+        List<ConcurrentResult> results = new ArrayList<>();
+        for (Method method : methods) {
+            if (modes.contains(ThreadMode.PLATFORM)) {
+                results.add(run(target, method, parameters, ThreadMode.PLATFORM, platformThreads,
+                        ConcurrentComparer::newPlatformThread));
+            }
+            if (virtualFactory != null) {
+                results.add(run(target, method, parameters, ThreadMode.VIRTUAL, virtualThreads, virtualFactory));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs a method with concurrent threads.
+     *
+     * @param target
+     *            the instance to call the method on; {@code null} tolerated for static methods
+     * @param method
+     *            the method to run
+     * @param parameters
+     *            the parameters to use when calling the method
+     * @param mode
+     *            the kind of threads
+     * @param threads
+     *            the number of threads
+     * @param factory
+     *            the factory of the threads
+     * @return the throughput and latencies of the method
+     * @throws ComparisonException
+     *             if the method could not be invoked or the run was interrupted
+     */
+    ConcurrentResult run(final Object target, final Method method, final Object[] parameters,
+            ThreadMode mode, int threads, ThreadFactory factory) throws ComparisonException {
+        LOG.debug("Running {} with {} {} thread(s)", method.getName(), threads, mode);
+        final long[] latencies = new long[calls];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch started = new CountDownLatch(1);
+
+        Runnable caller = () -> {
+            try {
+                started.await();
+                int call;
+                while ((call = next.getAndIncrement()) < latencies.length && failure.get() == null) {
+                    long start = System.nanoTime();
+                    VariantMethods.invoke(target, method, parameters);
+                    latencies[call] = System.nanoTime() - start;
+                }
+            } catch (IllegalAccessException | RuntimeException | InterruptedException e) {
+                failure.compareAndSet(null, e);
+            }
+        };
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = factory.newThread(caller);
+            workers.add(worker);
+            worker.start();
+        }
+
+        PinningRecorder recorder = mode == ThreadMode.VIRTUAL ? startRecorder() : null;
+        long elapsed;
+        boolean recorded = false;
+        try {
+            long start = System.nanoTime();
+            started.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            elapsed = System.nanoTime() - start;
+            if (failure.get() != null) {
+                throw new ComparisonException("Failed to run " + method.getName() + " with " + mode + " threads",
+                        failure.get());
+            }
+            recorded = recorder != null && stopRecorder(recorder);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+            throw new ComparisonException("Interrupted while running " + method.getName(), e);
+        } finally {
+            if (recorder != null) {
+                // the recording would otherwise keep running until the JVM exits
+                recorder.close();
+            }
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long latency : latencies) {
+            histogram.record(latency);
+        }
+        double throughput = elapsed <= 0 ? 0. : calls * 1e9 / elapsed;
+        long pinnedEvents = -1;
+        long pinnedTime = 0;
+        if (recorded) {
+            pinnedEvents = recorder.getEvents();
+            pinnedTime = recorder.getPinnedTime();
+        }
+        return new ConcurrentResult(method, mode, threads, throughput, histogram, pinnedEvents, pinnedTime);
+    }
+
+    private static PinningRecorder startRecorder() {
+        try {
+            PinningRecorder recorder = new PinningRecorder();
+            recorder.start();
+            return recorder;
+        } catch (RuntimeException | LinkageError e) {
+            LOG.warn("Could not record the pinning of virtual threads with Flight Recorder", e);
+            return null;
+        }
+    }
+
+    private static boolean stopRecorder(PinningRecorder recorder) {
+        try {
+            recorder.stop();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not read the pinning of virtual threads from Flight Recorder", e);
+            return false;
+        }
+    }
+
+    private static Thread newPlatformThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "concurrent-caller");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Creates a factory of virtual threads through reflection, i.e. {@code Thread.ofVirtual().factory()}.
+     *
+     * @return the factory, or {@code null} if virtual threads are not available on this JVM
+     */
+    static ThreadFactory newVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            return null;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // Virtual threads are a preview feature on Java 19 and 20
+            LOG.debug("Virtual threads are not enabled", e);
+            return null;
+        }
+    }
+}
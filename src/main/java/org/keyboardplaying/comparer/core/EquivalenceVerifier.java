@@ -0,0 +1,231 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.keyboardplaying.comparer.generator.ParameterSupplier;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.Divergence;
+import org.keyboardplaying.comparer.model.VerificationResult;
+
+/**
+ * Verifies that variants give the same results as the reference over a large corpus of generated inputs.
+ * <p/>
+ * The corpus is split into chunks verified in parallel by the common {@link ForkJoinPool}, each input being generated
+ * independently from the others. Each variant is called with its own copy of the parameters, so that a method
+ * modifying them does not affect the following ones. The compared methods must therefore be thread-safe.
+ * <p/>
+ * Results are compared with {@link Objects#deepEquals(Object, Object)}, so that arrays are compared by content;
+ * exceptions are considered equivalent when they are of the same class.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+final class EquivalenceVerifier {
+
+    /** The number of diverging inputs reported for each variant. */
+    static final int REPORTED_DIVERGENCES = 5;
+    /** The minimal number of inputs verified by a single task. */
+    private static final int MIN_CHUNK = 64;
+    /** The number of chunks per available thread, to balance the load when some inputs are slower. */
+    private static final int CHUNKS_PER_THREAD = 8;
+    /** The maximal length of the representation of a value in a report. */
+    private static final int MAX_DESCRIPTION = 200;
+
+    private final long inputs;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param inputs
+     *            the number of inputs in the corpus
+     */
+    EquivalenceVerifier(long inputs) {
+        this.inputs = inputs;
+    }
+
+    /**
+     * Verifies all variants against the reference.
+     *
+     * @param target
+     *            the instance to call the methods on; {@code null} for static methods
+     * @param methods
+     *            the original method, used as the reference, and its variants
+     * @param parameters
+     *            the supplier of the inputs
+     * @return the verification results, in the order of the methods
+     * @throws ComparisonException
+     *             if a method cannot be called
+     */
+    List<VerificationResult> verify(Object target, List<Method> methods, ParameterSupplier parameters)
+            throws ComparisonException {
+        long chunk = Math.max(MIN_CHUNK, inputs / (ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD));
+        Chunk merged;
+        try {
+            merged = new VerificationTask(target, methods, parameters, 0, inputs, chunk).invoke();
+        } catch (IllegalStateException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        }
+
+        List<VerificationResult> results = new ArrayList<>();
+        for (int v = 0; v < methods.size(); v++) {
+            results.add(new VerificationResult(inputs, merged.counts[v], merged.divergences.get(v)));
+        }
+        return results;
+    }
+
+    /**
+     * Returns {@code true} if two results are equivalent.
+     *
+     * @param expected
+     *            the result of the reference
+     * @param actual
+     *            the result of the variant
+     * @return {@code true} if the results are deeply equal, or exceptions of the same class
+     */
+    static boolean equivalent(Object expected, Object actual) {
+        if (expected instanceof Throwable && actual instanceof Throwable) {
+            return expected.getClass() == actual.getClass();
+        }
+        return Objects.deepEquals(expected, actual);
+    }
+
+    /**
+     * Returns a representation of a value, arrays included, truncated to {@value #MAX_DESCRIPTION} characters.
+     *
+     * @param value
+     *            the value
+     * @return the representation of the value
+     */
+    static String describe(Object value) {
+        String description = Arrays.deepToString(new Object[] { value });
+        description = description.substring(1, description.length() - 1);
+        return description.length() <= MAX_DESCRIPTION ? description
+                : description.substring(0, MAX_DESCRIPTION) + "...";
+    }
+
+    /**
+     * The divergences found on a range of inputs.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static final class Chunk {
+
+        private final long[] counts;
+        private final List<List<Divergence>> divergences = new ArrayList<>();
+
+        Chunk(int variants) {
+            this.counts = new long[variants];
+            for (int v = 0; v < variants; v++) {
+                divergences.add(new ArrayList<Divergence>());
+            }
+        }
+
+        void add(int variant, Divergence divergence) {
+            counts[variant]++;
+            List<Divergence> first = divergences.get(variant);
+            if (first.size() < REPORTED_DIVERGENCES) {
+                first.add(divergence);
+            }
+        }
+
+        /**
+         * Merges the divergences found on the following range of inputs, keeping the first ones.
+         *
+         * @param next
+         *            the divergences found on the following range
+         * @return this chunk
+         */
+        Chunk merge(Chunk next) {
+            for (int v = 0; v < counts.length; v++) {
+                counts[v] += next.counts[v];
+                List<Divergence> first = divergences.get(v);
+                for (Divergence divergence : next.divergences.get(v)) {
+                    if (first.size() < REPORTED_DIVERGENCES) {
+                        first.add(divergence);
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Verifies a range of inputs, splitting it while it is larger than a chunk.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static final class VerificationTask extends RecursiveTask<Chunk> {
+
+        /** Generated serial version UID. */
+        private static final long serialVersionUID = 3413587325063117032L;
+
+        private final transient Object target;
+        private final transient List<Method> methods;
+        private final transient ParameterSupplier parameters;
+        private final long from;
+        private final long to;
+        private final long chunk;
+
+        VerificationTask(Object target, List<Method> methods, ParameterSupplier parameters, long from, long to,
+                long chunk) {
+            this.target = target;
+            this.methods = methods;
+            this.parameters = parameters;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.RecursiveTask#compute()
+         */
+        @Override
+        protected Chunk compute() {
+            if (to - from > chunk) {
+                long middle = (from + to) >>> 1;
+                VerificationTask second = new VerificationTask(target, methods, parameters, middle, to, chunk);
+                second.fork();
+                Chunk first = new VerificationTask(target, methods, parameters, from, middle, chunk).compute();
+                return first.merge(second.join());
+            }
+
+            Chunk result = new Chunk(methods.size());
+            try {
+                for (long input = from; input < to; input++) {
+                    Object expected = VariantMethods.invoke(target, methods.get(0), parameters.generate(input));
+                    for (int v = 1; v < methods.size(); v++) {
+                        Object actual = VariantMethods.invoke(target, methods.get(v), parameters.generate(input));
+                        if (!equivalent(expected, actual)) {
+                            result.add(v, new Divergence(input, describe(parameters.generate(input)),
+                                    describe(expected), describe(actual)));
+                        }
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            return result;
+        }
+    }
+}
@@ -14,13 +14,37 @@
  */
 package org.keyboardplaying.comparer.core;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
+import org.keyboardplaying.comparer.bytecode.BytecodeAnalyzer;
+import org.keyboardplaying.comparer.classloading.IsolatingClassLoader;
+import org.keyboardplaying.comparer.generator.ParameterPool;
+import org.keyboardplaying.comparer.generator.ParameterSupplier;
+import org.keyboardplaying.comparer.memory.CacheEvictor;
+import org.keyboardplaying.comparer.memory.MemoryPressure;
+import org.keyboardplaying.comparer.memory.ObjectSizer;
+import org.keyboardplaying.comparer.model.CallProfile;
+import org.keyboardplaying.comparer.model.ColdStartResult;
 import org.keyboardplaying.comparer.model.ComparisonException;
 import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.VerificationResult;
+import org.keyboardplaying.comparer.profiling.StackSampler;
+import org.keyboardplaying.comparer.recording.SampleRecorder;
+import org.keyboardplaying.comparer.stats.OutlierDetection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,7 +52,8 @@ import org.slf4j.LoggerFactory;
  * This class is a utility to compare performances of implementations of a method.
  * <p/>
  * This comparer relies on reflection to find the methods to compare and ensure each method implementation proposition
- * returns the same result.
+ * returns the same result. The bytecode of each variant is analyzed before timing, so that variants too large to be
+ * inlined by the JIT compiler are spotted.
  *
  * @author Cyrille Chopelet (http://keyboardplaying.org)
  */
@@ -38,11 +63,37 @@ public final class ImplComparer {
     private static final int DEFAULT_CHECKS = 3;
     /** The default number of iterations per time check. */
     private static final int DEFAULT_ITERATIONS = 10000;
+    /** The default number of calls per recorded sample. */
+    private static final int DEFAULT_SAMPLE_BATCH = 100;
+    /** The default maximal number of checks performed to replace the outlying ones. */
+    private static final int DEFAULT_MAX_EXTRA_CHECKS = 5;
+    /** The number of calls after which the distribution of receivers repeats itself; must be a power of 2. */
+    private static final int SCHEDULE_LENGTH = 1024;
+    /** The seed used to interleave receivers, so that runs are reproducible. */
+    private static final long SCHEDULE_SEED = 42L;
+    /** The number of reads of the clock to measure their cost. */
+    private static final int TIMER_CALIBRATION_CALLS = 10000;
+    /** The minimal ratio between the duration of a call and the cost of reading the clock, when timed one by one. */
+    private static final int SHORT_CALL_RATIO = 10;
 
     private static final Logger LOG = LoggerFactory.getLogger(ImplComparer.class);
 
     private int checks = DEFAULT_CHECKS;
     private int iterations = DEFAULT_ITERATIONS;
+    private int coldStartCalls = 0;
+    private boolean isolateVariants = false;
+    private boolean measureResultSize = false;
+    private long verificationInputs = 0L;
+    private int coldCacheCalls = 0;
+    private int coldCacheBatch = 1;
+    private long evictionBufferSize = 0L;
+    private ComparisonHooks hooks = new ComparisonHooks();
+    private long samplingInterval = 0L;
+    private MemoryPressure memoryPressure;
+    private SampleRecorder sampleRecorder;
+    private int sampleBatch = DEFAULT_SAMPLE_BATCH;
+    private OutlierDetection outlierDetection;
+    private int maxExtraChecks = DEFAULT_MAX_EXTRA_CHECKS;
 
     /**
      * Returns the number of checks per comparison.
@@ -82,6 +133,437 @@ public final class ImplComparer {
         this.iterations = iterations;
     }
 
+    /**
+     * Returns the number of calls timed in cold-start mode.
+     *
+     * @return the number of cold-start calls
+     */
+    public int getColdStartCalls() {
+        return coldStartCalls;
+    }
+
+    /**
+     * Sets the number of calls timed in cold-start mode (default: 0, which disables the cold-start mode).
+     * <p/>
+     * In cold-start mode, each variant is first run on a fresh copy of its declaring class, loaded in an
+     * {@link IsolatingClassLoader}. The first call, which includes class loading and static initialization, and the
+     * first {@code coldStartCalls} calls are timed separately from the steady state.
+     * <p/>
+     * For non-static methods, the fresh copy of the target is created using its no-argument constructor.
+     *
+     * @param coldStartCalls
+     *            the number of cold-start calls
+     */
+    public void setColdStartCalls(int coldStartCalls) {
+        this.coldStartCalls = coldStartCalls;
+    }
+
+    /**
+     * Returns whether each variant runs on its own copy of the declaring class.
+     *
+     * @return {@code true} if variants are isolated from one another
+     */
+    public boolean isIsolateVariants() {
+        return isolateVariants;
+    }
+
+    /**
+     * Sets whether each variant runs on its own copy of the declaring class (default: {@code false}).
+     * <p/>
+     * When running in the same class loader, variants share the JIT profiles of the library code they call, so that
+     * the first variant to run skews the inlining decisions for the following ones. When isolated, the declaring class
+     * and its non-JDK dependencies are loaded in a separate {@link IsolatingClassLoader} for each variant, which gives
+     * each variant its own copy of the bytecode and profiles at a much lower cost than forking a JVM.
+     * <p/>
+     * For non-static methods, the copy of the target is created using its no-argument constructor. The types of the
+     * parameters and return value are shared with the caller, so that results can still be compared.
+     *
+     * @param isolateVariants
+     *            {@code true} to isolate variants from one another
+     */
+    public void setIsolateVariants(boolean isolateVariants) {
+        this.isolateVariants = isolateVariants;
+    }
+
+    /**
+     * Returns whether the deep size of the result of each variant is measured.
+     *
+     * @return {@code true} if the sizes of the results are measured
+     */
+    public boolean isMeasureResultSize() {
+        return measureResultSize;
+    }
+
+    /**
+     * Sets whether the deep size of the result of each variant is measured (default: {@code false}).
+     * <p/>
+     * The graph of objects returned by the first call of each variant is walked by an {@link ObjectSizer}, outside of
+     * the timing, so that variants building the same logical value with different footprints can be told apart.
+     *
+     * @param measureResultSize
+     *            {@code true} to measure the sizes of the results
+     */
+    public void setMeasureResultSize(boolean measureResultSize) {
+        this.measureResultSize = measureResultSize;
+    }
+
+    /**
+     * Returns the number of generated inputs variants are verified on before timing.
+     *
+     * @return the number of verification inputs
+     */
+    public long getVerificationInputs() {
+        return verificationInputs;
+    }
+
+    /**
+     * Sets the number of generated inputs variants are verified on before timing (default: 0, which disables the
+     * verification).
+     * <p/>
+     * Only applies to comparisons with generated parameters. Each variant is called on each input of a corpus generated
+     * from the {@link ParameterSupplier}, in parallel, and its results are compared with those of the original method.
+     * The number of divergences and the first diverging inputs are recorded in the results. The compared methods must
+     * be thread-safe.
+     *
+     * @param verificationInputs
+     *            the number of verification inputs
+     */
+    public void setVerificationInputs(long verificationInputs) {
+        this.verificationInputs = verificationInputs;
+    }
+
+    /**
+     * Returns the number of calls timed with cold CPU caches in each check.
+     *
+     * @return the number of cold-cache calls per check
+     */
+    public int getColdCacheCalls() {
+        return coldCacheCalls;
+    }
+
+    /**
+     * Sets the number of calls timed with cold CPU caches in each check (default: 0, which disables the cold-cache
+     * mode).
+     * <p/>
+     * In cold-cache mode, each check is followed by calls made after evicting the CPU caches with a
+     * {@link CacheEvictor}, the eviction being excluded from the timing. Comparing the hot and cold times shows whether
+     * the win of a variant comes from its memory layout.
+     *
+     * @param coldCacheCalls
+     *            the number of cold-cache calls per check
+     */
+    public void setColdCacheCalls(int coldCacheCalls) {
+        this.coldCacheCalls = coldCacheCalls;
+    }
+
+    /**
+     * Returns the number of calls made between two evictions of the CPU caches.
+     *
+     * @return the size of a cold-cache batch
+     */
+    public int getColdCacheBatch() {
+        return coldCacheBatch;
+    }
+
+    /**
+     * Sets the number of calls made between two evictions of the CPU caches, timed together (default: 1).
+     *
+     * @param coldCacheBatch
+     *            the size of a cold-cache batch
+     */
+    public void setColdCacheBatch(int coldCacheBatch) {
+        this.coldCacheBatch = coldCacheBatch;
+    }
+
+    /**
+     * Returns the size of the buffer read to evict the CPU caches.
+     *
+     * @return the size of the eviction buffer, in bytes; 0 if chosen automatically
+     */
+    public long getEvictionBufferSize() {
+        return evictionBufferSize;
+    }
+
+    /**
+     * Sets the size of the buffer read to evict the CPU caches, which must be larger than the last-level cache
+     * (default: 0, i.e. twice the last-level cache when it can be detected, up to 128 MiB, or 64 MiB otherwise).
+     *
+     * @param evictionBufferSize
+     *            the size of the eviction buffer, in bytes; 0 to choose it automatically
+     */
+    public void setEvictionBufferSize(long evictionBufferSize) {
+        this.evictionBufferSize = evictionBufferSize;
+    }
+
+    /**
+     * Returns the setup and teardown hooks of the comparisons.
+     *
+     * @return the hooks
+     */
+    public ComparisonHooks getHooks() {
+        return hooks;
+    }
+
+    /**
+     * Sets the setup and teardown hooks of the comparisons, run outside of the timing (default: none).
+     * <p/>
+     * Hooks are not run in cold-start mode nor during the verification.
+     *
+     * @param hooks
+     *            the hooks
+     */
+    public void setHooks(ComparisonHooks hooks) {
+        this.hooks = hooks;
+    }
+
+    /**
+     * Returns the interval between two samples of the stack of the measured thread.
+     *
+     * @return the sampling interval, in microseconds; {@code 0} if the variants are not profiled
+     */
+    public long getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Sets the interval between two samples of the stack of the measured thread during the time checks (default:
+     * {@code 0}, meaning the variants are not profiled).
+     * <p/>
+     * Capturing a stack pauses the measured thread: the shorter the interval, the more detailed the profile but the
+     * more distorted the timing. The share of the time spent capturing stacks is reported with the profile.
+     *
+     * @param samplingInterval
+     *            the sampling interval, in microseconds
+     */
+    public void setSamplingInterval(long samplingInterval) {
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * Returns the memory pressure the variants are also timed under.
+     *
+     * @return the memory pressure, or {@code null} if the variants are only timed on a quiet heap
+     */
+    public MemoryPressure getMemoryPressure() {
+        return memoryPressure;
+    }
+
+    /**
+     * Sets the memory pressure the variants are also timed under (default: {@code null}, meaning the variants are
+     * only timed on a quiet heap).
+     * <p/>
+     * Once the time checks are done, the heap is filled and background threads allocate garbage while the same number
+     * of checks is performed again. Comparing both times shows which variants are sensitive to the garbage collector.
+     *
+     * @param memoryPressure
+     *            the memory pressure
+     */
+    public void setMemoryPressure(MemoryPressure memoryPressure) {
+        this.memoryPressure = memoryPressure;
+    }
+
+    /**
+     * Returns the recorder the raw timings of the time checks are written to.
+     *
+     * @return the recorder, or {@code null} if the raw timings are not recorded
+     */
+    public SampleRecorder getSampleRecorder() {
+        return sampleRecorder;
+    }
+
+    /**
+     * Sets the recorder the raw timings of the time checks are written to (default: {@code null}, meaning only the
+     * totals are kept).
+     * <p/>
+     * Each check is then timed in batches of {@link #setSampleBatch(int) sampleBatch} calls, each batch being recorded
+     * as a sample. The recorder is not closed by the comparer, so that several comparisons can be recorded to the same
+     * file.
+     *
+     * @param sampleRecorder
+     *            the recorder
+     */
+    public void setSampleRecorder(SampleRecorder sampleRecorder) {
+        this.sampleRecorder = sampleRecorder;
+    }
+
+    /**
+     * Returns the number of calls timed together in each recorded sample.
+     *
+     * @return the number of calls per sample
+     */
+    public int getSampleBatch() {
+        return sampleBatch;
+    }
+
+    /**
+     * Sets the number of calls timed together in each recorded sample (default: 100). The smaller the batch, the finer
+     * the samples, but the more the clock reads weigh on short calls; 1 records every call.
+     *
+     * @param sampleBatch
+     *            the number of calls per sample
+     */
+    public void setSampleBatch(int sampleBatch) {
+        this.sampleBatch = sampleBatch;
+    }
+
+    /**
+     * Returns the method used to detect the outlying checks.
+     *
+     * @return the detection method, or {@code null} if outliers are not detected
+     */
+    public OutlierDetection getOutlierDetection() {
+        return outlierDetection;
+    }
+
+    /**
+     * Sets the method used to detect the outlying checks (default: {@code null}, meaning outliers are not detected).
+     * <p/>
+     * When set, the results report the median and trimmed check times along with the number of rejected checks, and
+     * more checks are performed as long as a variant has less than {@link #setChecks(int) checks} valid ones, up to
+     * {@link #setMaxExtraChecks(int) maxExtraChecks}.
+     *
+     * @param outlierDetection
+     *            the detection method
+     */
+    public void setOutlierDetection(OutlierDetection outlierDetection) {
+        this.outlierDetection = outlierDetection;
+    }
+
+    /**
+     * Returns the maximal number of checks performed to replace the outlying ones.
+     *
+     * @return the maximal number of extra checks
+     */
+    public int getMaxExtraChecks() {
+        return maxExtraChecks;
+    }
+
+    /**
+     * Sets the maximal number of checks performed to replace the outlying ones (default: 5).
+     *
+     * @param maxExtraChecks
+     *            the maximal number of extra checks
+     */
+    public void setMaxExtraChecks(int maxExtraChecks) {
+        this.maxExtraChecks = maxExtraChecks;
+    }
+
+    /**
+     * Compares the same method across several versions of a library.
+     * <p/>
+     * Each jar is loaded in its own class loader, whose parent only sees the JDK, and the copies of the method found
+     * in each of them are compared as variants, the first jar providing the reference. Results are labeled with the
+     * name of the jar they were loaded from.
+     * <p/>
+     * As the types of the parameters must be the same for all versions, they must be provided by the JDK. Results are
+     * compared with {@link Object#equals(Object)}, which should thus not depend on the version of the class. For
+     * non-static methods, the target is built with the no-argument constructor of each copy of the class.
+     *
+     * @param jars
+     *            the jars to compare, the first one being the reference
+     * @param className
+     *            the fully qualified name of the class declaring the method
+     * @param methodName
+     *            the name of the method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return a list of performance check result, in the order of the jars
+     * @throws ComparisonException
+     *             if a jar cannot be read, or the class, method or target cannot be found in one of them
+     */
+    public List<ImplCheckResult> compareVersions(List<File> jars, String className, String methodName,
+            Class<?>[] erasure, Object[] parameters) throws ComparisonException {
+        LOG.info("Beginning performance comparison for method <{}> across {} versions, ({} check(s), {} iteration(s) "
+                + "per check", methodName, jars.size(), checks, iterations);
+        // the parent of the system class loader only sees the JDK
+        ClassLoader parent = ClassLoader.getSystemClassLoader().getParent();
+        List<URLClassLoader> loaders = new ArrayList<>();
+        try {
+            List<Method> methods = new ArrayList<>();
+            List<Variant> variants = new ArrayList<>();
+            for (File jar : jars) {
+                URLClassLoader loader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, parent);
+                loaders.add(loader);
+                Class<?> klass = Class.forName(className, true, loader);
+                Method method = klass.getMethod(methodName, erasure);
+                Object target = Modifier.isStatic(method.getModifiers()) ? null
+                        : klass.getDeclaredConstructor().newInstance();
+                methods.add(method);
+                variants.add(new Variant(method, target));
+            }
+
+            List<ImplCheckResult> results = run(methods, variants, ParameterPool.of(parameters));
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).setLabel(jars.get(i).getName());
+            }
+            return results;
+        } catch (ReflectiveOperationException | IOException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        } finally {
+            for (URLClassLoader loader : loaders) {
+                close(loader);
+            }
+        }
+    }
+
+    /**
+     * Compares the same method called on several instances, e.g. wrapping different implementations of a dependency.
+     * <p/>
+     * The method is looked up on the class of each target, the first one providing the reference. Results are labeled
+     * with the keys of the targets.
+     *
+     * @param targets
+     *            the instances to call the method on, mapped by label
+     * @param methodName
+     *            the name of the method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return a list of performance check result, in the iteration order of the targets
+     * @throws ComparisonException
+     *             if the method cannot be found or called on one of the targets
+     */
+    public List<ImplCheckResult> compareTargets(Map<String, ?> targets, String methodName, Class<?>[] erasure,
+            Object[] parameters) throws ComparisonException {
+        LOG.info("Beginning performance comparison for method <{}> on {} targets, ({} check(s), {} iteration(s) "
+                + "per check", methodName, targets.size(), checks, iterations);
+        try {
+            List<Method> methods = new ArrayList<>();
+            List<Variant> variants = new ArrayList<>();
+            for (Object target : targets.values()) {
+                Method method = target.getClass().getMethod(methodName, erasure);
+                methods.add(method);
+                variants.add(new Variant(method, target));
+            }
+
+            List<ImplCheckResult> results = run(methods, variants, ParameterPool.of(parameters));
+            int i = 0;
+            for (String label : targets.keySet()) {
+                results.get(i++).setLabel(label);
+            }
+            return results;
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Closes a class loader, logging rather than propagating failures.
+     *
+     * @param loader
+     *            the loader to close
+     */
+    private static void close(URLClassLoader loader) {
+        try {
+            loader.close();
+        } catch (IOException e) {
+            LOG.warn("Could not close the class loader of {}", Arrays.toString(loader.getURLs()), e);
+        }
+    }
+
     /**
      * Compares several implementations of a static method.
      * <p/>
@@ -107,8 +589,8 @@ public final class ImplComparer {
     public List<ImplCheckResult> compare(Object target, String methodName, Class<?>[] erasure, Object[] parameters)
             throws ComparisonException {
         try {
-            return compare(target, target.getClass(), methodName, erasure, parameters);
-        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return compare(target, target.getClass(), methodName, erasure, ParameterPool.of(parameters));
+        } catch (ReflectiveOperationException e) {
             throw new ComparisonException(e.getMessage(), e);
         }
     }
@@ -138,8 +620,163 @@ public final class ImplComparer {
     public List<ImplCheckResult> compareStatic(Class<?> klass, String methodName, Class<?>[] erasure,
             Object[] parameters) throws ComparisonException {
         try {
-            return compare(null, klass, methodName, erasure, parameters);
-        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return compare(null, klass, methodName, erasure, ParameterPool.of(parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compares several implementations of a method, calling them with generated parameters.
+     * <p/>
+     * The parameter sets are generated before the comparison and used in turn by the successive calls, all variants
+     * being called with the same sets. The seed of the generation is recorded in the results.
+     * <p/>
+     * As trial and check hooks only receive the first parameter set, they cannot be used when several sets are
+     * generated: only invocation hooks can.
+     *
+     * @param target
+     *            the instance to run the comparison on
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the supplier of the parameters
+     * @return a list of performance check result
+     * @throws ComparisonException
+     *             if the comparison fails, or trial or check hooks are set while several parameter sets are generated
+     * @see #compare(Object, String, Class[], Object[])
+     */
+    public List<ImplCheckResult> compareGenerated(Object target, String methodName, Class<?>[] erasure,
+            ParameterSupplier parameters) throws ComparisonException {
+        try {
+            List<VerificationResult> verifications = verify(target, target.getClass(), methodName, erasure, parameters);
+            ParameterPool pool = checkHooks(parameters.pool());
+            List<ImplCheckResult> results = compare(target, target.getClass(), methodName, erasure, pool);
+            for (int i = 0; verifications != null && i < results.size(); i++) {
+                results.get(i).setVerification(verifications.get(i));
+            }
+            return results;
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compares several implementations of a static method, calling them with generated parameters.
+     * <p/>
+     * The parameter sets are generated before the comparison and used in turn by the successive calls, all variants
+     * being called with the same sets. The seed of the generation is recorded in the results.
+     * <p/>
+     * As trial and check hooks only receive the first parameter set, they cannot be used when several sets are
+     * generated: only invocation hooks can.
+     *
+     * @param klass
+     *            the {@link Class} to run the comparison for
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the supplier of the parameters
+     * @return a list of performance check result
+     * @throws ComparisonException
+     *             if the comparison fails, or trial or check hooks are set while several parameter sets are generated
+     * @see #compareStatic(Class, String, Class[], Object[])
+     */
+    public List<ImplCheckResult> compareStaticGenerated(Class<?> klass, String methodName, Class<?>[] erasure,
+            ParameterSupplier parameters) throws ComparisonException {
+        try {
+            List<VerificationResult> verifications = verify(null, klass, methodName, erasure, parameters);
+            ParameterPool pool = checkHooks(parameters.pool());
+            List<ImplCheckResult> results = compare(null, klass, methodName, erasure, pool);
+            for (int i = 0; verifications != null && i < results.size(); i++) {
+                results.get(i).setVerification(verifications.get(i));
+            }
+            return results;
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compares several implementations of a method under monomorphic, bimorphic and megamorphic call sites.
+     * <p/>
+     * This is a shortcut for {@link #comparePolymorphic(Class, List, List, String, Class[], Object[])} with the
+     * {@linkplain CallProfile#defaults(int) default profiles} applicable to the number of targets.
+     *
+     * @param type
+     *            the interface or superclass declaring the method and its variants
+     * @param targets
+     *            instances of different implementations of the type
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return the performance check results, mapped by profile name
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    public Map<String, List<ImplCheckResult>> comparePolymorphic(Class<?> type, List<?> targets, String methodName,
+            Class<?>[] erasure, Object[] parameters) throws ComparisonException {
+        return comparePolymorphic(type, targets, CallProfile.defaults(targets.size()), methodName, erasure,
+                parameters);
+    }
+
+    /**
+     * Compares several implementations of a method under several call-site profiles.
+     * <p/>
+     * The method and its variants are looked up on the supplied type, and calls are spread over the targets in the
+     * ratios of each {@link CallProfile}, so that the JIT compiler sees a monomorphic, bimorphic or megamorphic call
+     * site. Receivers are interleaved in a reproducible, pseudo-random order.
+     * <p/>
+     * Profiles are run one after the other in the same JVM, and the JIT compiler does not forget the receivers it has
+     * already seen. Profiles should therefore be supplied from the least to the most polymorphic.
+     *
+     * @param type
+     *            the interface or superclass declaring the method and its variants
+     * @param targets
+     *            instances of different implementations of the type
+     * @param profiles
+     *            the distributions of calls among the targets
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return the performance check results, mapped by profile name, in the order of the profiles
+     * @throws ComparisonException
+     *             if the comparison fails, or a profile does not match the targets
+     */
+    public Map<String, List<ImplCheckResult>> comparePolymorphic(Class<?> type, List<?> targets,
+            List<CallProfile> profiles, String methodName, Class<?>[] erasure, Object[] parameters)
+            throws ComparisonException {
+        for (Object target : targets) {
+            if (!type.isInstance(target)) {
+                throw new ComparisonException(target + " is not an instance of " + type.getName());
+            }
+        }
+        try {
+            List<Method> methods = VariantMethods.load(type, methodName, erasure);
+            ParameterPool pool = ParameterPool.of(parameters);
+
+            Map<String, List<ImplCheckResult>> results = new LinkedHashMap<>();
+            for (CallProfile profile : profiles) {
+                LOG.info("Beginning {} performance comparison for method <{}>, ({} check(s), {} iteration(s) "
+                        + "per check", profile.getName(), methodName, checks, iterations);
+                Object[] receivers = buildSchedule(targets, profile);
+                List<Variant> variants = new ArrayList<>();
+                for (Method method : methods) {
+                    variants.add(new Variant(method, receivers));
+                }
+                results.put(profile.getName(), run(methods, variants, pool));
+            }
+            return results;
+        } catch (ReflectiveOperationException e) {
             throw new ComparisonException(e.getMessage(), e);
         }
     }
@@ -163,7 +800,7 @@ public final class ImplComparer {
      * @param erasure
      *            the types of the parameters; {@code null} tolerated in case of a no-arg method
      * @param parameters
-     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     *            the pool of parameter sets to call the method with
      * @return a list of performance check result
      * @throws NoSuchMethodException
      *             if the requested original method does not exist
@@ -176,62 +813,284 @@ public final class ImplComparer {
      * @throws IllegalAccessException
      *             if this {@code Method} object is enforcing Java language access control and the underlying method is
      *             inaccessible.
+     * @throws ReflectiveOperationException
+     *             if a fresh copy of the class or target cannot be created in cold-start or isolated mode
      */
     private List<ImplCheckResult> compare(Object target, Class<?> klass, String methodName, Class<?>[] erasure,
-            Object[] parameters) throws NoSuchMethodException, IllegalAccessException {
+            ParameterPool parameters) throws ReflectiveOperationException {
         LOG.info("Beginning performance comparison for method <{}>, ({} check(s), {} iteration(s) per check",
                 methodName, checks, iterations);
-        List<Method> methods = loadMethods(klass, methodName, erasure);
+        if (parameters.getSeed() != null) {
+            LOG.info("Using {} parameter set(s) generated with seed {}", parameters.size(), parameters.getSeed());
+        }
+        List<Method> methods = VariantMethods.load(klass, methodName, erasure);
 
-        Object[] prms = parameters == null ? new Object[0] : parameters;
         LOG.debug("{} variants found (including original).", methods.size());
-        List<ImplCheckResult> results = initCheckResultList(methods, target, prms);
-        performBlanks(results, target, prms, iterations);
-        for (int c = 0; c < checks; c++) {
-            LOG.debug("Beginning time check #{}", c);
-            performTimeChecks(results, target, prms, iterations);
+        Set<Class<?>> shared = getSharedClasses(methods.get(0), parameters);
+        List<ColdStartResult> coldStarts = coldStartCalls > 0
+                ? performColdStarts(methods, target == null, parameters, shared)
+                : null;
+
+        List<Variant> variants = new ArrayList<>();
+        for (Method method : methods) {
+            variants.add(isolateVariants ? isolate(method, target == null, shared) : new Variant(method, target));
+        }
+
+        List<ImplCheckResult> results = run(methods, variants, parameters);
+        for (int i = 0; i < results.size(); i++) {
+            if (coldStarts != null) {
+                results.get(i).setColdStart(coldStarts.get(i));
+            }
+            results.get(i).setSeed(parameters.getSeed());
         }
         return results;
     }
 
     /**
-     * Returns a list containing the original method and its variants.
-     * <p/>
-     * The method variants should be named after the original method but suffixed with a 1-based integer index. The
-     * variants should have the same erasure and return type as the original method.
-     * <p/>
-     * The discovery is made using reflectivity.
+     * Verifies the variants of a method against the original one over a corpus of generated inputs, if enabled.
      *
+     * @param target
+     *            the instance to run the verification on; {@code null} for static methods
      * @param klass
-     *            the {@link Class} defining the methods
+     *            the {@link Class} declaring the methods
      * @param methodName
      *            the name of the original method
      * @param erasure
-     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
-     * @return a {@code List} beginning with the original {@link Method} and the followed with its suffixed variants
+     *            the types of the parameters
+     * @param parameters
+     *            the supplier of the inputs
+     * @return the verification results, in the order of the methods; {@code null} if the verification is disabled
      * @throws NoSuchMethodException
-     *             when the original method could not be found
-     */
-    private List<Method> loadMethods(Class<?> klass, String methodName, Class<?>[] erasure)
-            throws NoSuchMethodException {
-        // Result list
-        List<Method> methods = new ArrayList<>();
-
-        // Add base method
-        methods.add(klass.getMethod(methodName, erasure));
-
-        // Add all variants to compare
-        int i = 1;
-        boolean found = true;
-        do {
-            try {
-                methods.add(klass.getMethod(methodName + i++, erasure));
-            } catch (NoSuchMethodException e) {
-                found = false;
+     *             if the requested original method does not exist
+     * @throws ComparisonException
+     *             if a method cannot be called
+     */
+    private List<VerificationResult> verify(Object target, Class<?> klass, String methodName, Class<?>[] erasure,
+            ParameterSupplier parameters) throws NoSuchMethodException, ComparisonException {
+        if (verificationInputs <= 0) {
+            return null;
+        }
+        List<Method> methods = VariantMethods.load(klass, methodName, erasure);
+        LOG.info("Verifying {} variant(s) of <{}> on {} input(s) generated with seed {}", methods.size() - 1,
+                methodName, verificationInputs, parameters.getSeed());
+        return new EquivalenceVerifier(verificationInputs).verify(target, methods, parameters);
+    }
+
+    /**
+     * Ensures the hooks can restore the parameters of the comparison: trial and check hooks only receive the first
+     * parameter set, so that the other sets would remain altered from one check to the next.
+     *
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @return the pool
+     * @throws ComparisonException
+     *             if trial or check hooks are set and the pool holds several parameter sets
+     */
+    private ParameterPool checkHooks(ParameterPool parameters) throws ComparisonException {
+        if (parameters.size() > 1 && hooks.hasTrialOrCheckHooks()) {
+            throw new ComparisonException("Trial and check hooks only receive the first of the " + parameters.size()
+                    + " parameter sets: use invocation hooks with generated parameters");
+        }
+        return parameters;
+    }
+
+    /**
+     * Runs the verification, warm-up and time checks of the supplied variants.
+     *
+     * @param methods
+     *            the method and its variants
+     * @param variants
+     *            the methods to actually invoke, along with the instances to call them on, in the same order
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @return a list of performance check result
+     * @throws IllegalAccessException
+     *             if this {@code Method} object is enforcing Java language access control and the underlying method is
+     *             inaccessible.
+     */
+    private List<ImplCheckResult> run(List<Method> methods, List<Variant> variants, ParameterPool parameters)
+            throws IllegalAccessException {
+        for (Variant variant : variants) {
+            ComparisonHooks.run(hooks.getBeforeTrial(), variant.target(0), parameters.get(0));
+        }
+        List<ImplCheckResult> results = initCheckResultList(methods, variants, parameters);
+        for (ImplCheckResult result : results) {
+            result.setOutlierDetection(outlierDetection);
+        }
+        new BytecodeAnalyzer().analyze(results);
+        if (measureResultSize) {
+            ObjectSizer sizer = new ObjectSizer();
+            for (ImplCheckResult result : results) {
+                result.setResultSize(sizer.measure(result.getMethodResult()));
+            }
+        }
+        performBlanks(variants, parameters, iterations);
+        List<StackSampler> samplers = null;
+        if (samplingInterval > 0) {
+            samplers = new ArrayList<>();
+            for (ImplCheckResult result : results) {
+                samplers.add(new StackSampler(Thread.currentThread(), variants.get(samplers.size()).method,
+                        result.getLabel(), samplingInterval));
+            }
+        }
+        CacheEvictor evictor = null;
+        if (coldCacheCalls > 0) {
+            evictor = evictionBufferSize > 0 ? new CacheEvictor(evictionBufferSize) : new CacheEvictor();
+        }
+        int[] sampleIds = null;
+        if (sampleRecorder != null) {
+            sampleIds = new int[results.size()];
+            for (int v = 0; v < sampleIds.length; v++) {
+                sampleIds[v] = sampleRecorder.register(results.get(v).getLabel());
+            }
+        }
+        for (int c = 0; c < checks; c++) {
+            LOG.debug("Beginning time check #{}", c);
+            performTimeChecks(results, variants, parameters, iterations, samplers, c, sampleIds);
+            if (evictor != null) {
+                performColdCacheChecks(results, variants, parameters, evictor);
+            }
+        }
+        if (outlierDetection != null) {
+            performExtraChecks(results, variants, parameters, samplers, sampleIds);
+        }
+        if (memoryPressure != null) {
+            performPressuredChecks(results, variants, parameters);
+        }
+        for (Variant variant : variants) {
+            ComparisonHooks.run(hooks.getAfterTrial(), variant.target(0), parameters.get(0));
+        }
+        if (samplers != null) {
+            for (int v = 0; v < results.size(); v++) {
+                results.get(v).setProfile(samplers.get(v).getProfile());
+            }
+        }
+        if (hooks.hasInvocationHooks()) {
+            warnAboutShortCalls(results);
+        }
+        return results;
+    }
+
+    /**
+     * Warns about the methods whose calls are too short to be timed one by one, as required by invocation hooks.
+     *
+     * @param results
+     *            the results of the comparison
+     */
+    private static void warnAboutShortCalls(List<ImplCheckResult> results) {
+        double overhead = measureTimerOverhead();
+        for (ImplCheckResult result : results) {
+            if (result.getAverageExecutionTime() * 1000 < SHORT_CALL_RATIO * overhead) {
+                LOG.warn("Calls of {} last {} us, less than {} times the cost of reading the clock ({} ns): "
+                        + "invocation hooks distort their timing", result.getLabel(),
+                        result.getAverageExecutionTime(), SHORT_CALL_RATIO, overhead);
+            }
+        }
+    }
+
+    /**
+     * Measures the average cost of reading the clock with {@link System#nanoTime()}.
+     *
+     * @return the cost of reading the clock, in nanoseconds
+     */
+    private static double measureTimerOverhead() {
+        long last = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < TIMER_CALIBRATION_CALLS; i++) {
+            last = System.nanoTime();
+        }
+        return (double) (last - startTime) / TIMER_CALIBRATION_CALLS;
+    }
+
+    /**
+     * Builds the sequence of receivers matching a call profile.
+     * <p/>
+     * The number of occurrences of each target is proportional to its weight, and targets are shuffled with a fixed
+     * seed so that the call site sees them interleaved, the same way from one run to another.
+     *
+     * @param targets
+     *            the available targets
+     * @param profile
+     *            the distribution of calls among the targets
+     * @return {@value #SCHEDULE_LENGTH} receivers
+     * @throws ComparisonException
+     *             if the profile has more weights than there are targets, or only null weights
+     */
+    private Object[] buildSchedule(List<?> targets, CallProfile profile) throws ComparisonException {
+        int[] weights = profile.getWeights();
+        if (weights.length > targets.size()) {
+            throw new ComparisonException("Profile " + profile + " requires " + weights.length
+                    + " targets, but only " + targets.size() + " were supplied");
+        }
+        long total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        if (total == 0) {
+            throw new ComparisonException("Profile " + profile + " does not call any target");
+        }
+
+        List<Object> schedule = new ArrayList<>(SCHEDULE_LENGTH);
+        for (int slot = 0; slot < SCHEDULE_LENGTH; slot++) {
+            // pick the target whose cumulated weight range contains the middle of the slot
+            double position = (slot + .5) * total / SCHEDULE_LENGTH;
+            int index = 0;
+            long cumulated = weights[0];
+            while (position >= cumulated) {
+                cumulated += weights[++index];
+            }
+            schedule.add(targets.get(index));
+        }
+        Collections.shuffle(schedule, new Random(SCHEDULE_SEED));
+        return schedule.toArray();
+    }
+
+    /**
+     * Returns the classes which must be shared with isolated copies of the declaring class, so that parameters can be
+     * passed and results compared.
+     *
+     * @param method
+     *            the original method
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @return the types of the parameters and return value
+     */
+    private Set<Class<?>> getSharedClasses(Method method, ParameterPool parameters) {
+        Set<Class<?>> shared = new HashSet<>(Arrays.asList(method.getParameterTypes()));
+        shared.add(method.getReturnType());
+        for (int i = 0; i < parameters.size(); i++) {
+            for (Object parameter : parameters.get(i)) {
+                if (parameter != null) {
+                    shared.add(parameter.getClass());
+                }
             }
-        } while (found);
+        }
+        return shared;
+    }
+
+    /**
+     * Loads a fresh copy of the class declaring a method in a new {@link IsolatingClassLoader} and returns the copy of
+     * the method.
+     *
+     * @param method
+     *            the method to isolate
+     * @param isStatic
+     *            {@code true} if the method is static, {@code false} if a copy of the target must be instantiated
+     * @param shared
+     *            the classes which must not be isolated
+     * @return the isolated copy of the method, along with the copy of the target if any
+     * @throws ReflectiveOperationException
+     *             if the fresh copy of the class, method or target cannot be created
+     */
+    private Variant isolate(Method method, boolean isStatic, Set<Class<?>> shared)
+            throws ReflectiveOperationException {
+        Class<?> klass = method.getDeclaringClass();
+        ClassLoader loader = new IsolatingClassLoader(klass.getClassLoader(), shared);
 
-        return methods;
+        Class<?> freshClass = Class.forName(klass.getName(), false, loader);
+        Method freshMethod = freshClass.getMethod(method.getName(), method.getParameterTypes());
+        Object freshTarget = isStatic ? null : freshClass.getDeclaredConstructor().newInstance();
+        return new Variant(freshMethod, freshTarget);
     }
 
     /**
@@ -243,10 +1102,10 @@ public final class ImplComparer {
      *
      * @param methods
      *            the method and its variants
-     * @param target
-     *            the instance to call the method on; {@code null} tolerated for static methods
+     * @param variants
+     *            the methods to actually invoke, along with the instance to call them on, in the same order
      * @param parameters
-     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     *            the pool of parameter sets to call the method with
      * @return a list of {@link ImplCheckResult} instances, initialized with the {@link Method} and return value
      * @throws IllegalArgumentException
      *             if the method is an instance method and the specified object argument is not an instance of the class
@@ -258,24 +1117,71 @@ public final class ImplComparer {
      *             if this {@code Method} object is enforcing Java language access control and the underlying method is
      *             inaccessible.
      */
-    private List<ImplCheckResult> initCheckResultList(List<Method> methods, Object target, Object[] parameters)
-            throws IllegalAccessException {
+    private List<ImplCheckResult> initCheckResultList(List<Method> methods, List<Variant> variants,
+            ParameterPool parameters) throws IllegalAccessException {
         List<ImplCheckResult> results = new ArrayList<>();
-        for (Method method : methods) {
-            results.add(new ImplCheckResult(method, invokeMethod(target, method, parameters)));
+        for (int i = 0; i < methods.size(); i++) {
+            Variant variant = variants.get(i);
+            ComparisonHooks.run(hooks.getBeforeInvocation(), variant.target(0), parameters.get(0));
+            Object result = VariantMethods.invoke(variant.target(0), variant.method, parameters.get(0));
+            ComparisonHooks.run(hooks.getAfterInvocation(), variant.target(0), parameters.get(0));
+            results.add(new ImplCheckResult(methods.get(i), result));
         }
         return results;
     }
 
     /**
-     * Perform a time check for each {@link ImplCheckResult} supplied in parameters.
+     * Times the first calls of each method on a fresh copy of its declaring class.
+     * <p/>
+     * Each method gets its own {@link IsolatingClassLoader}, so that static initialization is included in the first
+     * call of every variant, whatever the order in which they run. The creation of the fresh copy is not timed, and the
+     * harness itself is warmed up on a throwaway copy beforehand, so that the first variant does not pay for the first
+     * use of the isolating loader and of reflection.
      *
-     * @param results
-     *            the {@link ImplCheckResult} instances to enrich with performance information
-     * @param target
-     *            the instance to call the method on; {@code null} tolerated for static methods
+     * @param methods
+     *            the method and its variants
+     * @param isStatic
+     *            {@code true} if the methods are static, {@code false} if they require a target instance
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @param shared
+     *            the classes which must not be isolated
+     * @return the cold-start results, in the same order as the methods
+     * @throws ReflectiveOperationException
+     *             if the fresh copy of the class, method or target cannot be created, or the method is inaccessible
+     */
+    private List<ColdStartResult> performColdStarts(List<Method> methods, boolean isStatic, ParameterPool parameters,
+            Set<Class<?>> shared) throws ReflectiveOperationException {
+        Variant throwaway = isolate(methods.get(0), isStatic, shared);
+        VariantMethods.invoke(throwaway.target(0), throwaway.method, parameters.get(0));
+
+        List<ColdStartResult> coldStarts = new ArrayList<>();
+        for (Method method : methods) {
+            LOG.debug("Performing cold start for <{}>", method.getName());
+
+            Variant fresh = isolate(method, isStatic, shared);
+            long startTime = System.nanoTime();
+            VariantMethods.invoke(fresh.target(0), fresh.method, parameters.get(0));
+            long firstCallTime = (System.nanoTime() - startTime) / 1000;
+
+            for (int i = 1; i < coldStartCalls; i++) {
+                VariantMethods.invoke(fresh.target(i), fresh.method, parameters.get(i));
+            }
+            long totalTime = (System.nanoTime() - startTime) / 1000;
+            coldStarts.add(new ColdStartResult(firstCallTime, totalTime, coldStartCalls));
+            LOG.debug("Cold start for {} done (first call: {} us; {} calls: {} us)", method.getName(), firstCallTime,
+                    coldStartCalls, totalTime);
+        }
+        return coldStarts;
+    }
+
+    /**
+     * Perform a warm-up for each {@link Variant} supplied in parameters.
+     *
+     * @param variants
+     *            the methods to warm up, along with the instance to call them on
      * @param parameters
-     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     *            the pool of parameter sets to call the method with
      * @throws IllegalArgumentException
      *             if the method is an instance method and the specified object argument is not an instance of the class
      *             or interface declaring the underlying method (or of a subclass or implementor thereof); if the number
@@ -286,14 +1192,15 @@ public final class ImplComparer {
      *             if this {@code Method} object is enforcing Java language access control and the underlying method is
      *             inaccessible.
      */
-    private void performBlanks(List<ImplCheckResult> results, Object target, Object[] parameters, int runs)
+    private void performBlanks(List<Variant> variants, ParameterPool parameters, int runs)
             throws IllegalAccessException {
-        for (ImplCheckResult result : results) {
-            Method method = result.getMethod();
-            LOG.debug("Performing blank test for <{}>", method.getName());
+        for (Variant variant : variants) {
+            LOG.debug("Performing blank test for <{}>", variant.method.getName());
 
             for (int i = 0; i < runs; i++) {
-                invokeMethod(target, method, parameters);
+                ComparisonHooks.run(hooks.getBeforeInvocation(), variant.target(i), parameters.get(i));
+                VariantMethods.invoke(variant.target(i), variant.method, parameters.get(i));
+                ComparisonHooks.run(hooks.getAfterInvocation(), variant.target(i), parameters.get(i));
             }
         }
     }
@@ -303,10 +1210,20 @@ public final class ImplComparer {
      *
      * @param results
      *            the {@link ImplCheckResult} instances to enrich with performance information
-     * @param target
-     *            the instance to call the method on; {@code null} tolerated for static methods
+     * @param variants
+     *            the methods to time, along with the instance to call them on, in the same order as the results
      * @param parameters
-     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     *            the pool of parameter sets to call the method with
+     * @param runs
+     *            the number of calls of each variant
+     * @param samplers
+     *            the profilers of the variants, in the same order as the results; {@code null} if the variants are not
+     *            profiled
+     * @param check
+     *            the 0-based index of the check
+     * @param sampleIds
+     *            the identifiers of the variants in the sample recorder, in the same order as the results; {@code null}
+     *            if the raw timings are not recorded
      * @throws IllegalArgumentException
      *             if the method is an instance method and the specified object argument is not an instance of the class
      *             or interface declaring the underlying method (or of a subclass or implementor thereof); if the number
@@ -317,54 +1234,303 @@ public final class ImplComparer {
      *             if this {@code Method} object is enforcing Java language access control and the underlying method is
      *             inaccessible.
      */
-    private void performTimeChecks(List<ImplCheckResult> results, Object target, Object[] parameters, int runs)
-            throws IllegalAccessException {
-        for (ImplCheckResult result : results) {
+    private void performTimeChecks(List<ImplCheckResult> results, List<Variant> variants, ParameterPool parameters,
+            int runs, List<StackSampler> samplers, int check, int[] sampleIds) throws IllegalAccessException {
+        for (int v = 0; v < results.size(); v++) {
+            ImplCheckResult result = results.get(v);
+            Variant variant = variants.get(v);
             Method method = result.getMethod();
             LOG.debug("Beginning new time check for <{}>", method.getName());
 
-            long startTime = System.nanoTime();
-            for (int i = 0; i < runs; i++) {
-                invokeMethod(target, method, parameters);
+            ComparisonHooks.run(hooks.getBeforeCheck(), variant.target(0), parameters.get(0));
+            if (samplers != null) {
+                samplers.get(v).start();
+            }
+            long executionTime;
+            if (sampleIds != null) {
+                executionTime = invokeRecorded(result, variant, parameters, runs, check, sampleIds[v]) / 1000;
+            } else if (hooks.hasInvocationHooks()) {
+                executionTime = invokeSeparately(result, variant, parameters, 0, runs) / 1000;
+            } else {
+                long startTime = System.nanoTime();
+                for (int i = 0; i < runs; i++) {
+                    VariantMethods.invoke(variant.target(i), variant.method, parameters.get(i));
+                }
+                executionTime = (System.nanoTime() - startTime) / 1000;
             }
-            long executionTime = (System.nanoTime() - startTime) / 1000;
+            if (samplers != null) {
+                samplers.get(v).stop();
+            }
+            ComparisonHooks.run(hooks.getAfterCheck(), variant.target(0), parameters.get(0));
             result.addExecutionTime(executionTime, runs);
-            LOG.debug("Time check for {} done (iterations: {}; total time: {} ms)", method.getName(), executionTime,
-                    runs);
+            LOG.debug("Time check for {} done (iterations: {}; total time: {} us)", method.getName(), runs,
+                    executionTime);
         }
     }
 
     /**
-     * Exception-safely invokes a method.
+     * Performs more time checks as long as a variant has less valid checks than required, because some of them were
+     * detected as outliers.
+     *
+     * @param results
+     *            the {@link ImplCheckResult} instances to enrich with performance information
+     * @param variants
+     *            the methods to time, along with the instance to call them on, in the same order as the results
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @param samplers
+     *            the profilers of the variants, in the same order as the results; {@code null} if the variants are not
+     *            profiled
+     * @param sampleIds
+     *            the identifiers of the variants in the sample recorder, in the same order as the results; {@code null}
+     *            if the raw timings are not recorded
+     * @throws IllegalAccessException
+     *             if this {@code Method} object is enforcing Java language access control and the underlying method is
+     *             inaccessible.
+     */
+    private void performExtraChecks(List<ImplCheckResult> results, List<Variant> variants, ParameterPool parameters,
+            List<StackSampler> samplers, int[] sampleIds) throws IllegalAccessException {
+        int extra = 0;
+        while (extra < maxExtraChecks && hasTooManyOutliers(results)) {
+            LOG.debug("Beginning extra time check #{} to replace outliers", extra);
+            performTimeChecks(results, variants, parameters, iterations, samplers, checks + extra, sampleIds);
+            extra++;
+        }
+        if (extra > 0) {
+            LOG.info("{} extra check(s) performed to replace outliers", extra);
+        }
+    }
+
+    private boolean hasTooManyOutliers(List<ImplCheckResult> results) {
+        for (ImplCheckResult result : results) {
+            if (result.getCheckTimes().size() - result.getRejectedChecks() < checks) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Perform a cold-cache time check for each {@link ImplCheckResult} supplied in parameters.
      * <p/>
-     * If the method throws an exception, it will be returned instead of the method result. This was retained as a
-     * better way to fully compare methods' behavior.
+     * The CPU caches are evicted before each batch of calls, outside of the timing.
      *
-     * @param target
-     *            the instance to call the method on; {@code null} tolerated for static methods
-     * @param method
-     *            the method to invoke
+     * @param results
+     *            the {@link ImplCheckResult} instances to enrich with performance information
+     * @param variants
+     *            the methods to time, along with the instance to call them on, in the same order as the results
      * @param parameters
-     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
-     * @return the method's result or the thrown exception if any
-     * @throws IllegalArgumentException
-     *             if the method is an instance method and the specified object argument is not an instance of the class
-     *             or interface declaring the underlying method (or of a subclass or implementor thereof); if the number
-     *             of actual and formal parameters differ; if an unwrapping conversion for primitive arguments fails; or
-     *             if, after possible unwrapping, a parameter value cannot be converted to the corresponding formal
-     *             parameter type by a method invocation conversion.
+     *            the pool of parameter sets to call the method with
+     * @param evictor
+     *            the evictor of the CPU caches
      * @throws IllegalAccessException
      *             if this {@code Method} object is enforcing Java language access control and the underlying method is
      *             inaccessible.
      */
-    private Object invokeMethod(Object target, Method method, Object[] parameters) throws IllegalAccessException {
-        Object result;
+    private void performColdCacheChecks(List<ImplCheckResult> results, List<Variant> variants,
+            ParameterPool parameters, CacheEvictor evictor) throws IllegalAccessException {
+        int batch = Math.max(1, coldCacheBatch);
+        for (int v = 0; v < results.size(); v++) {
+            Variant variant = variants.get(v);
+            LOG.debug("Beginning new cold-cache time check for <{}>", variant.method.getName());
+
+            long executionTime = 0;
+            for (int i = 0; i < coldCacheCalls; i += batch) {
+                int end = Math.min(i + batch, coldCacheCalls);
+                evictor.evict();
+                if (hooks.hasInvocationHooks()) {
+                    executionTime += invokeSeparately(results.get(v), variant, parameters, i, end);
+                } else {
+                    long startTime = System.nanoTime();
+                    for (int j = i; j < end; j++) {
+                        VariantMethods.invoke(variant.target(j), variant.method, parameters.get(j));
+                    }
+                    executionTime += System.nanoTime() - startTime;
+                }
+            }
+            results.get(v).addColdCacheTime(executionTime, coldCacheCalls);
+        }
+    }
+
+    /**
+     * Perform the time checks again for each {@link ImplCheckResult} supplied in parameters, under memory pressure.
+     * <p/>
+     * The pressure is applied to all variants at once, so that filling the heap is not repeated for each of them.
+     *
+     * @param results
+     *            the {@link ImplCheckResult} instances to enrich with performance information
+     * @param variants
+     *            the methods to time, along with the instance to call them on, in the same order as the results
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @throws IllegalAccessException
+     *             if this {@code Method} object is enforcing Java language access control and the underlying method is
+     *             inaccessible.
+     */
+    private void performPressuredChecks(List<ImplCheckResult> results, List<Variant> variants,
+            ParameterPool parameters) throws IllegalAccessException {
+        memoryPressure.start();
         try {
-            result = method.invoke(target, parameters);
-        } catch (InvocationTargetException e) {
-            // the method throws an exception, return it
-            result = e.getCause();
+            LOG.debug("Applying memory pressure ({} MiB of ballast)", memoryPressure.getBallastSize() >> 20);
+            for (int c = 0; c < checks; c++) {
+                for (int v = 0; v < results.size(); v++) {
+                    Variant variant = variants.get(v);
+                    LOG.debug("Beginning new pressured time check for <{}>", variant.method.getName());
+
+                    ComparisonHooks.run(hooks.getBeforeCheck(), variant.target(0), parameters.get(0));
+                    long executionTime;
+                    if (hooks.hasInvocationHooks()) {
+                        executionTime = invokeSeparately(results.get(v), variant, parameters, 0, iterations);
+                    } else {
+                        long startTime = System.nanoTime();
+                        for (int i = 0; i < iterations; i++) {
+                            VariantMethods.invoke(variant.target(i), variant.method, parameters.get(i));
+                        }
+                        executionTime = System.nanoTime() - startTime;
+                    }
+                    ComparisonHooks.run(hooks.getAfterCheck(), variant.target(0), parameters.get(0));
+                    results.get(v).addPressuredTime(executionTime, iterations);
+                }
+            }
+        } finally {
+            memoryPressure.stop();
+        }
+        LOG.debug("Memory pressure released ({} MiB allocated in the background)",
+                memoryPressure.getAllocatedBytes() >> 20);
+    }
+
+    /**
+     * Calls a variant, timing the calls in batches which are written to the sample recorder.
+     *
+     * @param result
+     *            the result to record the time spent in the invocation hooks in
+     * @param variant
+     *            the method to time, along with the instance to call it on
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @param runs
+     *            the number of calls
+     * @param check
+     *            the 0-based index of the check
+     * @param sampleId
+     *            the identifier of the variant in the sample recorder
+     * @return the execution time of the calls, in nanoseconds, hooks excluded
+     * @throws IllegalAccessException
+     *             if this {@code Method} object is enforcing Java language access control and the underlying method is
+     *             inaccessible.
+     */
+    private long invokeRecorded(ImplCheckResult result, Variant variant, ParameterPool parameters, int runs,
+            int check, int sampleId) throws IllegalAccessException {
+        int batch = Math.max(1, sampleBatch);
+        long thread = Thread.currentThread().getId();
+        long executionTime = 0;
+        for (int from = 0; from < runs; from += batch) {
+            int to = Math.min(from + batch, runs);
+            long startTime = System.nanoTime();
+            long batchTime;
+            if (hooks.hasInvocationHooks()) {
+                batchTime = invokeSeparately(result, variant, parameters, from, to);
+            } else {
+                for (int i = from; i < to; i++) {
+                    VariantMethods.invoke(variant.target(i), variant.method, parameters.get(i));
+                }
+                batchTime = System.nanoTime() - startTime;
+            }
+            sampleRecorder.record(sampleId, check, thread, startTime, batchTime, to - from);
+            executionTime += batchTime;
+        }
+        return executionTime;
+    }
+
+    /**
+     * Calls a variant with the invocation hooks, timing each call separately.
+     * <p/>
+     * The time spent in the hooks is recorded in the result.
+     *
+     * @param result
+     *            the result to record the time spent in the hooks in
+     * @param variant
+     *            the method to time, along with the instance to call it on
+     * @param parameters
+     *            the pool of parameter sets to call the method with
+     * @param from
+     *            the index of the first call, inclusive
+     * @param to
+     *            the index of the last call, exclusive
+     * @return the execution time of the calls, in nanoseconds, hooks excluded
+     * @throws IllegalAccessException
+     *             if this {@code Method} object is enforcing Java language access control and the underlying method is
+     *             inaccessible.
+     */
+    private long invokeSeparately(ImplCheckResult result, Variant variant, ParameterPool parameters, int from, int to)
+            throws IllegalAccessException {
+        long executionTime = 0;
+        long hookTime = 0;
+        long mark = System.nanoTime();
+        for (int i = from; i < to; i++) {
+            Object target = variant.target(i);
+            Object[] set = parameters.get(i);
+            ComparisonHooks.run(hooks.getBeforeInvocation(), target, set);
+            long startTime = System.nanoTime();
+            VariantMethods.invoke(target, variant.method, set);
+            long endTime = System.nanoTime();
+            ComparisonHooks.run(hooks.getAfterInvocation(), target, set);
+            executionTime += endTime - startTime;
+
+            long next = System.nanoTime();
+            hookTime += startTime - mark + next - endTime;
+            mark = next;
+        }
+        result.addHookTime(hookTime, to - from);
+        return executionTime;
+    }
+
+    /**
+     * A method to invoke, along with the instance or instances to call it on.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static final class Variant {
+
+        private final Method method;
+        private final Object[] receivers;
+        private final int mask;
+
+        /**
+         * Creates a new instance calling the method on a single target.
+         *
+         * @param method
+         *            the method to invoke
+         * @param target
+         *            the instance to call the method on; {@code null} for static methods
+         */
+        Variant(Method method, Object target) {
+            this(method, new Object[] { target });
+        }
+
+        /**
+         * Creates a new instance calling the method on each receiver in turn.
+         *
+         * @param method
+         *            the method to invoke
+         * @param receivers
+         *            the instances to call the method on; the length must be a power of 2
+         */
+        Variant(Method method, Object[] receivers) {
+            this.method = method;
+            this.receivers = receivers;
+            this.mask = receivers.length - 1;
+        }
+
+        /**
+         * Returns the instance to call the method on for a given call.
+         *
+         * @param call
+         *            the index of the call
+         * @return the instance to call the method on
+         */
+        Object target(int call) {
+            return receivers[call & mask];
         }
-        return result;
     }
 }
@@ -14,7 +14,13 @@
  */
 package org.keyboardplaying.comparer.core;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 
 import org.alcibiade.asciiart.raster.CharacterRaster;
@@ -23,20 +29,41 @@ import org.alcibiade.asciiart.raster.RasterContext;
 import org.alcibiade.asciiart.widget.TableWidget;
 import org.alcibiade.asciiart.widget.TextPanel;
 import org.alcibiade.asciiart.widget.model.AbstractTableModel;
+import org.keyboardplaying.comparer.model.AsyncResult;
+import org.keyboardplaying.comparer.model.BytecodeInfo;
+import org.keyboardplaying.comparer.model.ConcurrentResult;
+import org.keyboardplaying.comparer.model.Divergence;
 import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.JitDiagnostics;
+import org.keyboardplaying.comparer.model.OpenLoopResult;
+import org.keyboardplaying.comparer.model.ResultSize;
+import org.keyboardplaying.comparer.model.SoakResult;
+import org.keyboardplaying.comparer.model.SoakSample;
+import org.keyboardplaying.comparer.model.StackProfile;
+import org.keyboardplaying.comparer.model.ThreadMode;
+import org.keyboardplaying.comparer.model.VerificationResult;
+import org.keyboardplaying.comparer.model.WorkloadInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A utility class to easily print the result of an implementation comparison as table to the logs.
  * <p/>
- * The table will contain three columns:
+ * The table will contain at least three columns:
  * <ul>
  * <li>the name of the method being tested;</li>
- * <li>the average execution time;</li>
+ * <li>the average execution time, in microseconds;</li>
  * <li>whether the invocation result equals the reference result or not.</li>
  * </ul>
  * <p/>
+ * When several methods are compared, their speedup or slowdown relative to the reference (the first result) is
+ * displayed, as well as the lowest and highest average times of the checks and their standard deviation when several
+ * checks were made. The rows are ranked from the fastest method to the slowest one, unless ranking is disabled.
+ * <p/>
+ * Additional columns are displayed when the matching measures were made, e.g. the first call time and the average cold
+ * time when the comparison was run in cold-start mode, a summary of the JIT diagnostics when they were collected, or
+ * the bytecode size when it was analyzed.
+ * <p/>
  * The logging is made with the INFO level.
  * <p/>
  * The logging is based on logback and SLF4J. Default logging is to the console, but you can change the logging channel
@@ -46,96 +73,1436 @@ import org.slf4j.LoggerFactory;
  */
 public final class ImplComparisonLogger {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ImplComparisonLogger.class);
+    private static final Logger LOG = LoggerFactory.getLogger(ImplComparisonLogger.class);
+    /** The maximal number of hot frames logged for each profiled variant. */
+    private static final int HOT_FRAMES = 10;
+
+    private boolean ranked = true;
+
+    /**
+     * Returns whether the methods are sorted from the fastest to the slowest in the tables.
+     *
+     * @return {@code true} if the rows are ranked by average execution time
+     */
+    public boolean isRanked() {
+        return ranked;
+    }
+
+    /**
+     * Sets whether the methods are sorted from the fastest to the slowest in the tables (default: {@code true}). When
+     * not ranked, the rows are in the order of the results.
+     *
+     * @param ranked
+     *            {@code true} to rank the rows by average execution time
+     */
+    public void setRanked(boolean ranked) {
+        this.ranked = ranked;
+    }
+
+    /**
+     * Logs the results as a table.
+     * <p/>
+     * If the variants were verified over generated inputs, the first diverging inputs of each variant are logged as
+     * warnings after the table. If the variants were profiled, their hot frames are logged as a table for each
+     * variant.
+     *
+     * @param results
+     *            the results to LOG
+     */
+    public void log(List<ImplCheckResult> results) {
+        log(new ImplComparisonTable(results, ranked));
+        for (ImplCheckResult result : results) {
+            VerificationResult verification = result.getVerification();
+            if (verification != null && !verification.isEquivalent()) {
+                LOG.warn("{} diverges from the reference on {} of {} input(s)", result.getLabel(),
+                        verification.getDivergences(), verification.getInputs());
+                for (Divergence divergence : verification.getFirstDivergences()) {
+                    LOG.warn("  input #{} {}: expected {} but was {}", divergence.getInput(),
+                            divergence.getParameters(), divergence.getExpected(), divergence.getActual());
+                }
+            }
+        }
+        for (ImplCheckResult result : results) {
+            StackProfile profile = result.getProfile();
+            if (profile != null) {
+                LOG.info("Hot frames of {} ({} samples, {} outside of the variant, {} us per sample, overhead {})",
+                        result.getLabel(), profile.getSamples(), profile.getOutsideSamples(),
+                        String.format(Locale.ROOT, "%.1f", profile.getAverageSamplingTime()),
+                        String.format(Locale.ROOT, "%.1f%%", profile.getSamplingOverhead() * 100));
+                log(new HotFrameTable(profile));
+            }
+        }
+    }
+
+    /**
+     * Logs the results of a comparison run under several configurations as a table.
+     * <p/>
+     * The table contains one row per variant and one column per configuration, displaying the average execution time.
+     * Results are compared with the reference result of the first configuration.
+     *
+     * @param results
+     *            the results to LOG, mapped by configuration name; all lists must contain the same variants, in the
+     *            same order
+     */
+    public void logMatrix(Map<String, List<ImplCheckResult>> results) {
+        log(new MatrixComparisonTable(results));
+    }
+
+    /**
+     * Logs the results of a soak test as a table.
+     * <p/>
+     * The table contains one row per variant, displaying the number of intervals, the throughput of the first and
+     * last intervals, the throughput trend, the retained heap growth and which of them drift.
+     *
+     * @param results
+     *            the results to LOG
+     */
+    public void logSoak(List<SoakResult> results) {
+        log(new SoakComparisonTable(results));
+    }
+
+    /**
+     * Logs the results of an open-loop comparison as a table.
+     * <p/>
+     * The table contains one row per variant and offered load, displaying the achieved rate, the latency percentiles
+     * and whether the variant was saturated.
+     *
+     * @param results
+     *            the results to LOG
+     */
+    public void logOpenLoop(List<OpenLoopResult> results) {
+        log(new OpenLoopComparisonTable(results));
+    }
+
+    /**
+     * Logs the results of an asynchronous comparison as a table.
+     * <p/>
+     * The table contains one row per variant, displaying the number of calls in flight, the throughput, the time to
+     * hand the work off, the completion latency percentiles and the number of failed calls.
+     *
+     * @param results
+     *            the results to LOG
+     */
+    public void logAsync(List<AsyncResult> results) {
+        log(new AsyncComparisonTable(results));
+    }
+
+    /**
+     * Logs the results of a concurrent comparison as a table.
+     * <p/>
+     * The table contains one row per variant, displaying side by side the throughput and latency percentiles with
+     * platform and virtual threads, as well as the pinning of the virtual threads to their carriers. The columns of a
+     * mode which was not run are left empty.
+     *
+     * @param results
+     *            the results to LOG
+     */
+    public void logConcurrent(List<ConcurrentResult> results) {
+        log(new ConcurrentComparisonTable(results));
+    }
+
+    /**
+     * Renders a table model and logs it line by line.
+     *
+     * @param table
+     *            the table to LOG
+     */
+    private void log(AbstractTableModel table) {
+        TableWidget widget = new TableWidget(table);
+        if (LOG.isInfoEnabled()) {
+            TextPanel textPanel = new TextPanel();
+            textPanel.add(widget);
+
+            CharacterRaster raster = new ExtensibleCharacterRaster(' ');
+            textPanel.render(new RasterContext(raster));
+
+            for (String line : raster) {
+                LOG.info(line);
+            }
+        }
+    }
+
+    /**
+     * A table model for logging the results of a comparison.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class ImplComparisonTable extends AbstractTableModel {
+
+        private final List<ImplComparisonColumn> columns = new ArrayList<>();
+
+        private final List<ImplCheckResult> results;
+
+        public ImplComparisonTable(List<ImplCheckResult> results, boolean ranked) {
+            ImplCheckResult reference = results.isEmpty() ? null : results.get(0);
+            this.results = new ArrayList<>(results);
+            if (ranked) {
+                this.results.sort(Comparator.comparingDouble(ImplCheckResult::getAverageExecutionTime));
+            }
+
+            columns.add(new MethodComparisonColumn());
+            columns.add(new AvgTimeComparisonColumn());
+            if (results.size() > 1) {
+                columns.add(new SpeedupComparisonColumn(reference));
+            }
+            if (hasSeveralChecks(results)) {
+                columns.add(new MinTimeComparisonColumn());
+                columns.add(new MaxTimeComparisonColumn());
+                columns.add(new DeviationComparisonColumn());
+            }
+            if (hasOutlierDetection(results)) {
+                columns.add(new MedianTimeComparisonColumn());
+                columns.add(new TrimmedTimeComparisonColumn());
+                columns.add(new RejectedChecksComparisonColumn());
+            }
+            if (hasResultSize(results)) {
+                columns.add(new ResultSizeComparisonColumn());
+            }
+            if (hasWorkload(results)) {
+                columns.add(new OperationTimeComparisonColumn());
+                columns.add(new BytesPerElementComparisonColumn());
+            }
+            if (hasHooks(results)) {
+                columns.add(new HookTimeComparisonColumn());
+            }
+            if (hasColdCache(results)) {
+                columns.add(new ColdCacheComparisonColumn());
+                columns.add(new ColdHotRatioComparisonColumn());
+            }
+            if (hasPressure(results)) {
+                columns.add(new PressuredTimeComparisonColumn());
+                columns.add(new PressuredQuietRatioComparisonColumn());
+            }
+            if (hasColdStart(results)) {
+                columns.add(new FirstCallComparisonColumn());
+                columns.add(new ColdAvgTimeComparisonColumn());
+            }
+            if (hasJitDiagnostics(results)) {
+                columns.add(new JitComparisonColumn());
+            }
+            if (hasBytecode(results)) {
+                columns.add(new BytecodeComparisonColumn());
+            }
+            if (hasCpuAffinity(results)) {
+                columns.add(new CpuAffinityComparisonColumn());
+            }
+            if (hasVerification(results)) {
+                columns.add(new VerifiedComparisonColumn());
+            }
+            columns.add(new ResultComparisonColumn(reference));
+        }
+
+        private static boolean hasSeveralChecks(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getCheckTimes().size() > 1) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasOutlierDetection(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getOutlierDetection() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasHooks(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getNumberOfHookInvocations() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasColdCache(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getNumberOfColdCacheExecutions() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasPressure(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getNumberOfPressuredExecutions() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasCpuAffinity(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getCpuAffinity() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasColdStart(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getColdStart() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasResultSize(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getResultSize() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasWorkload(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getWorkload() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasVerification(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getVerification() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasBytecode(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getBytecode() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasJitDiagnostics(List<ImplCheckResult> results) {
+            for (ImplCheckResult result : results) {
+                if (result.getJitDiagnostics() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int getWidth() {
+            return columns.size();
+        }
+
+        @Override
+        public int getHeight() {
+            return results.size();
+        }
+
+        @Override
+        public String getCellContent(int x, int y) {
+            return columns.get(x).getValue(results.get(y));
+        }
+
+        @Override
+        public String getColumnTitle(int x) {
+            return columns.get(x).getTitle();
+        }
+    }
+
+    /**
+     * A table model for logging the results of a comparison run under several configurations.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class MatrixComparisonTable extends AbstractTableModel {
+
+        private final ImplComparisonColumn methodColumn = new MethodComparisonColumn();
+        private final ImplComparisonColumn timeColumn = new AvgTimeComparisonColumn();
+        private final ImplComparisonColumn resultColumn;
+        private final List<String> configurations;
+        private final List<List<ImplCheckResult>> results;
+
+        public MatrixComparisonTable(Map<String, List<ImplCheckResult>> results) {
+            this.configurations = new ArrayList<>(results.keySet());
+            this.results = new ArrayList<>(results.values());
+            this.resultColumn = new ResultComparisonColumn(
+                    this.results.isEmpty() || this.results.get(0).isEmpty() ? null : this.results.get(0).get(0));
+        }
+
+        @Override
+        public int getWidth() {
+            return configurations.size() + 2;
+        }
+
+        @Override
+        public int getHeight() {
+            return results.isEmpty() ? 0 : results.get(0).size();
+        }
+
+        @Override
+        public String getCellContent(int x, int y) {
+            String content;
+            if (x == 0) {
+                content = methodColumn.getValue(results.get(0).get(y));
+            } else if (x <= configurations.size()) {
+                content = timeColumn.getValue(results.get(x - 1).get(y));
+            } else {
+                content = resultColumn.getValue(results.get(0).get(y));
+            }
+            return content;
+        }
+
+        @Override
+        public String getColumnTitle(int x) {
+            String title;
+            if (x == 0) {
+                title = methodColumn.getTitle();
+            } else if (x <= configurations.size()) {
+                title = configurations.get(x - 1) + " (us)";
+            } else {
+                title = resultColumn.getTitle();
+            }
+            return title;
+        }
+    }
+
+    /**
+     * A table model for logging the results of a soak test.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class SoakComparisonTable extends AbstractTableModel {
+
+        private static final String[] TITLES = { "Method", "Intervals", "Start (calls/s)", "End (calls/s)", "Trend",
+                "Heap growth (KiB)", "Drift" };
+
+        private final List<SoakResult> results;
+
+        public SoakComparisonTable(List<SoakResult> results) {
+            this.results = results;
+        }
+
+        @Override
+        public int getWidth() {
+            return TITLES.length;
+        }
+
+        @Override
+        public int getHeight() {
+            return results.size();
+        }
+
+        @Override
+        public String getCellContent(int x, int y) {
+            SoakResult result = results.get(y);
+            List<SoakSample> samples = result.getSamples();
+            String content;
+            switch (x) {
+            case 0:
+                content = result.getMethod().getName();
+                break;
+            case 1:
+                content = String.valueOf(samples.size());
+                break;
+            case 2:
+                content = samples.isEmpty() ? "" : String.valueOf(Math.round(samples.get(0).getThroughput()));
+                break;
+            case 3:
+                content = samples.isEmpty() ? ""
+                        : String.valueOf(Math.round(samples.get(samples.size() - 1).getThroughput()));
+                break;
+            case 4:
+                content = String.format(Locale.ROOT, "%+.1f%%", result.getThroughputTrend() * 100);
+                break;
+            case 5:
+                content = String.valueOf(result.getHeapGrowth() / 1024);
+                break;
+            default:
+                content = getDrift(result);
+                break;
+            }
+            return content;
+        }
+
+        private static String getDrift(SoakResult result) {
+            String drift;
+            if (result.isThroughputDrifting() && result.isHeapGrowing()) {
+                drift = "throughput, heap";
+            } else if (result.isThroughputDrifting()) {
+                drift = "throughput";
+            } else if (result.isHeapGrowing()) {
+                drift = "heap";
+            } else {
+                drift = "";
+            }
+            return drift;
+        }
+
+        @Override
+        public String getColumnTitle(int x) {
+            return TITLES[x];
+        }
+    }
+
+    /**
+     * A table model for logging the hot frames of a profiled variant.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class HotFrameTable extends AbstractTableModel {
+
+        private static final String[] TITLES = { "Frame", "Samples", "Share" };
+
+        private final List<Map.Entry<String, Integer>> frames;
+        private final int samples;
+
+        public HotFrameTable(StackProfile profile) {
+            List<Map.Entry<String, Integer>> hotFrames = new ArrayList<>(profile.getHotFrames().entrySet());
+            this.frames = hotFrames.subList(0, Math.min(HOT_FRAMES, hotFrames.size()));
+            this.samples = profile.getSamples();
+        }
+
+        @Override
+        public int getWidth() {
+            return TITLES.length;
+        }
+
+        @Override
+        public int getHeight() {
+            return frames.size();
+        }
+
+        @Override
+        public String getCellContent(int x, int y) {
+            Map.Entry<String, Integer> frame = frames.get(y);
+            String content;
+            switch (x) {
+            case 0:
+                content = frame.getKey();
+                break;
+            case 1:
+                content = String.valueOf(frame.getValue());
+                break;
+            default:
+                content = String.format(Locale.ROOT, "%.1f%%", 100. * frame.getValue() / samples);
+                break;
+            }
+            return content;
+        }
+
+        @Override
+        public String getColumnTitle(int x) {
+            return TITLES[x];
+        }
+    }
+
+    /**
+     * A table model for logging the results of an asynchronous comparison.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class AsyncComparisonTable extends AbstractTableModel {
+
+        private static final String[] TITLES = { "Method", "In flight", "Throughput (calls/s)", "Hand-off (us)",
+                "p50 (us)", "p99 (us)", "Max (us)", "Failures" };
+        private static final double[] PERCENTILES = { 50, 99 };
+
+        private final List<AsyncResult> results;
+
+        public AsyncComparisonTable(List<AsyncResult> results) {
+            this.results = results;
+        }
+
+        @Override
+        public int getWidth() {
+            return TITLES.length;
+        }
+
+        @Override
+        public int getHeight() {
+            return results.size();
+        }
+
+        @Override
+        public String getCellContent(int x, int y) {
+            AsyncResult result = results.get(y);
+            String content;
+            switch (x) {
+            case 0:
+                content = result.getMethod().getName();
+                break;
+            case 1:
+                content = String.valueOf(result.getConcurrency());
+                break;
+            case 2:
+                content = String.valueOf(Math.round(result.getThroughput()));
+                break;
+            case 3:
+                content = formatTime(result.getAverageHandOffTime());
+                break;
+            case 4:
+            case 5:
+                content = formatTime(result.getLatencyAtPercentile(PERCENTILES[x - 4]));
+                break;
+            case 6:
+                content = formatTime(result.getLatencies().getMax() / 1000.);
+                break;
+            default:
+                content = result.getFailures() == 0 ? "" : String.valueOf(result.getFailures());
+                break;
+            }
+            return content;
+        }
+
+        @Override
+        public String getColumnTitle(int x) {
+            return TITLES[x];
+        }
+    }
+
+    /**
+     * A table model for logging the results of a concurrent comparison, with one row per variant.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class ConcurrentComparisonTable extends AbstractTableModel {
+
+        private static final String[] TITLES = { "Method", "Platform (calls/s)", "Platform p50 (us)",
+                "Platform p99 (us)", "Virtual (calls/s)", "Virtual p50 (us)", "Virtual p99 (us)", "Pinned",
+                "Pinned (ms)" };
+        private static final double[] PERCENTILES = { 50, 99 };
+
+        private final List<Method> methods = new ArrayList<>();
+        private final Map<Method, ConcurrentResult[]> rows = new HashMap<>();
+
+        public ConcurrentComparisonTable(List<ConcurrentResult> results) {
+            for (ConcurrentResult result : results) {
+                ConcurrentResult[] row = rows.get(result.getMethod());
+                if (row == null) {
+                    row = new ConcurrentResult[ThreadMode.values().length];
+                    rows.put(result.getMethod(), row);
+                    methods.add(result.getMethod());
+                }
+                row[result.getMode().ordinal()] = result;
+            }
+        }
+
+        @Override
+        public int getWidth() {
+            return TITLES.length;
+        }
+
+        @Override
+        public int getHeight() {
+            return methods.size();
+        }
+
+        @Override
+        public String getCellContent(int x, int y) {
+            Method method = methods.get(y);
+            if (x == 0) {
+                return method.getName();
+            }
+            ConcurrentResult[] row = rows.get(method);
+            ConcurrentResult result = row[x < 4 ? ThreadMode.PLATFORM.ordinal() : ThreadMode.VIRTUAL.ordinal()];
+            if (result == null) {
+                return "";
+            }
+            String content;
+            switch (x) {
+            case 1:
+            case 4:
+                content = String.valueOf(Math.round(result.getThroughput()));
+                break;
+            case 2:
+            case 3:
+                content = formatTime(result.getLatencyAtPercentile(PERCENTILES[x - 2]));
+                break;
+            case 5:
+            case 6:
+                content = formatTime(result.getLatencyAtPercentile(PERCENTILES[x - 5]));
+                break;
+            case 7:
+                content = result.getPinnedEvents() < 0 ? "?" : String.valueOf(result.getPinnedEvents());
+                break;
+            default:
+                content = result.getPinnedEvents() < 0 ? "?"
+                        : String.format(Locale.ROOT, "%.3f", result.getPinnedTime() / 1e6);
+                break;
+            }
+            return content;
+        }
+
+        @Override
+        public String getColumnTitle(int x) {
+            return TITLES[x];
+        }
+    }
+
+    /**
+     * A table model for logging the results of an open-loop comparison.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class OpenLoopComparisonTable extends AbstractTableModel {
+
+        private static final String[] TITLES = { "Method", "Offered (calls/s)", "Achieved (calls/s)", "p50 (us)",
+                "p90 (us)", "p99 (us)", "p99.9 (us)", "Max (us)", "Saturated" };
+        private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+        private final List<OpenLoopResult> results;
+
+        public OpenLoopComparisonTable(List<OpenLoopResult> results) {
+            this.results = results;
+        }
+
+        @Override
+        public int getWidth() {
+            return TITLES.length;
+        }
+
+        @Override
+        public int getHeight() {
+            return results.size();
+        }
+
+        @Override
+        public String getCellContent(int x, int y) {
+            OpenLoopResult result = results.get(y);
+            String content;
+            if (x == 0) {
+                content = result.getMethod().getName();
+            } else if (x == 1) {
+                content = String.valueOf(Math.round(result.getOfferedRate()));
+            } else if (x == 2) {
+                content = String.valueOf(Math.round(result.getAchievedRate()));
+            } else if (x < TITLES.length - 2) {
+                content = String.valueOf(result.getLatencyAtPercentile(PERCENTILES[x - 3]));
+            } else if (x == TITLES.length - 2) {
+                content = String.valueOf(result.getLatencies().getMax() / 1000.);
+            } else {
+                content = result.isSaturated() ? "yes" : "";
+            }
+            return content;
+        }
+
+        @Override
+        public String getColumnTitle(int x) {
+            return TITLES[x];
+        }
+    }
+
+    /**
+     * A column model for the logging.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private interface ImplComparisonColumn {
+
+        /**
+         * Returns the title of the column.
+         *
+         * @return the title
+         */
+        String getTitle();
+
+        /**
+         * Returns the formatted value for this column.
+         *
+         * @param result
+         *            the line being displayed
+         * @return the formatted value
+         */
+        String getValue(ImplCheckResult result);
+    }
+
+    /**
+     * A column to display the method the row corresponds to.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class MethodComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Method";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return result.getLabel();
+        }
+    }
+
+    /**
+     * A column to display the average execution time for a method.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class AvgTimeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Avg time (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return formatTime(result.getAverageExecutionTime());
+        }
+    }
+
+    /**
+     * Formats a time with a fixed number of decimals.
+     *
+     * @param time
+     *            the time, in microseconds
+     * @return the formatted time
+     */
+    private static String formatTime(double time) {
+        return String.format(Locale.ROOT, "%.3f", time);
+    }
+
+    /**
+     * A column to display how many times faster or slower than the reference each method is.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class SpeedupComparisonColumn implements ImplComparisonColumn {
+
+        private static final String NO_CHANGE = "1.00x";
+
+        private final ImplCheckResult reference;
+
+        public SpeedupComparisonColumn(ImplCheckResult reference) {
+            this.reference = reference;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "vs REF";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            double referenceTime = reference.getAverageExecutionTime();
+            double time = result.getAverageExecutionTime();
+            String content;
+            if (result == reference || referenceTime == 0 || time == 0) {
+                content = "";
+            } else {
+                String factor = String.format(Locale.ROOT, "%.2fx", Math.max(referenceTime, time) / Math.min(
+                        referenceTime, time));
+                if (NO_CHANGE.equals(factor)) {
+                    content = factor;
+                } else {
+                    content = factor + (time < referenceTime ? " faster" : " slower");
+                }
+            }
+            return content;
+        }
+    }
+
+    /**
+     * A column to display the lowest average execution time among the checks.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class MinTimeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Min (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return formatTime(result.getMinimumCheckTime());
+        }
+    }
+
+    /**
+     * A column to display the highest average execution time among the checks.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class MaxTimeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Max (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return formatTime(result.getMaximumCheckTime());
+        }
+    }
+
+    /**
+     * A column to display the standard deviation of the average execution times of the checks.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class DeviationComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Std dev (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return formatTime(result.getCheckTimeDeviation());
+        }
+    }
+
+    /**
+     * A column to display the median of the average execution times of the checks.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class MedianTimeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Median (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return formatTime(result.getMedianCheckTime());
+        }
+    }
+
+    /**
+     * A column to display the mean of the average execution times of the checks which are not outliers.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class TrimmedTimeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Trimmed (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return formatTime(result.getTrimmedCheckTime());
+        }
+    }
+
+    /**
+     * A column to display the number of checks detected as outliers, out of all checks.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class RejectedChecksComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Rejected";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return result.getRejectedChecks() + "/" + result.getCheckTimes().size();
+        }
+    }
+
+    /**
+     * A column to display the deep size of the result of each method.
+     * <p/>
+     * Sizes which are only a lower bound are prefixed with {@code >=}.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class ResultSizeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Result size (B)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            ResultSize size = result.getResultSize();
+            if (size == null) {
+                return "";
+            }
+            return (size.isLowerBound() ? ">=" : "") + size.getBytes();
+        }
+    }
+
+    /**
+     * A column to display the average time of an operation of a collection workload.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class OperationTimeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Time/op (ns)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            WorkloadInfo workload = result.getWorkload();
+            return workload == null ? ""
+                    : String.format(Locale.ROOT, "%.1f", workload.getOperationTime(result.getAverageExecutionTime()));
+        }
+    }
+
+    /**
+     * A column to display the heap retained per element of the collection of a workload.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class BytesPerElementComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Bytes/elem";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            WorkloadInfo workload = result.getWorkload();
+            return workload == null ? "" : String.format(Locale.ROOT, "%.1f", workload.getBytesPerElement());
+        }
+    }
 
     /**
-     * Logs the results as a table.
+     * A column to display the average time spent in invocation hooks around each call.
      *
-     * @param results
-     *            the results to LOG
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
      */
-    public void log(List<ImplCheckResult> results) {
-        TableWidget widget = new TableWidget(new ImplComparisonTable(results));
-        if (LOG.isInfoEnabled()) {
-            TextPanel textPanel = new TextPanel();
-            textPanel.add(widget);
+    private static class HookTimeComparisonColumn implements ImplComparisonColumn {
 
-            CharacterRaster raster = new ExtensibleCharacterRaster(' ');
-            textPanel.render(new RasterContext(raster));
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Hooks (us)";
+        }
 
-            for (String line : raster) {
-                LOG.info(line);
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return result.getNumberOfHookInvocations() == 0 ? ""
+                    : String.format(Locale.ROOT, "%.3f", result.getAverageHookTime());
+        }
+    }
+
+    /**
+     * A column to display the average execution time with cold CPU caches.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class ColdCacheComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Cold cache (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return result.getNumberOfColdCacheExecutions() == 0 ? ""
+                    : String.format(Locale.ROOT, "%.3f", result.getAverageColdCacheTime());
+        }
+    }
+
+    /**
+     * A column to display how many times slower each method is with cold CPU caches.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class ColdHotRatioComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Cold/hot";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            if (result.getNumberOfColdCacheExecutions() == 0 || result.getAverageExecutionTime() == 0) {
+                return "";
             }
+            return String.format(Locale.ROOT, "x%.1f",
+                    result.getAverageColdCacheTime() / result.getAverageExecutionTime());
         }
     }
 
     /**
-     * A table model for logging the results of a comparison.
+     * A column to display the average execution time under memory pressure.
      *
      * @author Cyrille Chopelet (http://keyboardplaying.org)
      */
-    private static class ImplComparisonTable extends AbstractTableModel {
+    private static class PressuredTimeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Pressured (us)";
+        }
 
-        private final ImplComparisonColumn[] columns = { new MethodComparisonColumn(), new AvgTimeComparisonColumn(),
-                new ResultComparisonColumn() };
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return result.getNumberOfPressuredExecutions() == 0 ? ""
+                    : String.format(Locale.ROOT, "%.3f", result.getAveragePressuredTime());
+        }
+    }
 
-        private final List<ImplCheckResult> results;
+    /**
+     * A column to display how many times slower each method is under memory pressure.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class PressuredQuietRatioComparisonColumn implements ImplComparisonColumn {
 
-        public ImplComparisonTable(List<ImplCheckResult> results) {
-            this.results = results;
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Pressured/quiet";
         }
 
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
         @Override
-        public int getWidth() {
-            return columns.length;
+        public String getValue(ImplCheckResult result) {
+            if (result.getNumberOfPressuredExecutions() == 0 || result.getAverageExecutionTime() == 0) {
+                return "";
+            }
+            return String.format(Locale.ROOT, "x%.1f",
+                    result.getAveragePressuredTime() / result.getAverageExecutionTime());
         }
+    }
+
+    /**
+     * A column to display the time of the first call in cold-start mode.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class FirstCallComparisonColumn implements ImplComparisonColumn {
 
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
         @Override
-        public int getHeight() {
-            return results.size();
+        public String getTitle() {
+            return "First call (us)";
         }
 
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
         @Override
-        public String getCellContent(int x, int y) {
-            return columns[x].getValue(results.get(y));
+        public String getValue(ImplCheckResult result) {
+            return result.getColdStart() == null ? "" : String.valueOf(result.getColdStart().getFirstCallTime());
         }
+    }
+
+    /**
+     * A column to display the average execution time of the cold-start calls.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class ColdAvgTimeComparisonColumn implements ImplComparisonColumn {
 
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
         @Override
-        public String getColumnTitle(int x) {
-            return columns[x].getTitle();
+        public String getTitle() {
+            return "Cold avg (us)";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            return result.getColdStart() == null ? ""
+                    : String.valueOf(result.getColdStart().getAverageExecutionTime());
         }
     }
 
     /**
-     * A column model for the logging.
+     * A column to display a summary of the JIT diagnostics.
+     * <p/>
+     * Will display the highest compilation tier ({@code int} if never compiled), the number of call sites the method
+     * was inlined into out of the inlining decisions made for it, and the number of deoptimizations, e.g.
+     * {@code T4 inl 2/3 deopt 1}.
      *
      * @author Cyrille Chopelet (http://keyboardplaying.org)
      */
-    private interface ImplComparisonColumn {
+    private static class JitComparisonColumn implements ImplComparisonColumn {
 
-        /**
-         * Returns the title of the column.
+        /*
+         * (non-Javadoc)
          *
-         * @return the title
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
          */
-        String getTitle();
+        @Override
+        public String getTitle() {
+            return "JIT";
+        }
 
-        /**
-         * Returns the formatted value for this column.
+        /*
+         * (non-Javadoc)
          *
-         * @param result
-         *            the line being displayed
-         * @return the formatted value
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
          */
-        String getValue(ImplCheckResult result);
+        @Override
+        public String getValue(ImplCheckResult result) {
+            JitDiagnostics jit = result.getJitDiagnostics();
+            if (jit == null) {
+                return "";
+            }
+            String tier;
+            if (jit.getCompilations() == 0) {
+                tier = "int";
+            } else {
+                tier = jit.getHighestTier() == JitDiagnostics.NO_TIER ? "T?" : "T" + jit.getHighestTier();
+            }
+            return tier + " inl " + jit.getInlinedCount() + "/" + jit.getInliningDecisions().size() + " deopt "
+                    + jit.getDeoptimizations();
+        }
     }
 
     /**
-     * A column to display the method the row corresponds to.
+     * A column to display the CPUs the measurement thread was pinned to, followed by those of the JVM.
      *
      * @author Cyrille Chopelet (http://keyboardplaying.org)
      */
-    private static class MethodComparisonColumn implements ImplComparisonColumn {
+    private static class CpuAffinityComparisonColumn implements ImplComparisonColumn {
 
         /*
          * (non-Javadoc)
@@ -144,7 +1511,7 @@ public final class ImplComparisonLogger {
          */
         @Override
         public String getTitle() {
-            return "Method";
+            return "CPUs";
         }
 
         /*
@@ -156,16 +1523,60 @@ public final class ImplComparisonLogger {
          */
         @Override
         public String getValue(ImplCheckResult result) {
-            return result.getMethod().getName();
+            return result.getCpuAffinity() == null ? "" : result.getCpuAffinity().toString();
         }
     }
 
     /**
-     * A column to display the average execution time for a method.
+     * A column to display the size of the bytecode of a method.
+     * <p/>
+     * Methods exceeding an inlining threshold are flagged with the threshold, e.g. {@code 120 B >35} for a method
+     * larger than {@link BytecodeInfo#MAX_INLINE_SIZE} or {@code 400 B >325} for a method larger than
+     * {@link BytecodeInfo#FREQ_INLINE_SIZE}.
      *
      * @author Cyrille Chopelet (http://keyboardplaying.org)
      */
-    private static class AvgTimeComparisonColumn implements ImplComparisonColumn {
+    private static class BytecodeComparisonColumn implements ImplComparisonColumn {
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getTitle()
+         */
+        @Override
+        public String getTitle() {
+            return "Bytecode";
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see
+         * org.keyboardplaying.comparer.core.ImplComparisonLogger.ImplComparisonColumn#getValue(org.keyboardplaying.
+         * comparer.model.ImplCheckResult)
+         */
+        @Override
+        public String getValue(ImplCheckResult result) {
+            BytecodeInfo bytecode = result.getBytecode();
+            if (bytecode == null) {
+                return "";
+            }
+            String content = bytecode.getCodeLength() + " B";
+            if (bytecode.exceedsFreqInlineSize()) {
+                content += " >" + BytecodeInfo.FREQ_INLINE_SIZE;
+            } else if (bytecode.exceedsMaxInlineSize()) {
+                content += " >" + BytecodeInfo.MAX_INLINE_SIZE;
+            }
+            return content;
+        }
+    }
+
+    /**
+     * A column to display the number of generated inputs on which each method gives the same result as the reference.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class VerifiedComparisonColumn implements ImplComparisonColumn {
 
         /*
          * (non-Javadoc)
@@ -174,7 +1585,7 @@ public final class ImplComparisonLogger {
          */
         @Override
         public String getTitle() {
-            return "Avg time (ms)";
+            return "Verified";
         }
 
         /*
@@ -186,7 +1597,9 @@ public final class ImplComparisonLogger {
          */
         @Override
         public String getValue(ImplCheckResult result) {
-            return String.valueOf(result.getAverageExecutionTime());
+            VerificationResult verification = result.getVerification();
+            return verification == null ? ""
+                    : verification.getInputs() - verification.getDivergences() + "/" + verification.getInputs();
         }
     }
 
@@ -208,8 +1621,11 @@ public final class ImplComparisonLogger {
 
         private static final String NAME_REF = "REF";
 
-        private Object referenceResult;
-        private boolean referenceSet = false;
+        private final ImplCheckResult reference;
+
+        public ResultComparisonColumn(ImplCheckResult reference) {
+            this.reference = reference;
+        }
 
         /*
          * (non-Javadoc)
@@ -231,16 +1647,11 @@ public final class ImplComparisonLogger {
         @Override
         public String getValue(ImplCheckResult result) {
             String content;
-            if (referenceSet) {
-                if (referenceResult == result.getMethodResult()) {
-                    content = "   " + NAME_REF;
-                } else {
-                    content = (Objects.equals(referenceResult, result.getMethodResult()) ? "== " : "!= ") + NAME_REF;
-                }
-            } else {
-                referenceResult = result.getMethodResult();
-                referenceSet = true;
+            if (result == reference || reference.getMethodResult() == result.getMethodResult()) {
                 content = "   " + NAME_REF;
+            } else {
+                content = (Objects.equals(reference.getMethodResult(), result.getMethodResult()) ? "== " : "!= ")
+                        + NAME_REF;
             }
             return content;
         }
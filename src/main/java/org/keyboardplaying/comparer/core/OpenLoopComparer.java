@@ -0,0 +1,402 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.keyboardplaying.comparer.model.ArrivalProcess;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.OpenLoopResult;
+import org.keyboardplaying.comparer.stats.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a utility to compare the latency of implementations of a method under a fixed request rate.
+ * <p/>
+ * Unlike the {@link ImplComparer}, which starts a call only when the previous one returns, this comparer is
+ * open-loop: calls are scheduled at a target rate, whatever the time the previous calls took, and dispatched across
+ * worker threads. The latency of each call is measured from its intended start time rather than its actual one, so
+ * that the time a call spends waiting behind slower ones is not omitted.
+ * <p/>
+ * Each variant is measured at increasing offered loads, up to the first one it cannot sustain: its saturation point.
+ * Since calls are made concurrently, the compared methods must be thread-safe.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class OpenLoopComparer {
+
+    /** The default offered loads, in calls per second. */
+    private static final double[] DEFAULT_RATES = { 1000, 10000, 100000 };
+    /** The default duration of the measure at each offered load, in milliseconds. */
+    private static final long DEFAULT_DURATION = 5000L;
+    /** The default duration of the warm-up at each offered load, in milliseconds. */
+    private static final long DEFAULT_WARMUP = 1000L;
+    /** The default relative shortfall of the achieved rate beyond which a variant is considered saturated. */
+    private static final double DEFAULT_SATURATION_TOLERANCE = 0.05;
+    /** The seed of the Poisson arrivals, so that runs are reproducible. */
+    private static final long ARRIVALS_SEED = 42L;
+    /** The maximal number of calls at each offered load, i.e. the maximal size of an array. */
+    private static final int MAX_CALLS = Integer.MAX_VALUE - 8;
+    /** The delay below which workers spin instead of parking until the intended start time, in nanoseconds. */
+    private static final long SPIN_THRESHOLD = 100000L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(OpenLoopComparer.class);
+
+    private double[] rates = DEFAULT_RATES.clone();
+    private long duration = DEFAULT_DURATION;
+    private long warmup = DEFAULT_WARMUP;
+    private int threads = 1;
+    private ArrivalProcess arrivalProcess = ArrivalProcess.CONSTANT;
+    private double saturationTolerance = DEFAULT_SATURATION_TOLERANCE;
+
+    /**
+     * Returns the offered loads, in increasing order.
+     *
+     * @return the offered loads, in calls per second
+     */
+    public double[] getRates() {
+        return rates.clone();
+    }
+
+    /**
+     * Sets the offered loads each variant is measured at (default: 1000, 10000 and 100000 calls per second).
+     * <p/>
+     * Loads are measured in increasing order; once a variant is saturated, higher loads are skipped for it.
+     *
+     * @param rates
+     *            the offered loads, in calls per second
+     */
+    public void setRates(double... rates) {
+        this.rates = rates.clone();
+        Arrays.sort(this.rates);
+    }
+
+    /**
+     * Returns the duration of the measure at each offered load.
+     *
+     * @return the duration, in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Sets the duration of the measure at each offered load (default: 5 seconds).
+     *
+     * @param duration
+     *            the duration, in milliseconds
+     */
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the duration of the warm-up at each offered load.
+     *
+     * @return the duration, in milliseconds
+     */
+    public long getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Sets the duration of the warm-up at each offered load (default: 1 second).
+     * <p/>
+     * Calls scheduled during the warm-up are made at the offered rate, but their latency is not recorded.
+     *
+     * @param warmup
+     *            the duration, in milliseconds
+     */
+    public void setWarmup(long warmup) {
+        this.warmup = warmup;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the number of worker threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of worker threads the calls are dispatched across (default: 1).
+     * <p/>
+     * Workers wait for the intended start time of their next call by spinning, so there should not be more workers
+     * than available processors.
+     *
+     * @param threads
+     *            the number of worker threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the distribution of the intended start times of the calls.
+     *
+     * @return the arrival process
+     */
+    public ArrivalProcess getArrivalProcess() {
+        return arrivalProcess;
+    }
+
+    /**
+     * Sets the distribution of the intended start times of the calls (default: {@link ArrivalProcess#CONSTANT}).
+     *
+     * @param arrivalProcess
+     *            the arrival process
+     */
+    public void setArrivalProcess(ArrivalProcess arrivalProcess) {
+        this.arrivalProcess = arrivalProcess;
+    }
+
+    /**
+     * Returns the relative shortfall of the achieved rate beyond which a variant is considered saturated.
+     *
+     * @return the saturation tolerance
+     */
+    public double getSaturationTolerance() {
+        return saturationTolerance;
+    }
+
+    /**
+     * Sets the relative shortfall of the achieved rate beyond which a variant is considered saturated (default: 0.05,
+     * i.e. a variant completing less than 95% of the offered load is saturated).
+     *
+     * @param saturationTolerance
+     *            the saturation tolerance
+     */
+    public void setSaturationTolerance(double saturationTolerance) {
+        this.saturationTolerance = saturationTolerance;
+    }
+
+    /**
+     * Compares the latency of a method and its variants at the configured offered loads.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param target
+     *            the instance to call the method on
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     * @return one result per variant and offered load, grouped by variant
+     * @throws ComparisonException
+     *             if the methods could not be found or invoked
+     */
+    public List<OpenLoopResult> compare(Object target, String methodName, Class<?>[] erasure, Object... parameters)
+            throws ComparisonException {
+        return compare(target, target.getClass(), methodName, erasure, parameters);
+    }
+
+    /**
+     * Compares the latency of a static method and its variants at the configured offered loads.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param klass
+     *            the class declaring the method
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     * @return one result per variant and offered load, grouped by variant
+     * @throws ComparisonException
+     *             if the methods could not be found or invoked
+     */
+    public List<OpenLoopResult> compareStatic(Class<?> klass, String methodName, Class<?>[] erasure,
+            Object... parameters) throws ComparisonException {
+        return compare(null, klass, methodName, erasure, parameters);
+    }
+
+    private List<OpenLoopResult> compare(Object target, Class<?> klass, String methodName, Class<?>[] erasure,
+            Object[] parameters) throws ComparisonException {
+        List<Method> methods;
+        try {
+            methods = VariantMethods.load(klass, methodName, erasure);
+        } catch (NoSuchMethodException e) {
+            throw new ComparisonException(e);
+        }
+
+        List<OpenLoopResult> results = new ArrayList<>();
+        for (Method method : methods) {
+            for (double rate : rates) {
+                OpenLoopResult result = run(target, method, parameters, rate);
+                results.add(result);
+                if (result.isSaturated()) {
+                    LOG.debug("{} saturated at {} calls/s", method.getName(), rate);
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs a method at a given offered load.
+     *
+     * @param target
+     *            the instance to call the method on; {@code null} tolerated for static methods
+     * @param method
+     *            the method to run
+     * @param parameters
+     *            the parameters to use when calling the method
+     * @param rate
+     *            the offered load, in calls per second
+     * @return the latencies of the method at this load
+     * @throws ComparisonException
+     *             if the method could not be invoked or the run was interrupted
+     */
+    private OpenLoopResult run(final Object target, final Method method, final Object[] parameters, double rate)
+            throws ComparisonException {
+        LOG.debug("Running {} at {} calls/s", method.getName(), rate);
+        final long[] schedule = buildSchedule(rate);
+        final long warmupNanos = warmup * 1000000L;
+
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch started = new CountDownLatch(1);
+        final long[] start = new long[1];
+        final LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        final long[] lastCompletions = new long[threads];
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int worker = t;
+            histograms[worker] = new LatencyHistogram();
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ready.countDown();
+                        started.await();
+                        int call;
+                        while ((call = next.getAndIncrement()) < schedule.length && failure.get() == null) {
+                            long intended = start[0] + schedule[call];
+                            waitUntil(intended);
+                            VariantMethods.invoke(target, method, parameters);
+                            long completion = System.nanoTime();
+                            if (schedule[call] >= warmupNanos) {
+                                histograms[worker].record(completion - intended);
+                                lastCompletions[worker] = completion;
+                            }
+                        }
+                    } catch (IllegalAccessException | RuntimeException | InterruptedException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }, "open-loop-worker-" + t);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+
+        try {
+            ready.await();
+            start[0] = System.nanoTime();
+            started.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+            throw new ComparisonException("Interrupted while running " + method.getName() + " at " + rate, e);
+        }
+        if (failure.get() != null) {
+            throw new ComparisonException("Failed to run " + method.getName() + " at " + rate, failure.get());
+        }
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        long lastCompletion = start[0] + warmupNanos;
+        for (int t = 0; t < threads; t++) {
+            latencies.add(histograms[t]);
+            lastCompletion = Math.max(lastCompletion, lastCompletions[t]);
+        }
+        long measured = lastCompletion - start[0] - warmupNanos;
+        double achievedRate = measured <= 0 ? 0. : latencies.getTotalCount() * 1e9 / measured;
+        boolean saturated = achievedRate < rate * (1 - saturationTolerance);
+        return new OpenLoopResult(method, rate, achievedRate, latencies, saturated);
+    }
+
+    /**
+     * Computes the intended start time of each call, relative to the beginning of the run.
+     * <p/>
+     * Arrivals are generated until the end of the run, so that the number of Poisson arrivals varies like the
+     * intervals between them, rather than being fixed by the rate.
+     *
+     * @param rate
+     *            the offered load, in calls per second
+     * @return the intended start times, in nanoseconds, in increasing order and before the end of the run
+     */
+    long[] buildSchedule(double rate) {
+        long total = (warmup + duration) * 1000000L;
+        double period = 1e9 / rate;
+
+        long[] schedule = new long[(int) Math.min(MAX_CALLS, rate * (warmup + duration) / 1000 + 1)];
+        Random random = new Random(ARRIVALS_SEED);
+        int calls = 0;
+        double time = 0;
+        while (time < total && calls < MAX_CALLS) {
+            if (calls == schedule.length) {
+                schedule = Arrays.copyOf(schedule, (int) Math.min(MAX_CALLS, 2L * calls));
+            }
+            schedule[calls++] = (long) time;
+            if (arrivalProcess == ArrivalProcess.POISSON) {
+                time -= period * Math.log(1 - random.nextDouble());
+            } else {
+                // not accumulated, so that rounding errors cannot add a call at the end
+                time = calls * period;
+            }
+        }
+        return Arrays.copyOf(schedule, calls);
+    }
+
+    /**
+     * Waits until a given time, parking the thread if the deadline is far enough and spinning otherwise.
+     *
+     * @param deadline
+     *            the time to wait for, as given by {@link System#nanoTime()}
+     */
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD);
+            }
+        }
+    }
+}
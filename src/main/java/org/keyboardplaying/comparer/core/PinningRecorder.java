@@ -0,0 +1,96 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * A Flight Recorder recording of the {@code jdk.VirtualThreadPinned} events, emitted when a virtual thread blocks
+ * while pinned to its carrier thread, e.g. inside a {@code synchronized} block.
+ * <p/>
+ * The events are recorded whatever their duration, whereas Flight Recorder only records those longer than 20 ms by
+ * default.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+final class PinningRecorder {
+
+    /** The name of the event emitted when a virtual thread blocks while pinned. */
+    static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private final Recording recording = new Recording();
+
+    private long events;
+    private long pinnedTime;
+
+    /** Starts recording the pinning events. */
+    void start() {
+        recording.enable(EVENT).withThreshold(Duration.ZERO);
+        recording.start();
+    }
+
+    /**
+     * Stops recording and counts the pinning events.
+     *
+     * @throws IOException
+     *             if the recording cannot be read
+     */
+    void stop() throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try {
+            recording.dump(file);
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (EVENT.equals(event.getEventType().getName())) {
+                    events++;
+                    pinnedTime += event.getDuration().toNanos();
+                }
+            }
+        } finally {
+            recording.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Stops recording, if not already done, and discards the recorded events. Does nothing if already closed. */
+    void close() {
+        recording.close();
+    }
+
+    /**
+     * Returns the number of times a virtual thread blocked while pinned during the recording.
+     *
+     * @return the number of pinning events
+     */
+    long getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the total time virtual threads spent blocked while pinned during the recording.
+     *
+     * @return the pinned time, in nanoseconds
+     */
+    long getPinnedTime() {
+        return pinnedTime;
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.keyboardplaying.comparer.memory.HeapMeter;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.SoakResult;
+import org.keyboardplaying.comparer.model.SoakSample;
+import org.keyboardplaying.comparer.stats.LinearRegression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a utility to run a method and its variants for a long time, in order to detect the ones which degrade.
+ * <p/>
+ * Each variant is called continuously for the configured duration, divided into intervals. At the end of each
+ * interval, the throughput is recorded and the heap retained after a garbage collection is measured, outside the
+ * timing. A linear regression is then fitted on both time series: a variant drifts when its throughput significantly
+ * declines or its retained heap significantly grows, e.g. because of an unbounded cache, map or {@link ThreadLocal}.
+ * <p/>
+ * A trend is reported only if the slope is significant according to a one-sided Student's t-test and the change over
+ * the whole run exceeds the configured tolerance.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class SoakComparer {
+
+    /** The default duration of the soak test of each variant, in milliseconds. */
+    private static final long DEFAULT_DURATION = 60000L;
+    /** The default duration of an interval, in milliseconds. */
+    private static final long DEFAULT_INTERVAL = 1000L;
+    /** The default number of intervals discarded at the beginning of each soak test. */
+    private static final int DEFAULT_WARMUP_INTERVALS = 1;
+    /** The default significance level of the trend tests. */
+    private static final double DEFAULT_SIGNIFICANCE = 0.05;
+    /** The default relative throughput decline tolerated over a soak test. */
+    private static final double DEFAULT_THROUGHPUT_TOLERANCE = 0.05;
+    /** The default retained heap growth tolerated over a soak test, in bytes. */
+    private static final long DEFAULT_HEAP_TOLERANCE = 1024L * 1024L;
+    /** The number of calls between two reads of the clock. */
+    private static final int BATCH_SIZE = 16;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SoakComparer.class);
+
+    private final HeapMeter heapMeter = new HeapMeter();
+
+    private long duration = DEFAULT_DURATION;
+    private long interval = DEFAULT_INTERVAL;
+    private int warmupIntervals = DEFAULT_WARMUP_INTERVALS;
+    private double significance = DEFAULT_SIGNIFICANCE;
+    private double throughputTolerance = DEFAULT_THROUGHPUT_TOLERANCE;
+    private long heapTolerance = DEFAULT_HEAP_TOLERANCE;
+    private LongSupplier nanoClock = System::nanoTime;
+
+    /**
+     * Returns the duration of the soak test of each variant.
+     *
+     * @return the duration, in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Sets the duration of the soak test of each variant, warm-up included (default: one minute).
+     * <p/>
+     * The duration is divided into intervals; the garbage collections made to measure the retained heap are not
+     * counted.
+     *
+     * @param duration
+     *            the duration, in milliseconds
+     */
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the duration of an interval.
+     *
+     * @return the duration of an interval, in milliseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Sets the duration of an interval, i.e. the time between two samples (default: one second).
+     *
+     * @param interval
+     *            the duration of an interval, in milliseconds
+     */
+    public void setInterval(long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Returns the number of intervals discarded at the beginning of each soak test.
+     *
+     * @return the number of warm-up intervals
+     */
+    public int getWarmupIntervals() {
+        return warmupIntervals;
+    }
+
+    /**
+     * Sets the number of intervals discarded at the beginning of each soak test, to let the JIT compiler optimize the
+     * code (default: 1).
+     *
+     * @param warmupIntervals
+     *            the number of warm-up intervals
+     */
+    public void setWarmupIntervals(int warmupIntervals) {
+        this.warmupIntervals = warmupIntervals;
+    }
+
+    /**
+     * Returns the significance level of the trend tests.
+     *
+     * @return the significance level
+     */
+    public double getSignificance() {
+        return significance;
+    }
+
+    /**
+     * Sets the significance level of the trend tests (default: 0.05).
+     *
+     * @param significance
+     *            the significance level
+     */
+    public void setSignificance(double significance) {
+        this.significance = significance;
+    }
+
+    /**
+     * Returns the relative throughput decline tolerated over a soak test.
+     *
+     * @return the tolerated decline
+     */
+    public double getThroughputTolerance() {
+        return throughputTolerance;
+    }
+
+    /**
+     * Sets the relative throughput decline tolerated over a soak test (default: 0.05, i.e. 5%).
+     *
+     * @param throughputTolerance
+     *            the tolerated decline
+     */
+    public void setThroughputTolerance(double throughputTolerance) {
+        this.throughputTolerance = throughputTolerance;
+    }
+
+    /**
+     * Returns the retained heap growth tolerated over a soak test.
+     *
+     * @return the tolerated growth, in bytes
+     */
+    public long getHeapTolerance() {
+        return heapTolerance;
+    }
+
+    /**
+     * Sets the retained heap growth tolerated over a soak test (default: 1 MiB).
+     *
+     * @param heapTolerance
+     *            the tolerated growth, in bytes
+     */
+    public void setHeapTolerance(long heapTolerance) {
+        this.heapTolerance = heapTolerance;
+    }
+
+    /**
+     * Replaces the source of the time measuring the intervals and throughputs (default: {@link System#nanoTime()}),
+     * e.g. to simulate the cost of the calls.
+     *
+     * @param nanoClock
+     *            the source of time, in nanoseconds
+     */
+    void setNanoClock(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs a soak test on a method and its variants.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param target
+     *            the instance to call the method on
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     * @return the soak results of the method and its variants
+     * @throws ComparisonException
+     *             if the methods could not be found or invoked
+     */
+    public List<SoakResult> compare(Object target, String methodName, Class<?>[] erasure, Object... parameters)
+            throws ComparisonException {
+        return compare(target, target.getClass(), methodName, erasure, parameters);
+    }
+
+    /**
+     * Runs a soak test on a static method and its variants.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index. The variants
+     * should have the same erasure and return type as the original method.
+     *
+     * @param klass
+     *            the class declaring the method
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     * @return the soak results of the method and its variants
+     * @throws ComparisonException
+     *             if the methods could not be found or invoked
+     */
+    public List<SoakResult> compareStatic(Class<?> klass, String methodName, Class<?>[] erasure,
+            Object... parameters) throws ComparisonException {
+        return compare(null, klass, methodName, erasure, parameters);
+    }
+
+    private List<SoakResult> compare(Object target, Class<?> klass, String methodName, Class<?>[] erasure,
+            Object[] parameters) throws ComparisonException {
+        try {
+            List<SoakResult> results = new ArrayList<>();
+            for (Method method : VariantMethods.load(klass, methodName, erasure)) {
+                results.add(soak(target, method, parameters));
+            }
+            return results;
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException(e);
+        }
+    }
+
+    /**
+     * Runs the soak test of a single method and analyzes its trends.
+     *
+     * @param target
+     *            the instance to call the method on; {@code null} tolerated for static methods
+     * @param method
+     *            the method to soak
+     * @param parameters
+     *            the parameters to use when calling the method
+     * @return the soak result
+     * @throws IllegalAccessException
+     *             if the method is inaccessible
+     */
+    private SoakResult soak(Object target, Method method, Object[] parameters) throws IllegalAccessException {
+        LOG.debug("Starting soak test for <{}>", method.getName());
+        long intervalNanos = interval * 1000000L;
+        long intervals = interval <= 0 ? 0 : duration / interval;
+
+        List<SoakSample> samples = new ArrayList<>();
+        long startTime = nanoClock.getAsLong();
+        for (long i = 0; i < intervals; i++) {
+            long intervalStart = nanoClock.getAsLong();
+            long intervalEnd = intervalStart + intervalNanos;
+            long calls = 0;
+            long now;
+            do {
+                for (int j = 0; j < BATCH_SIZE; j++) {
+                    VariantMethods.invoke(target, method, parameters);
+                }
+                calls += BATCH_SIZE;
+                now = nanoClock.getAsLong();
+            } while (now - intervalEnd < 0);
+
+            // measured outside of the interval so that the collection does not alter the throughput
+            long retainedHeap = heapMeter.getUsedHeapAfterGc();
+            if (i >= warmupIntervals) {
+                SoakSample sample = new SoakSample((now - startTime) / 1000000, calls, (now - intervalStart) / 1000,
+                        retainedHeap);
+                samples.add(sample);
+                LOG.debug("Soak interval {} for {}: {} calls/s, {} bytes retained", i, method.getName(),
+                        sample.getThroughput(), retainedHeap);
+            }
+        }
+
+        SoakResult result = new SoakResult(method, samples);
+        analyze(result);
+        return result;
+    }
+
+    /**
+     * Fits a linear regression on the throughput and retained heap series of a result and records the detected trends.
+     * <p/>
+     * At least three samples are required to test the significance of a trend.
+     *
+     * @param result
+     *            the result to analyze
+     */
+    private void analyze(SoakResult result) {
+        List<SoakSample> samples = result.getSamples();
+        if (samples.size() < 3) {
+            LOG.warn("Not enough samples to detect trends for {}", result.getMethod().getName());
+            return;
+        }
+
+        double[] throughputs = new double[samples.size()];
+        double[] heaps = new double[samples.size()];
+        for (int i = 0; i < samples.size(); i++) {
+            throughputs[i] = samples.get(i).getThroughput();
+            heaps[i] = samples.get(i).getRetainedHeap();
+        }
+        int last = samples.size() - 1;
+
+        LinearRegression throughput = LinearRegression.ofSeries(throughputs);
+        double initial = throughput.predict(0);
+        double trend = initial <= 0 ? 0 : (throughput.predict(last) - initial) / initial;
+        result.setThroughputTrend(trend);
+        result.setThroughputDrifting(
+                throughput.getDecreasingPValue() < significance && -trend > throughputTolerance);
+
+        LinearRegression heap = LinearRegression.ofSeries(heaps);
+        long growth = Math.round(heap.getSlope() * last);
+        result.setHeapGrowth(growth);
+        result.setHeapGrowing(heap.getIncreasingPValue() < significance && growth > heapTolerance);
+    }
+}
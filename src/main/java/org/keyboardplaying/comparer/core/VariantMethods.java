@@ -0,0 +1,106 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reflection utilities to discover and invoke a method and its variants, shared by the comparers.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+final class VariantMethods {
+
+    private VariantMethods() {
+        // utility class
+    }
+
+    /**
+     * Returns a list containing the original method and its variants.
+     * <p/>
+     * The method variants should be named after the original method but suffixed with a 1-based integer index. The
+     * variants should have the same erasure and return type as the original method.
+     * <p/>
+     * The discovery is made using reflectivity.
+     *
+     * @param klass
+     *            the {@link Class} defining the methods
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @return a {@code List} beginning with the original {@link Method} and the followed with its suffixed variants
+     * @throws NoSuchMethodException
+     *             when the original method could not be found
+     */
+    static List<Method> load(Class<?> klass, String methodName, Class<?>[] erasure)
+            throws NoSuchMethodException {
+        // Result list
+        List<Method> methods = new ArrayList<>();
+
+        // Add base method
+        methods.add(klass.getMethod(methodName, erasure));
+
+        // Add all variants to compare
+        int i = 1;
+        boolean found = true;
+        do {
+            try {
+                methods.add(klass.getMethod(methodName + i++, erasure));
+            } catch (NoSuchMethodException e) {
+                found = false;
+            }
+        } while (found);
+
+        return methods;
+    }
+
+    /**
+     * Exception-safely invokes a method.
+     * <p/>
+     * If the method throws an exception, it will be returned instead of the method result. This was retained as a
+     * better way to fully compare methods' behavior.
+     *
+     * @param target
+     *            the instance to call the method on; {@code null} tolerated for static methods
+     * @param method
+     *            the method to invoke
+     * @param parameters
+     *            the parameters to use when calling the method; {@code null} tolerated in case of a no-arg method
+     * @return the method's result or the thrown exception if any
+     * @throws IllegalArgumentException
+     *             if the method is an instance method and the specified object argument is not an instance of the class
+     *             or interface declaring the underlying method (or of a subclass or implementor thereof); if the number
+     *             of actual and formal parameters differ; if an unwrapping conversion for primitive arguments fails; or
+     *             if, after possible unwrapping, a parameter value cannot be converted to the corresponding formal
+     *             parameter type by a method invocation conversion.
+     * @throws IllegalAccessException
+     *             if this {@code Method} object is enforcing Java language access control and the underlying method is
+     *             inaccessible.
+     */
+    static Object invoke(Object target, Method method, Object[] parameters) throws IllegalAccessException {
+        Object result;
+        try {
+            result = method.invoke(target, parameters);
+        } catch (InvocationTargetException e) {
+            // the method throws an exception, return it
+            result = e.getCause();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a utility to compare the variants of a method inside a running application, on its real calls rather
+ * than on synthetic parameters.
+ * <p/>
+ * A service is wrapped in a proxy implementing one of its interfaces: a fraction of the calls of the sampled method is
+ * timed, each sampled call being routed in turn to the original method or to one of its variants. The other calls go
+ * to the original method without being timed. The comparisons are logged periodically once {@link #start()} was
+ * called, and can be retrieved with {@link #snapshot()}.
+ * <p/>
+ * Since sampled calls of the application are actually served by the variants, these must be equivalent to the
+ * original method and thread-safe. Each comparison covers the calls sampled since the previous one.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class VariantSampler {
+
+    /** The default fraction of the calls which are sampled. */
+    private static final double DEFAULT_FRACTION = 0.01;
+    /** The default interval between two logged comparisons, in milliseconds. */
+    private static final long DEFAULT_REPORT_INTERVAL = 60000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(VariantSampler.class);
+
+    private volatile double fraction = DEFAULT_FRACTION;
+    private long reportInterval = DEFAULT_REPORT_INTERVAL;
+    private ImplComparisonLogger logger = new ImplComparisonLogger();
+
+    private final List<SampledMethod> sampledMethods = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService reporter;
+
+    /**
+     * Returns the fraction of the calls which are sampled.
+     *
+     * @return the fraction, between 0 and 1
+     */
+    public double getFraction() {
+        return fraction;
+    }
+
+    /**
+     * Sets the fraction of the calls which are sampled (default: 0.01). Sampled calls are shared between the original
+     * method and its variants, so that a variant serves a smaller fraction of the calls.
+     * <p/>
+     * The fraction may be changed while the application is running.
+     *
+     * @param fraction
+     *            the fraction, between 0 and 1
+     */
+    public void setFraction(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("The fraction must be between 0 and 1: " + fraction);
+        }
+        this.fraction = fraction;
+    }
+
+    /**
+     * Returns the interval between two logged comparisons.
+     *
+     * @return the interval, in milliseconds
+     */
+    public long getReportInterval() {
+        return reportInterval;
+    }
+
+    /**
+     * Sets the interval between two logged comparisons (default: 60000).
+     *
+     * @param reportInterval
+     *            the interval, in milliseconds
+     */
+    public void setReportInterval(long reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Returns the logger the comparisons are periodically logged with.
+     *
+     * @return the logger
+     */
+    public ImplComparisonLogger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Sets the logger the comparisons are periodically logged with, e.g. to rank the variants.
+     *
+     * @param logger
+     *            the logger
+     */
+    public void setLogger(ImplComparisonLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Wraps a service so that the calls of one of its methods are sampled.
+     * <p/>
+     * The variants should be named after the original method but suffixed with a 1-based integer index, and be
+     * declared by the class of the service. The variants should have the same erasure and return type as the original
+     * method. The methods of the interface which are not sampled are simply delegated to the service, while
+     * {@code equals}, {@code hashCode} and {@code toString} are answered by the proxy itself, which is only equal to
+     * itself.
+     *
+     * @param type
+     *            the interface the application calls the service through
+     * @param target
+     *            the service
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param <T>
+     *            the type of the interface
+     * @return a proxy to use instead of the service
+     * @throws ComparisonException
+     *             if the method is not declared by the interface or has no variant
+     */
+    public <T> T wrap(Class<T> type, T target, String methodName, Class<?>... erasure) throws ComparisonException {
+        if (!type.isInterface()) {
+            throw new ComparisonException(type.getName() + " is not an interface");
+        }
+        List<Method> methods;
+        try {
+            type.getMethod(methodName, erasure);
+            methods = VariantMethods.load(target.getClass(), methodName, erasure);
+        } catch (NoSuchMethodException e) {
+            throw new ComparisonException(e);
+        }
+        if (methods.size() < 2) {
+            throw new ComparisonException("No variant of " + methodName + " was found in "
+                    + target.getClass().getName());
+        }
+
+        SampledMethod sampled = new SampledMethod(methods);
+        sampledMethods.add(sampled);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new SamplingHandler(target, sampled)));
+    }
+
+    /**
+     * Starts logging the comparisons periodically.
+     */
+    public synchronized void start() {
+        if (reporter == null) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "variant-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(this::report, reportInterval, reportInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops logging the comparisons periodically. The calls are still sampled until the proxies are discarded.
+     */
+    public synchronized void stop() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    /**
+     * Returns the comparisons of the calls sampled since the previous snapshot, and starts new ones.
+     * <p/>
+     * Each comparison begins with the original method, followed by its variants. Calls made while the snapshot is
+     * taken may be counted in the next one.
+     *
+     * @return the results of the variants, by original method
+     */
+    public Map<Method, List<ImplCheckResult>> snapshot() {
+        Map<Method, List<ImplCheckResult>> comparisons = new LinkedHashMap<>();
+        for (SampledMethod sampled : sampledMethods) {
+            comparisons.put(sampled.methods.get(0), sampled.drain());
+        }
+        return comparisons;
+    }
+
+    /** Logs the comparisons of the calls sampled since the previous report. */
+    private void report() {
+        try {
+            for (Map.Entry<Method, List<ImplCheckResult>> comparison : snapshot().entrySet()) {
+                List<ImplCheckResult> results = comparison.getValue();
+                if (results.stream().anyMatch(result -> result.getNumberOfExecutions() == 0)) {
+                    LOG.info("Not enough calls of {} were sampled to compare its variants",
+                            comparison.getKey().getName());
+                } else {
+                    LOG.info("Sampled calls of {}", comparison.getKey().getName());
+                    logger.log(results);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep reporting: a scheduled task throwing an exception would not run again
+            LOG.warn("Failed to report the sampled calls", e);
+        }
+    }
+
+    /**
+     * The timings of a sampled method and of its variants.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static class SampledMethod {
+
+        private final List<Method> methods;
+        private final LongAdder[] times;
+        private final LongAdder[] calls;
+        private final AtomicLong next = new AtomicLong();
+
+        SampledMethod(List<Method> methods) {
+            this.methods = methods;
+            this.times = new LongAdder[methods.size()];
+            this.calls = new LongAdder[methods.size()];
+            for (int i = 0; i < methods.size(); i++) {
+                times[i] = new LongAdder();
+                calls[i] = new LongAdder();
+            }
+        }
+
+        boolean matches(Method method) {
+            Method reference = methods.get(0);
+            return reference.getName().equals(method.getName())
+                    && Arrays.equals(reference.getParameterTypes(), method.getParameterTypes());
+        }
+
+        /** Returns the index of the method a sampled call is routed to, in turn. */
+        int nextIndex() {
+            return (int) (next.getAndIncrement() % methods.size());
+        }
+
+        void record(int index, long time) {
+            times[index].add(time);
+            calls[index].increment();
+        }
+
+        List<ImplCheckResult> drain() {
+            List<ImplCheckResult> results = new ArrayList<>(methods.size());
+            for (int i = 0; i < methods.size(); i++) {
+                long count = calls[i].sumThenReset();
+                long time = times[i].sumThenReset();
+                ImplCheckResult result = new ImplCheckResult(methods.get(i), null);
+                result.setLabel(methods.get(i).getName() + " (" + count + " calls)");
+                if (count > 0) {
+                    result.addExecutionTime(time / 1000, (int) Math.min(count, Integer.MAX_VALUE));
+                }
+                results.add(result);
+            }
+            return results;
+        }
+    }
+
+    /**
+     * The handler of the proxies, routing and timing the sampled calls.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private final class SamplingHandler implements InvocationHandler {
+
+        private final Object target;
+        private final SampledMethod sampled;
+
+        SamplingHandler(Object target, SampledMethod sampled) {
+            this.target = target;
+            this.sampled = sampled;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method,
+         * java.lang.Object[])
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, method, args);
+            }
+            try {
+                if (!sampled.matches(method) || ThreadLocalRandom.current().nextDouble() >= fraction) {
+                    return method.invoke(target, args);
+                }
+                int index = sampled.nextIndex();
+                long start = System.nanoTime();
+                Object result = sampled.methods.get(index).invoke(target, args);
+                // Calls throwing an exception are not timed, as they may have skipped most of the work
+                sampled.record(index, System.nanoTime() - start);
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Answers a call of {@code equals}, {@code hashCode} or {@code toString} on the proxy, whose identity is
+         * not the one of the service.
+         *
+         * @param proxy
+         *            the proxy
+         * @param method
+         *            the called method
+         * @param args
+         *            the arguments of the call
+         * @return the result of the call
+         */
+        private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+            Object result;
+            switch (method.getName()) {
+            case "equals":
+                result = proxy == args[0];
+                break;
+            case "hashCode":
+                result = System.identityHashCode(proxy);
+                break;
+            default:
+                result = "sampler of " + target;
+                break;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.fork;
+
+import java.io.Serializable;
+
+/**
+ * The description of a comparison to run in a forked JVM.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+class ForkRequest implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = 7201944203151876625L;
+
+    private final String className;
+    private final String methodName;
+    private final String[] erasure;
+    private final Object[] parameters;
+    private final boolean staticMethod;
+    private final Object target;
+    private final int checks;
+    private final int iterations;
+    private final String measurementCpus;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param className
+     *            the name of the class declaring the methods
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the names of the parameter types
+     * @param parameters
+     *            the parameters to use for comparison; must be serializable
+     * @param staticMethod
+     *            {@code true} if the methods are static
+     * @param target
+     *            the instance to run the comparison on; {@code null} if it must be instantiated in the forked JVM
+     * @param checks
+     *            the number of checks
+     * @param iterations
+     *            the number of iterations per check
+     * @param measurementCpus
+     *            the CPUs to pin the measurement thread to; {@code null} to leave it unpinned
+     */
+    ForkRequest(String className, String methodName, String[] erasure, Object[] parameters, boolean staticMethod,
+            Object target, int checks, int iterations, String measurementCpus) {
+        this.className = className;
+        this.methodName = methodName;
+        this.erasure = erasure;
+        this.parameters = parameters;
+        this.staticMethod = staticMethod;
+        this.target = target;
+        this.checks = checks;
+        this.iterations = iterations;
+        this.measurementCpus = measurementCpus;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    String[] getErasure() {
+        return erasure;
+    }
+
+    Object[] getParameters() {
+        return parameters;
+    }
+
+    boolean isStaticMethod() {
+        return staticMethod;
+    }
+
+    Object getTarget() {
+        return target;
+    }
+
+    int getChecks() {
+        return checks;
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    String getMeasurementCpus() {
+        return measurementCpus;
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.fork;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.keyboardplaying.comparer.affinity.CpuTopology;
+import org.keyboardplaying.comparer.affinity.ThreadAffinity;
+import org.keyboardplaying.comparer.bytecode.BytecodeAnalyzer;
+import org.keyboardplaying.comparer.core.ImplComparer;
+import org.keyboardplaying.comparer.jit.CompilationLogParser;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.CpuAffinity;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.JvmConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a utility to compare performances of implementations of a method in forked JVMs.
+ * <p/>
+ * Each comparison is run by an {@link ImplComparer} in a child JVM started with the options of a
+ * {@link JvmConfiguration}. This makes it possible to compare variants under several JIT modes, garbage collectors or
+ * heap sizes, and to get results which are not influenced by what ran before in the JVM.
+ * <p/>
+ * The child JVM uses the same Java executable and class path as the current one. Parameters must be serializable.
+ * Targets of non-static methods are serialized when possible; otherwise, they are instantiated in the child JVM using
+ * their no-argument constructor. Results which cannot be serialized are replaced with their {@link String}
+ * representation.
+ * <p/>
+ * On Linux, a configuration may pin the forked JVM and its measurement thread to chosen CPUs. The CPUs each comparison
+ * actually ran on are attached to its results, and logged along with their place in the CPU topology.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ForkedComparer {
+
+    /** The default number of checks per comparison. */
+    private static final int DEFAULT_CHECKS = 3;
+    /** The default number of iterations per time check. */
+    private static final int DEFAULT_ITERATIONS = 10000;
+    /** The maximum number of lines of the child output to include in error messages. */
+    private static final int MAX_ERROR_LINES = 20;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ForkedComparer.class);
+
+    private int checks = DEFAULT_CHECKS;
+    private int iterations = DEFAULT_ITERATIONS;
+    private boolean jitDiagnostics = false;
+    private String additionalClassPath;
+
+    /**
+     * Returns the number of checks per comparison.
+     *
+     * @return the number of checks
+     */
+    public int getChecks() {
+        return checks;
+    }
+
+    /**
+     * Sets the number of checks per comparison (default: 3).
+     *
+     * @param checks
+     *            the number of checks
+     */
+    public void setChecks(int checks) {
+        this.checks = checks;
+    }
+
+    /**
+     * Returns the number of iterations per check.
+     *
+     * @return the number of iterations per check
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Sets the number of iterations per check (default: 10000).
+     *
+     * @param iterations
+     *            the number of iterations per check
+     */
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * Returns whether JIT diagnostics are collected from the forked JVMs.
+     *
+     * @return {@code true} if JIT diagnostics are collected
+     */
+    public boolean isJitDiagnostics() {
+        return jitDiagnostics;
+    }
+
+    /**
+     * Sets whether JIT diagnostics are collected from the forked JVMs (default: {@code false}).
+     * <p/>
+     * When enabled, forked JVMs are run with {@code -XX:+PrintCompilation} and {@code -XX:+PrintInlining}, and the
+     * compilation tier reached, the inlining decisions and the number of deoptimizations of each variant are attached
+     * to its result.
+     *
+     * @param jitDiagnostics
+     *            {@code true} to collect JIT diagnostics
+     * @see CompilationLogParser
+     */
+    public void setJitDiagnostics(boolean jitDiagnostics) {
+        this.jitDiagnostics = jitDiagnostics;
+    }
+
+    /**
+     * Returns the class path appended to the one of the current JVM in the forked JVMs.
+     *
+     * @return the additional class path, {@code null} if none
+     */
+    public String getAdditionalClassPath() {
+        return additionalClassPath;
+    }
+
+    /**
+     * Sets the class path appended to the one of the current JVM in the forked JVMs (default: none).
+     * <p/>
+     * This makes it possible to compare classes which were loaded in the current JVM by a dedicated class loader.
+     *
+     * @param additionalClassPath
+     *            the additional class path, entries being separated with {@link File#pathSeparator}
+     */
+    public void setAdditionalClassPath(String additionalClassPath) {
+        this.additionalClassPath = additionalClassPath;
+    }
+
+    /**
+     * Compares several implementations of a method in a forked JVM.
+     *
+     * @param configuration
+     *            the configuration of the forked JVM
+     * @param target
+     *            the instance to run the comparison on
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return a list of performance check result
+     * @throws ComparisonException
+     *             if the comparison fails
+     * @see ImplComparer#compare(Object, String, Class[], Object[])
+     */
+    public List<ImplCheckResult> compare(JvmConfiguration configuration, Object target, String methodName,
+            Class<?>[] erasure, Object[] parameters) throws ComparisonException {
+        Object serializedTarget = target instanceof Serializable ? target : null;
+        return fork(configuration, target.getClass(), methodName, erasure, parameters, false, serializedTarget);
+    }
+
+    /**
+     * Compares several implementations of a static method in a forked JVM.
+     *
+     * @param configuration
+     *            the configuration of the forked JVM
+     * @param klass
+     *            the {@link Class} to run the comparison for
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return a list of performance check result
+     * @throws ComparisonException
+     *             if the comparison fails
+     * @see ImplComparer#compareStatic(Class, String, Class[], Object[])
+     */
+    public List<ImplCheckResult> compareStatic(JvmConfiguration configuration, Class<?> klass, String methodName,
+            Class<?>[] erasure, Object[] parameters) throws ComparisonException {
+        return fork(configuration, klass, methodName, erasure, parameters, true, null);
+    }
+
+    /**
+     * Compares several implementations of a method under each of the supplied JVM configurations.
+     *
+     * @param matrix
+     *            the configurations of the forked JVMs
+     * @param target
+     *            the instance to run the comparison on
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return the performance check results, mapped by configuration name, in the order of the matrix
+     * @throws ComparisonException
+     *             if the comparison fails for any configuration
+     */
+    public Map<String, List<ImplCheckResult>> compare(List<JvmConfiguration> matrix, Object target,
+            String methodName, Class<?>[] erasure, Object[] parameters) throws ComparisonException {
+        Map<String, List<ImplCheckResult>> results = new LinkedHashMap<>();
+        for (JvmConfiguration configuration : matrix) {
+            results.put(configuration.getName(), compare(configuration, target, methodName, erasure, parameters));
+        }
+        return results;
+    }
+
+    /**
+     * Compares several implementations of a static method under each of the supplied JVM configurations.
+     *
+     * @param matrix
+     *            the configurations of the forked JVMs
+     * @param klass
+     *            the {@link Class} to run the comparison for
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @return the performance check results, mapped by configuration name, in the order of the matrix
+     * @throws ComparisonException
+     *             if the comparison fails for any configuration
+     */
+    public Map<String, List<ImplCheckResult>> compareStatic(List<JvmConfiguration> matrix, Class<?> klass,
+            String methodName, Class<?>[] erasure, Object[] parameters) throws ComparisonException {
+        Map<String, List<ImplCheckResult>> results = new LinkedHashMap<>();
+        for (JvmConfiguration configuration : matrix) {
+            results.put(configuration.getName(),
+                    compareStatic(configuration, klass, methodName, erasure, parameters));
+        }
+        return results;
+    }
+
+    /**
+     * Runs a comparison in a forked JVM.
+     *
+     * @param configuration
+     *            the configuration of the forked JVM
+     * @param klass
+     *            the {@link Class} to run the comparison for
+     * @param methodName
+     *            the name of the original method
+     * @param erasure
+     *            the types of the parameters; {@code null} tolerated in case of a no-arg method
+     * @param parameters
+     *            the parameters to use for comparison; {@code null} tolerated in case of a no-arg method
+     * @param staticMethod
+     *            {@code true} if the methods are static
+     * @param target
+     *            the serializable instance to run the comparison on; {@code null} if it must be instantiated in the
+     *            forked JVM
+     * @return a list of performance check result
+     * @throws ComparisonException
+     *             if the forked JVM cannot be run or fails
+     */
+    private List<ImplCheckResult> fork(JvmConfiguration configuration, Class<?> klass, String methodName,
+            Class<?>[] erasure, Object[] parameters, boolean staticMethod, Object target)
+            throws ComparisonException {
+        LOG.info("Forking JVM <{}> for method <{}>", configuration.getName(), methodName);
+        CpuAffinity affinity = configuration.getAffinity();
+        if (affinity != null && !ThreadAffinity.isSupported()) {
+            throw new ComparisonException("CPU affinity requires Linux and taskset: " + configuration);
+        }
+        ForkRequest request = new ForkRequest(klass.getName(), methodName, TypeNames.toNames(erasure),
+                parameters == null ? new Object[0] : parameters, staticMethod, target, checks, iterations,
+                affinity == null ? null : affinity.getMeasurementCpus());
+
+        Path requestFile = null;
+        Path responseFile = null;
+        try {
+            requestFile = Files.createTempFile("comparer-request", ".ser");
+            responseFile = Files.createTempFile("comparer-response", ".ser");
+            try (OutputStream out = Files.newOutputStream(requestFile);
+                    ObjectOutputStream oos = new ObjectOutputStream(out)) {
+                oos.writeObject(request);
+            }
+
+            List<String> output = runWorker(configuration, requestFile, responseFile);
+
+            List<ForkedResult> response;
+            try (InputStream in = Files.newInputStream(responseFile);
+                    ObjectInputStream ois = new ObjectInputStream(in)) {
+                @SuppressWarnings("unchecked")
+                List<ForkedResult> read = (List<ForkedResult>) ois.readObject();
+                response = read;
+            }
+            List<ImplCheckResult> results = toCheckResults(klass, erasure, response);
+            if (affinity != null && !response.isEmpty() && response.get(0).getAffinity() != null) {
+                for (int i = 0; i < results.size(); i++) {
+                    results.get(i).setCpuAffinity(response.get(i).getAffinity());
+                }
+                logAffinity(configuration, response.get(0).getAffinity());
+            }
+            new BytecodeAnalyzer().analyze(results);
+            if (jitDiagnostics) {
+                CompilationLogParser parser = new CompilationLogParser();
+                for (ImplCheckResult result : results) {
+                    result.setJitDiagnostics(parser.parse(output, klass.getName(), result.getMethod().getName()));
+                }
+            }
+            return results;
+        } catch (IOException | ReflectiveOperationException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        } finally {
+            deleteQuietly(requestFile);
+            deleteQuietly(responseFile);
+        }
+    }
+
+    /**
+     * Starts a forked JVM running the {@link ForkedWorker} and waits for it to exit.
+     * <p/>
+     * The output of the forked JVM is logged with the DEBUG level.
+     *
+     * @param configuration
+     *            the configuration of the forked JVM
+     * @param requestFile
+     *            the file containing the serialized {@link ForkRequest}
+     * @param responseFile
+     *            the file the results will be written to
+     * @return the lines output by the forked JVM
+     * @throws IOException
+     *             if the forked JVM cannot be started
+     * @throws ComparisonException
+     *             if the forked JVM exits with an error
+     */
+    private List<String> runWorker(JvmConfiguration configuration, Path requestFile, Path responseFile)
+            throws IOException, ComparisonException {
+        List<String> command = new ArrayList<>();
+        CpuAffinity affinity = configuration.getAffinity();
+        if (affinity != null && affinity.getJvmCpus() != null) {
+            command.addAll(ThreadAffinity.commandPrefix(affinity.getJvmCpus()));
+        }
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (jitDiagnostics) {
+            command.addAll(Arrays.asList(CompilationLogParser.JVM_OPTIONS));
+        }
+        command.addAll(configuration.getOptions());
+        command.add("-cp");
+        String classPath = System.getProperty("java.class.path");
+        command.add(additionalClassPath == null || additionalClassPath.isEmpty() ? classPath
+                : classPath + File.pathSeparator + additionalClassPath);
+        command.add(ForkedWorker.class.getName());
+        command.add(requestFile.toString());
+        command.add(responseFile.toString());
+        LOG.debug("Forked JVM command: {}", command);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                LOG.debug("[{}] {}", configuration.getName(), line);
+                output.add(line);
+            }
+        }
+
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new ComparisonException("Interrupted while waiting for forked JVM " + configuration, e);
+        }
+        if (exitCode != 0) {
+            List<String> tail = output.subList(Math.max(0, output.size() - MAX_ERROR_LINES), output.size());
+            throw new ComparisonException("Forked JVM " + configuration + " exited with code " + exitCode + ":"
+                    + System.lineSeparator() + String.join(System.lineSeparator(), tail));
+        }
+        return output;
+    }
+
+    /**
+     * Converts the results sent back by a forked JVM to {@link ImplCheckResult} instances.
+     *
+     * @param klass
+     *            the {@link Class} the comparison was run for
+     * @param erasure
+     *            the types of the parameters
+     * @param response
+     *            the results sent back by the forked JVM
+     * @return a list of performance check result
+     * @throws NoSuchMethodException
+     *             if a method of the forked JVM cannot be found in this one
+     */
+    private List<ImplCheckResult> toCheckResults(Class<?> klass, Class<?>[] erasure, List<ForkedResult> response)
+            throws NoSuchMethodException {
+        List<ImplCheckResult> results = new ArrayList<>();
+        for (ForkedResult forked : response) {
+            Method method = klass.getMethod(forked.getMethodName(), erasure);
+            ImplCheckResult result = new ImplCheckResult(method, forked.getMethodResult());
+            result.addExecutionTime(forked.getTotalExecutionTime(), forked.getTotalExecutions());
+            result.setCheckTimes(forked.getCheckTimes());
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Logs the CPUs a comparison ran on, and how close the measurement thread was to the rest of the JVM.
+     *
+     * @param configuration
+     *            the configuration of the forked JVM
+     * @param affinity
+     *            the CPUs the comparison ran on
+     */
+    private static void logAffinity(JvmConfiguration configuration, CpuAffinity affinity) {
+        CpuTopology topology = CpuTopology.read();
+        String relation = topology.relate(affinity.getMeasurementCpus(), affinity.getJvmCpus());
+        LOG.info("JVM <{}> on {}: measurement thread on CPU(s) {}, JVM on CPU(s) {} ({})", configuration.getName(),
+                topology, topology.describe(affinity.getMeasurementCpus()),
+                topology.describe(affinity.getJvmCpus()), relation == null ? "unknown relation" : relation);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.debug("Could not delete temporary file {}", file, e);
+            }
+        }
+    }
+}
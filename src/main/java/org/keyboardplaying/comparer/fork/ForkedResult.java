@@ -0,0 +1,105 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.fork;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.keyboardplaying.comparer.model.CpuAffinity;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+
+/**
+ * The serializable part of an {@link ImplCheckResult}, sent back by a forked JVM.
+ * <p/>
+ * When the result of the method cannot be serialized, its {@link String} representation is sent instead.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+class ForkedResult implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = -6405727418950032481L;
+
+    private final String methodName;
+    private final Object methodResult;
+    private final long totalExecutionTime;
+    private final int totalExecutions;
+    private final ArrayList<Double> checkTimes;
+    private final CpuAffinity affinity;
+
+    /**
+     * Creates a new instance from the result of a comparison.
+     *
+     * @param result
+     *            the result of a comparison in the forked JVM
+     * @param affinity
+     *            the CPUs the comparison ran on; {@code null} if unknown
+     */
+    ForkedResult(ImplCheckResult result, CpuAffinity affinity) {
+        this.methodName = result.getMethod().getName();
+        this.methodResult = toTransferable(result.getMethodResult());
+        this.totalExecutionTime = result.getTotalExecutionTime();
+        this.totalExecutions = result.getNumberOfExecutions();
+        this.checkTimes = new ArrayList<>(result.getCheckTimes());
+        this.affinity = affinity;
+    }
+
+    /**
+     * Returns the object itself if it can be serialized, or its {@link String} representation otherwise.
+     *
+     * @param object
+     *            the object to send back
+     * @return a serializable representation of the object
+     */
+    private static Object toTransferable(Object object) {
+        if (object == null) {
+            return null;
+        }
+        try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+            out.writeObject(object);
+            return object;
+        } catch (IOException e) {
+            return String.valueOf(object);
+        }
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    Object getMethodResult() {
+        return methodResult;
+    }
+
+    long getTotalExecutionTime() {
+        return totalExecutionTime;
+    }
+
+    int getTotalExecutions() {
+        return totalExecutions;
+    }
+
+    List<Double> getCheckTimes() {
+        return checkTimes;
+    }
+
+    CpuAffinity getAffinity() {
+        return affinity;
+    }
+}
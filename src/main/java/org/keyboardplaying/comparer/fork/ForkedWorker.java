@@ -0,0 +1,118 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.fork;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.keyboardplaying.comparer.affinity.ThreadAffinity;
+import org.keyboardplaying.comparer.core.ImplComparer;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.CpuAffinity;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+
+/**
+ * The entry point of the forked JVMs started by the {@link ForkedComparer}.
+ * <p/>
+ * The worker reads a serialized {@link ForkRequest} from the file supplied as first argument, runs the comparison with
+ * an {@link ImplComparer} and writes the serialized {@link ForkedResult} list to the file supplied as second argument.
+ * <p/>
+ * On Linux, the main thread, which runs the comparison, is pinned to the requested CPUs, and the CPUs the JVM and
+ * the measurement thread could use are sent back with the results.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ForkedWorker {
+
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private ForkedWorker() {
+        // entry point only
+    }
+
+    /**
+     * Runs the comparison described in the request file and writes the results to the response file.
+     *
+     * @param args
+     *            the path to the request file and the path to the response file
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: ForkedWorker <request file> <response file>");
+            System.exit(EXIT_USAGE);
+        }
+        try {
+            run(Paths.get(args[0]), Paths.get(args[1]));
+        } catch (IOException | ReflectiveOperationException | ComparisonException e) {
+            e.printStackTrace();
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    private static void run(Path requestFile, Path responseFile)
+            throws IOException, ReflectiveOperationException, ComparisonException {
+        ForkRequest request;
+        try (InputStream in = Files.newInputStream(requestFile); ObjectInputStream ois = new ObjectInputStream(in)) {
+            request = (ForkRequest) ois.readObject();
+        }
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Class<?> klass = Class.forName(request.getClassName(), true, loader);
+        Class<?>[] erasure = TypeNames.toTypes(request.getErasure(), loader);
+
+        CpuAffinity affinity = null;
+        if (ThreadAffinity.isSupported()) {
+            String jvmCpus = ThreadAffinity.getAllowedCpus();
+            // The comparison runs on the main thread
+            if (request.getMeasurementCpus() != null) {
+                ThreadAffinity.pinCurrentThread(request.getMeasurementCpus());
+            }
+            affinity = new CpuAffinity(jvmCpus, ThreadAffinity.getAllowedCpus());
+        } else if (request.getMeasurementCpus() != null) {
+            throw new ComparisonException("Pinning the measurement thread requires Linux and taskset");
+        }
+
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(request.getChecks());
+        comparer.setIterations(request.getIterations());
+
+        List<ImplCheckResult> results;
+        if (request.isStaticMethod()) {
+            results = comparer.compareStatic(klass, request.getMethodName(), erasure, request.getParameters());
+        } else {
+            Object target = request.getTarget() == null ? klass.getDeclaredConstructor().newInstance()
+                    : request.getTarget();
+            results = comparer.compare(target, request.getMethodName(), erasure, request.getParameters());
+        }
+
+        List<ForkedResult> response = new ArrayList<>();
+        for (ImplCheckResult result : results) {
+            response.add(new ForkedResult(result, affinity));
+        }
+        try (OutputStream out = Files.newOutputStream(responseFile);
+                ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(response);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.fork;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversions between types and their names, primitive types included.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+final class TypeNames {
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> primitive : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class,
+                long.class, float.class, double.class, void.class }) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
+    private TypeNames() {
+        // utility class
+    }
+
+    /**
+     * Returns the names of the supplied types.
+     *
+     * @param types
+     *            the types; {@code null} tolerated in case of a no-arg method
+     * @return the names of the types, as returned by {@link Class#getName()}
+     */
+    static String[] toNames(Class<?>[] types) {
+        if (types == null) {
+            return new String[0];
+        }
+        String[] names = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = types[i].getName();
+        }
+        return names;
+    }
+
+    /**
+     * Returns the types matching the supplied names.
+     *
+     * @param names
+     *            the names of the types, as returned by {@link Class#getName()}
+     * @param loader
+     *            the loader to load the types with
+     * @return the types
+     * @throws ClassNotFoundException
+     *             if a type cannot be found
+     */
+    static Class<?>[] toTypes(String[] names, ClassLoader loader) throws ClassNotFoundException {
+        Class<?>[] types = new Class<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Class<?> primitive = PRIMITIVES.get(names[i]);
+            types[i] = primitive != null ? primitive : Class.forName(names[i], false, loader);
+        }
+        return types;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.generator;
+
+import java.util.Random;
+
+/**
+ * A generator of input values.
+ * <p/>
+ * Generators must draw all their randomness from the supplied {@link Random}, so that the same seed always gives the
+ * same values.
+ *
+ * @param <T>
+ *            the type of the generated values
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ * @see Generators
+ */
+@FunctionalInterface
+public interface Generator<T> {
+
+    /**
+     * Generates a value.
+     *
+     * @param random
+     *            the source of randomness
+     * @return the generated value
+     */
+    T next(Random random);
+}
@@ -0,0 +1,396 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Factories of {@link Generator} for the most common data shapes.
+ * <p/>
+ * All generators are deterministic: given the same {@link Random}, they produce the same values.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class Generators {
+
+    /** The first printable ASCII character. */
+    private static final int ASCII_FIRST = 0x20;
+    /** The number of printable ASCII characters. */
+    private static final int ASCII_COUNT = 0x7F - ASCII_FIRST;
+    /**
+     * The ranges of code points used to generate Unicode strings, as {first, last} pairs: Latin-1 letters, Greek,
+     * Cyrillic, CJK ideographs and emoji, the latter being encoded as surrogate pairs.
+     */
+    private static final int[][] UNICODE_RANGES = { { 0xC0, 0xFF }, { 0x391, 0x3C9 }, { 0x410, 0x44F },
+            { 0x4E00, 0x9FFF }, { 0x1F600, 0x1F64F } };
+
+    private Generators() {
+        // utility class
+    }
+
+    /**
+     * Returns a generator always returning the same value.
+     *
+     * @param value
+     *            the value
+     * @param <T>
+     *            the type of the value
+     * @return the generator
+     */
+    public static <T> Generator<T> constant(final T value) {
+        return random -> value;
+    }
+
+    /**
+     * Returns a generator of integers uniformly distributed in a range.
+     *
+     * @param min
+     *            the lowest value, inclusive
+     * @param max
+     *            the highest value, inclusive
+     * @return the generator
+     */
+    public static Generator<Integer> ints(final int min, final int max) {
+        if (max < min) {
+            throw new IllegalArgumentException("Empty range: [" + min + ", " + max + "]");
+        }
+        return random -> min + (int) (nextLong(random, (long) max - min + 1));
+    }
+
+    /**
+     * Returns a generator of ranks following Zipf's law: rank {@code k} is drawn with a probability proportional to
+     * {@code 1 / (k + 1)^exponent}.
+     * <p/>
+     * This gives skewed keys, a few of them being drawn much more often than the others, as in most real-life caches
+     * and maps.
+     *
+     * @param count
+     *            the number of distinct ranks, from {@code 0} to {@code count - 1}
+     * @param exponent
+     *            the skew; {@code 0} gives a uniform distribution, {@code 1} is the classic Zipf distribution
+     * @return the generator
+     */
+    public static Generator<Integer> zipf(int count, double exponent) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The number of ranks must be positive: " + count);
+        }
+        final double[] cumulated = new double[count];
+        double total = 0;
+        for (int k = 0; k < count; k++) {
+            total += 1 / Math.pow(k + 1, exponent);
+            cumulated[k] = total;
+        }
+        final double sum = total;
+        return random -> {
+            int index = Arrays.binarySearch(cumulated, random.nextDouble() * sum);
+            return Math.min(count - 1, index >= 0 ? index : -index - 1);
+        };
+    }
+
+    /**
+     * Returns a generator of printable ASCII strings, whose lengths are uniformly distributed in a range.
+     *
+     * @param minLength
+     *            the minimal length, inclusive
+     * @param maxLength
+     *            the maximal length, inclusive
+     * @return the generator
+     */
+    public static Generator<String> asciiStrings(int minLength, int maxLength) {
+        return asciiStrings(ints(minLength, maxLength));
+    }
+
+    /**
+     * Returns a generator of printable ASCII strings, whose lengths follow a given distribution.
+     *
+     * @param lengths
+     *            the generator of the lengths
+     * @return the generator
+     */
+    public static Generator<String> asciiStrings(final Generator<Integer> lengths) {
+        return random -> {
+            int length = lengths.next(random);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (ASCII_FIRST + random.nextInt(ASCII_COUNT));
+            }
+            return new String(chars);
+        };
+    }
+
+    /**
+     * Returns a generator of non-ASCII Unicode strings, whose lengths in code points are uniformly distributed in a
+     * range.
+     *
+     * @param minLength
+     *            the minimal length, inclusive
+     * @param maxLength
+     *            the maximal length, inclusive
+     * @return the generator
+     * @see #unicodeStrings(Generator)
+     */
+    public static Generator<String> unicodeStrings(int minLength, int maxLength) {
+        return unicodeStrings(ints(minLength, maxLength));
+    }
+
+    /**
+     * Returns a generator of non-ASCII Unicode strings, whose lengths in code points follow a given distribution.
+     * <p/>
+     * Code points are drawn from accented Latin letters, Greek, Cyrillic, CJK ideographs and emoji, so that the
+     * strings exercise both multi-byte encodings and surrogate pairs. The {@link String#length()} of the strings is
+     * thus greater than the number of code points.
+     *
+     * @param lengths
+     *            the generator of the lengths, in code points
+     * @return the generator
+     */
+    public static Generator<String> unicodeStrings(final Generator<Integer> lengths) {
+        return random -> {
+            int length = lengths.next(random);
+            StringBuilder builder = new StringBuilder(length * 2);
+            for (int i = 0; i < length; i++) {
+                int[] range = UNICODE_RANGES[random.nextInt(UNICODE_RANGES.length)];
+                builder.appendCodePoint(range[0] + random.nextInt(range[1] - range[0] + 1));
+            }
+            return builder.toString();
+        };
+    }
+
+    /**
+     * Returns a generator of {@code int} arrays with a given sortedness.
+     * <p/>
+     * The array is first sorted in ascending order, then the values at a fraction {@code 1 - sortedness} of the
+     * positions are shuffled among those positions. A sortedness of {@code 1} thus gives a sorted array, and a
+     * sortedness of {@code 0} a random one.
+     *
+     * @param length
+     *            the length of the arrays
+     * @param sortedness
+     *            the sortedness, between {@code 0} and {@code 1}
+     * @return the generator
+     */
+    public static Generator<int[]> intArrays(final int length, final double sortedness) {
+        checkSortedness(sortedness);
+        return random -> {
+            int[] array = new int[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = random.nextInt();
+            }
+            Arrays.sort(array);
+            int[] positions = pickPositions(random, length, sortedness);
+            for (int i = positions.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = array[positions[i]];
+                array[positions[i]] = array[positions[j]];
+                array[positions[j]] = tmp;
+            }
+            return array;
+        };
+    }
+
+    /**
+     * Returns a generator of {@code long} arrays with a given sortedness.
+     *
+     * @param length
+     *            the length of the arrays
+     * @param sortedness
+     *            the sortedness, between {@code 0} and {@code 1}
+     * @return the generator
+     * @see #intArrays(int, double)
+     */
+    public static Generator<long[]> longArrays(final int length, final double sortedness) {
+        checkSortedness(sortedness);
+        return random -> {
+            long[] array = new long[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = random.nextLong();
+            }
+            Arrays.sort(array);
+            int[] positions = pickPositions(random, length, sortedness);
+            for (int i = positions.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long tmp = array[positions[i]];
+                array[positions[i]] = array[positions[j]];
+                array[positions[j]] = tmp;
+            }
+            return array;
+        };
+    }
+
+    /**
+     * Returns a generator of {@code double} arrays, uniformly distributed between {@code 0} and {@code 1}.
+     *
+     * @param length
+     *            the length of the arrays
+     * @return the generator
+     */
+    public static Generator<double[]> doubleArrays(final int length) {
+        return random -> {
+            double[] array = new double[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = random.nextDouble();
+            }
+            return array;
+        };
+    }
+
+    /**
+     * Returns a generator of random {@code byte} arrays.
+     *
+     * @param length
+     *            the length of the arrays
+     * @return the generator
+     */
+    public static Generator<byte[]> byteArrays(final int length) {
+        return random -> {
+            byte[] array = new byte[length];
+            random.nextBytes(array);
+            return array;
+        };
+    }
+
+    /**
+     * Returns a generator of {@link ArrayList} instances.
+     *
+     * @param elements
+     *            the generator of the elements
+     * @param size
+     *            the size of the lists
+     * @param <E>
+     *            the type of the elements
+     * @return the generator
+     */
+    public static <E> Generator<List<E>> lists(final Generator<? extends E> elements, final int size) {
+        return random -> {
+            List<E> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(elements.next(random));
+            }
+            return list;
+        };
+    }
+
+    /**
+     * Returns a generator of {@link HashSet} instances.
+     * <p/>
+     * Elements are drawn {@code draws} times, so that the sets contain fewer elements when the generator of elements
+     * produces duplicates.
+     *
+     * @param elements
+     *            the generator of the elements
+     * @param draws
+     *            the number of elements drawn for each set
+     * @param <E>
+     *            the type of the elements
+     * @return the generator
+     */
+    public static <E> Generator<Set<E>> sets(final Generator<? extends E> elements, final int draws) {
+        return random -> {
+            Set<E> set = new HashSet<>();
+            for (int i = 0; i < draws; i++) {
+                set.add(elements.next(random));
+            }
+            return set;
+        };
+    }
+
+    /**
+     * Returns a generator of {@link HashMap} instances.
+     * <p/>
+     * Entries are drawn {@code draws} times, so that a skewed generator of keys, e.g. {@link #zipf(int, double)},
+     * gives maps with fewer entries whose values were overwritten several times.
+     *
+     * @param keys
+     *            the generator of the keys
+     * @param values
+     *            the generator of the values
+     * @param draws
+     *            the number of entries drawn for each map
+     * @param <K>
+     *            the type of the keys
+     * @param <V>
+     *            the type of the values
+     * @return the generator
+     */
+    public static <K, V> Generator<Map<K, V>> maps(final Generator<? extends K> keys,
+            final Generator<? extends V> values, final int draws) {
+        return random -> {
+            Map<K, V> map = new HashMap<>();
+            for (int i = 0; i < draws; i++) {
+                map.put(keys.next(random), values.next(random));
+            }
+            return map;
+        };
+    }
+
+    private static void checkSortedness(double sortedness) {
+        if (sortedness < 0 || sortedness > 1) {
+            throw new IllegalArgumentException("The sortedness must be between 0 and 1: " + sortedness);
+        }
+    }
+
+    /**
+     * Picks distinct random positions in an array.
+     *
+     * @param random
+     *            the source of randomness
+     * @param length
+     *            the length of the array
+     * @param sortedness
+     *            the fraction of positions which must not be picked
+     * @return the picked positions
+     */
+    private static int[] pickPositions(Random random, int length, double sortedness) {
+        int[] all = new int[length];
+        for (int i = 0; i < length; i++) {
+            all[i] = i;
+        }
+        int count = (int) Math.round((1 - sortedness) * length);
+        // partial Fisher-Yates: the first count positions are a random sample
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(length - i);
+            int tmp = all[i];
+            all[i] = all[j];
+            all[j] = tmp;
+        }
+        return Arrays.copyOf(all, count);
+    }
+
+    /**
+     * Returns a random long between {@code 0}, inclusive, and a bound, exclusive.
+     *
+     * @param random
+     *            the source of randomness
+     * @param bound
+     *            the bound, positive
+     * @return the random long
+     */
+    private static long nextLong(Random random, long bound) {
+        long value;
+        if (bound <= Integer.MAX_VALUE) {
+            value = random.nextInt((int) bound);
+        } else {
+            value = Math.floorMod(random.nextLong(), bound);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.generator;
+
+/**
+ * A pool of parameter sets the compared methods are called with.
+ * <p/>
+ * Parameter sets are generated before the comparison, so that generating them is not timed, and are used in turn by
+ * the successive calls. The size of the pool is a power of two.
+ * <p/>
+ * Since the same parameter sets are passed to all variants, the compared methods must not modify their parameters.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ParameterPool {
+
+    private final Object[][] sets;
+    private final int mask;
+    private final Long seed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param sets
+     *            the parameter sets; their number must be a power of two
+     * @param seed
+     *            the seed the sets were generated with, {@code null} if they were not generated
+     */
+    ParameterPool(Object[][] sets, Long seed) {
+        if (Integer.bitCount(sets.length) != 1) {
+            throw new IllegalArgumentException("The size of the pool must be a power of two: " + sets.length);
+        }
+        this.sets = sets;
+        this.mask = sets.length - 1;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a pool containing a single, fixed parameter set.
+     *
+     * @param parameters
+     *            the parameters; {@code null} tolerated in case of a no-arg method
+     * @return the pool
+     */
+    public static ParameterPool of(Object[] parameters) {
+        return new ParameterPool(new Object[][] { parameters == null ? new Object[0] : parameters }, null);
+    }
+
+    /**
+     * Returns the parameter set to use for a given call.
+     *
+     * @param call
+     *            the index of the call
+     * @return the parameters
+     */
+    public Object[] get(int call) {
+        return sets[call & mask];
+    }
+
+    /**
+     * Returns the number of parameter sets in the pool.
+     *
+     * @return the size of the pool
+     */
+    public int size() {
+        return sets.length;
+    }
+
+    /**
+     * Returns the seed the parameter sets were generated with.
+     *
+     * @return the seed, {@code null} if the parameters were not generated
+     */
+    public Long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.generator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A supplier of generated parameters for the comparisons.
+ * <p/>
+ * Each parameter of the compared method has its own {@link Generator}. All generators draw from a single
+ * {@link Random} initialized with the seed, in the order of the parameters, so that a given seed always gives the same
+ * parameter sets. The seed is recorded in the results of the comparison.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ParameterSupplier {
+
+    /** The default number of parameter sets generated for a comparison. */
+    private static final int DEFAULT_POOL_SIZE = 1024;
+    /** The odd constant spreading the indices of the inputs over the seeds of their generators. */
+    private static final long INPUT_SPREAD = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final List<Generator<?>> generators;
+    private int poolSize = DEFAULT_POOL_SIZE;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param seed
+     *            the seed of the generation
+     * @param generators
+     *            the generators of the parameters, in the order of the parameters
+     */
+    public ParameterSupplier(long seed, Generator<?>... generators) {
+        this.seed = seed;
+        this.generators = Arrays.asList(generators.clone());
+    }
+
+    /**
+     * Returns the seed of the generation.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of parameter sets generated for a comparison.
+     *
+     * @return the size of the pool
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the number of parameter sets generated for a comparison (default: 1024).
+     * <p/>
+     * The size is rounded up to the next power of two. A larger pool gives more realistic inputs, but may not fit in
+     * the processor caches.
+     *
+     * @param poolSize
+     *            the size of the pool
+     */
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Generates the parameter sets.
+     * <p/>
+     * Each call gives the same parameter sets, as long as the generators are deterministic.
+     *
+     * @return a pool of generated parameter sets
+     */
+    public ParameterPool pool() {
+        int size = poolSize <= 1 ? 1 : Integer.highestOneBit(poolSize - 1) << 1;
+        Random random = new Random(seed);
+        Object[][] sets = new Object[size][];
+        for (int i = 0; i < size; i++) {
+            sets[i] = next(random);
+        }
+        return new ParameterPool(sets, seed);
+    }
+
+    /**
+     * Generates the parameter set of a given input, independently from the other inputs.
+     * <p/>
+     * Each input has its own {@link Random}, derived from the seed and the index of the input, so that large corpora
+     * can be generated in parallel and any input can be generated again, e.g. to report it.
+     *
+     * @param input
+     *            the index of the input
+     * @return the parameter set of the input
+     */
+    public Object[] generate(long input) {
+        return next(new Random(seed + input * INPUT_SPREAD));
+    }
+
+    private Object[] next(Random random) {
+        Object[] parameters = new Object[generators.size()];
+        for (int p = 0; p < parameters.length; p++) {
+            parameters[p] = generators.get(p).next(random);
+        }
+        return parameters;
+    }
+}
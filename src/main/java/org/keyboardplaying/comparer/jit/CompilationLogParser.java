@@ -0,0 +1,94 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.jit;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.keyboardplaying.comparer.model.JitDiagnostics;
+
+/**
+ * A parser for the output of a JVM run with {@code -XX:+PrintCompilation} and, optionally,
+ * {@code -XX:+UnlockDiagnosticVMOptions -XX:+PrintInlining}.
+ * <p/>
+ * Lines which are not part of the compilation log are ignored, so the whole output of a JVM can be supplied.
+ * <p/>
+ * With tiered compilation, the code of a lower tier is made not entrant once the method is compiled at a higher tier.
+ * This is a normal transition, so only the code of the highest tier reached so far being made not entrant is counted
+ * as a deoptimization.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class CompilationLogParser {
+
+    /** The JVM options enabling the diagnostics this parser reads. */
+    public static final String[] JVM_OPTIONS = { "-XX:+UnlockDiagnosticVMOptions", "-XX:+PrintCompilation",
+            "-XX:+PrintInlining" };
+
+    /**
+     * A line of {@code -XX:+PrintCompilation}, e.g. {@code 123   45 %  b  3   org.Foo::bar @ 5 (20 bytes)}.
+     * <p/>
+     * Groups: attributes and tier, class, method, remainder of the line.
+     */
+    private static final Pattern COMPILATION = Pattern.compile(
+            "^\\s*\\d+\\s+\\d+\\s+([%sbn!\\d ]*?)\\s*([\\w$.]+)::([\\w$<>]+)\\s+(?:@ \\d+\\s+)?\\(.*?\\)(.*)$");
+    /**
+     * A line of {@code -XX:+PrintInlining}, e.g. {@code @ 1   org.Foo::bar (6 bytes)   inline (hot)}.
+     * <p/>
+     * Groups: class, method, decision.
+     */
+    private static final Pattern INLINING = Pattern
+            .compile("^[\\s|]*@\\s+\\d+\\s+(?:[!\\w]{1,2}\\s+)??([\\w$.]+)::([\\w$<>]+)\\s+\\(.*?\\)\\s*(.*)$");
+    private static final Pattern TIER = Pattern.compile("(\\d)\\s*$");
+    private static final String NOT_ENTRANT = "made not entrant";
+
+    /**
+     * Extracts the diagnostics of a method from the output of a JVM.
+     *
+     * @param output
+     *            the lines output by the JVM
+     * @param className
+     *            the binary name of the class declaring the method
+     * @param methodName
+     *            the name of the method
+     * @return the diagnostics of the method
+     */
+    public JitDiagnostics parse(List<String> output, String className, String methodName) {
+        JitDiagnostics diagnostics = new JitDiagnostics();
+        for (String line : output) {
+            Matcher inlining = INLINING.matcher(line);
+            if (inlining.matches()) {
+                if (className.equals(inlining.group(1)) && methodName.equals(inlining.group(2))) {
+                    diagnostics.addInliningDecision(inlining.group(3).trim());
+                }
+                continue;
+            }
+
+            Matcher compilation = COMPILATION.matcher(line);
+            if (compilation.matches() && className.equals(compilation.group(2))
+                    && methodName.equals(compilation.group(3))) {
+                Matcher tierMatcher = TIER.matcher(compilation.group(1));
+                int tier = tierMatcher.find() ? Integer.parseInt(tierMatcher.group(1)) : JitDiagnostics.NO_TIER;
+                if (!compilation.group(4).contains(NOT_ENTRANT)) {
+                    diagnostics.addCompilation(tier);
+                } else if (tier >= diagnostics.getHighestTier()) {
+                    diagnostics.addDeoptimization();
+                }
+            }
+        }
+        return diagnostics;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+/**
+ * A utility to evict the data of the measured code from the CPU caches.
+ * <p/>
+ * Eviction reads a buffer larger than the last-level cache, one cache line at a time, so that the lines previously
+ * cached are replaced by those of the buffer. The buffer is only read, so that no dirty line has to be written back
+ * while the measured code runs.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class CacheEvictor {
+
+    /** The size of the buffer when the size of the last-level cache is unknown, in bytes. */
+    public static final long DEFAULT_SIZE = 64L * 1024 * 1024;
+    /** The maximal size of the buffer chosen from the size of the last-level cache, in bytes. */
+    private static final long MAX_DETECTED_SIZE = 128L * 1024 * 1024;
+    /** The number of longs in a 64-byte cache line. */
+    private static final int LINE = 8;
+    /** The directory describing the caches of the first CPU on Linux. */
+    private static final String CACHE_DIRECTORY = "/sys/devices/system/cpu/cpu0/cache";
+    private static final long KIBI = 1024L;
+
+    private final long[] buffer;
+    private long checksum;
+
+    /**
+     * Creates a new instance, with a buffer twice as large as the last-level cache when its size can be detected.
+     */
+    public CacheEvictor() {
+        this(getDefaultSize());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param size
+     *            the size of the buffer, in bytes
+     */
+    public CacheEvictor(long size) {
+        this.buffer = new long[(int) Math.max(LINE, size / Long.BYTES)];
+        for (int i = 0; i < buffer.length; i += LINE) {
+            buffer[i] = i;
+        }
+    }
+
+    /**
+     * Returns the default size of the buffer: twice the size of the last-level cache, up to 128 MiB, or
+     * {@link #DEFAULT_SIZE} if it cannot be detected.
+     *
+     * @return the default size of the buffer, in bytes
+     */
+    public static long getDefaultSize() {
+        long lastLevelCache = detectLastLevelCacheSize();
+        return lastLevelCache > 0 ? Math.min(2 * lastLevelCache, MAX_DETECTED_SIZE) : DEFAULT_SIZE;
+    }
+
+    /**
+     * Reads the size of the largest cache of the first CPU, on Linux.
+     *
+     * @return the size of the last-level cache, in bytes, or {@code -1} if it cannot be detected
+     */
+    public static long detectLastLevelCacheSize() {
+        File[] caches = new File(CACHE_DIRECTORY).listFiles();
+        long largest = -1;
+        if (caches == null) {
+            return largest;
+        }
+        for (File cache : caches) {
+            File size = new File(cache, "size");
+            if (size.isFile()) {
+                try {
+                    largest = Math.max(largest, parseSize(new String(Files.readAllBytes(size.toPath()),
+                            StandardCharsets.US_ASCII).trim()));
+                } catch (IOException | NumberFormatException e) {
+                    // not readable, ignore this cache
+                }
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Parses a cache size as written by Linux, e.g. {@code 32K} or {@code 8M}.
+     *
+     * @param size
+     *            the size
+     * @return the size, in bytes
+     */
+    static long parseSize(String size) {
+        String upper = size.toUpperCase(Locale.ROOT);
+        if (upper.endsWith("K")) {
+            return Long.parseLong(upper.substring(0, upper.length() - 1)) * KIBI;
+        } else if (upper.endsWith("M")) {
+            return Long.parseLong(upper.substring(0, upper.length() - 1)) * KIBI * KIBI;
+        }
+        return Long.parseLong(upper);
+    }
+
+    /**
+     * Returns the size of the buffer.
+     *
+     * @return the size of the buffer, in bytes
+     */
+    public long getSize() {
+        return (long) buffer.length * Long.BYTES;
+    }
+
+    /**
+     * Reads the whole buffer, one cache line at a time.
+     */
+    public void evict() {
+        long sum = 0;
+        for (int i = 0; i < buffer.length; i += LINE) {
+            sum += buffer[i];
+        }
+        // keep the reads from being eliminated
+        checksum += sum;
+    }
+
+    /**
+     * Returns the sum of all values read so far, so that the reads cannot be eliminated.
+     *
+     * @return the checksum of the reads
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * A utility to measure the heap retained by the application.
+ * <p/>
+ * The retained heap is the used heap right after a garbage collection. As {@link System#gc()} is only a hint, the
+ * collection is requested until the used heap stops decreasing.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class HeapMeter {
+
+    /** The maximum number of collections requested before reading the used heap. */
+    private static final int MAX_COLLECTIONS = 5;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    /**
+     * Returns the currently used heap, without forcing any collection.
+     *
+     * @return the used heap, in bytes
+     */
+    public long getUsedHeap() {
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Forces a garbage collection and returns the heap still in use afterwards.
+     *
+     * @return the retained heap, in bytes
+     */
+    public long getUsedHeapAfterGc() {
+        long previous;
+        long used = Long.MAX_VALUE;
+        int collections = 0;
+        do {
+            previous = used;
+            memory.gc();
+            used = getUsedHeap();
+        } while (used < previous && ++collections < MAX_COLLECTIONS);
+        return used;
+    }
+}
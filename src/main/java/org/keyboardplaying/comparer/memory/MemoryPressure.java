@@ -0,0 +1,263 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A generator of memory pressure, reproducing the conditions of a busy service: a heap mostly filled with long-lived
+ * data, and background threads allocating garbage.
+ * <p/>
+ * When {@link #start() started}, the heap is filled with retained ballast until the target occupancy is reached, then
+ * background threads continuously allocate arrays, each of them keeping its latest allocations alive for a while so
+ * that some of them survive young collections. Everything is released when {@link #stop() stopped}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class MemoryPressure {
+
+    /** The default fraction of the maximal heap occupied by the ballast. */
+    private static final double DEFAULT_OCCUPANCY = 0.8;
+    /** The default number of background allocator threads. */
+    private static final int DEFAULT_ALLOCATOR_THREADS = 2;
+    /** The default size of a background allocation, in bytes. */
+    private static final int DEFAULT_ALLOCATION_SIZE = 1024;
+    /** The default number of allocations each allocator thread keeps alive. */
+    private static final int DEFAULT_SURVIVORS = 1024;
+    /**
+     * The size of a chunk of ballast, in bytes: well under half of the smallest G1 region (1 MiB), so that chunks are
+     * not allocated as humongous objects, each of them taking whole regions.
+     */
+    private static final int CHUNK = 64 * 1024;
+    /** The maximal number of times the heap is measured and the ballast adjusted to reach the target occupancy. */
+    private static final int MAX_FILL_PASSES = 4;
+
+    private double occupancy = DEFAULT_OCCUPANCY;
+    private int allocatorThreads = DEFAULT_ALLOCATOR_THREADS;
+    private int allocationSize = DEFAULT_ALLOCATION_SIZE;
+    private int survivors = DEFAULT_SURVIVORS;
+
+    private final HeapMeter heapMeter = new HeapMeter();
+    private final List<byte[]> ballast = new ArrayList<>();
+    private final List<Thread> allocators = new ArrayList<>();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private volatile boolean running;
+    private double measuredOccupancy;
+
+    /**
+     * Returns the fraction of the maximal heap occupied once the ballast is allocated.
+     *
+     * @return the target occupancy, between 0 and 1
+     */
+    public double getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Sets the fraction of the maximal heap occupied once the ballast is allocated (default: 0.8). The heap already
+     * used by live objects counts towards this occupancy.
+     *
+     * @param occupancy
+     *            the target occupancy, between 0 and 1
+     */
+    public void setOccupancy(double occupancy) {
+        if (occupancy < 0 || occupancy >= 1) {
+            throw new IllegalArgumentException("The occupancy must be between 0 and 1: " + occupancy);
+        }
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Returns the number of background threads allocating garbage.
+     *
+     * @return the number of allocator threads
+     */
+    public int getAllocatorThreads() {
+        return allocatorThreads;
+    }
+
+    /**
+     * Sets the number of background threads allocating garbage (default: 2).
+     *
+     * @param allocatorThreads
+     *            the number of allocator threads
+     */
+    public void setAllocatorThreads(int allocatorThreads) {
+        this.allocatorThreads = allocatorThreads;
+    }
+
+    /**
+     * Returns the size of the arrays allocated by the background threads.
+     *
+     * @return the size of an allocation, in bytes
+     */
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    /**
+     * Sets the size of the arrays allocated by the background threads (default: 1024).
+     *
+     * @param allocationSize
+     *            the size of an allocation, in bytes
+     */
+    public void setAllocationSize(int allocationSize) {
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * Returns the number of its latest allocations each background thread keeps alive.
+     *
+     * @return the number of surviving allocations per thread
+     */
+    public int getSurvivors() {
+        return survivors;
+    }
+
+    /**
+     * Sets the number of its latest allocations each background thread keeps alive (default: 1024), so that some
+     * garbage is not dead by the time of the next young collection.
+     *
+     * @param survivors
+     *            the number of surviving allocations per thread
+     */
+    public void setSurvivors(int survivors) {
+        this.survivors = survivors;
+    }
+
+    /**
+     * Fills the heap with ballast and starts the background allocator threads.
+     *
+     * @throws IllegalStateException
+     *             if the pressure is already applied
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("Memory pressure is already applied");
+        }
+        fillHeap();
+        allocatedBytes.set(0);
+        running = true;
+        CountDownLatch started = new CountDownLatch(allocatorThreads);
+        for (int t = 0; t < allocatorThreads; t++) {
+            Thread allocator = new Thread(() -> allocate(started), "memory-pressure-" + t);
+            allocator.setDaemon(true);
+            allocators.add(allocator);
+            allocator.start();
+        }
+        // Apply the pressure before returning
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the background allocator threads and releases the ballast.
+     */
+    public synchronized void stop() {
+        running = false;
+        for (Thread allocator : allocators) {
+            try {
+                allocator.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        allocators.clear();
+        ballast.clear();
+    }
+
+    /**
+     * Returns the size of the retained ballast.
+     *
+     * @return the size of the ballast, in bytes
+     */
+    public synchronized long getBallastSize() {
+        return (long) ballast.size() * CHUNK;
+    }
+
+    /**
+     * Returns the fraction of the maximal heap actually occupied after the ballast was allocated, as measured after a
+     * garbage collection.
+     *
+     * @return the measured occupancy, between 0 and 1; {@code 0} if the pressure was never started
+     */
+    public synchronized double getMeasuredOccupancy() {
+        return measuredOccupancy;
+    }
+
+    /**
+     * Returns the amount of garbage allocated by the background threads since the pressure was last started.
+     *
+     * @return the allocated amount, in bytes
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * Allocates ballast until the target occupancy of the heap is reached.
+     * <p/>
+     * The footprint of the ballast is not computed from the size of the chunks, but measured after each pass, so that
+     * the overhead of the objects and the layout of the heap are accounted for.
+     */
+    private void fillHeap() {
+        long max = Runtime.getRuntime().maxMemory();
+        long target = (long) (max * occupancy);
+        // Only count the live objects
+        long used = heapMeter.getUsedHeapAfterGc();
+        for (int pass = 0; pass < MAX_FILL_PASSES && Math.abs(target - used) >= CHUNK; pass++) {
+            if (used < target) {
+                for (long filled = 0; filled < target - used; filled += CHUNK) {
+                    ballast.add(new byte[CHUNK]);
+                }
+            } else {
+                int excess = (int) Math.min(ballast.size(), (used - target) / CHUNK);
+                ballast.subList(ballast.size() - excess, ballast.size()).clear();
+            }
+            used = heapMeter.getUsedHeapAfterGc();
+        }
+        measuredOccupancy = used / (double) max;
+    }
+
+    /**
+     * Allocates garbage until stopped, keeping the latest allocations alive.
+     *
+     * @param started
+     *            the latch to count down once the allocations have begun
+     */
+    private void allocate(CountDownLatch started) {
+        Object[] recent = new Object[Math.max(1, survivors)];
+        long allocated = 0;
+        int i = 0;
+        do {
+            recent[i] = new byte[allocationSize];
+            i = (i + 1) % recent.length;
+            allocated += allocationSize;
+            if (i == 0) {
+                allocatedBytes.addAndGet(allocated);
+                allocated = 0;
+            }
+            started.countDown();
+        } while (running);
+        allocatedBytes.addAndGet(allocated);
+    }
+}
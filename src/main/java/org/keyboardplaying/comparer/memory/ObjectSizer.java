@@ -0,0 +1,351 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.keyboardplaying.comparer.model.ResultSize;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * A utility to measure the deep size of an object graph.
+ * <p/>
+ * The graph is walked through reflection, each object being counted once whatever the number of references to it.
+ * Classes and enum constants are shared by design and are not counted. The size of each object is given by the
+ * {@link SizeAgent} when it was loaded, or estimated from the layout of the fields otherwise, using the header size,
+ * reference size and alignment of the running HotSpot JVM.
+ * <p/>
+ * On Java 9 and later, the fields of JDK classes cannot be read unless their module is opened to the comparer, e.g.
+ * with {@code --add-opens java.base/java.util=ALL-UNNAMED}. The content of strings is then estimated, the elements of
+ * collections and maps are walked through their public API, and the size is reported as a lower bound.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class ObjectSizer {
+
+    /** The size of the header of an object with compressed class pointers, in bytes. */
+    private static final int COMPRESSED_HEADER = 12;
+    /** The size of the header of an object without compressed class pointers, in bytes. */
+    private static final int HEADER = 16;
+    /** The size of a compressed reference, in bytes. */
+    private static final int COMPRESSED_REFERENCE = 4;
+    /** The size of a reference, in bytes. */
+    private static final int REFERENCE = 8;
+    /** The default alignment of objects, in bytes. */
+    private static final int ALIGNMENT = 8;
+    /** The size of the length of an array, in bytes. */
+    private static final int ARRAY_LENGTH = 4;
+    /** The highest character of the Latin-1 charset, stored in a single byte by compact strings. */
+    private static final char LATIN1_MAX = '\u00FF';
+
+    private final Instrumentation instrumentation;
+    private final int headerSize;
+    private final int referenceSize;
+    private final int alignment;
+    private final boolean compactStrings;
+    private final Map<Class<?>, ClassLayout> layouts = new HashMap<>();
+
+    /**
+     * Creates a new instance, using the {@link SizeAgent} if it was loaded and the layout of the running JVM.
+     */
+    public ObjectSizer() {
+        this(SizeAgent.getInstrumentation(), getVmOption("UseCompressedClassPointers", "true"),
+                getVmOption("UseCompressedOops", "true"),
+                Integer.parseInt(getVmOption("ObjectAlignmentInBytes", String.valueOf(ALIGNMENT))));
+    }
+
+    /**
+     * Creates a new instance with a given layout.
+     *
+     * @param instrumentation
+     *            the instrumentation to measure sizes with; {@code null} to estimate them
+     * @param compressedClassPointers
+     *            {@code "true"} if class pointers are compressed
+     * @param compressedOops
+     *            {@code "true"} if references are compressed
+     * @param alignment
+     *            the alignment of objects, in bytes
+     */
+    ObjectSizer(Instrumentation instrumentation, String compressedClassPointers, String compressedOops,
+            int alignment) {
+        this.instrumentation = instrumentation;
+        this.headerSize = Boolean.parseBoolean(compressedClassPointers) ? COMPRESSED_HEADER : HEADER;
+        this.referenceSize = Boolean.parseBoolean(compressedOops) ? COMPRESSED_REFERENCE : REFERENCE;
+        this.alignment = alignment;
+        this.compactStrings = hasField(String.class, "coder");
+    }
+
+    /**
+     * Reads an option of the HotSpot JVM.
+     *
+     * @param name
+     *            the name of the option
+     * @param defaultValue
+     *            the value to use if the JVM is not HotSpot or does not know the option
+     * @return the value of the option
+     */
+    private static String getVmOption(String name, String defaultValue) {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return hotSpot == null ? defaultValue : hotSpot.getVMOption(name).getValue();
+        } catch (RuntimeException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean hasField(Class<?> klass, String name) {
+        for (Field field : klass.getDeclaredFields()) {
+            if (field.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Measures the deep size of the graph of objects reachable from an object.
+     *
+     * @param root
+     *            the object to measure; {@code null} tolerated
+     * @return the size of the graph
+     */
+    public ResultSize measure(Object root) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        Deque<Object> pending = new ArrayDeque<>();
+        if (root != null) {
+            pending.push(root);
+        }
+
+        long bytes = 0;
+        boolean lowerBound = false;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (!visited.add(object) || object instanceof Class || object instanceof Enum) {
+                continue;
+            }
+            bytes += shallowSizeOf(object);
+
+            Class<?> klass = object.getClass();
+            if (klass.isArray()) {
+                pushElements(object, pending);
+                continue;
+            }
+            ClassLayout layout = getLayout(klass);
+            if (layout.accessible) {
+                for (Field field : layout.references) {
+                    push(read(field, object), pending);
+                }
+            } else if (object instanceof String) {
+                bytes += estimateStringValue((String) object);
+            } else {
+                lowerBound = true;
+                pushContent(object, pending);
+            }
+        }
+        return new ResultSize(bytes, lowerBound);
+    }
+
+    /**
+     * Returns the size of an object, without the objects it references.
+     *
+     * @param object
+     *            the object to measure
+     * @return the size of the object, in bytes
+     */
+    long shallowSizeOf(Object object) {
+        if (instrumentation != null) {
+            return instrumentation.getObjectSize(object);
+        }
+        Class<?> klass = object.getClass();
+        if (klass.isArray()) {
+            return arraySize(Array.getLength(object), fieldSize(klass.getComponentType()));
+        }
+        return getLayout(klass).shallowSize;
+    }
+
+    /**
+     * Estimates the size of an array.
+     *
+     * @param length
+     *            the length of the array
+     * @param elementSize
+     *            the size of each element, in bytes
+     * @return the size of the array, in bytes
+     */
+    private long arraySize(int length, int elementSize) {
+        return align(align(headerSize + ARRAY_LENGTH) + (long) length * elementSize);
+    }
+
+    /**
+     * Estimates the size of the array holding the characters of a string whose fields cannot be read.
+     *
+     * @param string
+     *            the string
+     * @return the size of the array, in bytes
+     */
+    private long estimateStringValue(String string) {
+        if (!compactStrings) {
+            return arraySize(string.length(), Character.BYTES);
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > LATIN1_MAX) {
+                return arraySize(string.length() * Character.BYTES, Byte.BYTES);
+            }
+        }
+        return arraySize(string.length(), Byte.BYTES);
+    }
+
+    private long align(long size) {
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    private int fieldSize(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return referenceSize;
+        } else if (type == long.class || type == double.class) {
+            return Long.BYTES;
+        } else if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        } else if (type == short.class || type == char.class) {
+            return Short.BYTES;
+        } else {
+            return Byte.BYTES;
+        }
+    }
+
+    /**
+     * Returns the layout of a class, computing it on first use.
+     *
+     * @param klass
+     *            the class
+     * @return the layout of the class
+     */
+    private ClassLayout getLayout(Class<?> klass) {
+        ClassLayout layout = layouts.get(klass);
+        if (layout == null) {
+            long size = headerSize;
+            boolean accessible = true;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> type = klass; type != null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    size += fieldSize(field.getType());
+                    if (!field.getType().isPrimitive()) {
+                        references.add(field);
+                        accessible &= makeAccessible(field);
+                    }
+                }
+            }
+            layout = new ClassLayout(align(size), references, accessible);
+            layouts.put(klass, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Makes a field readable through reflection.
+     *
+     * @param field
+     *            the field
+     * @return {@code false} if the field cannot be read, e.g. because its module is not open
+     */
+    private static boolean makeAccessible(Field field) {
+        try {
+            field.setAccessible(true);
+            return true;
+        } catch (RuntimeException e) {
+            // InaccessibleObjectException on Java 9+, SecurityException under a security manager
+            return false;
+        }
+    }
+
+    private static Object read(Field field, Object object) {
+        try {
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Field " + field + " should be accessible", e);
+        }
+    }
+
+    private static void push(Object object, Deque<Object> pending) {
+        if (object != null) {
+            pending.push(object);
+        }
+    }
+
+    private static void pushElements(Object array, Deque<Object> pending) {
+        if (!array.getClass().getComponentType().isPrimitive()) {
+            for (Object element : (Object[]) array) {
+                push(element, pending);
+            }
+        }
+    }
+
+    /**
+     * Walks the content of a collection or map through its public API, when its fields cannot be read.
+     *
+     * @param object
+     *            the object whose fields cannot be read
+     * @param pending
+     *            the objects left to walk
+     */
+    private static void pushContent(Object object, Deque<Object> pending) {
+        if (object instanceof Collection) {
+            for (Object element : (Collection<?>) object) {
+                push(element, pending);
+            }
+        } else if (object instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                push(entry.getKey(), pending);
+                push(entry.getValue(), pending);
+            }
+        }
+    }
+
+    /**
+     * The size of the instances of a class and the fields referencing other objects.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static final class ClassLayout {
+
+        private final long shallowSize;
+        private final List<Field> references;
+        private final boolean accessible;
+
+        ClassLayout(long shallowSize, List<Field> references, boolean accessible) {
+            this.shallowSize = shallowSize;
+            this.references = references;
+            this.accessible = accessible;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * A Java agent giving the {@link ObjectSizer} access to the {@link Instrumentation} of the JVM, so that the sizes of
+ * objects are measured by the JVM rather than estimated.
+ * <p/>
+ * The jar of the comparer declares this class as both {@code Premain-Class} and {@code Agent-Class}, so that it can be
+ * loaded with {@code -javaagent:comparer.jar}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class SizeAgent {
+
+    private static volatile Instrumentation instrumentation;
+
+    /** Private constructor to avoid instantiation. */
+    private SizeAgent() {
+    }
+
+    /**
+     * Stores the instrumentation when the agent is loaded at startup.
+     *
+     * @param args
+     *            the arguments of the agent, ignored
+     * @param inst
+     *            the instrumentation of the JVM
+     */
+    public static void premain(String args, Instrumentation inst) {
+        instrumentation = inst;
+    }
+
+    /**
+     * Stores the instrumentation when the agent is attached to a running JVM.
+     *
+     * @param args
+     *            the arguments of the agent, ignored
+     * @param inst
+     *            the instrumentation of the JVM
+     */
+    public static void agentmain(String args, Instrumentation inst) {
+        instrumentation = inst;
+    }
+
+    /**
+     * Returns the instrumentation of the JVM, if the agent was loaded.
+     *
+     * @return the instrumentation, or {@code null} if the agent was not loaded
+     */
+    public static Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.lang.reflect.Method;
+
+import org.keyboardplaying.comparer.stats.LatencyHistogram;
+
+/**
+ * An object to contain the performance of an asynchronous method, in an asynchronous comparison.
+ * <p/>
+ * The latency of a call is measured from its start to the completion of the work it handed off, whereas the hand-off
+ * time only lasts until the method returns. Latencies are expressed in nanoseconds in the histogram.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class AsyncResult {
+
+    private final Method method;
+    private final int concurrency;
+    private final LatencyHistogram latencies;
+    private final double averageHandOffTime;
+    private final double throughput;
+    private final int failures;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param method
+     *            the tested method
+     * @param concurrency
+     *            the maximal number of calls in flight
+     * @param latencies
+     *            the completion latencies of the measured calls which succeeded, in nanoseconds
+     * @param averageHandOffTime
+     *            the average time the method took to return, in microseconds
+     * @param throughput
+     *            the rate at which calls were completed, in calls per second
+     * @param failures
+     *            the number of calls which threw an exception or completed exceptionally
+     */
+    public AsyncResult(Method method, int concurrency, LatencyHistogram latencies, double averageHandOffTime,
+            double throughput, int failures) {
+        this.method = method;
+        this.concurrency = concurrency;
+        this.latencies = latencies;
+        this.averageHandOffTime = averageHandOffTime;
+        this.throughput = throughput;
+        this.failures = failures;
+    }
+
+    /**
+     * Returns the tested method.
+     *
+     * @return the method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the maximal number of calls in flight.
+     *
+     * @return the concurrency
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Returns the histogram of the completion latencies of the measured calls. Failed calls are left out and only
+     * counted by {@link #getFailures()}.
+     *
+     * @return the latencies, in nanoseconds
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the completion latency below which a given percentage of the successful calls completed.
+     *
+     * @param percentile
+     *            the percentile, between {@code 0} and {@code 100}
+     * @return the latency, in microseconds
+     */
+    public double getLatencyAtPercentile(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.;
+    }
+
+    /**
+     * Returns the average time the method took to return, i.e. to hand the work off.
+     *
+     * @return the average hand-off time, in microseconds
+     */
+    public double getAverageHandOffTime() {
+        return averageHandOffTime;
+    }
+
+    /**
+     * Returns the rate at which calls were completed.
+     *
+     * @return the throughput, in calls per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns the number of calls which threw an exception or completed exceptionally.
+     *
+     * @return the number of failed calls
+     */
+    public int getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+/**
+ * An object to contain the static characteristics of the bytecode of a method.
+ * <p/>
+ * The size of the bytecode often decides whether a method is inlined by HotSpot: methods up to
+ * {@value #MAX_INLINE_SIZE} bytes are always inlined, while frequently called methods are inlined up to
+ * {@value #FREQ_INLINE_SIZE} bytes (default values of {@code -XX:MaxInlineSize} and {@code -XX:FreqInlineSize} on
+ * x86).
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class BytecodeInfo {
+
+    /** The default value of HotSpot's {@code -XX:MaxInlineSize}. */
+    public static final int MAX_INLINE_SIZE = 35;
+    /** The default value of HotSpot's {@code -XX:FreqInlineSize} on x86. */
+    public static final int FREQ_INLINE_SIZE = 325;
+
+    private final int codeLength;
+    private final int maxStack;
+    private final int maxLocals;
+    private final int invokeCount;
+    private final int exceptionHandlerCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param codeLength
+     *            the length of the bytecode, in bytes
+     * @param maxStack
+     *            the maximum depth of the operand stack
+     * @param maxLocals
+     *            the number of local variables, parameters included
+     * @param invokeCount
+     *            the number of invoke instructions
+     * @param exceptionHandlerCount
+     *            the number of entries of the exception table
+     */
+    public BytecodeInfo(int codeLength, int maxStack, int maxLocals, int invokeCount, int exceptionHandlerCount) {
+        this.codeLength = codeLength;
+        this.maxStack = maxStack;
+        this.maxLocals = maxLocals;
+        this.invokeCount = invokeCount;
+        this.exceptionHandlerCount = exceptionHandlerCount;
+    }
+
+    /**
+     * Returns the length of the bytecode.
+     *
+     * @return the length, in bytes
+     */
+    public int getCodeLength() {
+        return codeLength;
+    }
+
+    /**
+     * Returns the maximum depth of the operand stack.
+     *
+     * @return the maximum stack depth
+     */
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    /**
+     * Returns the number of local variables, parameters included.
+     *
+     * @return the number of local variables
+     */
+    public int getMaxLocals() {
+        return maxLocals;
+    }
+
+    /**
+     * Returns the number of invoke instructions ({@code invokevirtual}, {@code invokespecial}, {@code invokestatic},
+     * {@code invokeinterface} and {@code invokedynamic}).
+     *
+     * @return the number of invoke instructions
+     */
+    public int getInvokeCount() {
+        return invokeCount;
+    }
+
+    /**
+     * Returns the number of entries of the exception table.
+     *
+     * @return the number of exception handlers
+     */
+    public int getExceptionHandlerCount() {
+        return exceptionHandlerCount;
+    }
+
+    /**
+     * Returns {@code true} if the method is too big to be inlined unless it is frequently called.
+     *
+     * @return {@code true} if the bytecode is larger than {@link #MAX_INLINE_SIZE}
+     */
+    public boolean exceedsMaxInlineSize() {
+        return codeLength > MAX_INLINE_SIZE;
+    }
+
+    /**
+     * Returns {@code true} if the method is too big to be inlined, even when frequently called.
+     *
+     * @return {@code true} if the bytecode is larger than {@link #FREQ_INLINE_SIZE}
+     */
+    public boolean exceedsFreqInlineSize() {
+        return codeLength > FREQ_INLINE_SIZE;
+    }
+}
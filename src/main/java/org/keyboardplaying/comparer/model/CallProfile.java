@@ -0,0 +1,134 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A distribution of calls among several receivers, used to measure variants under monomorphic, bimorphic or
+ * megamorphic call sites.
+ * <p/>
+ * The weights apply to the targets in the order they were supplied to the comparison: a profile with weights
+ * {@code 90, 10} sends 90% of the calls to the first target and 10% to the second one. Targets beyond the last weight
+ * are not called.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class CallProfile {
+
+    private final String name;
+    private final int[] weights;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name
+     *            the name of the profile, as displayed in reports
+     * @param weights
+     *            the relative weight of each target
+     */
+    public CallProfile(String name, int... weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("A call profile needs at least one weight");
+        }
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights cannot be negative: " + Arrays.toString(weights));
+            }
+        }
+        this.name = name;
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Returns a profile calling only the first target.
+     *
+     * @return a monomorphic profile
+     */
+    public static CallProfile monomorphic() {
+        return new CallProfile("monomorphic", 1);
+    }
+
+    /**
+     * Returns a profile spreading calls evenly between the first two targets.
+     *
+     * @return a bimorphic profile
+     */
+    public static CallProfile bimorphic() {
+        return new CallProfile("bimorphic", 1, 1);
+    }
+
+    /**
+     * Returns a profile spreading calls evenly among the supplied number of targets.
+     *
+     * @param targets
+     *            the number of targets to call
+     * @return a megamorphic profile, if at least three targets are called
+     */
+    public static CallProfile megamorphic(int targets) {
+        int[] weights = new int[targets];
+        Arrays.fill(weights, 1);
+        return new CallProfile("megamorphic", weights);
+    }
+
+    /**
+     * Returns the monomorphic, bimorphic and megamorphic profiles applicable to the supplied number of targets.
+     *
+     * @param targets
+     *            the number of available targets
+     * @return the applicable profiles, from the least to the most polymorphic
+     */
+    public static List<CallProfile> defaults(int targets) {
+        List<CallProfile> profiles = new ArrayList<>();
+        profiles.add(monomorphic());
+        if (targets >= 2) {
+            profiles.add(bimorphic());
+        }
+        if (targets >= 3) {
+            profiles.add(megamorphic(targets));
+        }
+        return profiles;
+    }
+
+    /**
+     * Returns the name of the profile.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the relative weight of each target.
+     *
+     * @return a copy of the weights
+     */
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return name + " " + Arrays.toString(weights);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+
+/**
+ * An object to contain the cold-start performance of a method.
+ * <p/>
+ * The cold start is measured on a fresh copy of the declaring class. The first call thus includes the loading and
+ * static initialization of the class, and the following calls run mostly in interpreted mode.
+ * <p/>
+ * Times are expressed in microseconds.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ColdStartResult implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = 4609127893261581337L;
+
+    private final long firstCallTime;
+    private final long totalTime;
+    private final int calls;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param firstCallTime
+     *            the time of the first call, including class loading and initialization
+     * @param totalTime
+     *            the time of all cold calls, the first one included
+     * @param calls
+     *            the number of cold calls
+     */
+    public ColdStartResult(long firstCallTime, long totalTime, int calls) {
+        this.firstCallTime = firstCallTime;
+        this.totalTime = totalTime;
+        this.calls = calls;
+    }
+
+    /**
+     * Returns the time of the first call, including class loading and initialization.
+     *
+     * @return the time of the first call
+     */
+    public long getFirstCallTime() {
+        return firstCallTime;
+    }
+
+    /**
+     * Calculates the average execution time over the cold calls, the first one included.
+     *
+     * @return the average cold execution time
+     */
+    public double getAverageExecutionTime() {
+        return calls == 0 ? 0. : (double) totalTime / calls;
+    }
+
+    /**
+     * Returns the number of cold calls this result was obtained from.
+     *
+     * @return the number of cold calls
+     */
+    public int getNumberOfCalls() {
+        return calls;
+    }
+}
@@ -10,6 +10,16 @@ public class ComparisonException extends Exception {
     /** Generated serial version UID. */
     private static final long serialVersionUID = -3223910951558666707L;
 
+    /**
+     * Constructs a new exception with the specified detail message.
+     *
+     * @param message
+     *            the detail message (which is saved for later retrieval by the {@link #getMessage()} method).
+     */
+    public ComparisonException(String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new exception with the specified detail message and cause.
      * <p/>
@@ -0,0 +1,141 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.lang.reflect.Method;
+
+import org.keyboardplaying.comparer.stats.LatencyHistogram;
+
+/**
+ * An object to contain the performance of a method called concurrently by platform or virtual threads.
+ * <p/>
+ * Latencies are expressed in nanoseconds in the histogram.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ConcurrentResult {
+
+    private final Method method;
+    private final ThreadMode mode;
+    private final int threads;
+    private final double throughput;
+    private final LatencyHistogram latencies;
+    private final long pinnedEvents;
+    private final long pinnedTime;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param method
+     *            the tested method
+     * @param mode
+     *            the kind of threads which made the calls
+     * @param threads
+     *            the number of threads which made the calls concurrently
+     * @param throughput
+     *            the rate at which calls were completed, in calls per second
+     * @param latencies
+     *            the latencies of the calls, in nanoseconds
+     * @param pinnedEvents
+     *            the number of times a virtual thread blocked while pinned to its carrier; {@code -1} if unknown
+     * @param pinnedTime
+     *            the total time virtual threads spent blocked while pinned, in nanoseconds
+     */
+    public ConcurrentResult(Method method, ThreadMode mode, int threads, double throughput,
+            LatencyHistogram latencies, long pinnedEvents, long pinnedTime) {
+        this.method = method;
+        this.mode = mode;
+        this.threads = threads;
+        this.throughput = throughput;
+        this.latencies = latencies;
+        this.pinnedEvents = pinnedEvents;
+        this.pinnedTime = pinnedTime;
+    }
+
+    /**
+     * Returns the tested method.
+     *
+     * @return the method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the kind of threads which made the calls.
+     *
+     * @return the thread mode
+     */
+    public ThreadMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the number of threads which made the calls concurrently.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the rate at which calls were completed.
+     *
+     * @return the throughput, in calls per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns the histogram of the latencies of the calls.
+     *
+     * @return the latencies, in nanoseconds
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the latency below which a given percentage of the calls completed.
+     *
+     * @param percentile
+     *            the percentile, between {@code 0} and {@code 100}
+     * @return the latency, in microseconds
+     */
+    public double getLatencyAtPercentile(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.;
+    }
+
+    /**
+     * Returns the number of times a virtual thread blocked while pinned to its carrier thread, as reported by the
+     * {@code jdk.VirtualThreadPinned} event of Flight Recorder.
+     *
+     * @return the number of pinning events; {@code -1} if they were not recorded, e.g. for platform threads
+     */
+    public long getPinnedEvents() {
+        return pinnedEvents;
+    }
+
+    /**
+     * Returns the total time virtual threads spent blocked while pinned to their carrier thread.
+     *
+     * @return the pinned time, in nanoseconds
+     */
+    public long getPinnedTime() {
+        return pinnedTime;
+    }
+}
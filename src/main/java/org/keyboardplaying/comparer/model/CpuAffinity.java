@@ -0,0 +1,78 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+
+/**
+ * The CPUs a comparison runs on: those the JVM may use, and those the measurement thread is pinned to.
+ * <p/>
+ * CPUs are designated with the list format of {@code taskset}, e.g. {@code 0-3,6}. When set on a
+ * {@link JvmConfiguration}, this is the requested affinity; when attached to a result, this is the affinity the
+ * comparison actually ran with.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class CpuAffinity implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = 5180437465236719542L;
+
+    private final String jvmCpus;
+    private final String measurementCpus;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param jvmCpus
+     *            the CPUs the whole JVM may use, e.g. its compiler and garbage collector threads; {@code null} for no
+     *            restriction
+     * @param measurementCpus
+     *            the CPUs the measurement thread is pinned to; {@code null} for the same CPUs as the JVM
+     */
+    public CpuAffinity(String jvmCpus, String measurementCpus) {
+        this.jvmCpus = jvmCpus;
+        this.measurementCpus = measurementCpus;
+    }
+
+    /**
+     * Returns the CPUs the whole JVM may use.
+     *
+     * @return the list of CPUs, or {@code null} for no restriction
+     */
+    public String getJvmCpus() {
+        return jvmCpus;
+    }
+
+    /**
+     * Returns the CPUs the measurement thread is pinned to.
+     *
+     * @return the list of CPUs, or {@code null} for the same CPUs as the JVM
+     */
+    public String getMeasurementCpus() {
+        return measurementCpus;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return (measurementCpus == null ? "any" : measurementCpus) + " (JVM: " + (jvmCpus == null ? "any" : jvmCpus)
+                + ")";
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+
+/**
+ * An input on which a variant does not give the same result as the reference.
+ * <p/>
+ * Values are kept as their {@link String} representations, so that the divergence can be reported after the inputs
+ * have been discarded.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class Divergence implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = 5370287746651339224L;
+
+    private final long input;
+    private final String parameters;
+    private final String expected;
+    private final String actual;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param input
+     *            the index of the input in the verification corpus
+     * @param parameters
+     *            the representation of the parameters
+     * @param expected
+     *            the representation of the result of the reference
+     * @param actual
+     *            the representation of the result of the variant
+     */
+    public Divergence(long input, String parameters, String expected, String actual) {
+        this.input = input;
+        this.parameters = parameters;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * Returns the index of the input in the verification corpus.
+     *
+     * @return the index of the input
+     */
+    public long getInput() {
+        return input;
+    }
+
+    /**
+     * Returns the representation of the parameters.
+     *
+     * @return the parameters
+     */
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the representation of the result of the reference.
+     *
+     * @return the expected result
+     */
+    public String getExpected() {
+        return expected;
+    }
+
+    /**
+     * Returns the representation of the result of the variant.
+     *
+     * @return the actual result
+     */
+    public String getActual() {
+        return actual;
+    }
+}
@@ -15,9 +15,16 @@
 package org.keyboardplaying.comparer.model;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.keyboardplaying.comparer.stats.OutlierDetection;
 
 /**
  * An object to contain the results of a performance check.
+ * <p/>
+ * Execution times are stored in microseconds.
  *
  * @author Cyrille Chopelet (http://keyboardplaying.org)
  */
@@ -25,8 +32,26 @@ public class ImplCheckResult {
 
     private final Method method;
     private final Object methodResult;
+    private String label;
+    private Long seed;
+    private ResultSize resultSize;
+    private VerificationResult verification;
     private long totalExecutionTime = 0L;
     private int totalExecutions = 0;
+    private List<Double> checkTimes = new ArrayList<>();
+    private OutlierDetection outlierDetection;
+    private long totalColdCacheTime = 0L;
+    private int coldCacheExecutions = 0;
+    private long totalPressuredTime = 0L;
+    private int pressuredExecutions = 0;
+    private long totalHookTime = 0L;
+    private int hookInvocations = 0;
+    private ColdStartResult coldStart;
+    private JitDiagnostics jitDiagnostics;
+    private BytecodeInfo bytecode;
+    private WorkloadInfo workload;
+    private StackProfile profile;
+    private CpuAffinity cpuAffinity;
 
     /**
      * Creates a new instance.
@@ -45,7 +70,7 @@ public class ImplCheckResult {
      * Adds the execution time for one execution to this result and increments the number of executions.
      *
      * @param executionTime
-     *            the execution time
+     *            the execution time, in microseconds
      */
     public void addExecutionTime(long executionTime) {
         addExecutionTime(executionTime, 1);
@@ -54,15 +79,269 @@ public class ImplCheckResult {
     /**
      * Adds the execution time for the a supplied number of executions and increments the number of executions
      * accordingly.
+     * <p/>
+     * Each call is considered as a separate check, whose average execution time is kept to measure the dispersion.
      *
      * @param executionTime
-     *            the execution time
+     *            the execution time, in microseconds
      * @param nbExecutions
      *            the number of executions
      */
     public void addExecutionTime(long executionTime, int nbExecutions) {
         this.totalExecutionTime += executionTime;
         this.totalExecutions += nbExecutions;
+        if (nbExecutions > 0) {
+            checkTimes.add((double) executionTime / nbExecutions);
+        }
+    }
+
+    /**
+     * Returns the average execution time of each check.
+     *
+     * @return the average execution times of the checks, in microseconds
+     */
+    public List<Double> getCheckTimes() {
+        return Collections.unmodifiableList(checkTimes);
+    }
+
+    /**
+     * Replaces the average execution times of the checks, e.g. when the checks were run in another JVM.
+     *
+     * @param checkTimes
+     *            the average execution times of the checks, in microseconds
+     */
+    public void setCheckTimes(List<Double> checkTimes) {
+        this.checkTimes = new ArrayList<>(checkTimes);
+    }
+
+    /**
+     * Returns the lowest average execution time among the checks.
+     *
+     * @return the minimal check time, in microseconds; {@code 0} if no check was made
+     */
+    public double getMinimumCheckTime() {
+        return checkTimes.isEmpty() ? 0. : Collections.min(checkTimes);
+    }
+
+    /**
+     * Returns the highest average execution time among the checks.
+     *
+     * @return the maximal check time, in microseconds; {@code 0} if no check was made
+     */
+    public double getMaximumCheckTime() {
+        return checkTimes.isEmpty() ? 0. : Collections.max(checkTimes);
+    }
+
+    /**
+     * Calculates the sample standard deviation of the average execution times of the checks.
+     *
+     * @return the standard deviation of the check times, in microseconds; {@code 0} if less than two checks were made
+     */
+    public double getCheckTimeDeviation() {
+        int n = checkTimes.size();
+        if (n < 2) {
+            return 0.;
+        }
+        double mean = 0.;
+        for (double time : checkTimes) {
+            mean += time;
+        }
+        mean /= n;
+        double squares = 0.;
+        for (double time : checkTimes) {
+            squares += (time - mean) * (time - mean);
+        }
+        return Math.sqrt(squares / (n - 1));
+    }
+
+    /**
+     * Returns the method used to detect the outlying checks.
+     *
+     * @return the detection method, or {@code null} if no check is considered an outlier
+     */
+    public OutlierDetection getOutlierDetection() {
+        return outlierDetection;
+    }
+
+    /**
+     * Sets the method used to detect the outlying checks, which are left out of the trimmed check time.
+     *
+     * @param outlierDetection
+     *            the detection method, or {@code null} if no check is considered an outlier
+     */
+    public void setOutlierDetection(OutlierDetection outlierDetection) {
+        this.outlierDetection = outlierDetection;
+    }
+
+    /**
+     * Returns the median of the average execution times of the checks.
+     *
+     * @return the median check time, in microseconds; {@code 0} if no check was made
+     */
+    public double getMedianCheckTime() {
+        return OutlierDetection.median(checkTimes);
+    }
+
+    /**
+     * Calculates the mean of the average execution times of the checks which are not outliers. Unlike
+     * {@link #getAverageExecutionTime()}, a single disturbed check cannot shift it.
+     *
+     * @return the trimmed check time, in microseconds; {@code 0} if no check was made
+     */
+    public double getTrimmedCheckTime() {
+        List<Double> inliers = getInlierCheckTimes();
+        double sum = 0.;
+        for (double time : inliers) {
+            sum += time;
+        }
+        return inliers.isEmpty() ? 0. : sum / inliers.size();
+    }
+
+    /**
+     * Returns the number of checks detected as outliers.
+     *
+     * @return the number of rejected checks
+     */
+    public int getRejectedChecks() {
+        return checkTimes.size() - getInlierCheckTimes().size();
+    }
+
+    private List<Double> getInlierCheckTimes() {
+        return outlierDetection == null ? checkTimes : outlierDetection.filter(checkTimes);
+    }
+
+    /**
+     * Adds the execution time of calls made with cold CPU caches and increments the number of such executions
+     * accordingly.
+     *
+     * @param executionTime
+     *            the execution time, in nanoseconds, eviction excluded
+     * @param nbExecutions
+     *            the number of executions
+     */
+    public void addColdCacheTime(long executionTime, int nbExecutions) {
+        this.totalColdCacheTime += executionTime;
+        this.coldCacheExecutions += nbExecutions;
+    }
+
+    /**
+     * Calculates the average execution time of this method with cold CPU caches.
+     *
+     * @return the average cold-cache execution time, in microseconds
+     */
+    public double getAverageColdCacheTime() {
+        return coldCacheExecutions == 0 ? 0. : totalColdCacheTime / 1000. / coldCacheExecutions;
+    }
+
+    /**
+     * Returns the number of times this method was executed with cold CPU caches.
+     *
+     * @return the number of cold-cache executions
+     */
+    public int getNumberOfColdCacheExecutions() {
+        return coldCacheExecutions;
+    }
+
+    /**
+     * Adds the execution time of calls made under memory pressure and increments the number of such executions
+     * accordingly.
+     *
+     * @param executionTime
+     *            the execution time, in nanoseconds
+     * @param nbExecutions
+     *            the number of executions
+     */
+    public void addPressuredTime(long executionTime, int nbExecutions) {
+        this.totalPressuredTime += executionTime;
+        this.pressuredExecutions += nbExecutions;
+    }
+
+    /**
+     * Calculates the average execution time of this method under memory pressure.
+     *
+     * @return the average execution time under memory pressure, in microseconds
+     */
+    public double getAveragePressuredTime() {
+        return pressuredExecutions == 0 ? 0. : totalPressuredTime / 1000. / pressuredExecutions;
+    }
+
+    /**
+     * Returns the number of times this method was executed under memory pressure.
+     *
+     * @return the number of executions under memory pressure
+     */
+    public int getNumberOfPressuredExecutions() {
+        return pressuredExecutions;
+    }
+
+    /**
+     * Adds the time spent in invocation hooks and increments the number of hooked invocations accordingly.
+     *
+     * @param hookTime
+     *            the time spent in the hooks, in nanoseconds
+     * @param nbInvocations
+     *            the number of invocations the hooks were run around
+     */
+    public void addHookTime(long hookTime, int nbInvocations) {
+        this.totalHookTime += hookTime;
+        this.hookInvocations += nbInvocations;
+    }
+
+    /**
+     * Calculates the average time spent in invocation hooks around each call, clock reading included.
+     *
+     * @return the average hook time, in microseconds
+     */
+    public double getAverageHookTime() {
+        return hookInvocations == 0 ? 0. : totalHookTime / 1000. / hookInvocations;
+    }
+
+    /**
+     * Returns the number of timed invocations invocation hooks were run around.
+     *
+     * @return the number of hooked invocations
+     */
+    public int getNumberOfHookInvocations() {
+        return hookInvocations;
+    }
+
+    /**
+     * Returns the label identifying this result when the method name is not enough, e.g. the jar the method was loaded
+     * from when comparing versions.
+     *
+     * @return the label, or the name of the method if no label was set
+     */
+    public String getLabel() {
+        return label == null ? method.getName() : label;
+    }
+
+    /**
+     * Sets the label identifying this result when the method name is not enough.
+     *
+     * @param label
+     *            the label
+     */
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the seed the parameters of the comparison were generated with, so that it can be reproduced.
+     *
+     * @return the seed, {@code null} if the parameters were not generated
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed the parameters of the comparison were generated with.
+     *
+     * @param seed
+     *            the seed, {@code null} if the parameters were not generated
+     */
+    public void setSeed(Long seed) {
+        this.seed = seed;
     }
 
     /**
@@ -85,15 +364,62 @@ public class ImplCheckResult {
         return methodResult;
     }
 
+    /**
+     * Returns the deep size of the result of the method.
+     *
+     * @return the size of the result, or {@code null} if it was not measured
+     */
+    public ResultSize getResultSize() {
+        return resultSize;
+    }
+
+    /**
+     * Sets the deep size of the result of the method.
+     *
+     * @param resultSize
+     *            the size of the result
+     */
+    public void setResultSize(ResultSize resultSize) {
+        this.resultSize = resultSize;
+    }
+
+    /**
+     * Returns the result of the verification of this method against the reference over generated inputs.
+     *
+     * @return the verification result, or {@code null} if the method was not verified
+     */
+    public VerificationResult getVerification() {
+        return verification;
+    }
+
+    /**
+     * Sets the result of the verification of this method against the reference over generated inputs.
+     *
+     * @param verification
+     *            the verification result
+     */
+    public void setVerification(VerificationResult verification) {
+        this.verification = verification;
+    }
+
     /**
      * Calculates the average execution time of this method.
      *
-     * @return the average execution time
+     * @return the average execution time, in microseconds
      */
     public double getAverageExecutionTime() {
         return totalExecutions == 0 ? 0. : (double) totalExecutionTime / totalExecutions;
     }
 
+    /**
+     * Returns the total execution time of this method.
+     *
+     * @return the total execution time, in microseconds
+     */
+    public long getTotalExecutionTime() {
+        return totalExecutionTime;
+    }
+
     /**
      * Returns the number of time this method was executed to obtain this result.
      *
@@ -102,4 +428,118 @@ public class ImplCheckResult {
     public int getNumberOfExecutions() {
         return totalExecutions;
     }
+
+    /**
+     * Returns the cold-start performance of this method.
+     *
+     * @return the cold-start performance, or {@code null} if it was not measured
+     */
+    public ColdStartResult getColdStart() {
+        return coldStart;
+    }
+
+    /**
+     * Sets the cold-start performance of this method.
+     *
+     * @param coldStart
+     *            the cold-start performance
+     */
+    public void setColdStart(ColdStartResult coldStart) {
+        this.coldStart = coldStart;
+    }
+
+    /**
+     * Returns what the JIT compiler did with this method.
+     *
+     * @return the JIT diagnostics, or {@code null} if they were not collected
+     */
+    public JitDiagnostics getJitDiagnostics() {
+        return jitDiagnostics;
+    }
+
+    /**
+     * Sets what the JIT compiler did with this method.
+     *
+     * @param jitDiagnostics
+     *            the JIT diagnostics
+     */
+    public void setJitDiagnostics(JitDiagnostics jitDiagnostics) {
+        this.jitDiagnostics = jitDiagnostics;
+    }
+
+    /**
+     * Returns the characteristics of the bytecode of this method.
+     *
+     * @return the bytecode information, or {@code null} if the bytecode was not analyzed
+     */
+    public BytecodeInfo getBytecode() {
+        return bytecode;
+    }
+
+    /**
+     * Sets the characteristics of the bytecode of this method.
+     *
+     * @param bytecode
+     *            the bytecode information
+     */
+    public void setBytecode(BytecodeInfo bytecode) {
+        this.bytecode = bytecode;
+    }
+
+    /**
+     * Returns the collection workload this result was measured on.
+     *
+     * @return the workload, or {@code null} if the method was not run as a collection workload
+     */
+    public WorkloadInfo getWorkload() {
+        return workload;
+    }
+
+    /**
+     * Sets the collection workload this result was measured on.
+     *
+     * @param workload
+     *            the workload
+     */
+    public void setWorkload(WorkloadInfo workload) {
+        this.workload = workload;
+    }
+
+    /**
+     * Returns the stacks sampled while this method was being timed.
+     *
+     * @return the profile, or {@code null} if the method was not profiled
+     */
+    public StackProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Sets the stacks sampled while this method was being timed.
+     *
+     * @param profile
+     *            the profile
+     */
+    public void setProfile(StackProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Returns the CPUs this method was measured on.
+     *
+     * @return the CPUs of the JVM and of the measurement thread, or {@code null} if unknown
+     */
+    public CpuAffinity getCpuAffinity() {
+        return cpuAffinity;
+    }
+
+    /**
+     * Sets the CPUs this method was measured on.
+     *
+     * @param cpuAffinity
+     *            the CPUs of the JVM and of the measurement thread
+     */
+    public void setCpuAffinity(CpuAffinity cpuAffinity) {
+        this.cpuAffinity = cpuAffinity;
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An object to contain what the JIT compiler did with a method, as reported by {@code -XX:+PrintCompilation} and
+ * {@code -XX:+PrintInlining}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class JitDiagnostics {
+
+    /** The tier reported when the method was not compiled, or the tier is unknown. */
+    public static final int NO_TIER = -1;
+
+    private int highestTier = NO_TIER;
+    private int compilations = 0;
+    private int deoptimizations = 0;
+    private final List<String> inliningDecisions = new ArrayList<>();
+
+    /**
+     * Records a compilation of the method.
+     *
+     * @param tier
+     *            the compilation tier, or {@link #NO_TIER} if unknown
+     */
+    public void addCompilation(int tier) {
+        compilations++;
+        highestTier = Math.max(highestTier, tier);
+    }
+
+    /** Records a deoptimization of the method (compiled code made not entrant). */
+    public void addDeoptimization() {
+        deoptimizations++;
+    }
+
+    /**
+     * Records an inlining decision made for a call site calling the method.
+     *
+     * @param decision
+     *            the decision, as printed by the JVM, e.g. {@code "inline (hot)"} or {@code "too big"}
+     */
+    public void addInliningDecision(String decision) {
+        inliningDecisions.add(decision);
+    }
+
+    /**
+     * Returns the highest compilation tier reached by the method.
+     *
+     * @return the highest tier, or {@link #NO_TIER} if the method was never compiled or the tier is unknown
+     */
+    public int getHighestTier() {
+        return highestTier;
+    }
+
+    /**
+     * Returns the number of times the method was compiled, on-stack replacements included.
+     *
+     * @return the number of compilations
+     */
+    public int getCompilations() {
+        return compilations;
+    }
+
+    /**
+     * Returns the number of times the compiled code of the method was made not entrant.
+     *
+     * @return the number of deoptimizations
+     */
+    public int getDeoptimizations() {
+        return deoptimizations;
+    }
+
+    /**
+     * Returns the inlining decisions made for call sites calling the method.
+     *
+     * @return an unmodifiable list of decisions
+     */
+    public List<String> getInliningDecisions() {
+        return Collections.unmodifiableList(inliningDecisions);
+    }
+
+    /**
+     * Returns the number of call sites the method was inlined into.
+     *
+     * @return the number of positive inlining decisions
+     */
+    public int getInlinedCount() {
+        int count = 0;
+        for (String decision : inliningDecisions) {
+            if (decision.startsWith("inline") || decision.startsWith("accessor")
+                    || decision.startsWith("intrinsic")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A named set of JVM options a comparison can be run with, e.g. {@code "C1 only"} with
+ * {@code -XX:TieredStopAtLevel=1}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class JvmConfiguration implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = -2857461990345521873L;
+
+    private final String name;
+    private final List<String> options;
+    private final CpuAffinity affinity;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name
+     *            the name of the configuration, as displayed in reports
+     * @param options
+     *            the JVM options, e.g. {@code -XX:+UseZGC} or {@code -Xmx256m}
+     */
+    public JvmConfiguration(String name, String... options) {
+        this(name, Arrays.asList(options));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name
+     *            the name of the configuration, as displayed in reports
+     * @param options
+     *            the JVM options, e.g. {@code -XX:+UseZGC} or {@code -Xmx256m}
+     */
+    public JvmConfiguration(String name, List<String> options) {
+        this(name, null, options);
+    }
+
+    /**
+     * Creates a new instance pinning the JVM and its measurement thread to chosen CPUs, on Linux.
+     *
+     * @param name
+     *            the name of the configuration, as displayed in reports
+     * @param affinity
+     *            the CPUs of the JVM and of the measurement thread; {@code null} for no restriction
+     * @param options
+     *            the JVM options, e.g. {@code -XX:+UseZGC} or {@code -Xmx256m}
+     */
+    public JvmConfiguration(String name, CpuAffinity affinity, String... options) {
+        this(name, affinity, Arrays.asList(options));
+    }
+
+    /**
+     * Creates a new instance pinning the JVM and its measurement thread to chosen CPUs, on Linux.
+     *
+     * @param name
+     *            the name of the configuration, as displayed in reports
+     * @param affinity
+     *            the CPUs of the JVM and of the measurement thread; {@code null} for no restriction
+     * @param options
+     *            the JVM options, e.g. {@code -XX:+UseZGC} or {@code -Xmx256m}
+     */
+    public JvmConfiguration(String name, CpuAffinity affinity, List<String> options) {
+        this.name = name;
+        this.affinity = affinity;
+        this.options = Collections.unmodifiableList(new ArrayList<>(options));
+    }
+
+    /**
+     * Returns the name of the configuration.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the JVM options of the configuration.
+     *
+     * @return an unmodifiable list of options
+     */
+    public List<String> getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns the CPUs the JVM and its measurement thread are pinned to.
+     *
+     * @return the affinity, or {@code null} for no restriction
+     */
+    public CpuAffinity getAffinity() {
+        return affinity;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return name + " " + options + (affinity == null ? "" : " on CPUs " + affinity);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.lang.reflect.Method;
+
+import org.keyboardplaying.comparer.stats.LatencyHistogram;
+
+/**
+ * An object to contain the latency of a method under a given offered load, in an open-loop comparison.
+ * <p/>
+ * Latencies are measured from the intended start time of each call, so that the time spent waiting for a worker is
+ * included. They are expressed in nanoseconds in the histogram.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class OpenLoopResult {
+
+    private final Method method;
+    private final double offeredRate;
+    private final double achievedRate;
+    private final LatencyHistogram latencies;
+    private final boolean saturated;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param method
+     *            the tested method
+     * @param offeredRate
+     *            the target rate, in calls per second
+     * @param achievedRate
+     *            the rate at which calls were actually completed, in calls per second
+     * @param latencies
+     *            the latencies of the measured calls, in nanoseconds
+     * @param saturated
+     *            {@code true} if the method could not keep up with the offered rate
+     */
+    public OpenLoopResult(Method method, double offeredRate, double achievedRate, LatencyHistogram latencies,
+            boolean saturated) {
+        this.method = method;
+        this.offeredRate = offeredRate;
+        this.achievedRate = achievedRate;
+        this.latencies = latencies;
+        this.saturated = saturated;
+    }
+
+    /**
+     * Returns the tested method.
+     *
+     * @return the method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the target rate.
+     *
+     * @return the offered rate, in calls per second
+     */
+    public double getOfferedRate() {
+        return offeredRate;
+    }
+
+    /**
+     * Returns the rate at which calls were actually completed.
+     *
+     * @return the achieved rate, in calls per second
+     */
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    /**
+     * Returns the histogram of the latencies of the measured calls.
+     *
+     * @return the latencies, in nanoseconds
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the latency below which a given percentage of the calls completed.
+     *
+     * @param percentile
+     *            the percentile, between {@code 0} and {@code 100}
+     * @return the latency, in microseconds
+     */
+    public double getLatencyAtPercentile(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.;
+    }
+
+    /**
+     * Returns whether the method could not keep up with the offered rate.
+     * <p/>
+     * Latencies measured at a saturated rate mostly reflect the length of the backlog, and thus the duration of the
+     * measure.
+     *
+     * @return {@code true} if the method is saturated at this rate
+     */
+    public boolean isSaturated() {
+        return saturated;
+    }
+}
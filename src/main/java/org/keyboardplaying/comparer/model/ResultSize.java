@@ -0,0 +1,65 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+
+/**
+ * An object to contain the size of the object graph returned by a method.
+ * <p/>
+ * The size is a lower bound when some objects of the graph could not be walked, e.g. the internals of JDK collections
+ * when the {@code java.base} module is not opened to the comparer.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ResultSize implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = 2931806427417794036L;
+
+    private final long bytes;
+    private final boolean lowerBound;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param bytes
+     *            the size of the object graph, in bytes
+     * @param lowerBound
+     *            {@code true} if some objects could not be walked
+     */
+    public ResultSize(long bytes, boolean lowerBound) {
+        this.bytes = bytes;
+        this.lowerBound = lowerBound;
+    }
+
+    /**
+     * Returns the size of the object graph.
+     *
+     * @return the size, in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns {@code true} if the size is a lower bound, because some objects of the graph could not be walked.
+     *
+     * @return {@code true} if the actual size may be larger
+     */
+    public boolean isLowerBound() {
+        return lowerBound;
+    }
+}
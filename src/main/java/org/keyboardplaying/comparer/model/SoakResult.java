@@ -0,0 +1,153 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An object to contain the result of a soak test for a method.
+ * <p/>
+ * Along with the time series of throughput and retained heap, it records the trends detected on both.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class SoakResult {
+
+    private final Method method;
+    private final List<SoakSample> samples;
+
+    private double throughputTrend;
+    private boolean throughputDrifting;
+    private long heapGrowth;
+    private boolean heapGrowing;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param method
+     *            the tested method
+     * @param samples
+     *            the samples taken for each interval, in chronological order
+     */
+    public SoakResult(Method method, List<SoakSample> samples) {
+        this.method = method;
+        this.samples = Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * Returns the tested method.
+     *
+     * @return the method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the samples taken for each interval, in chronological order.
+     *
+     * @return the samples
+     */
+    public List<SoakSample> getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns the relative change of the throughput over the soak test, as fitted by a linear regression.
+     *
+     * @return the relative change, e.g. {@code -0.1} for a 10% decline
+     */
+    public double getThroughputTrend() {
+        return throughputTrend;
+    }
+
+    /**
+     * Sets the relative change of the throughput over the soak test.
+     *
+     * @param throughputTrend
+     *            the relative change
+     */
+    public void setThroughputTrend(double throughputTrend) {
+        this.throughputTrend = throughputTrend;
+    }
+
+    /**
+     * Returns whether the throughput significantly declined during the soak test.
+     *
+     * @return {@code true} if the throughput declined
+     */
+    public boolean isThroughputDrifting() {
+        return throughputDrifting;
+    }
+
+    /**
+     * Sets whether the throughput significantly declined during the soak test.
+     *
+     * @param throughputDrifting
+     *            {@code true} if the throughput declined
+     */
+    public void setThroughputDrifting(boolean throughputDrifting) {
+        this.throughputDrifting = throughputDrifting;
+    }
+
+    /**
+     * Returns the growth of the retained heap over the soak test, as fitted by a linear regression.
+     *
+     * @return the growth, in bytes
+     */
+    public long getHeapGrowth() {
+        return heapGrowth;
+    }
+
+    /**
+     * Sets the growth of the retained heap over the soak test.
+     *
+     * @param heapGrowth
+     *            the growth, in bytes
+     */
+    public void setHeapGrowth(long heapGrowth) {
+        this.heapGrowth = heapGrowth;
+    }
+
+    /**
+     * Returns whether the retained heap significantly grew during the soak test.
+     *
+     * @return {@code true} if the retained heap grew
+     */
+    public boolean isHeapGrowing() {
+        return heapGrowing;
+    }
+
+    /**
+     * Sets whether the retained heap significantly grew during the soak test.
+     *
+     * @param heapGrowing
+     *            {@code true} if the retained heap grew
+     */
+    public void setHeapGrowing(boolean heapGrowing) {
+        this.heapGrowing = heapGrowing;
+    }
+
+    /**
+     * Returns whether the method drifted during the soak test, either in throughput or in retained heap.
+     *
+     * @return {@code true} if the method drifted
+     */
+    public boolean isDrifting() {
+        return throughputDrifting || heapGrowing;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+/**
+ * A measure taken during one interval of a soak test.
+ * <p/>
+ * Each sample records how many calls were made during the interval and how much heap was retained at its end, once
+ * garbage collected.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class SoakSample {
+
+    private final long elapsedTime;
+    private final long calls;
+    private final long duration;
+    private final long retainedHeap;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param elapsedTime
+     *            the time elapsed since the beginning of the soak test at the end of the interval, in milliseconds
+     * @param calls
+     *            the number of calls made during the interval
+     * @param duration
+     *            the actual duration of the interval, in microseconds
+     * @param retainedHeap
+     *            the heap used after a garbage collection at the end of the interval, in bytes
+     */
+    public SoakSample(long elapsedTime, long calls, long duration, long retainedHeap) {
+        this.elapsedTime = elapsedTime;
+        this.calls = calls;
+        this.duration = duration;
+        this.retainedHeap = retainedHeap;
+    }
+
+    /**
+     * Returns the time elapsed since the beginning of the soak test at the end of the interval.
+     *
+     * @return the elapsed time, in milliseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Returns the number of calls made during the interval.
+     *
+     * @return the number of calls
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Returns the actual duration of the interval.
+     *
+     * @return the duration, in microseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the heap used after a garbage collection at the end of the interval.
+     *
+     * @return the retained heap, in bytes
+     */
+    public long getRetainedHeap() {
+        return retainedHeap;
+    }
+
+    /**
+     * Calculates the throughput during the interval.
+     *
+     * @return the number of calls per second
+     */
+    public double getThroughput() {
+        return duration == 0 ? 0. : calls * 1000000. / duration;
+    }
+}
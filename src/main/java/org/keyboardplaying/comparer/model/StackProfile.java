@@ -0,0 +1,135 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An object to contain the stacks sampled while a variant was being timed.
+ * <p/>
+ * Stacks are collapsed: their frames are listed from the call of the variant to the frame that was running, separated
+ * with semicolons, as expected by flame graph tools.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class StackProfile implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = 3920451672883514095L;
+
+    /** The separator of the frames in a collapsed stack. */
+    public static final char FRAME_SEPARATOR = ';';
+
+    private final Map<String, Integer> stacks;
+    private final int samples;
+    private final int outsideSamples;
+    private final long samplingTime;
+    private final long duration;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param stacks
+     *            the number of samples of each collapsed stack
+     * @param outsideSamples
+     *            the number of samples taken outside of the variant, e.g. in the timing loop
+     * @param samplingTime
+     *            the time spent capturing the stacks, in nanoseconds
+     * @param duration
+     *            the time during which the stacks were sampled, in nanoseconds
+     */
+    public StackProfile(Map<String, Integer> stacks, int outsideSamples, long samplingTime, long duration) {
+        this.stacks = Collections.unmodifiableMap(new LinkedHashMap<>(stacks));
+        int inside = 0;
+        for (Integer count : stacks.values()) {
+            inside += count;
+        }
+        this.samples = inside + outsideSamples;
+        this.outsideSamples = outsideSamples;
+        this.samplingTime = samplingTime;
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the number of samples of each collapsed stack, samples taken outside of the variant excluded.
+     *
+     * @return the collapsed stacks and their number of samples
+     */
+    public Map<String, Integer> getStacks() {
+        return stacks;
+    }
+
+    /**
+     * Returns the number of samples taken, including those taken outside of the variant.
+     *
+     * @return the number of samples
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns the number of samples taken outside of the variant, e.g. in the timing loop or the reflective call.
+     *
+     * @return the number of samples outside of the variant
+     */
+    public int getOutsideSamples() {
+        return outsideSamples;
+    }
+
+    /**
+     * Returns the average time needed to capture a stack.
+     *
+     * @return the average sampling time, in microseconds
+     */
+    public double getAverageSamplingTime() {
+        return samples == 0 ? 0. : samplingTime / 1000. / samples;
+    }
+
+    /**
+     * Returns the share of the sampled period spent capturing stacks, during which the measured thread is paused.
+     *
+     * @return the sampling overhead, between 0 and 1
+     */
+    public double getSamplingOverhead() {
+        return duration == 0 ? 0. : (double) samplingTime / duration;
+    }
+
+    /**
+     * Returns the frames that were running when the samples were taken, with their number of samples, from the most
+     * sampled.
+     *
+     * @return the hot frames and their number of samples
+     */
+    public Map<String, Integer> getHotFrames() {
+        Map<String, Integer> frames = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> stack : stacks.entrySet()) {
+            String frame = stack.getKey().substring(stack.getKey().lastIndexOf(FRAME_SEPARATOR) + 1);
+            frames.merge(frame, stack.getValue(), Integer::sum);
+        }
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(frames.entrySet());
+        sorted.sort(Map.Entry.<String, Integer> comparingByValue().reversed());
+        Map<String, Integer> hotFrames = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> frame : sorted) {
+            hotFrames.put(frame.getKey(), frame.getValue());
+        }
+        return hotFrames;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+/**
+ * A raw timing of a batch of calls of a variant, as recorded during a time check.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class TimingSample {
+
+    private final String variant;
+    private final int check;
+    private final long thread;
+    private final long start;
+    private final long duration;
+    private final int calls;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param variant
+     *            the label of the variant
+     * @param check
+     *            the 0-based index of the check the batch belongs to
+     * @param thread
+     *            the identifier of the thread which made the calls
+     * @param start
+     *            the time the batch started at, since the beginning of the recording, in nanoseconds
+     * @param duration
+     *            the duration of the batch, in nanoseconds
+     * @param calls
+     *            the number of calls in the batch
+     */
+    public TimingSample(String variant, int check, long thread, long start, long duration, int calls) {
+        this.variant = variant;
+        this.check = check;
+        this.thread = thread;
+        this.start = start;
+        this.duration = duration;
+        this.calls = calls;
+    }
+
+    /**
+     * Returns the label of the variant.
+     *
+     * @return the label
+     */
+    public String getVariant() {
+        return variant;
+    }
+
+    /**
+     * Returns the index of the check the batch belongs to.
+     *
+     * @return the 0-based index of the check
+     */
+    public int getCheck() {
+        return check;
+    }
+
+    /**
+     * Returns the identifier of the thread which made the calls.
+     *
+     * @return the thread identifier
+     */
+    public long getThread() {
+        return thread;
+    }
+
+    /**
+     * Returns the time the batch started at.
+     *
+     * @return the time since the beginning of the recording, in nanoseconds
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the duration of the batch.
+     *
+     * @return the duration, in nanoseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the number of calls in the batch.
+     *
+     * @return the number of calls
+     */
+    public int getCalls() {
+        return calls;
+    }
+
+    /**
+     * Returns the average time of a call of the batch.
+     *
+     * @return the time per call, in nanoseconds
+     */
+    public double getTimePerCall() {
+        return calls == 0 ? 0. : (double) duration / calls;
+    }
+}
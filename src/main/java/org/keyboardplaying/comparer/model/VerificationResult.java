@@ -0,0 +1,86 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An object to contain the result of the verification of a variant against the reference over a corpus of inputs.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class VerificationResult implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = -8716370254148224519L;
+
+    private final long inputs;
+    private final long divergences;
+    private final List<Divergence> firstDivergences;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param inputs
+     *            the number of inputs the variant was verified on
+     * @param divergences
+     *            the number of inputs on which the variant diverges from the reference
+     * @param firstDivergences
+     *            the first diverging inputs, in the order of the corpus
+     */
+    public VerificationResult(long inputs, long divergences, List<Divergence> firstDivergences) {
+        this.inputs = inputs;
+        this.divergences = divergences;
+        this.firstDivergences = Collections.unmodifiableList(firstDivergences);
+    }
+
+    /**
+     * Returns the number of inputs the variant was verified on.
+     *
+     * @return the number of inputs
+     */
+    public long getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Returns the number of inputs on which the variant diverges from the reference.
+     *
+     * @return the number of divergences
+     */
+    public long getDivergences() {
+        return divergences;
+    }
+
+    /**
+     * Returns the first diverging inputs, in the order of the corpus.
+     *
+     * @return the first divergences
+     */
+    public List<Divergence> getFirstDivergences() {
+        return firstDivergences;
+    }
+
+    /**
+     * Returns {@code true} if the variant gives the same results as the reference on all inputs.
+     *
+     * @return {@code true} if no divergence was found
+     */
+    public boolean isEquivalent() {
+        return divergences == 0;
+    }
+}
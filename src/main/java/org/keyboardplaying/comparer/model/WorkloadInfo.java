@@ -0,0 +1,98 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.model;
+
+import java.io.Serializable;
+
+/**
+ * An object to describe the collection workload a result was measured on.
+ * <p/>
+ * The average execution time of the result is that of a call, which performs several operations on a collection. The
+ * retained heap is measured on a separate collection holding the same elements, boxed elements included.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class WorkloadInfo implements Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = -2713590844460166452L;
+
+    private final int elements;
+    private final int operations;
+    private final long retainedHeap;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param elements
+     *            the number of elements in the collection
+     * @param operations
+     *            the number of operations performed by each call
+     * @param retainedHeap
+     *            the heap retained by the filled collection, in bytes
+     */
+    public WorkloadInfo(int elements, int operations, long retainedHeap) {
+        this.elements = elements;
+        this.operations = operations;
+        this.retainedHeap = retainedHeap;
+    }
+
+    /**
+     * Returns the number of elements in the collection.
+     *
+     * @return the number of elements
+     */
+    public int getElements() {
+        return elements;
+    }
+
+    /**
+     * Returns the number of operations performed by each call.
+     *
+     * @return the number of operations per call
+     */
+    public int getOperations() {
+        return operations;
+    }
+
+    /**
+     * Returns the heap retained by the filled collection.
+     *
+     * @return the retained heap, in bytes
+     */
+    public long getRetainedHeap() {
+        return retainedHeap;
+    }
+
+    /**
+     * Calculates the retained heap per element of the collection.
+     *
+     * @return the retained heap per element, in bytes
+     */
+    public double getBytesPerElement() {
+        return elements == 0 ? 0. : (double) retainedHeap / elements;
+    }
+
+    /**
+     * Calculates the average time of an operation, from the average time of a call.
+     *
+     * @param callTime
+     *            the average execution time of a call, in microseconds
+     * @return the average time of an operation, in nanoseconds
+     */
+    public double getOperationTime(double callTime) {
+        return operations == 0 ? 0. : callTime * 1000 / operations;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.profiling;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.keyboardplaying.comparer.model.StackProfile;
+
+/**
+ * A profiler periodically capturing the stack of the thread calling a variant.
+ * <p/>
+ * A sampler thread captures the stack of the measured thread with {@link Thread#getStackTrace()} between
+ * {@link #start()} and {@link #stop()}, which may be called several times to aggregate the samples of several checks.
+ * Each stack is cut at the outermost call of the variant, so that the frames of the comparer and of the reflection are
+ * left out, and is prefixed with the label of the variant. Samples taken while the measured thread was not running
+ * the variant are only counted.
+ * <p/>
+ * Capturing a stack pauses the measured thread: the time spent doing so is recorded, so that the distortion of the
+ * timing can be assessed.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class StackSampler {
+
+    private final Thread target;
+    private final String className;
+    private final String methodName;
+    private final String label;
+    private final long interval;
+
+    private final Map<String, Integer> stacks = new LinkedHashMap<>();
+    private int outsideSamples = 0;
+    private long samplingTime = 0L;
+    private long duration = 0L;
+
+    private volatile boolean running;
+    private Thread sampler;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param target
+     *            the thread calling the variant
+     * @param method
+     *            the variant
+     * @param label
+     *            the label of the variant, used as the root frame of the stacks
+     * @param interval
+     *            the interval between two samples, in microseconds
+     */
+    public StackSampler(Thread target, Method method, String label, long interval) {
+        this.target = target;
+        // The implementation of an abstract method is declared by another class
+        this.className = Modifier.isAbstract(method.getModifiers()) ? null : method.getDeclaringClass().getName();
+        this.methodName = method.getName();
+        this.label = label.replace(StackProfile.FRAME_SEPARATOR, '_');
+        this.interval = TimeUnit.MICROSECONDS.toNanos(interval);
+    }
+
+    /**
+     * Starts sampling the stack of the measured thread.
+     *
+     * @throws IllegalStateException
+     *             if the sampler is already running
+     */
+    public void start() {
+        if (running) {
+            throw new IllegalStateException("The sampler is already running");
+        }
+        running = true;
+        sampler = new Thread(this::sample, "stack-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /**
+     * Stops sampling the stack of the measured thread and waits for the sampler thread to end.
+     */
+    public void stop() {
+        running = false;
+        boolean interrupted = false;
+        while (sampler.isAlive()) {
+            try {
+                sampler.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the profile aggregating the samples taken so far.
+     *
+     * @return the profile
+     */
+    public StackProfile getProfile() {
+        return new StackProfile(stacks, outsideSamples, samplingTime, duration);
+    }
+
+    /** Samples the stack of the measured thread until the sampler is stopped. */
+    private void sample() {
+        long startTime = System.nanoTime();
+        while (running) {
+            long captureTime = System.nanoTime();
+            StackTraceElement[] stack = target.getStackTrace();
+            samplingTime += System.nanoTime() - captureTime;
+            record(stack);
+            LockSupport.parkNanos(interval);
+        }
+        duration += System.nanoTime() - startTime;
+    }
+
+    /**
+     * Adds a sample.
+     *
+     * @param stack
+     *            the stack of the measured thread, the running frame first
+     */
+    void record(StackTraceElement[] stack) {
+        String collapsed = collapse(stack);
+        if (collapsed == null) {
+            outsideSamples++;
+        } else {
+            stacks.merge(collapsed, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Checks whether a frame is a call of the variant.
+     *
+     * @param frame
+     *            the frame
+     * @return {@code true} if the frame is a call of the variant
+     */
+    private boolean isVariant(StackTraceElement frame) {
+        return methodName.equals(frame.getMethodName())
+                && (className == null || className.equals(frame.getClassName()));
+    }
+
+    /**
+     * Collapses a stack from the outermost call of the variant to the running frame.
+     *
+     * @param stack
+     *            the stack of the measured thread, the running frame first
+     * @return the collapsed stack, prefixed with the label of the variant, or {@code null} if the variant was not being
+     *         called
+     */
+    private String collapse(StackTraceElement[] stack) {
+        int call = stack.length - 1;
+        while (call >= 0 && !isVariant(stack[call])) {
+            call--;
+        }
+        if (call < 0) {
+            return null;
+        }
+        StringBuilder collapsed = new StringBuilder(label);
+        for (int i = call; i >= 0; i--) {
+            collapsed.append(StackProfile.FRAME_SEPARATOR).append(stack[i].getClassName()).append('.')
+                    .append(stack[i].getMethodName());
+        }
+        return collapsed.toString();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.recording;
+
+import static org.keyboardplaying.comparer.recording.SampleRecorder.CALLS_FIELD;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.CHECK_FIELD;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.DURATION_FIELD;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.HEADER_SIZE;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.SAMPLES_PER_REGION;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.SAMPLE_SIZE;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.START_FIELD;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.THREAD_FIELD;
+import static org.keyboardplaying.comparer.recording.SampleRecorder.VARIANT_FIELD;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.keyboardplaying.comparer.model.TimingSample;
+
+/**
+ * A reader of the files written by a {@link SampleRecorder}, which can also convert them to CSV.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class SampleReader implements Closeable {
+
+    private static final String CSV_HEADER = "variant,check,thread,start_ns,duration_ns,calls,ns_per_call";
+    private static final char SEPARATOR = ',';
+    private static final String QUOTE = "\"";
+
+    private final FileChannel channel;
+    private final long count;
+    private final long dropped;
+    private final long origin;
+    private final List<String> variants = new ArrayList<>();
+    private final MappedByteBuffer[] regions;
+
+    /**
+     * Opens a file of samples.
+     *
+     * @param file
+     *            the file written by a {@link SampleRecorder}
+     * @throws IOException
+     *             if the file cannot be read or was not written by a closed {@link SampleRecorder}
+     */
+    public SampleReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // read the whole header
+            }
+            if (header.hasRemaining() || header.getInt(SampleRecorder.MAGIC_OFFSET) != SampleRecorder.MAGIC) {
+                throw new IOException(file + " is not a file of samples");
+            }
+            if (header.getInt(SampleRecorder.VERSION_OFFSET) != SampleRecorder.VERSION
+                    || header.getInt(SampleRecorder.SAMPLE_SIZE_OFFSET) != SAMPLE_SIZE) {
+                throw new IOException("Unsupported version of the file of samples " + file);
+            }
+            count = header.getLong(SampleRecorder.COUNT_OFFSET);
+            dropped = header.getLong(SampleRecorder.DROPPED_OFFSET);
+            origin = header.getLong(SampleRecorder.ORIGIN_OFFSET);
+            readVariants(header.getInt(SampleRecorder.VARIANTS_OFFSET), header.getLong(SampleRecorder.TABLE_OFFSET));
+
+            regions = new MappedByteBuffer[(int) ((count + SAMPLES_PER_REGION - 1) / SAMPLES_PER_REGION)];
+            for (int r = 0; r < regions.length; r++) {
+                long samples = Math.min(SAMPLES_PER_REGION, count - (long) r * SAMPLES_PER_REGION);
+                regions[r] = channel.map(MapMode.READ_ONLY, HEADER_SIZE + (long) r * SAMPLES_PER_REGION * SAMPLE_SIZE,
+                        samples * SAMPLE_SIZE);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readVariants(int number, long position) throws IOException {
+        long offset = position;
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        for (int v = 0; v < number; v++) {
+            readFully(length, offset);
+            byte[] label = new byte[length.getInt(0)];
+            readFully(ByteBuffer.wrap(label), offset + Integer.BYTES);
+            variants.add(new String(label, StandardCharsets.UTF_8));
+            offset += Integer.BYTES + label.length;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("The table of variants is truncated");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     *
+     * @return the number of samples
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of samples which were dropped because the file was full.
+     *
+     * @return the number of dropped samples
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns the wall-clock time the recording started at.
+     *
+     * @return the time, in milliseconds since the epoch
+     */
+    public long getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns the labels of the variants, indexed by variant identifier.
+     *
+     * @return an unmodifiable list of labels
+     */
+    public List<String> getVariants() {
+        return Collections.unmodifiableList(variants);
+    }
+
+    /**
+     * Returns a sample.
+     *
+     * @param index
+     *            the 0-based index of the sample, in recording order
+     * @return the sample
+     * @throws IndexOutOfBoundsException
+     *             if there is no such sample
+     */
+    public TimingSample get(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("No sample #" + index + " among " + count);
+        }
+        MappedByteBuffer region = regions[(int) (index / SAMPLES_PER_REGION)];
+        int offset = (int) (index % SAMPLES_PER_REGION) * SAMPLE_SIZE;
+        int variant = region.getInt(offset + VARIANT_FIELD);
+        return new TimingSample(variant < variants.size() ? variants.get(variant) : String.valueOf(variant),
+                region.getInt(offset + CHECK_FIELD), region.getLong(offset + THREAD_FIELD),
+                region.getLong(offset + START_FIELD), region.getLong(offset + DURATION_FIELD),
+                region.getInt(offset + CALLS_FIELD));
+    }
+
+    /**
+     * Converts the samples to a CSV file, replacing it if it exists.
+     * <p/>
+     * The file contains one line per sample, in recording order, with the following columns: {@code variant},
+     * {@code check}, {@code thread}, {@code start_ns}, {@code duration_ns}, {@code calls} and {@code ns_per_call}.
+     *
+     * @param file
+     *            the CSV file to write
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (long i = 0; i < count; i++) {
+                TimingSample sample = get(i);
+                writer.write(escape(sample.getVariant()) + SEPARATOR + sample.getCheck() + SEPARATOR
+                        + sample.getThread() + SEPARATOR + sample.getStart() + SEPARATOR + sample.getDuration()
+                        + SEPARATOR + sample.getCalls() + SEPARATOR + Math.round(sample.getTimePerCall()));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Quotes a value if it contains a separator, a quote or a line break.
+     *
+     * @param value
+     *            the value
+     * @return the escaped value
+     */
+    private static String escape(String value) {
+        String escaped = value;
+        if (escaped.indexOf(SEPARATOR) >= 0 || escaped.contains(QUOTE) || escaped.indexOf('\n') >= 0) {
+            escaped = QUOTE + escaped.replace(QUOTE, QUOTE + QUOTE) + QUOTE;
+        }
+        return escaped;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
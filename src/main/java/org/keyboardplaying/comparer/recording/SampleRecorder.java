@@ -0,0 +1,274 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A recorder of the raw timings of the checks, written to a memory-mapped file of fixed layout.
+ * <p/>
+ * The file is allocated for a maximal number of samples when the recorder is created: it is filled with zeros rather
+ * than left sparse, then mapped in regions whose pages are touched, so that recording a sample only writes to memory
+ * backed by the file. It neither allocates, makes system calls nor faults pages in. Samples recorded once the file is
+ * full are dropped and counted. Several threads may record concurrently.
+ * <p/>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes: a magic number, the version of the layout, the size of
+ * a sample, the number of variants, the capacity, the number of recorded and dropped samples, the wall-clock time the
+ * recording started at and the offset of the table of variants. Fixed-size samples follow, each one holding the
+ * variant identifier, the check index, the thread identifier, the start time and duration of the batch in nanoseconds
+ * and the number of calls. The table of variants, i.e. the length-prefixed UTF-8 labels indexed by variant
+ * identifier, is written after the samples when the recorder is closed, along with the counts of the header. Files
+ * are read with a {@link SampleReader}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class SampleRecorder implements Closeable {
+
+    /** The magic number of the files, {@code JICS}. */
+    static final int MAGIC = 0x4A494353;
+    /** The version of the layout. */
+    static final int VERSION = 1;
+    /** The size of the header, in bytes. */
+    static final int HEADER_SIZE = 64;
+    /** The size of a sample, in bytes. */
+    static final int SAMPLE_SIZE = 40;
+
+    /** The offsets of the fields of the header. */
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SAMPLE_SIZE_OFFSET = 8;
+    static final int VARIANTS_OFFSET = 12;
+    static final int CAPACITY_OFFSET = 16;
+    static final int COUNT_OFFSET = 24;
+    static final int DROPPED_OFFSET = 32;
+    static final int ORIGIN_OFFSET = 40;
+    static final int TABLE_OFFSET = 48;
+
+    /** The offsets of the fields of a sample. */
+    static final int VARIANT_FIELD = 0;
+    static final int CHECK_FIELD = 4;
+    static final int THREAD_FIELD = 8;
+    static final int START_FIELD = 16;
+    static final int DURATION_FIELD = 24;
+    static final int CALLS_FIELD = 32;
+
+    /** The number of samples per mapped region, so that a region is 40 MB. */
+    static final int SAMPLES_PER_REGION = 1 << 20;
+    /** The smallest size of a page of memory, in bytes, the stride at which the regions are touched. */
+    private static final int PAGE_SIZE = 4096;
+    /** The size of the buffer of zeros the file is filled with, in bytes. */
+    private static final int FILL_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long capacity;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] regions;
+    private final long origin = System.nanoTime();
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final List<String> variants = new ArrayList<>();
+    private volatile long closedAt = -1;
+
+    /**
+     * Creates a recorder, allocating and mapping the file, which is replaced if it exists.
+     *
+     * @param file
+     *            the file to record the samples to
+     * @param capacity
+     *            the maximal number of samples
+     * @throws IOException
+     *             if the file cannot be created or mapped
+     */
+    public SampleRecorder(Path file, long capacity) throws IOException {
+        this.capacity = capacity;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            fill(channel, HEADER_SIZE + capacity * SAMPLE_SIZE);
+            header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+            regions = new MappedByteBuffer[(int) ((capacity + SAMPLES_PER_REGION - 1) / SAMPLES_PER_REGION)];
+            for (int r = 0; r < regions.length; r++) {
+                long samples = Math.min(SAMPLES_PER_REGION, capacity - (long) r * SAMPLES_PER_REGION);
+                regions[r] = channel.map(MapMode.READ_WRITE, HEADER_SIZE + (long) r * SAMPLES_PER_REGION * SAMPLE_SIZE,
+                        samples * SAMPLE_SIZE);
+                touch(regions[r]);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(SAMPLE_SIZE_OFFSET, SAMPLE_SIZE);
+        header.putLong(CAPACITY_OFFSET, capacity);
+        header.putLong(ORIGIN_OFFSET, System.currentTimeMillis());
+        header.putLong(TABLE_OFFSET, HEADER_SIZE + capacity * SAMPLE_SIZE);
+    }
+
+    /**
+     * Writes zeros to a file, so that its blocks are allocated before it is mapped.
+     *
+     * @param channel
+     *            the channel to the file
+     * @param size
+     *            the size to allocate, in bytes
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static void fill(FileChannel channel, long size) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate(FILL_SIZE);
+        long position = 0;
+        while (position < size) {
+            zeros.clear();
+            zeros.limit((int) Math.min(FILL_SIZE, size - position));
+            position += channel.write(zeros, position);
+        }
+    }
+
+    /**
+     * Writes to every page of a mapped region, so that recording does not take the faults of their first access.
+     *
+     * @param region
+     *            the mapped region
+     */
+    private static void touch(MappedByteBuffer region) {
+        for (int offset = 0; offset < region.capacity(); offset += PAGE_SIZE) {
+            region.put(offset, (byte) 0);
+        }
+    }
+
+    /**
+     * Registers a variant, so that its samples can be recorded.
+     *
+     * @param label
+     *            the label of the variant
+     * @return the identifier of the variant
+     */
+    public synchronized int register(String label) {
+        variants.add(label);
+        return variants.size() - 1;
+    }
+
+    /**
+     * Records the timing of a batch of calls. This method does not allocate nor make system calls.
+     *
+     * @param variant
+     *            the identifier of the variant, as returned by {@link #register(String)}
+     * @param check
+     *            the 0-based index of the check the batch belongs to
+     * @param thread
+     *            the identifier of the thread which made the calls
+     * @param start
+     *            the time the batch started at, as returned by {@link System#nanoTime()}
+     * @param duration
+     *            the duration of the batch, in nanoseconds
+     * @param calls
+     *            the number of calls in the batch
+     */
+    public void record(int variant, int check, long thread, long start, long duration, int calls) {
+        long index = next.getAndIncrement();
+        if (index >= capacity) {
+            return;
+        }
+        MappedByteBuffer region = regions[(int) (index / SAMPLES_PER_REGION)];
+        int offset = (int) (index % SAMPLES_PER_REGION) * SAMPLE_SIZE;
+        region.putInt(offset + VARIANT_FIELD, variant);
+        region.putInt(offset + CHECK_FIELD, check);
+        region.putLong(offset + THREAD_FIELD, thread);
+        region.putLong(offset + START_FIELD, start - origin);
+        region.putLong(offset + DURATION_FIELD, duration);
+        region.putInt(offset + CALLS_FIELD, calls);
+        // publishes the sample to close()
+        written.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of samples recorded so far.
+     *
+     * @return the number of recorded samples
+     */
+    public long getCount() {
+        return Math.min(getAttempts(), capacity);
+    }
+
+    /**
+     * Returns the number of samples dropped because the file was full.
+     *
+     * @return the number of dropped samples
+     */
+    public long getDropped() {
+        return Math.max(0, getAttempts() - capacity);
+    }
+
+    private long getAttempts() {
+        long attempts = closedAt;
+        return attempts < 0 ? next.get() : attempts;
+    }
+
+    /**
+     * Writes the counts and the table of variants, and flushes the file. Samples recorded afterwards are ignored.
+     * <p/>
+     * Samples being recorded by other threads when this method is called are waited for, so that the file does not
+     * contain partially written samples.
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closedAt >= 0) {
+            return;
+        }
+        // Samples recorded from now on are beyond the capacity, hence ignored
+        long count = next.getAndAdd(capacity + 1);
+        closedAt = count;
+        long recorded = Math.min(count, capacity);
+        while (written.get() < recorded) {
+            // a writer claimed a slot but has not filled it yet
+            Thread.yield();
+        }
+        try {
+            header.putInt(VARIANTS_OFFSET, variants.size());
+            header.putLong(COUNT_OFFSET, recorded);
+            header.putLong(DROPPED_OFFSET, Math.max(0, count - capacity));
+            long position = HEADER_SIZE + capacity * SAMPLE_SIZE;
+            for (String variant : variants) {
+                byte[] label = variant.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + label.length);
+                entry.putInt(label.length).put(label).flip();
+                while (entry.hasRemaining()) {
+                    position += channel.write(entry, position);
+                }
+            }
+            header.force();
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
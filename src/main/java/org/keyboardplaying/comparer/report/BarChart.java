@@ -0,0 +1,218 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+
+/**
+ * A report drawing the results of comparisons as a self-contained SVG bar chart, optionally wrapped in an HTML page.
+ * <p/>
+ * Each comparison is drawn as a group of horizontal bars, one per method, ranked from the fastest to the slowest. The
+ * length of a bar is the average execution time of the method; when several checks were made, a line spans from the
+ * lowest to the highest average time of the checks. Each bar is labelled with the average time, in microseconds, and
+ * how many times faster or slower than the reference (the first result of the comparison) the method is.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class BarChart {
+
+    private static final int WIDTH = 800;
+    private static final int LABEL_WIDTH = 200;
+    private static final int BAR_WIDTH = 400;
+    private static final int ROW_HEIGHT = 24;
+    private static final int BAR_HEIGHT = 16;
+    private static final int TITLE_HEIGHT = 30;
+    private static final int MARGIN = 10;
+    private static final String REFERENCE_COLOR = "#7f7f7f";
+    private static final String FASTER_COLOR = "#2ca02c";
+    private static final String SLOWER_COLOR = "#d62728";
+
+    private final Map<String, List<ImplCheckResult>> comparisons = new LinkedHashMap<>();
+
+    /**
+     * Adds the results of a comparison to the chart.
+     *
+     * @param comparison
+     *            the name of the comparison; may be empty
+     * @param results
+     *            the results of the comparison, the reference first
+     */
+    public void add(String comparison, List<ImplCheckResult> results) {
+        comparisons.put(comparison == null ? "" : comparison, new ArrayList<>(results));
+    }
+
+    /**
+     * Writes the chart to an SVG file, replacing it if it exists.
+     *
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void writeSvg(Path file) throws IOException {
+        write(file, toSvg());
+    }
+
+    /**
+     * Writes the chart to an HTML file embedding the SVG, replacing it if it exists.
+     *
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void writeHtml(Path file) throws IOException {
+        write(file, "<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>Comparison</title>\n</head>\n"
+                + "<body>\n" + toSvg() + "</body>\n</html>\n");
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+
+    /**
+     * Draws the chart.
+     *
+     * @return the SVG document
+     */
+    String toSvg() {
+        StringBuilder body = new StringBuilder();
+        int y = MARGIN;
+        for (Map.Entry<String, List<ImplCheckResult>> comparison : comparisons.entrySet()) {
+            if (!comparison.getKey().isEmpty()) {
+                body.append(String.format(Locale.ROOT,
+                        "<text x=\"%d\" y=\"%d\" font-weight=\"bold\">%s</text>\n", MARGIN, y + ROW_HEIGHT - 6,
+                        escape(comparison.getKey())));
+                y += TITLE_HEIGHT;
+            }
+            y = drawComparison(body, comparison.getValue(), y);
+            y += MARGIN;
+        }
+        return String.format(Locale.ROOT,
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" font-family=\"sans-serif\" "
+                        + "font-size=\"12\">\n",
+                WIDTH, y + MARGIN) + body + "</svg>\n";
+    }
+
+    /**
+     * Draws the bars of a comparison.
+     *
+     * @param body
+     *            the SVG elements being built
+     * @param results
+     *            the results of the comparison, the reference first
+     * @param top
+     *            the ordinate of the first bar
+     * @return the ordinate below the last bar
+     */
+    private static int drawComparison(StringBuilder body, List<ImplCheckResult> results, int top) {
+        if (results.isEmpty()) {
+            return top;
+        }
+        ImplCheckResult reference = results.get(0);
+        List<ImplCheckResult> ranked = new ArrayList<>(results);
+        ranked.sort(Comparator.comparingDouble(ImplCheckResult::getAverageExecutionTime));
+        double scale = 0.;
+        for (ImplCheckResult result : results) {
+            scale = Math.max(scale, Math.max(result.getAverageExecutionTime(), result.getMaximumCheckTime()));
+        }
+
+        int y = top;
+        for (ImplCheckResult result : ranked) {
+            double time = result.getAverageExecutionTime();
+            int barY = y + (ROW_HEIGHT - BAR_HEIGHT) / 2;
+            body.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%s</text>\n", MARGIN, y + ROW_HEIGHT - 7,
+                    escape(result.getLabel())));
+            body.append(String.format(Locale.ROOT,
+                    "<rect x=\"%d\" y=\"%d\" width=\"%.1f\" height=\"%d\" fill=\"%s\"/>\n", LABEL_WIDTH, barY,
+                    length(time, scale), BAR_HEIGHT, getColor(result, reference)));
+            if (result.getCheckTimes().size() > 1) {
+                body.append(String.format(Locale.ROOT,
+                        "<line x1=\"%.1f\" y1=\"%d\" x2=\"%.1f\" y2=\"%d\" stroke=\"black\"/>\n",
+                        LABEL_WIDTH + length(result.getMinimumCheckTime(), scale), y + ROW_HEIGHT / 2,
+                        LABEL_WIDTH + length(result.getMaximumCheckTime(), scale), y + ROW_HEIGHT / 2));
+            }
+            body.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%.3f us%s</text>\n",
+                    LABEL_WIDTH + BAR_WIDTH + MARGIN, y + ROW_HEIGHT - 7, time, describe(result, reference)));
+            y += ROW_HEIGHT;
+        }
+        return y;
+    }
+
+    private static double length(double time, double scale) {
+        return scale == 0 ? 0. : BAR_WIDTH * time / scale;
+    }
+
+    private static String getColor(ImplCheckResult result, ImplCheckResult reference) {
+        String color;
+        if (result == reference) {
+            color = REFERENCE_COLOR;
+        } else {
+            color = result.getAverageExecutionTime() <= reference.getAverageExecutionTime() ? FASTER_COLOR
+                    : SLOWER_COLOR;
+        }
+        return color;
+    }
+
+    /**
+     * Describes how many times faster or slower than the reference a method is.
+     *
+     * @param result
+     *            the result of the method
+     * @param reference
+     *            the result of the reference
+     * @return the description, preceded with a space, or {@code " (REF)"} for the reference
+     */
+    private static String describe(ImplCheckResult result, ImplCheckResult reference) {
+        double referenceTime = reference.getAverageExecutionTime();
+        double time = result.getAverageExecutionTime();
+        String description;
+        if (result == reference) {
+            description = " (REF)";
+        } else if (referenceTime == 0 || time == 0) {
+            description = "";
+        } else if (time <= referenceTime) {
+            description = String.format(Locale.ROOT, " (%.2fx faster)", referenceTime / time);
+        } else {
+            description = String.format(Locale.ROOT, " (%.2fx slower)", time / referenceTime);
+        }
+        return description;
+    }
+
+    /**
+     * Escapes the characters with a special meaning in XML.
+     *
+     * @param text
+     *            the text to escape
+     * @return the escaped text
+     */
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
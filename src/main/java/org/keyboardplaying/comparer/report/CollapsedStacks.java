@@ -0,0 +1,79 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.StackProfile;
+
+/**
+ * A report writing the stacks sampled while profiling variants in the collapsed format of flame graph tools.
+ * <p/>
+ * The file contains one line per distinct stack: its frames, separated with semicolons, followed by a space and the
+ * number of samples. The root frame is the name of the comparison, when not empty, then the label of the variant, so
+ * that all the variants of all the comparisons can be read from a single flame graph.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class CollapsedStacks {
+
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * Adds the stacks of the profiled variants of a comparison to the report.
+     *
+     * @param comparison
+     *            the name of the comparison; may be empty
+     * @param results
+     *            the results of the comparison; results without a profile are ignored
+     */
+    public void add(String comparison, List<ImplCheckResult> results) {
+        String prefix = comparison == null || comparison.isEmpty() ? ""
+                : comparison.replace(StackProfile.FRAME_SEPARATOR, '_') + StackProfile.FRAME_SEPARATOR;
+        for (ImplCheckResult result : results) {
+            StackProfile profile = result.getProfile();
+            if (profile != null) {
+                for (Map.Entry<String, Integer> stack : profile.getStacks().entrySet()) {
+                    lines.add(prefix + stack.getKey() + ' ' + stack.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the report to a file, replacing it if it exists.
+     *
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+}
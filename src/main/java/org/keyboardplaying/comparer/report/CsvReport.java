@@ -0,0 +1,106 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+
+/**
+ * A report consolidating the results of several comparisons in a single CSV file.
+ * <p/>
+ * The file contains one line per variant, comparison and configuration, with the following columns:
+ * {@code comparison}, {@code configuration}, {@code method}, {@code avg_time_us}, {@code executions} and
+ * {@code result}, the latter being {@code REF} for the reference, {@code ==} if the result of the variant equals the
+ * reference one and {@code !=} otherwise.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class CsvReport {
+
+    private static final String HEADER = "comparison,configuration,method,avg_time_us,executions,result";
+    private static final char SEPARATOR = ',';
+    private static final String QUOTE = "\"";
+
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * Adds the results of a comparison to the report.
+     *
+     * @param comparison
+     *            the name of the comparison
+     * @param configuration
+     *            the name of the configuration the comparison was run under; may be empty
+     * @param results
+     *            the results of the comparison, the reference first
+     */
+    public void add(String comparison, String configuration, List<ImplCheckResult> results) {
+        Object reference = results.isEmpty() ? null : results.get(0).getMethodResult();
+        for (int i = 0; i < results.size(); i++) {
+            ImplCheckResult result = results.get(i);
+            String status;
+            if (i == 0) {
+                status = "REF";
+            } else {
+                status = Objects.equals(reference, result.getMethodResult()) ? "==" : "!=";
+            }
+            lines.add(escape(comparison) + SEPARATOR + escape(configuration) + SEPARATOR + escape(result.getLabel())
+                    + SEPARATOR + String.format(Locale.ROOT, "%.3f", result.getAverageExecutionTime()) + SEPARATOR
+                    + result.getNumberOfExecutions() + SEPARATOR + status);
+        }
+    }
+
+    /**
+     * Writes the report to a file, replacing it if it exists.
+     *
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Quotes a value if it contains a separator, a quote or a line break.
+     *
+     * @param value
+     *            the value
+     * @return the escaped value
+     */
+    private static String escape(String value) {
+        String escaped = value == null ? "" : value;
+        if (escaped.indexOf(SEPARATOR) >= 0 || escaped.contains(QUOTE) || escaped.indexOf('\n') >= 0) {
+            escaped = QUOTE + escaped.replace(QUOTE, QUOTE + QUOTE) + QUOTE;
+        }
+        return escaped;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.stats;
+
+/**
+ * A histogram recording latencies with a bounded relative error, in a fixed amount of memory.
+ * <p/>
+ * Values below 128 are counted exactly. Larger values are counted in buckets covering a power of two, each divided
+ * into 64 linear sub-buckets, so that the relative error never exceeds 1/64 (about 1.6%), whatever the magnitude.
+ * <p/>
+ * This class is not thread-safe: each recording thread should have its own histogram, to be merged with
+ * {@link #add(LatencyHistogram)} once the recording is over.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class LatencyHistogram {
+
+    /** The number of bits of precision of the linear sub-buckets. */
+    private static final int SUB_BUCKET_BITS = 7;
+    /** The number of values counted exactly. */
+    private static final int LINEAR_COUNT = 1 << SUB_BUCKET_BITS;
+    /** The number of sub-buckets per power of two above the linear range. */
+    private static final int HALF_COUNT = LINEAR_COUNT >> 1;
+    /** The total number of counters, enough to hold {@link Long#MAX_VALUE}. */
+    private static final int SIZE = LINEAR_COUNT + (Long.SIZE - SUB_BUCKET_BITS) * HALF_COUNT;
+
+    private final long[] counts = new long[SIZE];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    /**
+     * Records a value.
+     *
+     * @param value
+     *            the value to record; negative values are recorded as {@code 0}
+     */
+    public void record(long value) {
+        long actual = Math.max(0, value);
+        counts[indexOf(actual)]++;
+        totalCount++;
+        sum += actual;
+        min = Math.min(min, actual);
+        max = Math.max(max, actual);
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     *
+     * @param other
+     *            the histogram to merge into this one
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < SIZE; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of values
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the lowest recorded value.
+     *
+     * @return the lowest value, {@code 0} if nothing was recorded
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the highest recorded value.
+     *
+     * @return the highest value, {@code 0} if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the exact average of the recorded values.
+     *
+     * @return the average value, {@code 0} if nothing was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0. : sum / totalCount;
+    }
+
+    /**
+     * Returns the value below which a given percentage of the recorded values fall.
+     * <p/>
+     * The returned value is the highest value equivalent to the matching bucket, bounded by the highest recorded value.
+     *
+     * @param percentile
+     *            the percentile, between {@code 0} and {@code 100}
+     * @return the value at this percentile, {@code 0} if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * totalCount));
+        long value = 0;
+        long cumulated = 0;
+        for (int i = 0; i < SIZE && cumulated < rank; i++) {
+            cumulated += counts[i];
+            value = highestEquivalentValue(i);
+        }
+        return Math.min(value, max);
+    }
+
+    /**
+     * Returns the index of the counter a value is recorded into.
+     *
+     * @param value
+     *            a non-negative value
+     * @return the index of the counter
+     */
+    static int indexOf(long value) {
+        int index;
+        if (value < LINEAR_COUNT) {
+            index = (int) value;
+        } else {
+            int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            index = LINEAR_COUNT + (shift - 1) * HALF_COUNT + (int) (value >>> shift) - HALF_COUNT;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the highest value recorded into a counter.
+     *
+     * @param index
+     *            the index of the counter
+     * @return the highest equivalent value
+     */
+    static long highestEquivalentValue(int index) {
+        long value;
+        if (index < LINEAR_COUNT) {
+            value = index;
+        } else {
+            int shift = (index - LINEAR_COUNT) / HALF_COUNT + 1;
+            long subBucket = (index - LINEAR_COUNT) % HALF_COUNT + HALF_COUNT;
+            value = ((subBucket + 1) << shift) - 1;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.stats;
+
+/**
+ * An ordinary least-squares fit of a series of measures, along with the significance of its slope.
+ * <p/>
+ * The significance is obtained from a Student's t-test on the slope, with {@code n - 2} degrees of freedom.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class LinearRegression {
+
+    /** The maximum number of iterations of the continued fraction of the incomplete beta function. */
+    private static final int MAX_ITERATIONS = 300;
+    /** The relative precision at which the continued fraction is considered converged. */
+    private static final double EPSILON = 1e-12;
+    /** A number near the smallest representable positive double, to avoid divisions by zero. */
+    private static final double TINY = 1e-300;
+    /** The Lanczos coefficients used to approximate the logarithm of the gamma function. */
+    private static final double[] LANCZOS = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+
+    private final int size;
+    private final double slope;
+    private final double intercept;
+    private final double slopeStandardError;
+
+    /**
+     * Fits a line to a series of measures.
+     *
+     * @param x
+     *            the abscissas of the measures
+     * @param y
+     *            the ordinates of the measures, in the same order
+     * @throws IllegalArgumentException
+     *             if both arrays do not have the same length or contain less than two measures
+     */
+    public LinearRegression(double[] x, double[] y) {
+        if (x.length != y.length || x.length < 2) {
+            throw new IllegalArgumentException("At least two measures are required, with as many x as y");
+        }
+        this.size = x.length;
+
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < size; i++) {
+            meanX += x[i];
+            meanY += y[i];
+        }
+        meanX /= size;
+        meanY /= size;
+
+        double sxx = 0;
+        double sxy = 0;
+        for (int i = 0; i < size; i++) {
+            sxx += (x[i] - meanX) * (x[i] - meanX);
+            sxy += (x[i] - meanX) * (y[i] - meanY);
+        }
+        this.slope = sxx == 0 ? 0 : sxy / sxx;
+        this.intercept = meanY - slope * meanX;
+
+        double residuals = 0;
+        for (int i = 0; i < size; i++) {
+            double residual = y[i] - intercept - slope * x[i];
+            residuals += residual * residual;
+        }
+        this.slopeStandardError = size > 2 && sxx > 0 ? Math.sqrt(residuals / (size - 2) / sxx) : Double.NaN;
+    }
+
+    /**
+     * Fits a line to a series of measures taken at regular intervals, the abscissas being {@code 0, 1, 2…}.
+     *
+     * @param y
+     *            the measures
+     * @return the fitted line
+     */
+    public static LinearRegression ofSeries(double[] y) {
+        double[] x = new double[y.length];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i;
+        }
+        return new LinearRegression(x, y);
+    }
+
+    /**
+     * Returns the number of measures the line was fitted to.
+     *
+     * @return the number of measures
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the slope of the fitted line.
+     *
+     * @return the slope
+     */
+    public double getSlope() {
+        return slope;
+    }
+
+    /**
+     * Returns the intercept of the fitted line.
+     *
+     * @return the value of the line for {@code x = 0}
+     */
+    public double getIntercept() {
+        return intercept;
+    }
+
+    /**
+     * Returns the value of the fitted line at a given abscissa.
+     *
+     * @param x
+     *            the abscissa
+     * @return the fitted value
+     */
+    public double predict(double x) {
+        return intercept + slope * x;
+    }
+
+    /**
+     * Returns the p-value of the one-sided test that the slope is positive.
+     * <p/>
+     * A small value means the measures are significantly increasing.
+     *
+     * @return the p-value, {@code 1} if it cannot be computed
+     */
+    public double getIncreasingPValue() {
+        return pValue(slope);
+    }
+
+    /**
+     * Returns the p-value of the one-sided test that the slope is negative.
+     * <p/>
+     * A small value means the measures are significantly decreasing.
+     *
+     * @return the p-value, {@code 1} if it cannot be computed
+     */
+    public double getDecreasingPValue() {
+        return pValue(-slope);
+    }
+
+    /**
+     * Returns the probability of observing a slope at least as large as the specified one if the true slope were
+     * {@code 0}.
+     *
+     * @param observed
+     *            the slope, signed in the direction being tested
+     * @return the p-value
+     */
+    private double pValue(double observed) {
+        double pValue;
+        if (Double.isNaN(slopeStandardError)) {
+            pValue = 1;
+        } else if (slopeStandardError == 0) {
+            // perfect fit: the sign of the slope is certain
+            pValue = observed > 0 ? 0 : 1;
+        } else {
+            pValue = 1 - studentCdf(observed / slopeStandardError, size - 2);
+        }
+        return pValue;
+    }
+
+    /**
+     * Returns the cumulative distribution function of Student's t-distribution.
+     *
+     * @param t
+     *            the value
+     * @param degreesOfFreedom
+     *            the number of degrees of freedom
+     * @return the probability that a random variable of the distribution is lower than {@code t}
+     */
+    static double studentCdf(double t, int degreesOfFreedom) {
+        double x = degreesOfFreedom / (degreesOfFreedom + t * t);
+        double tail = 0.5 * regularizedIncompleteBeta(x, degreesOfFreedom / 2., 0.5);
+        return t > 0 ? 1 - tail : tail;
+    }
+
+    /**
+     * Returns the regularized incomplete beta function {@code I_x(a, b)}.
+     *
+     * @param x
+     *            the upper bound of integration, between {@code 0} and {@code 1}
+     * @param a
+     *            the first shape parameter
+     * @param b
+     *            the second shape parameter
+     * @return the value of the function
+     */
+    static double regularizedIncompleteBeta(double x, double a, double b) {
+        double result;
+        if (x <= 0) {
+            result = 0;
+        } else if (x >= 1) {
+            result = 1;
+        } else {
+            double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x)
+                    + b * Math.log(1 - x));
+            // the continued fraction converges quickly on one side of the mean only
+            if (x < (a + 1) / (a + b + 2)) {
+                result = front * betaContinuedFraction(x, a, b) / a;
+            } else {
+                result = 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the continued fraction of the incomplete beta function with the modified Lentz's method.
+     *
+     * @param x
+     *            the upper bound of integration
+     * @param a
+     *            the first shape parameter
+     * @param b
+     *            the second shape parameter
+     * @return the value of the continued fraction
+     */
+    private static double betaContinuedFraction(double x, double a, double b) {
+        double c = 1;
+        double d = nonZero(1 - (a + b) * x / (a + 1));
+        d = 1 / d;
+        double h = d;
+        for (int m = 1; m <= MAX_ITERATIONS; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 / nonZero(1 + aa * d);
+            c = nonZero(1 + aa / c);
+            h *= d * c;
+
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 / nonZero(1 + aa * d);
+            c = nonZero(1 + aa / c);
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < EPSILON) {
+                break;
+            }
+        }
+        return h;
+    }
+
+    private static double nonZero(double value) {
+        return Math.abs(value) < TINY ? TINY : value;
+    }
+
+    /**
+     * Returns the natural logarithm of the gamma function, using Lanczos' approximation.
+     *
+     * @param x
+     *            a positive value
+     * @return {@code ln(Γ(x))}
+     */
+    static double logGamma(double x) {
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        double y = x;
+        for (double coefficient : LANCZOS) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The robust methods to detect the outlying measures of a series, e.g. a check disturbed by a garbage collection or
+ * by the operating system.
+ * <p/>
+ * Both methods rely on the median and quantiles rather than on the mean and standard deviation, which the outliers
+ * themselves would shift.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public enum OutlierDetection {
+
+    /**
+     * The modified z-score of Iglewicz and Hoaglin: a measure is an outlier if its distance to the median exceeds 3.5
+     * times the median absolute deviation (MAD) scaled to a standard deviation. When more than half of the measures
+     * are equal, the MAD is zero and the mean absolute deviation is used instead. This method suits short series.
+     */
+    MAD {
+        @Override
+        double[] getFences(double[] sorted) {
+            double median = quantile(sorted, 0.5);
+            double[] deviations = new double[sorted.length];
+            double meanDeviation = 0.;
+            for (int i = 0; i < sorted.length; i++) {
+                deviations[i] = Math.abs(sorted[i] - median);
+                meanDeviation += deviations[i];
+            }
+            Arrays.sort(deviations);
+            double spread = quantile(deviations, 0.5) / MAD_CONSISTENCY;
+            if (spread == 0.) {
+                spread = meanDeviation / sorted.length * MEAN_DEVIATION_CONSISTENCY;
+            }
+            return new double[] { median - MAX_Z_SCORE * spread, median + MAX_Z_SCORE * spread };
+        }
+    },
+
+    /**
+     * Tukey's fences: a measure is an outlier if it lies further than 1.5 times the interquartile range below the first
+     * quartile or above the third quartile. This method needs longer series than {@link #MAD} to detect anything.
+     */
+    TUKEY {
+        @Override
+        double[] getFences(double[] sorted) {
+            double first = quantile(sorted, 0.25);
+            double third = quantile(sorted, 0.75);
+            double range = third - first;
+            return new double[] { first - TUKEY_FACTOR * range, third + TUKEY_FACTOR * range };
+        }
+    };
+
+    /** The modified z-score above which a measure is an outlier. */
+    private static final double MAX_Z_SCORE = 3.5;
+    /** The ratio of the MAD to the standard deviation of a normal distribution. */
+    private static final double MAD_CONSISTENCY = 0.6745;
+    /** The ratio of the standard deviation to the mean absolute deviation of a normal distribution. */
+    private static final double MEAN_DEVIATION_CONSISTENCY = 1.253314;
+    /** The number of interquartile ranges beyond the quartiles from which a measure is an outlier. */
+    private static final double TUKEY_FACTOR = 1.5;
+
+    /**
+     * Returns the bounds outside of which a measure is an outlier.
+     *
+     * @param sorted
+     *            the measures, sorted in ascending order
+     * @return the low and high fences
+     */
+    abstract double[] getFences(double[] sorted);
+
+    /**
+     * Returns the measures of a series which are not outliers.
+     *
+     * @param values
+     *            the measures
+     * @return the measures which are not outliers, in their original order; all of them if there are less than three
+     */
+    public List<Double> filter(List<Double> values) {
+        if (values.size() < 3) {
+            return new ArrayList<>(values);
+        }
+        double[] fences = getFences(sort(values));
+        List<Double> inliers = new ArrayList<>();
+        for (double value : values) {
+            if (value >= fences[0] && value <= fences[1]) {
+                inliers.add(value);
+            }
+        }
+        return inliers;
+    }
+
+    /**
+     * Returns the median of a series of measures.
+     *
+     * @param values
+     *            the measures
+     * @return the median, {@code 0} if there is no measure
+     */
+    public static double median(List<Double> values) {
+        return values.isEmpty() ? 0. : quantile(sort(values), 0.5);
+    }
+
+    private static double[] sort(List<Double> values) {
+        double[] sorted = new double[values.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = values.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Returns a quantile of sorted measures, interpolating linearly between the closest ranks.
+     *
+     * @param sorted
+     *            the measures, sorted in ascending order; not empty
+     * @param probability
+     *            the probability of the quantile, between 0 and 1
+     * @return the quantile
+     */
+    private static double quantile(double[] sorted, double probability) {
+        double rank = probability * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A workload on a {@link List} of integers, accessed by index.
+ * <p/>
+ * The list is filled with {@code 0} to {@code elements - 1}. Reads get the element at a random index, writes set it;
+ * write-heavy mixes insert an element at a random index and remove another one. The get-or-put mix does not apply.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ListWorkload extends Workload {
+
+    private final List<Integer> list;
+
+    /**
+     * Creates a new instance and fills the list.
+     *
+     * @param factory
+     *            the factory of the list
+     * @param mix
+     *            the mix of operations to perform
+     * @param elements
+     *            the number of elements to fill the list with
+     * @param operations
+     *            the number of operations to perform in each call
+     * @param keys
+     *            the indices the operations apply to, lower than {@code elements}; the length must be a power of 2
+     */
+    public ListWorkload(Supplier<? extends List<Integer>> factory, WorkloadMix mix, int elements, int operations,
+            int[] keys) {
+        super(mix, elements, operations, keys);
+        this.list = factory.get();
+        for (int i = 0; i < elements; i++) {
+            list.add(i);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#readHeavy()
+     */
+    @Override
+    protected long readHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            int index = nextKey();
+            if (isWrite(i)) {
+                list.set(index, index);
+            } else {
+                checksum += list.get(index);
+            }
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#writeHeavy()
+     */
+    @Override
+    protected long writeHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations / 2; i++) {
+            int index = nextKey();
+            list.add(index, index);
+            checksum += list.remove(nextKey());
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#iterate()
+     */
+    @Override
+    protected long iterate() {
+        long checksum = 0;
+        for (Integer element : list) {
+            checksum += element;
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A workload on a {@link Map} of integers.
+ * <p/>
+ * The map is filled with {@code 0} to {@code elements - 1}, each key mapped to itself. Reads get the value of random
+ * keys, writes put them again; write-heavy mixes put a key outside of the initial range and remove it; get-or-put mixes
+ * get the value of Zipf-distributed keys, putting the missing ones.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class MapWorkload extends Workload {
+
+    private final Map<Integer, Integer> map;
+
+    /**
+     * Creates a new instance and fills the map.
+     *
+     * @param factory
+     *            the factory of the map
+     * @param mix
+     *            the mix of operations to perform
+     * @param elements
+     *            the number of entries to fill the map with
+     * @param operations
+     *            the number of operations to perform in each call
+     * @param keys
+     *            the keys the operations apply to; the length must be a power of 2
+     */
+    public MapWorkload(Supplier<? extends Map<Integer, Integer>> factory, WorkloadMix mix, int elements,
+            int operations, int[] keys) {
+        super(mix, elements, operations, keys);
+        this.map = factory.get();
+        for (int i = 0; i < elements; i++) {
+            map.put(i, i);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#readHeavy()
+     */
+    @Override
+    protected long readHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            int key = nextKey();
+            if (isWrite(i)) {
+                map.put(key, key);
+            } else {
+                checksum += map.get(key);
+            }
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#writeHeavy()
+     */
+    @Override
+    protected long writeHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations / 2; i++) {
+            int key = elements + nextKey();
+            map.put(key, key);
+            checksum += map.remove(key);
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#iterate()
+     */
+    @Override
+    protected long iterate() {
+        long checksum = 0;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            checksum += entry.getValue();
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#getOrPut()
+     */
+    @Override
+    protected long getOrPut() {
+        long checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            int key = nextKey();
+            Integer value = map.get(key);
+            if (value == null) {
+                value = key;
+                map.put(key, value);
+            }
+            checksum += value;
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+import java.util.Queue;
+import java.util.function.Supplier;
+
+/**
+ * A workload on a {@link Queue} of integers.
+ * <p/>
+ * The queue is filled with {@code 0} to {@code elements - 1}. Reads peek at the head of the queue, writes move the head
+ * to the tail; write-heavy mixes offer a new element and poll the head. The get-or-put mix does not apply.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class QueueWorkload extends Workload {
+
+    private final Queue<Integer> queue;
+
+    /**
+     * Creates a new instance and fills the queue.
+     *
+     * @param factory
+     *            the factory of the queue
+     * @param mix
+     *            the mix of operations to perform
+     * @param elements
+     *            the number of elements to fill the queue with
+     * @param operations
+     *            the number of operations to perform in each call
+     * @param keys
+     *            the elements to offer; the length must be a power of 2
+     */
+    public QueueWorkload(Supplier<? extends Queue<Integer>> factory, WorkloadMix mix, int elements, int operations,
+            int[] keys) {
+        super(mix, elements, operations, keys);
+        this.queue = factory.get();
+        for (int i = 0; i < elements; i++) {
+            queue.offer(i);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#readHeavy()
+     */
+    @Override
+    protected long readHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            if (isWrite(i)) {
+                queue.offer(queue.poll());
+            } else {
+                checksum += queue.peek();
+            }
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#writeHeavy()
+     */
+    @Override
+    protected long writeHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations / 2; i++) {
+            queue.offer(nextKey());
+            checksum += queue.poll();
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#iterate()
+     */
+    @Override
+    protected long iterate() {
+        long checksum = 0;
+        for (Integer element : queue) {
+            checksum += element;
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A workload on a {@link Set} of integers.
+ * <p/>
+ * The set is filled with {@code 0} to {@code elements - 1}. Reads look up random elements of the set, writes add them
+ * again; write-heavy mixes add an element outside of the initial range and remove it; get-or-put mixes add the
+ * Zipf-distributed keys which are not in the set yet.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class SetWorkload extends Workload {
+
+    private final Set<Integer> set;
+
+    /**
+     * Creates a new instance and fills the set.
+     *
+     * @param factory
+     *            the factory of the set
+     * @param mix
+     *            the mix of operations to perform
+     * @param elements
+     *            the number of elements to fill the set with
+     * @param operations
+     *            the number of operations to perform in each call
+     * @param keys
+     *            the elements the operations apply to; the length must be a power of 2
+     */
+    public SetWorkload(Supplier<? extends Set<Integer>> factory, WorkloadMix mix, int elements, int operations,
+            int[] keys) {
+        super(mix, elements, operations, keys);
+        this.set = factory.get();
+        for (int i = 0; i < elements; i++) {
+            set.add(i);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#readHeavy()
+     */
+    @Override
+    protected long readHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            int key = nextKey();
+            if (isWrite(i)) {
+                set.add(key);
+            } else if (set.contains(key)) {
+                checksum += key;
+            }
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#writeHeavy()
+     */
+    @Override
+    protected long writeHeavy() {
+        long checksum = 0;
+        for (int i = 0; i < operations / 2; i++) {
+            int key = elements + nextKey();
+            set.add(key);
+            if (set.remove(key)) {
+                checksum += key;
+            }
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#iterate()
+     */
+    @Override
+    protected long iterate() {
+        long checksum = 0;
+        for (Integer element : set) {
+            checksum += element;
+        }
+        return checksum;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.comparer.workload.Workload#getOrPut()
+     */
+    @Override
+    protected long getOrPut() {
+        long checksum = 0;
+        for (int i = 0; i < operations; i++) {
+            int key = nextKey();
+            if (set.contains(key)) {
+                checksum += key;
+            } else {
+                set.add(key);
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+/**
+ * The base class of the collection workloads.
+ * <p/>
+ * A workload fills a collection when created, then performs a mix of operations on it each time {@link #run()} is
+ * called. The keys of the operations are drawn in turn from a pre-generated array, so that all implementations see
+ * the same sequence of operations, and no random number is generated while timing.
+ * <p/>
+ * The checksum returned by {@link #run()} depends on the values read, so that the JIT compiler cannot eliminate the
+ * operations, and so that implementations behaving differently can be spotted.
+ * <p/>
+ * Subclasses must be public and have a public constructor with the same parameters as this class, preceded by the
+ * factory of the collection. Members they access must be protected rather than package-private, as subclasses are
+ * loaded in their own class loader by the {@link WorkloadComparer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public abstract class Workload {
+
+    /** One operation out of this number is a write in read-heavy mixes. */
+    private static final int WRITE_RATIO = 10;
+
+    private final WorkloadMix mix;
+    private final int[] keys;
+    private final int mask;
+    private int cursor;
+
+    /** The number of elements the collection is filled with. */
+    protected final int elements;
+    /** The number of operations performed by each call, iterations excepted. */
+    protected final int operations;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param mix
+     *            the mix of operations to perform
+     * @param elements
+     *            the number of elements to fill the collection with
+     * @param operations
+     *            the number of operations to perform in each call
+     * @param keys
+     *            the keys of the operations; the length must be a power of 2
+     */
+    protected Workload(WorkloadMix mix, int elements, int operations, int[] keys) {
+        this.mix = mix;
+        this.elements = elements;
+        this.operations = operations;
+        this.keys = keys;
+        this.mask = keys.length - 1;
+    }
+
+    /**
+     * Performs the operations of the mix once.
+     *
+     * @return a checksum of the values read
+     * @throws UnsupportedOperationException
+     *             if the mix does not apply to the collection
+     */
+    public long run() {
+        switch (mix) {
+        case READ_HEAVY:
+            return readHeavy();
+        case WRITE_HEAVY:
+            return writeHeavy();
+        case ITERATE:
+            return iterate();
+        case GET_OR_PUT:
+            return getOrPut();
+        default:
+            throw new UnsupportedOperationException("Unknown mix: " + mix);
+        }
+    }
+
+    /**
+     * Returns the key of the next operation.
+     *
+     * @return the key
+     */
+    protected final int nextKey() {
+        return keys[cursor++ & mask];
+    }
+
+    /**
+     * Returns {@code true} if an operation of a read-heavy mix is a write.
+     *
+     * @param operation
+     *            the index of the operation in the call
+     * @return {@code true} for one operation out of ten
+     */
+    protected static boolean isWrite(int operation) {
+        return operation % WRITE_RATIO == 0;
+    }
+
+    /**
+     * Performs a read-heavy mix of operations.
+     *
+     * @return a checksum of the values read
+     */
+    protected abstract long readHeavy();
+
+    /**
+     * Performs a write-heavy mix of operations.
+     *
+     * @return a checksum of the values read
+     */
+    protected abstract long writeHeavy();
+
+    /**
+     * Iterates over the whole collection.
+     *
+     * @return a checksum of the values read
+     */
+    protected abstract long iterate();
+
+    /**
+     * Looks up keys, inserting the missing ones.
+     *
+     * @return a checksum of the values read
+     * @throws UnsupportedOperationException
+     *             unless overridden
+     */
+    protected long getOrPut() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support " + mix);
+    }
+}
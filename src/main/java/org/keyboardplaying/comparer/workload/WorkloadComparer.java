@@ -0,0 +1,356 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.keyboardplaying.comparer.classloading.IsolatingClassLoader;
+import org.keyboardplaying.comparer.core.ImplComparer;
+import org.keyboardplaying.comparer.generator.Generator;
+import org.keyboardplaying.comparer.generator.Generators;
+import org.keyboardplaying.comparer.memory.HeapMeter;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.WorkloadInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a utility to compare collection implementations on ready-made mixes of operations.
+ * <p/>
+ * Each factory gets its own {@link Workload}, filled with the configured number of integers and timed through the
+ * {@link ImplComparer}: a call performs the configured number of operations. Each workload is loaded in its own
+ * {@link IsolatingClassLoader}, so that the calls to the collection are not made megamorphic by the implementations
+ * compared before.
+ * <p/>
+ * Before timing, the heap retained by another filled collection is measured for each factory. The results thus give
+ * both the time per operation and the retained memory per element, boxed elements included.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class WorkloadComparer {
+
+    /** The default number of elements in the collections. */
+    private static final int DEFAULT_ELEMENTS = 1000;
+    /** The default number of operations performed by each call. */
+    private static final int DEFAULT_OPERATIONS = 100;
+    /** The default seed of the keys of the operations. */
+    private static final long DEFAULT_SEED = 42L;
+    /** The default exponent of the Zipf distribution of the keys of get-or-put mixes. */
+    private static final double DEFAULT_EXPONENT = 1.;
+    /** The number of pre-generated keys, used in turn by the operations. */
+    private static final int KEYS = 4096;
+    /** The name of the method timed on the workloads. */
+    private static final String RUN_METHOD = "run";
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkloadComparer.class);
+
+    private final ImplComparer comparer;
+    private final HeapMeter heapMeter = new HeapMeter();
+
+    private int elements = DEFAULT_ELEMENTS;
+    private int operations = DEFAULT_OPERATIONS;
+    private long seed = DEFAULT_SEED;
+    private double exponent = DEFAULT_EXPONENT;
+
+    /**
+     * Creates a new instance, timing the workloads with the default settings of the {@link ImplComparer}.
+     */
+    public WorkloadComparer() {
+        this(new ImplComparer());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param comparer
+     *            the comparer to time the workloads with
+     */
+    public WorkloadComparer(ImplComparer comparer) {
+        this.comparer = comparer;
+    }
+
+    /**
+     * Returns the number of elements in the collections.
+     *
+     * @return the number of elements
+     */
+    public int getElements() {
+        return elements;
+    }
+
+    /**
+     * Sets the number of elements the collections are filled with (default: 1000).
+     *
+     * @param elements
+     *            the number of elements
+     */
+    public void setElements(int elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Returns the number of operations performed by each call.
+     *
+     * @return the number of operations per call
+     */
+    public int getOperations() {
+        return operations;
+    }
+
+    /**
+     * Sets the number of operations performed by each call (default: 100).
+     * <p/>
+     * Iterations visit the whole collection in each call, whatever this setting.
+     *
+     * @param operations
+     *            the number of operations per call
+     */
+    public void setOperations(int operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * Returns the seed of the keys of the operations.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the keys of the operations (default: 42).
+     *
+     * @param seed
+     *            the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the exponent of the Zipf distribution of the keys of get-or-put mixes.
+     *
+     * @return the exponent
+     */
+    public double getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Sets the exponent of the Zipf distribution of the keys of get-or-put mixes (default: 1); the higher, the more
+     * skewed.
+     *
+     * @param exponent
+     *            the exponent
+     */
+    public void setExponent(double exponent) {
+        this.exponent = exponent;
+    }
+
+    /**
+     * Compares lists on a mix of operations.
+     *
+     * @param factories
+     *            the factories of the lists, mapped by label; the first one provides the reference
+     * @param mix
+     *            the mix of operations
+     * @return a list of performance check result, in the iteration order of the factories
+     * @throws ComparisonException
+     *             if the mix does not apply to lists, or a workload fails
+     * @see ListWorkload
+     */
+    public List<ImplCheckResult> compareLists(Map<String, ? extends Supplier<? extends List<Integer>>> factories,
+            WorkloadMix mix) throws ComparisonException {
+        return compare(ListWorkload.class, factories, mix);
+    }
+
+    /**
+     * Compares maps on a mix of operations.
+     *
+     * @param factories
+     *            the factories of the maps, mapped by label; the first one provides the reference
+     * @param mix
+     *            the mix of operations
+     * @return a list of performance check result, in the iteration order of the factories
+     * @throws ComparisonException
+     *             if a workload fails
+     * @see MapWorkload
+     */
+    public List<ImplCheckResult> compareMaps(
+            Map<String, ? extends Supplier<? extends Map<Integer, Integer>>> factories, WorkloadMix mix)
+            throws ComparisonException {
+        return compare(MapWorkload.class, factories, mix);
+    }
+
+    /**
+     * Compares sets on a mix of operations.
+     *
+     * @param factories
+     *            the factories of the sets, mapped by label; the first one provides the reference
+     * @param mix
+     *            the mix of operations
+     * @return a list of performance check result, in the iteration order of the factories
+     * @throws ComparisonException
+     *             if a workload fails
+     * @see SetWorkload
+     */
+    public List<ImplCheckResult> compareSets(Map<String, ? extends Supplier<? extends Set<Integer>>> factories,
+            WorkloadMix mix) throws ComparisonException {
+        return compare(SetWorkload.class, factories, mix);
+    }
+
+    /**
+     * Compares queues on a mix of operations.
+     *
+     * @param factories
+     *            the factories of the queues, mapped by label; the first one provides the reference
+     * @param mix
+     *            the mix of operations
+     * @return a list of performance check result, in the iteration order of the factories
+     * @throws ComparisonException
+     *             if the mix does not apply to queues, or a workload fails
+     * @see QueueWorkload
+     */
+    public List<ImplCheckResult> compareQueues(Map<String, ? extends Supplier<? extends Queue<Integer>>> factories,
+            WorkloadMix mix) throws ComparisonException {
+        return compare(QueueWorkload.class, factories, mix);
+    }
+
+    /**
+     * Measures the retained heap of each factory, then times the workloads.
+     *
+     * @param type
+     *            the class of the workload
+     * @param factories
+     *            the factories of the collections, mapped by label
+     * @param mix
+     *            the mix of operations
+     * @return a list of performance check result, in the iteration order of the factories
+     * @throws ComparisonException
+     *             if the mix does not apply to the collections, or a workload fails
+     */
+    private List<ImplCheckResult> compare(Class<? extends Workload> type, Map<String, ? extends Supplier<?>> factories,
+            WorkloadMix mix) throws ComparisonException {
+        if (mix == WorkloadMix.GET_OR_PUT && (type == ListWorkload.class || type == QueueWorkload.class)) {
+            throw new ComparisonException(type.getSimpleName() + " does not support " + mix);
+        }
+        LOG.info("Running the {} workload on {} collection(s) of {} element(s)", mix, factories.size(), elements);
+        int[] keys = generateKeys(mix);
+        try {
+            Map<String, Object> targets = new LinkedHashMap<>();
+            Map<String, Long> retainedHeaps = new LinkedHashMap<>();
+            for (Map.Entry<String, ? extends Supplier<?>> factory : factories.entrySet()) {
+                retainedHeaps.put(factory.getKey(), measureRetainedHeap(type, factory.getValue(), mix, keys));
+                targets.put(factory.getKey(), isolate(type, factory.getValue(), mix, keys));
+            }
+
+            List<ImplCheckResult> results = comparer.compareTargets(targets, RUN_METHOD, null, null);
+            int operationsPerCall = mix == WorkloadMix.ITERATE ? elements
+                    : mix == WorkloadMix.WRITE_HEAVY ? operations / 2 * 2 : operations;
+            for (ImplCheckResult result : results) {
+                long retainedHeap = retainedHeaps.get(result.getLabel());
+                result.setWorkload(new WorkloadInfo(elements, operationsPerCall, retainedHeap));
+            }
+            return results;
+        } catch (InvocationTargetException e) {
+            throw new ComparisonException(e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new ComparisonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Generates the keys of the operations: uniformly distributed among the elements, or following a Zipf
+     * distribution over twice as many keys for get-or-put mixes.
+     *
+     * @param mix
+     *            the mix of operations
+     * @return {@value #KEYS} keys
+     */
+    private int[] generateKeys(WorkloadMix mix) {
+        Generator<Integer> generator = mix == WorkloadMix.GET_OR_PUT ? Generators.zipf(2 * elements, exponent)
+                : Generators.ints(0, elements - 1);
+        Random random = new Random(seed);
+        int[] keys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = generator.next(random);
+        }
+        return keys;
+    }
+
+    /**
+     * Measures the heap retained by a workload, i.e. mostly its filled collection.
+     *
+     * @param type
+     *            the class of the workload
+     * @param factory
+     *            the factory of the collection
+     * @param mix
+     *            the mix of operations
+     * @param keys
+     *            the keys of the operations
+     * @return the retained heap, in bytes
+     * @throws ReflectiveOperationException
+     *             if the workload cannot be created
+     */
+    private long measureRetainedHeap(Class<? extends Workload> type, Supplier<?> factory, WorkloadMix mix,
+            int[] keys) throws ReflectiveOperationException {
+        long before = heapMeter.getUsedHeapAfterGc();
+        Workload workload = newWorkload(type, factory, mix, keys);
+        long after = heapMeter.getUsedHeapAfterGc();
+        LOG.debug("{} retains {} bytes", workload, after - before);
+        return Math.max(0, after - before);
+    }
+
+    /**
+     * Creates a workload from a fresh copy of its class.
+     *
+     * @param type
+     *            the class of the workload
+     * @param factory
+     *            the factory of the collection
+     * @param mix
+     *            the mix of operations
+     * @param keys
+     *            the keys of the operations
+     * @return the workload
+     * @throws ReflectiveOperationException
+     *             if the workload cannot be created
+     */
+    private Workload isolate(Class<? extends Workload> type, Supplier<?> factory, WorkloadMix mix, int[] keys)
+            throws ReflectiveOperationException {
+        ClassLoader loader = new IsolatingClassLoader(type.getClassLoader(), null,
+                Collections.<Class<?>>singleton(type));
+        return newWorkload(Class.forName(type.getName(), true, loader).asSubclass(Workload.class), factory, mix, keys);
+    }
+
+    private Workload newWorkload(Class<? extends Workload> type, Supplier<?> factory, WorkloadMix mix, int[] keys)
+            throws ReflectiveOperationException {
+        Constructor<? extends Workload> constructor = type.getConstructor(Supplier.class, WorkloadMix.class,
+                int.class, int.class, int[].class);
+        return constructor.newInstance(factory, mix, elements, operations, keys);
+    }
+}
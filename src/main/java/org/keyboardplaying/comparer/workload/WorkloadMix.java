@@ -0,0 +1,38 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+/**
+ * The mixes of operations a collection can be compared on.
+ * <p/>
+ * Mixes alternating writes keep the size of the collection stable, so that all calls run on a collection of the same
+ * size.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public enum WorkloadMix {
+
+    /** Nine reads out of ten operations, the last one overwriting an existing element. */
+    READ_HEAVY,
+
+    /** Insertions and removals of elements, in pairs; an odd number of operations is rounded down. */
+    WRITE_HEAVY,
+
+    /** A traversal of the whole collection, each element visited counting as an operation. */
+    ITERATE,
+
+    /** Lookups of Zipf-distributed keys, inserting the missing ones; maps and sets only. */
+    GET_OR_PUT
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.affinity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link CpuTopology}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class CpuTopologyTest {
+
+    /**
+     * Creates a topology of two sockets of two cores, each running two hyper-threads: CPUs 0 and 4 share the first
+     * core, CPUs 0 to 1 and 4 to 5 the first socket.
+     *
+     * @return the topology
+     */
+    private static CpuTopology twoSockets() {
+        Map<Integer, int[]> cpus = new HashMap<>();
+        for (int cpu = 0; cpu < 8; cpu++) {
+            cpus.put(cpu, new int[] { cpu % 4 / 2, cpu % 2 });
+        }
+        return new CpuTopology(cpus);
+    }
+
+    /** Tests the parsing of CPU lists. */
+    @Test
+    public void testParseList() {
+        assertEquals(Arrays.asList(2), CpuTopology.parseList("2"));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 6), CpuTopology.parseList("0-3,6"));
+    }
+
+    /** Tests the counting of CPUs, cores and sockets. */
+    @Test
+    public void testCount() {
+        CpuTopology topology = twoSockets();
+
+        assertEquals(8, topology.getCpus());
+        assertEquals(4, topology.getCores());
+        assertEquals(2, topology.getSockets());
+        assertEquals("2 socket(s), 4 core(s), 8 CPU(s)", topology.toString());
+        assertEquals("0 (socket 0, core 0), 3 (socket 1, core 1)", topology.describe("0,3"));
+    }
+
+    /** Tests the relation between sets of CPUs. */
+    @Test
+    public void testRelate() {
+        CpuTopology topology = twoSockets();
+
+        assertEquals(CpuTopology.SAME_CPU, topology.relate("1", "1"));
+        assertEquals(CpuTopology.SAME_CORE, topology.relate("0", "4"));
+        assertEquals(CpuTopology.SAME_SOCKET, topology.relate("0", "1,5"));
+        assertEquals(CpuTopology.CROSS_SOCKET, topology.relate("0", "1-2"));
+        assertNull(topology.relate("0", "9"));
+    }
+
+    /** Ensures the topology of this machine can be read, if any. */
+    @Test
+    public void testRead() {
+        CpuTopology topology = CpuTopology.read();
+
+        assertEquals(topology.getCpus() == 0, topology.getSockets() == 0);
+    }
+}
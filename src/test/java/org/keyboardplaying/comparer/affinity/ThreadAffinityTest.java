@@ -0,0 +1,67 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.affinity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ThreadAffinity}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ThreadAffinityTest {
+
+    /** Tests the prefix of a pinned command. */
+    @Test
+    public void testCommandPrefix() {
+        assertEquals(Arrays.asList("taskset", "-c", "0-3"), ThreadAffinity.commandPrefix("0-3"));
+    }
+
+    /**
+     * Tests the pinning of a thread, on Linux.
+     *
+     * @throws IOException
+     *             if the CPUs of the current thread cannot be read
+     * @throws InterruptedException
+     *             if interrupted while waiting for the pinned thread
+     */
+    @Test
+    public void testPinCurrentThread() throws IOException, InterruptedException {
+        assumeTrue(ThreadAffinity.isSupported());
+        String cpu = ThreadAffinity.getAllowedCpus().split("[,-]")[0];
+        AtomicReference<Object> pinned = new AtomicReference<>();
+
+        // Pin another thread, so that the one of the tests is left untouched
+        Thread thread = new Thread(() -> {
+            try {
+                ThreadAffinity.pinCurrentThread(cpu);
+                pinned.set(ThreadAffinity.getAllowedCpus());
+            } catch (IOException e) {
+                pinned.set(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals(cpu, pinned.get());
+    }
+}
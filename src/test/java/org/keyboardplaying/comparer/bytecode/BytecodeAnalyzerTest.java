@@ -0,0 +1,198 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.bytecode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.BytecodeInfo;
+import org.keyboardplaying.comparer.test.ClassWithVariants;
+
+/**
+ * Test cases for {@link BytecodeAnalyzer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class BytecodeAnalyzerTest {
+
+    private final BytecodeAnalyzer analyzer = new BytecodeAnalyzer();
+
+    /**
+     * Tests the analysis of a trivial method ({@code ldc}, {@code areturn}).
+     *
+     * @throws Exception
+     *             never
+     */
+    @Test
+    public void testTrivialMethod() throws Exception {
+        BytecodeInfo hello = analyzer.analyze(ClassWithVariants.class.getMethod("hello"));
+
+        assertEquals(3, hello.getCodeLength());
+        assertEquals(1, hello.getMaxStack());
+        assertEquals(0, hello.getMaxLocals());
+        assertEquals(0, hello.getInvokeCount());
+        assertEquals(0, hello.getExceptionHandlerCount());
+        assertFalse(hello.exceedsMaxInlineSize());
+    }
+
+    /**
+     * Tests the analysis of an instance method with parameters and invocations.
+     *
+     * @throws Exception
+     *             never
+     */
+    @Test
+    public void testInstanceMethod() throws Exception {
+        BytecodeInfo string = analyzer.analyze(ClassWithVariants.class.getMethod("string", String.class));
+
+        // new StringBuilder(), length(), charAt(), append(), toString()
+        assertEquals(5, string.getInvokeCount());
+        // this, arg, sb, i
+        assertEquals(4, string.getMaxLocals());
+        assertTrue(string.exceedsMaxInlineSize());
+        assertFalse(string.exceedsFreqInlineSize());
+    }
+
+    /**
+     * Tests the counting of exception handlers.
+     *
+     * @throws Exception
+     *             never
+     */
+    @Test
+    public void testExceptionHandlers() throws Exception {
+        BytecodeInfo parse = analyzer.analyze(Sample.class.getMethod("parse", String.class));
+
+        assertEquals(1, parse.getInvokeCount());
+        assertEquals(1, parse.getExceptionHandlerCount());
+    }
+
+    /**
+     * Ensures variable-length instructions are correctly walked through.
+     *
+     * @throws Exception
+     *             never
+     */
+    @Test
+    public void testSwitches() throws Exception {
+        assertEquals(2, analyzer.analyze(Sample.class.getMethod("tableSwitch", int.class)).getInvokeCount());
+        assertEquals(2, analyzer.analyze(Sample.class.getMethod("lookupSwitch", int.class)).getInvokeCount());
+    }
+
+    /**
+     * Ensures methods without bytecode are not analyzed.
+     *
+     * @throws IOException
+     *             never
+     * @throws NoSuchMethodException
+     *             never
+     */
+    @Test
+    public void testAbstractMethod() throws IOException, NoSuchMethodException {
+        assertNull(analyzer.analyze(Runnable.class.getMethod("run")));
+    }
+
+    /**
+     * Ensures the descriptors are built according to the specification.
+     *
+     * @throws NoSuchMethodException
+     *             never
+     */
+    @Test
+    public void testDescriptor() throws NoSuchMethodException {
+        assertEquals("(Ljava/lang/String;)Ljava/lang/String;",
+                BytecodeAnalyzer.getDescriptor(ClassWithVariants.class.getMethod("string", String.class)));
+        assertEquals("([CII)Ljava/lang/String;",
+                BytecodeAnalyzer.getDescriptor(String.class.getMethod("valueOf", char[].class, int.class, int.class)));
+        assertEquals("(JZ)V", BytecodeAnalyzer.getDescriptor(Sample.class.getMethod("primitives", long.class,
+                boolean.class)));
+    }
+
+    /** Methods compiled to specific instructions. */
+    public static class Sample {
+
+        /**
+         * A method with an exception handler.
+         *
+         * @param s
+         *            the string to parse
+         * @return the parsed integer, or -1
+         */
+        public static int parse(String s) {
+            try {
+                return Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * A method compiled to a {@code tableswitch}.
+         *
+         * @param i
+         *            any integer
+         * @return any integer
+         */
+        public static int tableSwitch(int i) {
+            switch (i) {
+            case 0:
+                return 10;
+            case 1:
+                return 11;
+            case 2:
+                return 12;
+            default:
+                return String.valueOf(i).length();
+            }
+        }
+
+        /**
+         * A method compiled to a {@code lookupswitch}.
+         *
+         * @param i
+         *            any integer
+         * @return any integer
+         */
+        public static int lookupSwitch(int i) {
+            switch (i) {
+            case 1:
+                return 10;
+            case 1000:
+                return 11;
+            case 100000:
+                return 12;
+            default:
+                return String.valueOf(i).length();
+            }
+        }
+
+        /**
+         * A method with primitive parameters.
+         *
+         * @param l
+         *            any long
+         * @param b
+         *            any boolean
+         */
+        public static void primitives(long l, boolean b) {
+            // nothing to do
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.classloading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.core.ImplComparer;
+import org.keyboardplaying.comparer.test.ClassWithVariants;
+import org.keyboardplaying.comparer.workload.ListWorkload;
+import org.keyboardplaying.comparer.workload.Workload;
+
+/**
+ * Test cases for {@link IsolatingClassLoader}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class IsolatingClassLoaderTest {
+
+    /**
+     * Ensures application classes are loaded again by the isolating loader.
+     *
+     * @throws ClassNotFoundException
+     *             never
+     */
+    @Test
+    public void testApplicationClassIsIsolated() throws ClassNotFoundException {
+        ClassLoader parent = ClassWithVariants.class.getClassLoader();
+        IsolatingClassLoader loader = new IsolatingClassLoader(parent, null);
+
+        Class<?> isolated = loader.loadClass(ClassWithVariants.class.getName());
+
+        assertNotEquals(ClassWithVariants.class, isolated);
+        assertEquals(ClassWithVariants.class.getName(), isolated.getName());
+        assertSame(loader, isolated.getClassLoader());
+        assertSame(isolated, loader.loadClass(ClassWithVariants.class.getName()));
+    }
+
+    /**
+     * Ensures two loaders give two different copies.
+     *
+     * @throws ClassNotFoundException
+     *             never
+     */
+    @Test
+    public void testLoadersAreIndependent() throws ClassNotFoundException {
+        ClassLoader parent = ClassWithVariants.class.getClassLoader();
+
+        Class<?> first = new IsolatingClassLoader(parent, null).loadClass(ClassWithVariants.class.getName());
+        Class<?> second = new IsolatingClassLoader(parent, null).loadClass(ClassWithVariants.class.getName());
+
+        assertNotEquals(first, second);
+    }
+
+    /**
+     * Ensures JDK, comparer and shared classes are delegated to the parent.
+     *
+     * @throws ClassNotFoundException
+     *             never
+     */
+    @Test
+    public void testDelegatedClasses() throws ClassNotFoundException {
+        ClassLoader parent = ClassWithVariants.class.getClassLoader();
+        IsolatingClassLoader loader = new IsolatingClassLoader(parent,
+                Collections.<Class<?>>singleton(ClassWithVariants[].class));
+
+        assertSame(String.class, loader.loadClass(String.class.getName()));
+        assertSame(ImplComparer.class, loader.loadClass(ImplComparer.class.getName()));
+        assertSame(ClassWithVariants.class, loader.loadClass(ClassWithVariants.class.getName()));
+    }
+
+    /**
+     * Ensures classes of the comparer are isolated when supplied as copied.
+     *
+     * @throws ClassNotFoundException
+     *             never
+     */
+    @Test
+    public void testCopiedClasses() throws ClassNotFoundException {
+        ClassLoader parent = ListWorkload.class.getClassLoader();
+        IsolatingClassLoader loader = new IsolatingClassLoader(parent, null,
+                Collections.<Class<?>>singleton(ListWorkload.class));
+
+        Class<?> copy = loader.loadClass(ListWorkload.class.getName());
+
+        assertNotEquals(ListWorkload.class, copy);
+        assertSame(loader, copy.getClassLoader());
+        assertSame(Workload.class, copy.getSuperclass());
+    }
+}
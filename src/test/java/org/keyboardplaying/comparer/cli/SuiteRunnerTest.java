@@ -0,0 +1,169 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.test.VersionedJars;
+
+/**
+ * Test cases for {@link SuiteRunner} and {@link Suite}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class SuiteRunnerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Runs a suite in the current JVM, with a class from the current class path and one from the suite class path.
+     *
+     * @throws IOException
+     *             if the suite cannot be written
+     * @throws ComparisonException
+     *             if the suite fails
+     */
+    @Test
+    public void testRun() throws IOException, ComparisonException {
+        VersionedJars.buildFast(folder.getRoot());
+        Path suite = writeSuite("nightly.properties",
+                "checks=2",
+                "iterations=100",
+                "classpath=repeater-1.1.jar",
+                "formats=log, csv",
+                "output=reports",
+                "comparisons=string, repeat",
+                "comparison.string.class=org.keyboardplaying.comparer.test.ClassWithVariants",
+                "comparison.string.method=string(String)",
+                "comparison.string.arguments=Chop",
+                "comparison.repeat.class=" + VersionedJars.CLASS_NAME,
+                "comparison.repeat.method=repeat(String, int)",
+                "comparison.repeat.arguments=ab, 3",
+                "comparison.repeat.iterations=50");
+
+        Map<String, Map<String, List<ImplCheckResult>>> results = SuiteRunner.run(suite);
+
+        assertEquals(Arrays.asList("string", "repeat"), Arrays.asList(results.keySet().toArray()));
+        List<ImplCheckResult> string = results.get("string").get("");
+        assertEquals(3, string.size());
+        assertEquals(200, string.get(0).getNumberOfExecutions());
+        List<ImplCheckResult> repeat = results.get("repeat").get("");
+        assertEquals(1, repeat.size());
+        assertEquals("ababab", repeat.get(0).getMethodResult());
+        assertEquals(100, repeat.get(0).getNumberOfExecutions());
+
+        List<String> csv = Files.readAllLines(folder.getRoot().toPath().resolve("reports").resolve("nightly.csv"),
+                StandardCharsets.UTF_8);
+        assertEquals(5, csv.size());
+        assertEquals("comparison,configuration,method,avg_time_us,executions,result", csv.get(0));
+        assertTrue(csv.get(1), csv.get(1).startsWith("string,,string,"));
+        assertTrue(csv.get(1), csv.get(1).endsWith(",200,REF"));
+        assertTrue(csv.get(4), csv.get(4).startsWith("repeat,,repeat,"));
+    }
+
+    /**
+     * Runs a suite in forked JVMs.
+     *
+     * @throws IOException
+     *             if the suite cannot be written
+     * @throws ComparisonException
+     *             if the suite fails
+     */
+    @Test
+    public void testRunForked() throws IOException, ComparisonException {
+        Path suite = writeSuite("forked.properties",
+                "checks=1",
+                "iterations=100",
+                "formats=csv, html",
+                "jvms=default, c1",
+                "jvm.c1.options=-XX:TieredStopAtLevel=1 -Xmx64m",
+                "comparisons=hello",
+                "comparison.hello.class=org.keyboardplaying.comparer.test.ClassWithVariants",
+                "comparison.hello.method=hello");
+
+        Map<String, List<ImplCheckResult>> results = SuiteRunner.run(suite).get("hello");
+
+        assertEquals(Arrays.asList("default", "c1"), Arrays.asList(results.keySet().toArray()));
+        assertEquals(3, results.get("c1").size());
+        assertEquals(7, Files.readAllLines(new File(folder.getRoot(), "forked.csv").toPath()).size());
+        String chart = new String(Files.readAllBytes(new File(folder.getRoot(), "forked.html").toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(chart, chart.contains(">hello (c1)<"));
+    }
+
+    /**
+     * Ensures a failing comparison does not prevent the other ones from being run and reported.
+     *
+     * @throws IOException
+     *             if the suite cannot be written
+     */
+    @Test
+    public void testFailingComparison() throws IOException {
+        Path suite = writeSuite("failing.properties",
+                "iterations=10",
+                "formats=csv",
+                "comparisons=missing, hello",
+                "comparison.missing.class=org.keyboardplaying.comparer.test.Missing",
+                "comparison.missing.method=hello",
+                "comparison.hello.class=org.keyboardplaying.comparer.test.ClassWithVariants",
+                "comparison.hello.method=hello");
+
+        try {
+            SuiteRunner.run(suite);
+            fail("The missing class should have been reported");
+        } catch (ComparisonException e) {
+            assertEquals("1 comparison(s) of suite failing failed", e.getMessage());
+        }
+        assertEquals(4, Files.readAllLines(new File(folder.getRoot(), "failing.csv").toPath()).size());
+    }
+
+    /**
+     * Ensures an unknown format is rejected.
+     *
+     * @throws IOException
+     *             if the suite cannot be written
+     * @throws ComparisonException
+     *             always
+     */
+    @Test(expected = ComparisonException.class)
+    public void testUnknownFormat() throws IOException, ComparisonException {
+        Suite.load(writeSuite("invalid.properties", "formats=pdf", "comparisons=hello",
+                "comparison.hello.class=org.keyboardplaying.comparer.test.ClassWithVariants",
+                "comparison.hello.method=hello"));
+    }
+
+    private Path writeSuite(String name, String... lines) throws IOException {
+        Path suite = folder.getRoot().toPath().resolve(name);
+        Files.write(suite, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return suite;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.cli;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.test.VersionedJars;
+
+/**
+ * Test cases for {@link VersionComparison} and {@link MethodSignature}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class VersionComparisonTest {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    /**
+     * Ensures signatures and their arguments are parsed.
+     *
+     * @throws ComparisonException
+     *             if the signature cannot be parsed
+     */
+    @Test
+    public void testMethodSignature() throws ComparisonException {
+        MethodSignature signature = MethodSignature.parse("bar(String, int, java.math.BigDecimal, char)");
+
+        assertEquals("bar", signature.getName());
+        assertEquals(4, signature.getErasure().length);
+        assertEquals(int.class, signature.getErasure()[1]);
+        assertEquals(java.math.BigDecimal.class, signature.getErasure()[2]);
+
+        Object[] arguments = signature.convert(new String[] { "foo", "42", "1.5", "c" });
+        assertEquals("foo", arguments[0]);
+        assertEquals(42, arguments[1]);
+        assertEquals(new java.math.BigDecimal("1.5"), arguments[2]);
+        assertEquals('c', arguments[3]);
+
+        assertEquals(0, MethodSignature.parse("bar").getErasure().length);
+        assertEquals(0, MethodSignature.parse("bar()").getErasure().length);
+    }
+
+    /**
+     * Ensures an application class cannot be used as a parameter type.
+     *
+     * @throws ComparisonException
+     *             always
+     */
+    @Test(expected = ComparisonException.class)
+    public void testMethodSignatureWithApplicationType() throws ComparisonException {
+        MethodSignature.parse("bar(org.keyboardplaying.comparer.test.ClassWithVariants)");
+    }
+
+    /**
+     * Runs the command line on two versions of a static method.
+     *
+     * @throws IOException
+     *             if the jars cannot be built
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testRun() throws IOException, ComparisonException {
+        File slow = VersionedJars.buildSlow(FOLDER.getRoot());
+        File fast = VersionedJars.buildFast(FOLDER.getRoot());
+
+        List<ImplCheckResult> results = VersionComparison.run(new String[] { "--checks=2", "--iterations=100",
+                VersionedJars.CLASS_NAME, "repeat(String,int)", slow.getPath(), fast.getPath(), "--", "ab", "3" });
+
+        assertEquals(2, results.size());
+        assertEquals("repeater-1.0.jar", results.get(0).getLabel());
+        assertEquals("repeater-1.1.jar", results.get(1).getLabel());
+        assertEquals("ababab", results.get(0).getMethodResult());
+        assertEquals("ababab", results.get(1).getMethodResult());
+        assertEquals(200, results.get(1).getNumberOfExecutions());
+    }
+
+    /**
+     * Ensures a missing jar is reported as a usage error.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRunWithMissingJar() throws ComparisonException {
+        VersionComparison.run(new String[] { VersionedJars.CLASS_NAME, "repeat", "missing-1.jar", "missing-2.jar" });
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.AsyncResult;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.test.ClassWithFutures;
+import org.keyboardplaying.comparer.test.ClassWithVariants;
+
+/**
+ * Test cases for {@link AsyncComparer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class AsyncComparerTest {
+
+    /**
+     * Ensures calls returning futures are tracked until they complete.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testCompareFutures() throws ComparisonException {
+        AsyncComparer comparer = new AsyncComparer();
+        comparer.setCalls(200);
+        comparer.setWarmupCalls(20);
+        comparer.setConcurrency(8);
+
+        List<AsyncResult> results = comparer.compareStatic(ClassWithFutures.class, "twice",
+                new Class<?>[] { int.class }, 21);
+
+        assertEquals(3, results.size());
+        AsyncResult delayed = results.get(0);
+        assertEquals("twice", delayed.getMethod().getName());
+        assertEquals(8, delayed.getConcurrency());
+        assertEquals(200, delayed.getLatencies().getTotalCount());
+        // The work completes about a millisecond after it was handed off
+        assertTrue(delayed.getLatencyAtPercentile(50) >= 900);
+        assertTrue(delayed.getAverageHandOffTime() < delayed.getLatencyAtPercentile(50));
+        // At most 8 calls in flight, each lasting at least a millisecond
+        assertTrue(delayed.getThroughput() > 0 && delayed.getThroughput() < 8 * 1000 * 1.1);
+        assertEquals(0, delayed.getFailures());
+
+        assertTrue(results.get(1).getLatencyAtPercentile(50) < delayed.getLatencyAtPercentile(50));
+        assertEquals(0, results.get(1).getFailures());
+    }
+
+    /**
+     * Ensures calls throwing an exception are counted as failures.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testFailures() throws ComparisonException {
+        AsyncComparer comparer = new AsyncComparer();
+        comparer.setCalls(50);
+        comparer.setWarmupCalls(0);
+
+        List<AsyncResult> results = comparer.compareStatic(ClassWithFutures.class, "twice",
+                new Class<?>[] { int.class }, -1);
+
+        assertEquals(0, results.get(0).getFailures());
+        assertEquals(50, results.get(2).getFailures());
+        // Failed calls are kept out of the latencies
+        assertEquals(50, results.get(0).getLatencies().getTotalCount());
+        assertEquals(0, results.get(2).getLatencies().getTotalCount());
+    }
+
+    /**
+     * Ensures calls taking a callback complete when the callback is called.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testCompareCallbacks() throws ComparisonException {
+        AsyncComparer comparer = new AsyncComparer();
+        comparer.setCalls(100);
+        comparer.setWarmupCalls(10);
+        comparer.setConcurrency(4);
+        assertEquals(4, comparer.getConcurrency());
+
+        List<AsyncResult> results = comparer.compareStatic(ClassWithFutures.class, "twiceLater",
+                new Class<?>[] { int.class, BiConsumer.class }, 21, AsyncComparer.CALLBACK);
+
+        assertEquals(2, results.size());
+        assertEquals(100, results.get(0).getLatencies().getTotalCount());
+        assertTrue(results.get(0).getLatencyAtPercentile(50) >= 900);
+        assertEquals(0, results.get(0).getFailures());
+        assertEquals(100, results.get(1).getFailures());
+        assertEquals(0, results.get(1).getLatencies().getTotalCount());
+    }
+
+    /**
+     * Ensures callbacks returning a primitive and calls through their default methods are supported.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testPrimitiveCallback() throws ComparisonException {
+        AsyncComparer comparer = new AsyncComparer();
+        comparer.setCalls(20);
+        comparer.setWarmupCalls(0);
+
+        List<AsyncResult> results = comparer.compareStatic(ClassWithFutures.class, "testLater",
+                new Class<?>[] { int.class, Predicate.class }, 21, AsyncComparer.CALLBACK);
+
+        assertEquals(2, results.size());
+        for (AsyncResult result : results) {
+            assertEquals(0, result.getFailures());
+            assertEquals(20, result.getLatencies().getTotalCount());
+        }
+        assertEquals(0, ClassWithFutures.getFailedCallbacks());
+    }
+
+    /**
+     * Ensures synchronous methods are rejected.
+     *
+     * @throws ComparisonException
+     *             always
+     */
+    @Test(expected = ComparisonException.class)
+    public void testSynchronousMethod() throws ComparisonException {
+        new AsyncComparer().compareStatic(ClassWithVariants.class, "hello", null);
+    }
+
+    /**
+     * Ensures calls which do not complete in time make the comparison fail.
+     */
+    @Test
+    public void testTimeout() {
+        AsyncComparer comparer = new AsyncComparer();
+        comparer.setWarmupCalls(0);
+        comparer.setCalls(10);
+        comparer.setConcurrency(4);
+        comparer.setTimeout(100);
+
+        try {
+            comparer.compareStatic(ClassWithFutures.class, "never", new Class<?>[] { int.class }, 21);
+            fail("The calls never complete");
+        } catch (ComparisonException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("did not complete within 100 ms"));
+        }
+    }
+}
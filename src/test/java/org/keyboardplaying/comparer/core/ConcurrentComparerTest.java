@@ -0,0 +1,152 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ConcurrentResult;
+import org.keyboardplaying.comparer.model.ThreadMode;
+import org.keyboardplaying.comparer.test.ClassWithLocks;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Test cases for {@link ConcurrentComparer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ConcurrentComparerTest {
+
+    private ConcurrentComparer comparer;
+
+    /** Creates a short concurrent comparer. */
+    @Before
+    public void setUp() {
+        comparer = new ConcurrentComparer();
+        comparer.setCalls(400);
+        comparer.setPlatformThreads(8);
+        comparer.setVirtualThreads(200);
+    }
+
+    /**
+     * Ensures all calls are made by concurrent platform threads, and that waiting out of a lock scales.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testComparePlatform() throws ComparisonException {
+        comparer.setModes(ThreadMode.PLATFORM);
+
+        List<ConcurrentResult> results = comparer.compare(new ClassWithLocks(), "increment", null);
+
+        assertEquals(3, results.size());
+        for (ConcurrentResult result : results) {
+            assertEquals(ThreadMode.PLATFORM, result.getMode());
+            assertEquals(8, result.getThreads());
+            assertEquals(400, result.getLatencies().getTotalCount());
+            assertEquals(-1, result.getPinnedEvents());
+        }
+        assertEquals("increment2", results.get(2).getMethod().getName());
+        // Calls waiting in a lock are serialized, other ones are not
+        assertTrue(results.get(2).getThroughput() > results.get(0).getThroughput());
+    }
+
+    /**
+     * Ensures virtual threads are used side by side with platform threads when available, and skipped otherwise.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testCompareModes() throws ComparisonException {
+        List<ConcurrentResult> results = comparer.compare(new ClassWithLocks(), "increment", null);
+
+        if (ConcurrentComparer.isVirtualThreadSupported()) {
+            assertEquals(6, results.size());
+            assertEquals(ThreadMode.PLATFORM, results.get(0).getMode());
+            assertEquals(ThreadMode.VIRTUAL, results.get(1).getMode());
+            assertEquals(results.get(0).getMethod(), results.get(1).getMethod());
+            assertEquals(200, results.get(1).getThreads());
+            assertEquals(400, results.get(1).getLatencies().getTotalCount());
+        } else {
+            assertEquals(3, results.size());
+            for (ConcurrentResult result : results) {
+                assertEquals(ThreadMode.PLATFORM, result.getMode());
+            }
+        }
+    }
+
+    /**
+     * Ensures the pinning of virtual threads is recorded.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testPinning() throws ComparisonException {
+        assumeTrue(ConcurrentComparer.isVirtualThreadSupported());
+        comparer.setModes(ThreadMode.VIRTUAL);
+
+        List<ConcurrentResult> results = comparer.compare(new ClassWithLocks(), "increment", null);
+
+        assertEquals(3, results.size());
+        for (ConcurrentResult result : results) {
+            assertEquals(ThreadMode.VIRTUAL, result.getMode());
+            assertTrue(result.getPinnedEvents() >= 0);
+        }
+        // A virtual thread parking without holding a monitor is never pinned
+        assertEquals(0, results.get(1).getPinnedEvents());
+    }
+
+    /**
+     * Ensures a failing variant run on virtual threads is reported, and that the Flight Recorder recording of the
+     * pinning is not left running. Platform threads stand in for the virtual ones where they are not available.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testFailingVirtualVariant() throws NoSuchMethodException {
+        ThreadFactory factory = ConcurrentComparer.isVirtualThreadSupported()
+                ? ConcurrentComparer.newVirtualThreadFactory()
+                : Thread::new;
+        // Not an instance of the class declaring the method: each call fails
+        Method method = ClassWithLocks.class.getMethod("increment");
+
+        try {
+            comparer.run(new Object(), method, null, ThreadMode.VIRTUAL, 4, factory);
+            fail("A failing variant should be reported");
+        } catch (ComparisonException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+            assertNotEquals(RecordingState.RUNNING, recording.getState());
+        }
+    }
+}
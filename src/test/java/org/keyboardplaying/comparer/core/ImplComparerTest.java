@@ -16,16 +16,43 @@ package org.keyboardplaying.comparer.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.keyboardplaying.comparer.generator.Generators;
+import org.keyboardplaying.comparer.generator.ParameterSupplier;
+import org.keyboardplaying.comparer.memory.MemoryPressure;
+import org.keyboardplaying.comparer.model.CallProfile;
+import org.keyboardplaying.comparer.model.ColdStartResult;
 import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.Divergence;
 import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.StackProfile;
+import org.keyboardplaying.comparer.model.TimingSample;
+import org.keyboardplaying.comparer.model.VerificationResult;
+import org.keyboardplaying.comparer.recording.SampleReader;
+import org.keyboardplaying.comparer.recording.SampleRecorder;
+import org.keyboardplaying.comparer.stats.OutlierDetection;
+import org.keyboardplaying.comparer.test.ClassWithDivergence;
+import org.keyboardplaying.comparer.test.ClassWithLatency;
+import org.keyboardplaying.comparer.test.ClassWithSort;
+import org.keyboardplaying.comparer.test.ClassWithState;
+import org.keyboardplaying.comparer.test.ClassWithTwins;
 import org.keyboardplaying.comparer.test.ClassWithVariants;
+import org.keyboardplaying.comparer.test.Greeter;
+import org.keyboardplaying.comparer.test.VersionedJars;
 
 /**
  * Test cases for {@link ImplComparer}.
@@ -34,6 +61,9 @@ import org.keyboardplaying.comparer.test.ClassWithVariants;
  */
 public class ImplComparerTest {
 
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     /** Tests the configuration of the comparer. */
     @Test
     public void testConfiguration() {
@@ -221,4 +251,528 @@ public class ImplComparerTest {
         assertTrue(e instanceof RuntimeException);
         assertEquals("dummy-exception-test-message", ((RuntimeException) e).getMessage());
     }
+
+    /**
+     * Tests the cold-start mode.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testColdStart() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(10);
+        comparer.setColdStartCalls(5);
+
+        List<ImplCheckResult> comparison = comparer.compare(new ClassWithVariants(), "string",
+                new Class<?>[] { String.class }, new Object[] { "A String param" });
+
+        assertEquals("Incorrect number of variants", 3, comparison.size());
+        for (ImplCheckResult result : comparison) {
+            ColdStartResult coldStart = result.getColdStart();
+            assertNotNull(coldStart);
+            assertEquals(5, coldStart.getNumberOfCalls());
+            assertTrue(coldStart.getFirstCallTime() >= 0);
+            assertTrue(coldStart.getFirstCallTime() <= coldStart.getAverageExecutionTime() * 5);
+        }
+    }
+
+    /**
+     * Ensures identical variants get comparable first-call times, the first one not paying for the harness.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testColdStartOfTwins() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(10);
+        comparer.setColdStartCalls(1);
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithTwins.class, "twin", null, null);
+
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (ImplCheckResult result : comparison) {
+            min = Math.min(min, result.getColdStart().getFirstCallTime());
+            max = Math.max(max, result.getColdStart().getFirstCallTime());
+        }
+        // the first call used to pay for the harness, i.e. milliseconds
+        assertTrue(min + " to " + max + " us", max <= 4 * min + 100);
+    }
+
+    /**
+     * Ensures the cold-start mode is disabled by default.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testNoColdStartByDefault() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(10);
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithVariants.class, "hello", null, null);
+
+        for (ImplCheckResult result : comparison) {
+            assertNull(result.getColdStart());
+        }
+    }
+
+    /**
+     * Tests the measurement of the size of the results.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testMeasureResultSize() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(10);
+        comparer.setMeasureResultSize(true);
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithVariants.class, "hello", null, null);
+
+        for (ImplCheckResult result : comparison) {
+            assertNotNull(result.getResultSize());
+            assertTrue(result.getResultSize().getBytes() > 0);
+        }
+    }
+
+    /**
+     * Tests the cold-cache mode, timing additional calls after evicting the CPU caches.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testColdCache() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(2);
+        comparer.setIterations(100);
+        comparer.setColdCacheCalls(10);
+        comparer.setColdCacheBatch(3);
+        comparer.setEvictionBufferSize(4 * 1024 * 1024);
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithVariants.class, "hello", null, null);
+
+        for (ImplCheckResult result : comparison) {
+            assertEquals(200, result.getNumberOfExecutions());
+            assertEquals(20, result.getNumberOfColdCacheExecutions());
+            assertTrue(result.getAverageColdCacheTime() > 0);
+        }
+    }
+
+    /**
+     * Tests the time checks under memory pressure.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testMemoryPressure() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(2);
+        comparer.setIterations(100);
+        MemoryPressure pressure = new MemoryPressure();
+        Runtime runtime = Runtime.getRuntime();
+        // A little more than what is used, to keep the test light
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        pressure.setOccupancy((used + (32 << 20)) / (double) runtime.maxMemory());
+        pressure.setAllocatorThreads(1);
+        comparer.setMemoryPressure(pressure);
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithVariants.class, "hello", null, null);
+
+        for (ImplCheckResult result : comparison) {
+            assertEquals(200, result.getNumberOfExecutions());
+            assertEquals(200, result.getNumberOfPressuredExecutions());
+            assertTrue(result.getAveragePressuredTime() > 0);
+        }
+        assertTrue(pressure.getAllocatedBytes() > 0);
+        assertEquals(0, pressure.getBallastSize());
+    }
+
+    /**
+     * Tests the recording of the raw timings of the time checks.
+     *
+     * @throws ComparisonException
+     *             never
+     * @throws IOException
+     *             if the samples cannot be recorded
+     */
+    @Test
+    public void testSampleRecorder() throws ComparisonException, IOException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(2);
+        comparer.setIterations(100);
+        comparer.setSampleBatch(30);
+        File file = folder.newFile("samples.bin");
+
+        List<ImplCheckResult> comparison;
+        try (SampleRecorder recorder = new SampleRecorder(file.toPath(), 1000)) {
+            comparer.setSampleRecorder(recorder);
+            comparison = comparer.compareStatic(ClassWithVariants.class, "hello", null, null);
+        }
+
+        try (SampleReader reader = new SampleReader(file.toPath())) {
+            // 4 batches (30, 30, 30, 10) per check and variant
+            assertEquals(comparison.size() * 2 * 4, reader.getCount());
+            assertEquals(comparison.size(), reader.getVariants().size());
+            long calls = 0;
+            long duration = 0;
+            for (long i = 0; i < reader.getCount(); i++) {
+                TimingSample sample = reader.get(i);
+                if ("hello".equals(sample.getVariant())) {
+                    calls += sample.getCalls();
+                    duration += sample.getDuration();
+                }
+            }
+            assertEquals(200, calls);
+            assertEquals(comparison.get(0).getTotalExecutionTime(), duration / 1000, 2);
+        }
+    }
+
+    /**
+     * Tests the rejection of an outlying check, and the extra checks scheduled to replace it.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testOutlierDetection() throws ComparisonException {
+        final int[] values = new int[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        final AtomicInteger checks = new AtomicInteger();
+        ComparisonHooks hooks = new ComparisonHooks();
+        hooks.setBeforeCheck((target, parameters) -> {
+            // Third check of the insertion sort: its first call sorts a reversed array
+            if (checks.incrementAndGet() == 6) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = values.length - i;
+                }
+            }
+        });
+
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(5);
+        comparer.setIterations(100);
+        comparer.setHooks(hooks);
+        comparer.setOutlierDetection(OutlierDetection.MAD);
+        comparer.setMaxExtraChecks(3);
+        assertEquals(OutlierDetection.MAD, comparer.getOutlierDetection());
+        assertEquals(3, comparer.getMaxExtraChecks());
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithSort.class, "sort",
+                new Class<?>[] { int[].class }, new Object[] { values });
+
+        for (ImplCheckResult result : comparison) {
+            assertEquals(OutlierDetection.MAD, result.getOutlierDetection());
+            int total = result.getCheckTimes().size();
+            assertTrue(total - result.getRejectedChecks() >= 5 || total == 5 + 3);
+        }
+        ImplCheckResult insertion = comparison.get(1);
+        assertTrue(insertion.getRejectedChecks() >= 1);
+        assertTrue(insertion.getCheckTimes().size() > 5);
+        assertTrue(insertion.getTrimmedCheckTime() < insertion.getMaximumCheckTime());
+    }
+
+    /**
+     * Tests the hooks, restoring the input of an in-place sort before each call.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testHooks() throws ComparisonException {
+        final int[] original = { 5, 3, 9, 1, 7, 2, 8 };
+        final int[] values = original.clone();
+        final AtomicInteger trials = new AtomicInteger();
+        final AtomicInteger checks = new AtomicInteger();
+        final AtomicInteger invocations = new AtomicInteger();
+        final AtomicInteger unsorted = new AtomicInteger();
+
+        ComparisonHooks hooks = new ComparisonHooks();
+        hooks.setBeforeTrial((target, parameters) -> trials.incrementAndGet());
+        hooks.setAfterCheck((target, parameters) -> checks.incrementAndGet());
+        hooks.setBeforeInvocation((target, parameters) -> {
+            System.arraycopy(original, 0, parameters[0], 0, original.length);
+            invocations.incrementAndGet();
+        });
+        hooks.setAfterInvocation((target, parameters) -> {
+            if (!Arrays.equals(new int[] { 1, 2, 3, 5, 7, 8, 9 }, (int[]) parameters[0])) {
+                unsorted.incrementAndGet();
+            }
+        });
+
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(2);
+        comparer.setIterations(50);
+        comparer.setHooks(hooks);
+        assertEquals(hooks, comparer.getHooks());
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithSort.class, "sort",
+                new Class<?>[] { int[].class }, new Object[] { values });
+
+        assertEquals(2, comparison.size());
+        assertEquals(2, trials.get());
+        assertEquals(4, checks.get());
+        // First call, blanks and checks
+        assertEquals(2 * (1 + 50 + 2 * 50), invocations.get());
+        assertEquals(0, unsorted.get());
+        for (ImplCheckResult result : comparison) {
+            assertEquals(1, result.getMethodResult());
+            assertEquals(100, result.getNumberOfExecutions());
+            assertEquals(100, result.getNumberOfHookInvocations());
+            assertTrue(result.getAverageHookTime() > 0);
+        }
+    }
+
+    /**
+     * Tests the profiling of the variants during the time checks.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testProfiling() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(20);
+        comparer.setSamplingInterval(500);
+        assertEquals(500, comparer.getSamplingInterval());
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithLatency.class, "serve", null, null);
+
+        StackProfile profile = comparison.get(0).getProfile();
+        assertNotNull(profile);
+        assertTrue(profile.getSamples() > 0);
+        for (String stack : profile.getStacks().keySet()) {
+            assertTrue(stack, stack.startsWith("serve;" + ClassWithLatency.class.getName() + ".serve"));
+        }
+        assertNotNull(comparison.get(1).getProfile());
+    }
+
+    /**
+     * Tests the isolation of variants, each getting its own copy of the static state.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testIsolatedVariants() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(10);
+        comparer.setIsolateVariants(true);
+
+        List<ImplCheckResult> comparison = comparer.compareStatic(ClassWithState.class, "count", null, null);
+
+        assertEquals("Incorrect number of variants", 2, comparison.size());
+        assertEquals("count", comparison.get(0).getMethod().getName());
+        assertEquals(ClassWithState.class, comparison.get(0).getMethod().getDeclaringClass());
+        // Each copy of the class starts from scratch
+        assertEquals(1, comparison.get(0).getMethodResult());
+        assertEquals(1, comparison.get(1).getMethodResult());
+        assertEquals(10, comparison.get(1).getNumberOfExecutions());
+    }
+
+    /**
+     * Tests the comparison under the default monomorphic, bimorphic and megamorphic profiles.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testComparePolymorphic() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(100);
+
+        List<Greeter> targets = Arrays.asList(new Greeter.English(), new Greeter.French(), new Greeter.German());
+        Map<String, List<ImplCheckResult>> comparison = comparer.comparePolymorphic(Greeter.class, targets, "greet",
+                new Class<?>[] { String.class }, new Object[] { "Chop" });
+
+        assertEquals(Arrays.asList("monomorphic", "bimorphic", "megamorphic"),
+                Arrays.asList(comparison.keySet().toArray()));
+        for (List<ImplCheckResult> results : comparison.values()) {
+            assertEquals("Incorrect number of variants", 2, results.size());
+            assertEquals("greet", results.get(0).getMethod().getName());
+            assertEquals("greet1", results.get(1).getMethod().getName());
+            assertEquals(100, results.get(1).getNumberOfExecutions());
+        }
+        assertEquals("Hello, Chop", comparison.get("monomorphic").get(1).getMethodResult());
+    }
+
+    /**
+     * Ensures a profile requiring more targets than supplied is rejected.
+     *
+     * @throws ComparisonException
+     *             always
+     */
+    @Test(expected = ComparisonException.class)
+    public void testComparePolymorphicMissingTarget() throws ComparisonException {
+        new ImplComparer().comparePolymorphic(Greeter.class,
+                Arrays.asList(new Greeter.English(), new Greeter.French()),
+                Arrays.asList(new CallProfile("trimorphic", 1, 1, 1)), "greet", new Class<?>[] { String.class },
+                new Object[] { "Chop" });
+    }
+
+    /**
+     * Tests the comparison of an instance method across two versions of a class, loaded from distinct jars.
+     *
+     * @throws IOException
+     *             if the jars cannot be built
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testCompareVersions() throws IOException, ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(1000);
+
+        List<File> jars = Arrays.asList(VersionedJars.buildSlow(folder.getRoot()),
+                VersionedJars.buildFast(folder.getRoot()));
+        List<ImplCheckResult> results = comparer.compareVersions(jars, VersionedJars.CLASS_NAME, "length",
+                new Class<?>[] { String.class }, new Object[] { "abc" });
+
+        assertEquals(2, results.size());
+        assertNotEquals(results.get(0).getMethod().getDeclaringClass(), results.get(1).getMethod().getDeclaringClass());
+        assertEquals("repeater-1.0.jar", results.get(0).getLabel());
+        assertEquals("repeater-1.1.jar", results.get(1).getLabel());
+        assertEquals(30, results.get(0).getMethodResult());
+        assertEquals(30, results.get(1).getMethodResult());
+        assertEquals(1000, results.get(1).getNumberOfExecutions());
+    }
+
+    /**
+     * Ensures a class missing from one of the jars is reported.
+     *
+     * @throws IOException
+     *             if the jars cannot be built
+     * @throws ComparisonException
+     *             always
+     */
+    @Test(expected = ComparisonException.class)
+    public void testCompareVersionsMissingClass() throws IOException, ComparisonException {
+        List<File> jars = Arrays.asList(VersionedJars.buildSlow(folder.getRoot()),
+                VersionedJars.buildFast(folder.getRoot()));
+        new ImplComparer().compareVersions(jars, "example.Missing", "length", new Class<?>[] { String.class },
+                new Object[] { "abc" });
+    }
+
+    /**
+     * Tests the comparison with generated parameters.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testCompareGenerated() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(100);
+
+        ParameterSupplier supplier = new ParameterSupplier(1337L, Generators.asciiStrings(3, 12));
+        supplier.setPoolSize(16);
+        List<ImplCheckResult> results = comparer.compareGenerated(new ClassWithVariants(), "string",
+                new Class<?>[] { String.class }, supplier);
+
+        assertEquals(3, results.size());
+        String first = (String) supplier.pool().get(0)[0];
+        for (ImplCheckResult result : results) {
+            assertEquals(Long.valueOf(1337L), result.getSeed());
+            assertEquals(100, result.getNumberOfExecutions());
+        }
+        assertEquals(new ClassWithVariants().string(first), results.get(0).getMethodResult());
+
+        assertNull(comparer.compareStatic(ClassWithVariants.class, "hello", null, null).get(0).getSeed());
+    }
+
+    /**
+     * Ensures check hooks, which only receive the first parameter set, are rejected with several generated sets.
+     */
+    @Test
+    public void testCheckHooksWithGeneratedParameters() {
+        ComparisonHooks hooks = new ComparisonHooks();
+        hooks.setBeforeCheck((target, parameters) -> {
+            // would only restore the first parameter set
+        });
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(100);
+        comparer.setHooks(hooks);
+
+        ParameterSupplier supplier = new ParameterSupplier(1337L, Generators.asciiStrings(3, 12));
+        supplier.setPoolSize(16);
+        try {
+            comparer.compareGenerated(new ClassWithVariants(), "string", new Class<?>[] { String.class }, supplier);
+            fail("Check hooks cannot restore all the parameter sets");
+        } catch (ComparisonException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("16 parameter sets"));
+        }
+    }
+
+    /**
+     * Tests the verification of the variants over a corpus of generated inputs.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testVerification() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(100);
+        comparer.setVerificationInputs(100000);
+
+        ParameterSupplier supplier = new ParameterSupplier(42L, Generators.ints(-1000000, 1000000));
+        List<ImplCheckResult> results = comparer.compareStaticGenerated(ClassWithDivergence.class, "abs",
+                new Class<?>[] { int.class }, supplier);
+
+        assertTrue(results.get(0).getVerification().isEquivalent());
+        assertTrue(results.get(1).getVerification().isEquivalent());
+
+        VerificationResult wrong = results.get(2).getVerification();
+        assertEquals(100000, wrong.getInputs());
+        // about one input out of 1024
+        assertTrue(wrong.getDivergences() > 50 && wrong.getDivergences() < 200);
+        assertEquals(5, wrong.getFirstDivergences().size());
+        long previous = -1;
+        for (Divergence divergence : wrong.getFirstDivergences()) {
+            assertTrue(divergence.getInput() > previous);
+            previous = divergence.getInput();
+            int value = (Integer) supplier.generate(divergence.getInput())[0];
+            assertEquals(0, value & 1023);
+            assertEquals("[" + value + "]", divergence.getParameters());
+        }
+    }
+
+    /**
+     * Ensures arrays are compared by content during the verification.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testVerificationOfArrays() throws ComparisonException {
+        ImplComparer comparer = new ImplComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(100);
+        comparer.setVerificationInputs(1000);
+
+        List<ImplCheckResult> results = comparer.compareStaticGenerated(ClassWithDivergence.class, "pair",
+                new Class<?>[] { int.class }, new ParameterSupplier(42L, Generators.ints(-1000, 1000)));
+
+        assertTrue(results.get(1).getVerification().isEquivalent());
+        assertNull(comparer.compareStatic(ClassWithDivergence.class, "pair", new Class<?>[] { int.class },
+                new Object[] { 1 }).get(1).getVerification());
+    }
 }
@@ -15,17 +15,36 @@
 package org.keyboardplaying.comparer.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.keyboardplaying.comparer.model.AsyncResult;
+import org.keyboardplaying.comparer.model.ConcurrentResult;
+import org.keyboardplaying.comparer.model.CpuAffinity;
+import org.keyboardplaying.comparer.model.Divergence;
 import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.ResultSize;
+import org.keyboardplaying.comparer.model.SoakResult;
+import org.keyboardplaying.comparer.model.SoakSample;
+import org.keyboardplaying.comparer.model.StackProfile;
+import org.keyboardplaying.comparer.model.ThreadMode;
+import org.keyboardplaying.comparer.stats.OutlierDetection;
+import org.keyboardplaying.comparer.model.VerificationResult;
+import org.keyboardplaying.comparer.model.WorkloadInfo;
+import org.keyboardplaying.comparer.stats.LatencyHistogram;
 import org.keyboardplaying.comparer.test.ClassWithVariants;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -87,14 +106,10 @@ public class ImplComparisonLoggerTest {
         }
 
         /* Build expectations */
-        // Make sure the test is JVM-proof
-        String execTime = String.valueOf(1337.0 / 42.0);
-        int length = execTime.length();
-        String separator = "+--------+-" + new String(new char[length]).replace("\0", "-") + "-+--------+";
-        String[] expectedLog = { separator,
-                "| Method | Avg time (ms)" + new String(new char[length - 13]).replace("\0", " ") + " | Result |",
-                separator, "| hello  | " + execTime + " |    REF |", "| hello1 | " + execTime + " | != REF |",
-                "| hello2 | " + execTime + " | == REF |", separator };
+        String separator = "+--------+---------------+--------+--------+";
+        String[] expectedLog = { separator, "| Method | Avg time (us) | vs REF | Result |", separator,
+                "| hello  | 31.833        |        |    REF |", "| hello1 | 31.833        | 1.00x  | != REF |",
+                "| hello2 | 31.833        | 1.00x  | == REF |", separator };
 
         /* Execute the code to test. */
         ImplComparisonLogger logger = new ImplComparisonLogger();
@@ -111,4 +126,628 @@ public class ImplComparisonLoggerTest {
             assertEquals(expectedLog[i], log.getFormattedMessage());
         }
     }
+
+    /**
+     * Ensures the ranked logging sorts the methods by speed and displays the dispersion of the checks.
+     *
+     * @throws NoSuchMethodException
+     *             never
+     */
+    @Test
+    public void testLogRanked() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello2"), ClassWithVariants.hello2()));
+        results.get(0).addExecutionTime(40, 10);
+        results.get(0).addExecutionTime(60, 10);
+        results.get(1).addExecutionTime(100, 10);
+        results.get(1).addExecutionTime(100, 10);
+        results.get(2).addExecutionTime(10, 10);
+        results.get(2).addExecutionTime(30, 10);
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------------+----------+----------+--------------+--------+";
+        String[] expectedLog = { separator,
+                "| Method | Avg time (us) | vs REF       | Min (us) | Max (us) | Std dev (us) | Result |", separator,
+                "| hello2 |  2.000        | 2.50x faster |  1.000   |  3.000   | 1.414        | == REF |",
+                "| hello  |  5.000        |              |  4.000   |  6.000   | 1.414        |    REF |",
+                "| hello1 | 10.000        | 2.00x slower | 10.000   | 10.000   | 0.000        | != REF |", separator };
+
+        /* Execute the code to test. */
+        ImplComparisonLogger logger = new ImplComparisonLogger();
+        // ranked by default
+        assertTrue(logger.isRanked());
+        logger.log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Ensures the rows stay in the order of the results when ranking is disabled.
+     *
+     * @throws NoSuchMethodException
+     *             never
+     */
+    @Test
+    public void testLogUnranked() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.get(0).addExecutionTime(10, 4);
+        results.get(1).addExecutionTime(8, 4);
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------------+--------+";
+        String[] expectedLog = { separator, "| Method | Avg time (us) | vs REF       | Result |", separator,
+                "| hello  | 2.500         |              |    REF |",
+                "| hello1 | 2.000         | 1.25x faster | != REF |", separator };
+
+        /* Execute the code to test. */
+        ImplComparisonLogger logger = new ImplComparisonLogger();
+        logger.setRanked(false);
+        assertFalse(logger.isRanked());
+        logger.log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Ensures the logging of results under several configurations as a matrix is as expected.
+     *
+     * @throws NoSuchMethodException
+     *             never
+     */
+    @Test
+    public void testLogMatrix() throws NoSuchMethodException {
+
+        /* Build sample data */
+        Map<String, List<ImplCheckResult>> matrix = new LinkedHashMap<>();
+        for (String configuration : new String[] { "C2", "interpreted" }) {
+            List<ImplCheckResult> results = new ArrayList<>();
+            results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+            results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+            results.get(0).addExecutionTime(12, 4);
+            results.get(1).addExecutionTime(10, 4);
+            matrix.put(configuration, results);
+        }
+
+        /* Build expectations */
+        String separator = "+--------+---------+------------------+--------+";
+        String[] expectedLog = { separator, "| Method | C2 (us) | interpreted (us) | Result |", separator,
+                "| hello  | 3.000   | 3.000            |    REF |", "| hello1 | 2.500   | 2.500            | != REF |",
+                separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().logMatrix(matrix);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the cold-cache times, along with their ratio to the hot times.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogColdCache() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.get(0).addExecutionTime(10, 4);
+        results.get(0).addColdCacheTime(25000, 4);
+        results.get(1).addExecutionTime(8, 4);
+        results.get(1).addColdCacheTime(40000, 4);
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------------+-----------------+----------+--------+";
+        String[] expectedLog = { separator,
+                "| Method | Avg time (us) | vs REF       | Cold cache (us) | Cold/hot | Result |", separator,
+                "| hello1 | 2.000         | 1.25x faster | 10.000          | x5.0     | != REF |",
+                "| hello  | 2.500         |              |  6.250          | x2.5     |    REF |", separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the times under memory pressure, along with their ratio to the quiet times.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogPressure() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.get(0).addExecutionTime(10, 4);
+        results.get(0).addPressuredTime(12000, 4);
+        results.get(1).addExecutionTime(8, 4);
+        results.get(1).addPressuredTime(40000, 4);
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------------+----------------+-----------------+--------+";
+        String[] expectedLog = { separator,
+                "| Method | Avg time (us) | vs REF       | Pressured (us) | Pressured/quiet | Result |", separator,
+                "| hello1 | 2.000         | 1.25x faster | 10.000         | x5.0            | != REF |",
+                "| hello  | 2.500         |              |  3.000         | x1.2            |    REF |", separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the median and trimmed times, along with the number of rejected checks.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogOutliers() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        for (long time : new long[] { 20, 21, 19, 60 }) {
+            results.get(0).addExecutionTime(time, 10);
+        }
+        for (long time : new long[] { 15, 16, 14, 15 }) {
+            results.get(1).addExecutionTime(time, 10);
+        }
+        for (ImplCheckResult result : results) {
+            result.setOutlierDetection(OutlierDetection.MAD);
+        }
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------------+----------+----------+--------------"
+                + "+-------------+--------------+----------+--------+";
+        String[] expectedLog = { separator,
+                "| Method | Avg time (us) | vs REF       | Min (us) | Max (us) | Std dev (us) "
+                        + "| Median (us) | Trimmed (us) | Rejected | Result |",
+                separator,
+                "| hello1 | 1.500         | 2.00x faster | 1.400    | 1.600    | 0.082        "
+                        + "| 1.500       | 1.500        | 0/4      | != REF |",
+                "| hello  | 3.000         |              | 1.900    | 6.000    | 2.002        "
+                        + "| 2.050       | 2.000        | 1/4      |    REF |",
+                separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the CPUs the variants were measured on.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogCpuAffinity() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.get(0).addExecutionTime(10, 4);
+        results.get(1).addExecutionTime(8, 4);
+        for (ImplCheckResult result : results) {
+            result.setCpuAffinity(new CpuAffinity("0-3", "2"));
+        }
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------------+--------------+--------+";
+        String[] expectedLog = { separator, "| Method | Avg time (us) | vs REF       | CPUs         | Result |",
+                separator, "| hello1 | 2.000         | 1.25x faster | 2 (JVM: 0-3) | != REF |",
+                "| hello  | 2.500         |              | 2 (JVM: 0-3) |    REF |", separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the hot frames of profiled variants.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogProfile() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.get(0).addExecutionTime(10, 4);
+        Map<String, Integer> stacks = new LinkedHashMap<>();
+        stacks.put("hello;Greeter.hello;StringBuilder.append", 6);
+        stacks.put("hello;Greeter.hello", 1);
+        stacks.put("hello;Greeter.hello;String.concat;StringBuilder.append", 2);
+        results.get(0).setProfile(new StackProfile(stacks, 1, 500000, 20000000));
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------+";
+        String frameSeparator = "+----------------------+---------+-------+";
+        String[] expectedLog = { separator, "| Method | Avg time (us) | Result |", separator,
+                "| hello  | 2.500         |    REF |", separator,
+                "Hot frames of hello (10 samples, 1 outside of the variant, 50.0 us per sample, overhead 2.5%)",
+                frameSeparator, "| Frame                | Samples | Share |", frameSeparator,
+                "| StringBuilder.append | 8       | 80.0% |", "| Greeter.hello        | 1       | 10.0% |",
+                frameSeparator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the time spent in invocation hooks.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogHooks() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.get(0).addExecutionTime(10, 4);
+        results.get(0).addHookTime(1000, 4);
+        results.get(1).addExecutionTime(8, 4);
+        results.get(1).addHookTime(50000, 4);
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------------+------------+--------+";
+        String[] expectedLog = { separator, "| Method | Avg time (us) | vs REF       | Hooks (us) | Result |",
+                separator, "| hello1 | 2.000         | 1.25x faster | 12.500     | != REF |",
+                "| hello  | 2.500         |              |  0.250     |    REF |", separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the sizes of the results, lower bounds included.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogResultSize() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.get(0).addExecutionTime(10, 4);
+        results.get(0).setResultSize(new ResultSize(48, false));
+        results.get(1).addExecutionTime(10, 4);
+        results.get(1).setResultSize(new ResultSize(120, true));
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------+-----------------+--------+";
+        String[] expectedLog = { separator, "| Method | Avg time (us) | vs REF | Result size (B) | Result |", separator,
+                "| hello  | 2.500         |        |    48           |    REF |",
+                "| hello1 | 2.500         | 1.00x  | >=120           | != REF |", separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the verification results, with the diverging inputs as warnings.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogVerification() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello()));
+        results.get(0).addExecutionTime(10, 4);
+        results.get(0).setVerification(new VerificationResult(1000, 0, new ArrayList<Divergence>()));
+        results.get(1).addExecutionTime(10, 4);
+        results.get(1).setVerification(new VerificationResult(1000, 2,
+                Arrays.asList(new Divergence(12, "[-3]", "3", "-3"), new Divergence(40, "[-7]", "7", "-7"))));
+
+        /* Build expectations */
+        String separator = "+--------+---------------+--------+-----------+--------+";
+        String[] expectedLog = { separator, "| Method | Avg time (us) | vs REF | Verified  | Result |", separator,
+                "| hello  | 2.500         |        | 1000/1000 |    REF |",
+                "| hello1 | 2.500         | 1.00x  | 998/1000  |    REF |", separator,
+                "hello1 diverges from the reference on 2 of 1000 input(s)", "  input #12 [-3]: expected 3 but was -3",
+                "  input #40 [-7]: expected 7 but was -7" };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+        assertEquals(Level.WARN, actualLog.get(expectedLog.length - 1).getLevel());
+    }
+
+    /**
+     * Tests the logging of the results of a collection workload.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogWorkload() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello()));
+        results.get(0).setLabel("ArrayList");
+        results.get(0).addExecutionTime(100, 4);
+        results.get(0).setWorkload(new WorkloadInfo(1000, 100, 20000));
+        results.get(1).setLabel("LinkedList");
+        results.get(1).addExecutionTime(400, 4);
+        results.get(1).setWorkload(new WorkloadInfo(1000, 100, 40000));
+
+        /* Build expectations */
+        String separator = "+------------+---------------+--------------+--------------+------------+--------+";
+        String[] expectedLog = { separator,
+                "| Method     | Avg time (us) | vs REF       | Time/op (ns) | Bytes/elem | Result |", separator,
+                "| ArrayList  |  25.000       |              |  250.0       | 20.0       |    REF |",
+                "| LinkedList | 100.000       | 4.00x slower | 1000.0       | 40.0       |    REF |", separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().log(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the results of a soak test.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogSoak() throws NoSuchMethodException {
+
+        /* Build sample data */
+        List<SoakSample> leaking = new ArrayList<>();
+        List<SoakSample> slowing = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            leaking.add(new SoakSample(100 * (i + 1), 1000, 100000, 1048576L * i));
+            slowing.add(new SoakSample(100 * (i + 1), 1000 - 200 * i, 100000, 0));
+        }
+        List<SoakResult> results = new ArrayList<>();
+        results.add(new SoakResult(ClassWithVariants.class.getMethod("hello"), leaking));
+        results.add(new SoakResult(ClassWithVariants.class.getMethod("hello1"), slowing));
+        results.get(0).setHeapGrowth(2097152);
+        results.get(0).setHeapGrowing(true);
+        results.get(1).setThroughputTrend(-0.4);
+        results.get(1).setThroughputDrifting(true);
+
+        /* Build expectations */
+        String separator = "+--------+-----------+-----------------+---------------+--------+-------------------"
+                + "+------------+";
+        String[] expectedLog = { separator,
+                "| Method | Intervals | Start (calls/s) | End (calls/s) | Trend  | Heap growth (KiB) | Drift      |",
+                separator,
+                "| hello  | 3         | 10000           | 10000         | +0.0%  | 2048              | heap       |",
+                "| hello1 | 3         | 10000           |  6000         | -40.0% |    0              | throughput |",
+                separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().logSoak(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of the results of an asynchronous comparison.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testLogAsync() throws NoSuchMethodException {
+
+        /* Build sample data */
+        LatencyHistogram delayed = new LatencyHistogram();
+        LatencyHistogram immediate = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            delayed.record(1000000 + i);
+            immediate.record(100);
+        }
+        List<AsyncResult> results = new ArrayList<>();
+        results.add(new AsyncResult(ClassWithVariants.class.getMethod("hello"), 8, delayed, 1.5, 7950.4, 0));
+        results.add(new AsyncResult(ClassWithVariants.class.getMethod("hello1"), 8, immediate, 0.1, 80000, 3));
+
+        /* Build expectations */
+        String separator = "+--------+-----------+----------------------+---------------+----------+----------"
+                + "+----------+----------+";
+        String[] expectedLog = { separator,
+                "| Method | In flight | Throughput (calls/s) | Hand-off (us) | p50 (us) | p99 (us) | Max (us) "
+                        + "| Failures |",
+                separator,
+                "| hello  | 8         |  7950                | 1.500         | 1000.100 | 1000.100 | 1000.100 "
+                        + "|          |",
+                "| hello1 | 8         | 80000                | 0.100         |    0.100 |    0.100 |    0.100 "
+                        + "| 3        |",
+                separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().logAsync(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
+
+    /**
+     * Tests the logging of concurrent results, platform and virtual threads side by side.
+     *
+     * @throws NoSuchMethodException
+     *             never
+     */
+    @Test
+    public void testLogConcurrent() throws NoSuchMethodException {
+
+        /* Build sample data */
+        LatencyHistogram slow = new LatencyHistogram();
+        LatencyHistogram fast = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            slow.record(2000000);
+            fast.record(100000);
+        }
+        Method hello = ClassWithVariants.class.getMethod("hello");
+        Method hello1 = ClassWithVariants.class.getMethod("hello1");
+        List<ConcurrentResult> results = new ArrayList<>();
+        results.add(new ConcurrentResult(hello, ThreadMode.PLATFORM, 200, 1980.4, fast, -1, 0));
+        results.add(new ConcurrentResult(hello, ThreadMode.VIRTUAL, 10000, 495.6, slow, 97, 150500000));
+        results.add(new ConcurrentResult(hello1, ThreadMode.PLATFORM, 200, 1990, fast, -1, 0));
+
+        /* Build expectations */
+        String separator = "+--------+--------------------+-------------------+-------------------+-------------------"
+                + "+------------------+------------------+--------+-------------+";
+        String[] expectedLog = { separator,
+                "| Method | Platform (calls/s) | Platform p50 (us) | Platform p99 (us) | Virtual (calls/s) "
+                        + "| Virtual p50 (us) | Virtual p99 (us) | Pinned | Pinned (ms) |",
+                separator,
+                "| hello  | 1980               | 100.000           | 100.000           | 496               "
+                        + "| 2000.000         | 2000.000         | 97     | 150.500     |",
+                "| hello1 | 1990               | 100.000           | 100.000           |                   "
+                        + "|                  |                  |        |             |",
+                separator };
+
+        /* Execute the code to test. */
+        new ImplComparisonLogger().logConcurrent(results);
+
+        /* Check logging matches the expectations. */
+        verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
+        List<LoggingEvent> actualLog = captorLoggingEvent.getAllValues();
+        assertEquals(expectedLog.length, actualLog.size());
+
+        for (int i = 0; i < expectedLog.length; i++) {
+            assertEquals(expectedLog[i], actualLog.get(i).getFormattedMessage());
+        }
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.ArrivalProcess;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.OpenLoopResult;
+import org.keyboardplaying.comparer.test.ClassWithLatency;
+
+/**
+ * Test cases for {@link OpenLoopComparer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class OpenLoopComparerTest {
+
+    private OpenLoopComparer comparer;
+
+    /** Creates a short open-loop comparer. */
+    @Before
+    public void setUp() {
+        comparer = new OpenLoopComparer();
+        comparer.setRates(2000, 100);
+        comparer.setDuration(500);
+        comparer.setWarmup(100);
+    }
+
+    /**
+     * Ensures a slow method saturates and its queueing delay is measured, while a fast one keeps up.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testSaturation() throws ComparisonException {
+        List<OpenLoopResult> results = comparer.compareStatic(ClassWithLatency.class, "serve", null);
+
+        assertEquals(4, results.size());
+
+        /* serve: sustains 100 calls/s, not 2000 */
+        assertEquals(100, results.get(0).getOfferedRate(), 0);
+        assertEquals(50, results.get(0).getLatencies().getTotalCount());
+        assertFalse(results.get(0).isSaturated());
+        assertTrue(results.get(0).getLatencyAtPercentile(50) >= 1000);
+        assertEquals(2000, results.get(1).getOfferedRate(), 0);
+        assertTrue(results.get(1).isSaturated());
+        // the backlog builds up: the last calls waited for hundreds of milliseconds
+        assertTrue(results.get(1).getLatencyAtPercentile(99) > 100000);
+
+        /* serve1 */
+        assertFalse(results.get(2).isSaturated());
+        assertFalse(results.get(3).isSaturated());
+        assertEquals(1000, results.get(3).getLatencies().getTotalCount());
+
+        new ImplComparisonLogger().logOpenLoop(results);
+    }
+
+    /**
+     * Ensures calls are dispatched across several workers with Poisson arrivals.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testPoissonWorkers() throws ComparisonException {
+        comparer.setRates(1000);
+        comparer.setThreads(2);
+        comparer.setArrivalProcess(ArrivalProcess.POISSON);
+
+        List<OpenLoopResult> results = comparer.compareStatic(ClassWithLatency.class, "serve", null);
+
+        assertEquals(2, results.size());
+        for (OpenLoopResult result : results) {
+            assertTrue(result.getLatencies().getTotalCount() > 400);
+        }
+        // a single worker would not sustain 1000 calls/s of 1 ms each, but the fast variant does
+        assertFalse(results.get(1).isSaturated());
+
+        new ImplComparisonLogger().logOpenLoop(results);
+    }
+
+    /**
+     * Ensures Poisson arrivals are drawn until the end of the run, so that their number varies instead of ending
+     * in a burst of calls at the last instant.
+     */
+    @Test
+    public void testPoissonSchedule() {
+        long total = 600 * 1000000L;
+
+        long[] constant = comparer.buildSchedule(2000);
+        assertEquals(1200, constant.length);
+        assertEquals(total - 500000, constant[constant.length - 1]);
+
+        comparer.setArrivalProcess(ArrivalProcess.POISSON);
+        long[] poisson = comparer.buildSchedule(2000);
+        // the count follows a Poisson law of mean 1200 and standard deviation about 35
+        assertTrue(Math.abs(poisson.length - 1200) < 175);
+        // with the fixed seed, the count is not the mean
+        assertTrue(poisson.length != 1200);
+        for (int i = 1; i < poisson.length; i++) {
+            assertTrue(poisson[i] > poisson[i - 1]);
+        }
+        assertTrue(poisson[poisson.length - 1] < total);
+    }
+}
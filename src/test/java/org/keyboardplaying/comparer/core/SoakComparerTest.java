@@ -0,0 +1,91 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.SoakResult;
+import org.keyboardplaying.comparer.test.ClassWithLeak;
+
+/**
+ * Test cases for {@link SoakComparer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class SoakComparerTest {
+
+    private SoakComparer comparer;
+
+    /** Creates a short soak comparer. */
+    @Before
+    public void setUp() {
+        comparer = new SoakComparer();
+        comparer.setDuration(1000);
+        comparer.setInterval(100);
+    }
+
+    /**
+     * Ensures a method retaining memory at each call is reported as growing.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testHeapGrowth() throws ComparisonException {
+        List<SoakResult> results = comparer.compare(new ClassWithLeak(), "grow", null);
+
+        assertEquals(2, results.size());
+        assertEquals(9, results.get(0).getSamples().size());
+
+        assertTrue(results.get(0).isHeapGrowing());
+        assertTrue(results.get(0).isDrifting());
+        assertTrue(results.get(0).getHeapGrowth() > comparer.getHeapTolerance());
+
+        assertFalse(results.get(1).isHeapGrowing());
+
+        new ImplComparisonLogger().logSoak(results);
+    }
+
+    /**
+     * Ensures a method slowing down at each call is reported as drifting.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testThroughputDrift() throws ComparisonException {
+        // the calls advance a simulated clock, so that the throughputs do not depend on the load of the machine
+        ClassWithLeak target = new ClassWithLeak();
+        comparer.setNanoClock(target::nanoTime);
+        List<SoakResult> results = comparer.compare(target, "scan", null);
+
+        assertEquals(2, results.size());
+
+        assertTrue(results.get(0).isThroughputDrifting());
+        assertTrue(results.get(0).getThroughputTrend() < -comparer.getThroughputTolerance());
+
+        assertFalse(results.get(1).isThroughputDrifting());
+        assertEquals(0, results.get(1).getThroughputTrend(), 0);
+
+        new ImplComparisonLogger().logSoak(results);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.test.Greeter;
+
+/**
+ * Test cases for {@link VariantSampler}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class VariantSamplerTest {
+
+    private VariantSampler sampler;
+
+    /** Creates a sampler. */
+    @Before
+    public void setUp() {
+        sampler = new VariantSampler();
+    }
+
+    /**
+     * Ensures sampled calls are served and timed in turn by the original method and its variants.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testSampleAllCalls() throws ComparisonException {
+        sampler.setFraction(1);
+        Greeter greeter = sampler.wrap(Greeter.class, new Greeter.English(), "greet", String.class);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Hello, World", greeter.greet("World"));
+        }
+
+        Map<Method, List<ImplCheckResult>> snapshot = sampler.snapshot();
+        assertEquals(1, snapshot.size());
+        List<ImplCheckResult> results = snapshot.values().iterator().next();
+        assertEquals(2, results.size());
+        assertEquals("greet", results.get(0).getMethod().getName());
+        assertEquals("greet1", results.get(1).getMethod().getName());
+        for (ImplCheckResult result : results) {
+            assertEquals(50, result.getNumberOfExecutions());
+        }
+        assertEquals("greet1 (50 calls)", results.get(1).getLabel());
+
+        // The next snapshot starts over
+        results = sampler.snapshot().values().iterator().next();
+        assertEquals(0, results.get(0).getNumberOfExecutions());
+    }
+
+    /**
+     * Ensures calls are not sampled when the fraction is 0, and other methods are delegated.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testNoSampling() throws ComparisonException {
+        sampler.setFraction(0);
+        Greeter greeter = sampler.wrap(Greeter.class, new Greeter.French(), "greet", String.class);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Bonjour, Monde", greeter.greet("Monde"));
+        }
+        assertEquals("Bonjour, Monde", greeter.greet1("Monde"));
+
+        for (ImplCheckResult result : sampler.snapshot().values().iterator().next()) {
+            assertEquals(0, result.getNumberOfExecutions());
+        }
+    }
+
+    /**
+     * Ensures the methods of {@link Object} are answered by the proxy, so that it can be used as a key.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testObjectMethods() throws ComparisonException {
+        Greeter.English target = new Greeter.English();
+        Greeter greeter = sampler.wrap(Greeter.class, target, "greet", String.class);
+
+        assertTrue(greeter.equals(greeter));
+        assertFalse(greeter.equals(target));
+        assertEquals(System.identityHashCode(greeter), greeter.hashCode());
+        assertTrue(greeter.toString().startsWith("sampler of "));
+
+        Set<Greeter> greeters = new HashSet<>();
+        greeters.add(greeter);
+        assertTrue(greeters.contains(greeter));
+    }
+
+    /**
+     * Ensures a method without variants cannot be sampled.
+     *
+     * @throws ComparisonException
+     *             expected
+     */
+    @Test(expected = ComparisonException.class)
+    public void testNoVariant() throws ComparisonException {
+        sampler.wrap(Greeter.class, new Greeter.English(), "greet1", String.class);
+    }
+
+    /**
+     * Ensures the comparisons are periodically reported.
+     *
+     * @throws ComparisonException
+     *             never
+     * @throws InterruptedException
+     *             if interrupted while waiting for the report
+     */
+    @Test
+    public void testReport() throws ComparisonException, InterruptedException {
+        sampler.setFraction(1);
+        sampler.setReportInterval(50);
+        Greeter greeter = sampler.wrap(Greeter.class, new Greeter.German(), "greet", String.class);
+        for (int i = 0; i < 10; i++) {
+            greeter.greet("Welt");
+        }
+
+        sampler.start();
+        try {
+            Thread.sleep(500);
+        } finally {
+            sampler.stop();
+        }
+
+        // The report took the sampled calls
+        List<ImplCheckResult> results = sampler.snapshot().values().iterator().next();
+        assertTrue(results.stream().allMatch(result -> result.getNumberOfExecutions() == 0));
+    }
+}
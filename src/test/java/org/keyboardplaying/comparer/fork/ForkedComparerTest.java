@@ -0,0 +1,152 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.fork;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.affinity.ThreadAffinity;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.CpuAffinity;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.model.JvmConfiguration;
+import org.keyboardplaying.comparer.test.ClassWithVariants;
+
+/**
+ * Test cases for {@link ForkedComparer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ForkedComparerTest {
+
+    /**
+     * Tests the comparison of static methods under a matrix of JVM configurations.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testCompareStaticMatrix() throws ComparisonException {
+        ForkedComparer comparer = new ForkedComparer();
+        comparer.setChecks(2);
+        comparer.setIterations(100);
+
+        List<JvmConfiguration> matrix = Arrays.asList(new JvmConfiguration("default"),
+                new JvmConfiguration("interpreted", "-Xint"));
+        Map<String, List<ImplCheckResult>> comparison = comparer.compareStatic(matrix, ClassWithVariants.class,
+                "hello", null, null);
+
+        assertEquals(Arrays.asList("default", "interpreted"), Arrays.asList(comparison.keySet().toArray()));
+        for (List<ImplCheckResult> results : comparison.values()) {
+            assertEquals("Incorrect number of variants", 3, results.size());
+            assertEquals("hello", results.get(0).getMethod().getName());
+            assertEquals("hello2", results.get(2).getMethod().getName());
+            assertEquals("Hello, World!", results.get(0).getMethodResult());
+            assertEquals("Hello, result error!", results.get(1).getMethodResult());
+            assertEquals(200, results.get(2).getNumberOfExecutions());
+        }
+    }
+
+    /**
+     * Tests the comparison of non-static methods in a forked JVM, the target being instantiated by the child.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testCompare() throws ComparisonException {
+        ForkedComparer comparer = new ForkedComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(10);
+
+        List<ImplCheckResult> results = comparer.compare(new JvmConfiguration("default"), new ClassWithVariants(),
+                "string", new Class<?>[] { String.class }, new Object[] { "A String param" });
+
+        assertEquals("Incorrect number of variants", 3, results.size());
+        for (ImplCheckResult result : results) {
+            assertEquals("A String param", result.getMethodResult());
+        }
+    }
+
+    /**
+     * Tests the collection of JIT diagnostics from the forked JVM.
+     *
+     * @throws ComparisonException
+     *             never
+     */
+    @Test
+    public void testJitDiagnostics() throws ComparisonException {
+        ForkedComparer comparer = new ForkedComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(20000);
+        comparer.setJitDiagnostics(true);
+
+        List<ImplCheckResult> results = comparer.compare(new JvmConfiguration("default"), new ClassWithVariants(),
+                "string", new Class<?>[] { String.class }, new Object[] { "A String param" });
+
+        for (ImplCheckResult result : results) {
+            assertNotNull(result.getJitDiagnostics());
+        }
+        // with 40000 calls, the reference implementation must have been compiled
+        assertTrue(results.get(0).getJitDiagnostics().getCompilations() > 0);
+    }
+
+    /** Ensures a failing forked JVM is reported. */
+    @Test
+    public void testFailingFork() {
+        try {
+            new ForkedComparer().compareStatic(new JvmConfiguration("broken", "-XX:+ThisOptionDoesNotExist"),
+                    ClassWithVariants.class, "hello", null, null);
+            fail("A ComparisonException should have been thrown.");
+        } catch (ComparisonException e) {
+            assertTrue(e.getMessage().contains("broken"));
+        }
+    }
+
+    /**
+     * Tests the pinning of the forked JVM and of its measurement thread, on Linux.
+     *
+     * @throws ComparisonException
+     *             never
+     * @throws IOException
+     *             if the CPUs of the current thread cannot be read
+     */
+    @Test
+    public void testCpuAffinity() throws ComparisonException, IOException {
+        assumeTrue(ThreadAffinity.isSupported());
+        String cpu = ThreadAffinity.getAllowedCpus().split("[,-]")[0];
+        ForkedComparer comparer = new ForkedComparer();
+        comparer.setChecks(1);
+        comparer.setIterations(10);
+
+        List<ImplCheckResult> results = comparer.compareStatic(
+                new JvmConfiguration("pinned", new CpuAffinity(cpu, cpu)), ClassWithVariants.class, "hello", null,
+                null);
+
+        for (ImplCheckResult result : results) {
+            assertEquals(cpu, result.getCpuAffinity().getJvmCpus());
+            assertEquals(cpu, result.getCpuAffinity().getMeasurementCpus());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.generator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link Generators}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class GeneratorsTest {
+
+    /** Ensures the same seed gives the same values. */
+    @Test
+    public void testDeterminism() {
+        Generator<String> strings = Generators.asciiStrings(5, 10);
+        assertEquals(strings.next(new Random(42)), strings.next(new Random(42)));
+        assertNotEquals(strings.next(new Random(42)), strings.next(new Random(43)));
+
+        Generator<int[]> arrays = Generators.intArrays(100, 0.5);
+        assertArrayEquals(arrays.next(new Random(42)), arrays.next(new Random(42)));
+    }
+
+    /** Ensures strings have the requested lengths and characters. */
+    @Test
+    public void testStrings() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            String ascii = Generators.asciiStrings(3, 8).next(random);
+            assertTrue(ascii.length() >= 3 && ascii.length() <= 8);
+            for (char c : ascii.toCharArray()) {
+                assertTrue(c >= 0x20 && c < 0x7F);
+            }
+
+            String unicode = Generators.unicodeStrings(Generators.constant(20)).next(random);
+            assertEquals(20, unicode.codePointCount(0, unicode.length()));
+            assertTrue(unicode.codePoints().allMatch(c -> c > 0x7F));
+        }
+    }
+
+    /** Ensures the sortedness of arrays is respected. */
+    @Test
+    public void testSortedness() {
+        Random random = new Random(42);
+        int[] sorted = Generators.intArrays(1000, 1).next(random);
+        int[] copy = sorted.clone();
+        Arrays.sort(copy);
+        assertArrayEquals(copy, sorted);
+
+        int[] nearlySorted = Generators.intArrays(1000, 0.9).next(random);
+        int[] shuffled = Generators.intArrays(1000, 0).next(random);
+        assertTrue(countInversions(nearlySorted) < countInversions(shuffled) / 2);
+
+        long[] longs = Generators.longArrays(1000, 1).next(random);
+        for (int i = 1; i < longs.length; i++) {
+            assertTrue(longs[i - 1] <= longs[i]);
+        }
+    }
+
+    /** Ensures Zipf-distributed ranks are skewed towards the first ranks. */
+    @Test
+    public void testZipf() {
+        Generator<Integer> zipf = Generators.zipf(100, 1);
+        Random random = new Random(42);
+        int[] counts = new int[100];
+        for (int i = 0; i < 100000; i++) {
+            counts[zipf.next(random)]++;
+        }
+        // with an exponent of 1, rank 0 is drawn about 19% of the time, twice as often as rank 1
+        assertEquals(0.19, counts[0] / 100000., 0.01);
+        assertEquals(2, (double) counts[0] / counts[1], 0.2);
+        assertTrue(counts[99] > 0);
+    }
+
+    /** Ensures collections are generated with the requested sizes. */
+    @Test
+    public void testCollections() {
+        Random random = new Random(42);
+        List<Integer> list = Generators.lists(Generators.ints(0, 9), 50).next(random);
+        assertEquals(50, list.size());
+        assertTrue(list.stream().allMatch(i -> i >= 0 && i <= 9));
+
+        assertEquals(10, Generators.sets(Generators.ints(0, 9), 1000).next(random).size());
+
+        Map<Integer, String> map = Generators.maps(Generators.zipf(1000, 1.2), Generators.asciiStrings(1, 1), 1000)
+                .next(random);
+        assertTrue(map.size() < 1000);
+        assertTrue(map.containsKey(0));
+    }
+
+    private static long countInversions(int[] array) {
+        long inversions = 0;
+        for (int i = 1; i < array.length; i++) {
+            if (array[i - 1] > array[i]) {
+                inversions++;
+            }
+        }
+        return inversions;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.generator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ParameterSupplier} and {@link ParameterPool}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ParameterSupplierTest {
+
+    /** Ensures the pool is rounded up to a power of two, cycles through its sets and is reproducible. */
+    @Test
+    public void testPool() {
+        ParameterSupplier supplier = new ParameterSupplier(42L, Generators.asciiStrings(1, 10),
+                Generators.ints(0, 100));
+        supplier.setPoolSize(100);
+
+        ParameterPool pool = supplier.pool();
+        assertEquals(128, pool.size());
+        assertEquals(Long.valueOf(42L), pool.getSeed());
+        assertEquals(2, pool.get(0).length);
+        assertSame(pool.get(3), pool.get(128 + 3));
+
+        ParameterPool again = supplier.pool();
+        for (int i = 0; i < pool.size(); i++) {
+            assertArrayEquals(pool.get(i), again.get(i));
+        }
+    }
+
+    /** Ensures a fixed parameter set gives a pool of one. */
+    @Test
+    public void testFixedPool() {
+        Object[] parameters = { "Chop" };
+        ParameterPool pool = ParameterPool.of(parameters);
+
+        assertEquals(1, pool.size());
+        assertNull(pool.getSeed());
+        assertSame(parameters, pool.get(42));
+        assertEquals(0, ParameterPool.of(null).get(0).length);
+    }
+
+    /** Ensures each input of a corpus can be generated again, independently from the others. */
+    @Test
+    public void testGenerate() {
+        ParameterSupplier supplier = new ParameterSupplier(42L, Generators.asciiStrings(1, 10));
+
+        assertArrayEquals(supplier.generate(1000000L), supplier.generate(1000000L));
+        assertArrayEquals(supplier.generate(3L), new ParameterSupplier(42L, Generators.asciiStrings(1, 10))
+                .generate(3L));
+        assertNotEquals(supplier.generate(3L)[0], supplier.generate(4L)[0]);
+    }
+}
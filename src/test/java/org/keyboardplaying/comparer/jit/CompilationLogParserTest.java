@@ -0,0 +1,82 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.jit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.JitDiagnostics;
+
+/**
+ * Test cases for {@link CompilationLogParser}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class CompilationLogParserTest {
+
+    private static final List<String> OUTPUT = Arrays.asList(
+            "Beginning performance comparison for method <hello>, (3 check(s), 10000 iteration(s) per check",
+            "     33    4       3       java.lang.StringLatin1::hashCode (42 bytes)   made not entrant",
+            "     55   71       3       org.Foo::hello (39 bytes)",
+            "                              @ 24   org.Foo::hello (39 bytes)   callee is too large",
+            "     60   72 %     4       org.Foo::hello1 @ 5 (80 bytes)",
+            "     65   80       4       org.Foo::hello (39 bytes)",
+            "     76   71       3       org.Foo::hello (39 bytes)   made not entrant",
+            "                                  @ 24   org.Foo::hello (39 bytes)   inline (hot)",
+            "                                @ 24   org.Foo::hello1 (80 bytes)   hot method too big",
+            "                            @ 12   org.Foo::hello (39 bytes)   inline (hot)",
+            "    125   75   !   3       jdk.internal.reflect.GeneratedMethodAccessor1::invoke (49 bytes)",
+            "    130   80       4       org.Foo::hello (39 bytes)   made not entrant",
+            "    140   81       4       org.Foo::hello (39 bytes)");
+
+    /** Tests the extraction of compilations, inlining decisions and deoptimizations. */
+    @Test
+    public void testParse() {
+        JitDiagnostics hello = new CompilationLogParser().parse(OUTPUT, "org.Foo", "hello");
+
+        assertEquals(4, hello.getHighestTier());
+        assertEquals(3, hello.getCompilations());
+        // the tier 3 code being made not entrant after the tier 4 compilation is not a deoptimization
+        assertEquals(1, hello.getDeoptimizations());
+        assertEquals(Arrays.asList("callee is too large", "inline (hot)", "inline (hot)"),
+                hello.getInliningDecisions());
+        assertEquals(2, hello.getInlinedCount());
+    }
+
+    /** Tests the parsing for an on-stack replacement and a method which was not inlined. */
+    @Test
+    public void testParseOsr() {
+        JitDiagnostics hello1 = new CompilationLogParser().parse(OUTPUT, "org.Foo", "hello1");
+
+        assertEquals(4, hello1.getHighestTier());
+        assertEquals(1, hello1.getCompilations());
+        assertEquals(0, hello1.getDeoptimizations());
+        assertEquals(Arrays.asList("hot method too big"), hello1.getInliningDecisions());
+        assertEquals(0, hello1.getInlinedCount());
+    }
+
+    /** Tests the parsing for a method which never was compiled. */
+    @Test
+    public void testParseNotCompiled() {
+        JitDiagnostics hello2 = new CompilationLogParser().parse(OUTPUT, "org.Foo", "hello2");
+
+        assertEquals(JitDiagnostics.NO_TIER, hello2.getHighestTier());
+        assertEquals(0, hello2.getCompilations());
+        assertEquals(0, hello2.getInliningDecisions().size());
+    }
+}
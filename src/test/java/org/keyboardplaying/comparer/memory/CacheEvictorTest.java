@@ -0,0 +1,63 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link CacheEvictor}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class CacheEvictorTest {
+
+    /** Ensures the whole buffer is read at each eviction. */
+    @Test
+    public void testEvict() {
+        CacheEvictor evictor = new CacheEvictor(1024 * 1024);
+        assertEquals(1024 * 1024, evictor.getSize());
+
+        evictor.evict();
+        long once = evictor.getChecksum();
+        evictor.evict();
+
+        assertTrue(once > 0);
+        assertEquals(2 * once, evictor.getChecksum());
+    }
+
+    /** Ensures the sizes of the caches written by Linux are parsed. */
+    @Test
+    public void testParseSize() {
+        assertEquals(32 * 1024, CacheEvictor.parseSize("32K"));
+        assertEquals(8 * 1024 * 1024, CacheEvictor.parseSize("8M"));
+        assertEquals(512, CacheEvictor.parseSize("512"));
+    }
+
+    /** Ensures the default size is either derived from the last-level cache or the fallback. */
+    @Test
+    public void testDefaultSize() {
+        long lastLevelCache = CacheEvictor.detectLastLevelCacheSize();
+        long size = CacheEvictor.getDefaultSize();
+
+        if (lastLevelCache > 0) {
+            assertTrue(size >= Math.min(lastLevelCache, 64L * 1024 * 1024));
+        } else {
+            assertEquals(CacheEvictor.DEFAULT_SIZE, size);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Scanner;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.test.DefaultPressure;
+
+/**
+ * Test cases for {@link MemoryPressure}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class MemoryPressureTest {
+
+    /**
+     * Ensures the heap is filled and garbage allocated while the pressure is applied, and everything is released
+     * afterwards.
+     *
+     * @throws InterruptedException
+     *             if interrupted while the pressure is applied
+     */
+    @Test
+    public void testStartStop() throws InterruptedException {
+        MemoryPressure pressure = new MemoryPressure();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        pressure.setOccupancy((used + (64 << 20)) / (double) runtime.maxMemory());
+        pressure.setAllocatorThreads(2);
+
+        pressure.start();
+        try {
+            assertTrue(pressure.getBallastSize() > 0);
+            assertTrue(pressure.getBallastSize() <= 80 << 20);
+            assertEquals(pressure.getOccupancy(), pressure.getMeasuredOccupancy(), 0.01);
+            Thread.sleep(100);
+        } finally {
+            pressure.stop();
+        }
+
+        assertTrue(pressure.getAllocatedBytes() > 0);
+        assertEquals(0, pressure.getBallastSize());
+    }
+
+    /**
+     * Ensures the default occupancy is reached on small G1 heaps, whose regions are the smallest.
+     *
+     * @throws IOException
+     *             if the JVM cannot be started
+     * @throws InterruptedException
+     *             if interrupted while waiting for the JVM
+     */
+    @Test
+    public void testDefaultOccupancyOnSmallHeap() throws IOException, InterruptedException {
+        for (String heap : new String[] { "-Xmx512m", "-Xmx2g" }) {
+            Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    heap, "-XX:+UseG1GC", "-cp", System.getProperty("java.class.path"),
+                    DefaultPressure.class.getName()).redirectErrorStream(true).start();
+            String output;
+            try (Scanner scanner = new Scanner(process.getInputStream(), "UTF-8")) {
+                output = scanner.useDelimiter("\\A").hasNext() ? scanner.next().trim() : "";
+            }
+
+            assertEquals(heap + ": " + output, 0, process.waitFor());
+            assertEquals(heap + ": " + output, 0.8, Double.parseDouble(output), 0.02);
+        }
+    }
+
+    /**
+     * Ensures the heap cannot be entirely filled.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFullHeap() {
+        new MemoryPressure().setOccupancy(1);
+    }
+}
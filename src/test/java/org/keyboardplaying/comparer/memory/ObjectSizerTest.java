@@ -0,0 +1,110 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.ResultSize;
+
+/**
+ * Test cases for {@link ObjectSizer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ObjectSizerTest {
+
+    /** A sizer estimating sizes for a 64-bit JVM with compressed references. */
+    private final ObjectSizer compressed = new ObjectSizer(null, "true", "true", 8);
+
+    /** Ensures the layout of objects is estimated from their fields, and cycles are walked once. */
+    @Test
+    public void testEstimatedLayout() {
+        Node first = new Node();
+        first.value = 1;
+        first.next = new Node();
+        first.next.next = first;
+
+        ResultSize size = compressed.measure(first);
+
+        // 12-byte header, int and compressed reference, aligned on 8 bytes
+        assertEquals(48, size.getBytes());
+        assertFalse(size.isLowerBound());
+    }
+
+    /** Ensures uncompressed headers and references are taken into account. */
+    @Test
+    public void testUncompressedLayout() {
+        ObjectSizer uncompressed = new ObjectSizer(null, "false", "false", 8);
+
+        assertEquals(32, uncompressed.measure(new Node()).getBytes());
+    }
+
+    /** Ensures objects referenced several times are counted once. */
+    @Test
+    public void testSharedReferences() {
+        Node node = new Node();
+
+        assertEquals(24 + 24, compressed.measure(new Object[] { node, node }).getBytes());
+    }
+
+    /** Ensures the elements of primitive arrays are counted. */
+    @Test
+    public void testPrimitiveArray() {
+        assertEquals(16 + 40, compressed.measure(new int[10]).getBytes());
+    }
+
+    /** Ensures strings are measured with their content, whether their fields can be read or not. */
+    @Test
+    public void testString() {
+        ResultSize size = compressed.measure("abc");
+
+        assertEquals(24 + 24, size.getBytes());
+        assertFalse(size.isLowerBound());
+    }
+
+    /** Ensures shared objects and {@code null} are not counted. */
+    @Test
+    public void testNotCounted() {
+        assertEquals(0, compressed.measure(null).getBytes());
+        assertEquals(0, compressed.measure(TimeUnit.SECONDS).getBytes());
+        assertEquals(0, compressed.measure(String.class).getBytes());
+    }
+
+    /** Ensures the layout of the running JVM is used by default. */
+    @Test
+    public void testRunningJvm() {
+        ResultSize size = new ObjectSizer().measure(new ArrayList<>(Arrays.asList(1000, 2000, 3000)));
+
+        assertTrue(size.getBytes() > 3 * 16);
+    }
+
+    /**
+     * A node of a linked structure.
+     *
+     * @author Cyrille Chopelet (http://keyboardplaying.org)
+     */
+    private static final class Node {
+
+        private int value;
+        private Node next;
+    }
+}
@@ -15,10 +15,13 @@
 package org.keyboardplaying.comparer.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import org.junit.Test;
+import org.keyboardplaying.comparer.stats.OutlierDetection;
 
 /**
  * Test cases for {@link ImplCheckResult}.
@@ -57,4 +60,54 @@ public class ImplCheckResultTest {
         assertEquals((double) 1379 / 33, cResult.getAverageExecutionTime(), DELTA);
         assertEquals(33, cResult.getNumberOfExecutions());
     }
+
+    /**
+     * Tests the dispersion of the average times of the checks.
+     */
+    @Test
+    public void testCheckTimes() {
+        Method method = new Object() {
+            // really dirty
+        }.getClass().getEnclosingMethod();
+        ImplCheckResult cResult = new ImplCheckResult(method, null);
+
+        assertEquals(0, cResult.getMinimumCheckTime(), EXACT);
+        assertEquals(0, cResult.getCheckTimeDeviation(), EXACT);
+
+        cResult.addExecutionTime(20, 10);
+        assertEquals(0, cResult.getCheckTimeDeviation(), EXACT);
+        cResult.addExecutionTime(40, 10);
+        cResult.addExecutionTime(60, 10);
+
+        assertEquals(3, cResult.getCheckTimes().size());
+        assertEquals(2, cResult.getMinimumCheckTime(), EXACT);
+        assertEquals(6, cResult.getMaximumCheckTime(), EXACT);
+        assertEquals(2, cResult.getCheckTimeDeviation(), DELTA);
+        assertEquals(4, cResult.getAverageExecutionTime(), DELTA);
+    }
+
+    /**
+     * Tests the trimmed check times, which leave the outlying checks out.
+     */
+    @Test
+    public void testOutliers() {
+        Method method = new Object() {
+            // really dirty
+        }.getClass().getEnclosingMethod();
+        ImplCheckResult cResult = new ImplCheckResult(method, null);
+        cResult.setCheckTimes(Arrays.asList(10., 10.2, 9.8, 30., 10.1));
+
+        // no detection: every check is kept
+        assertNull(cResult.getOutlierDetection());
+        assertEquals(0, cResult.getRejectedChecks());
+        assertEquals(14.02, cResult.getTrimmedCheckTime(), DELTA);
+        assertEquals(10.1, cResult.getMedianCheckTime(), DELTA);
+
+        cResult.setOutlierDetection(OutlierDetection.MAD);
+        assertEquals(OutlierDetection.MAD, cResult.getOutlierDetection());
+        assertEquals(1, cResult.getRejectedChecks());
+        assertEquals(10.025, cResult.getTrimmedCheckTime(), DELTA);
+        assertEquals(10.1, cResult.getMedianCheckTime(), DELTA);
+        assertEquals(30, cResult.getMaximumCheckTime(), EXACT);
+    }
 }
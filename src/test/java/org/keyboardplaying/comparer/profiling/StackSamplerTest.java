@@ -0,0 +1,103 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.profiling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.comparer.model.StackProfile;
+import org.keyboardplaying.comparer.test.ClassWithLatency;
+
+/**
+ * Test cases for {@link StackSampler}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class StackSamplerTest {
+
+    private static final String VARIANT = ClassWithLatency.class.getName();
+
+    /**
+     * Ensures stacks are cut at the outermost call of the variant and aggregated.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testRecord() throws NoSuchMethodException {
+        StackSampler sampler = new StackSampler(Thread.currentThread(), ClassWithLatency.class.getMethod("serve"),
+                "serve;v1", 1000);
+
+        StackTraceElement[] parking = { frame("sun.misc.Unsafe", "park"), frame(VARIANT, "serve"),
+                frame("java.lang.reflect.Method", "invoke"), frame("Harness", "run") };
+        StackTraceElement[] recursive = { frame(VARIANT, "serve"), frame(VARIANT, "serve"), frame("Harness", "run") };
+        StackTraceElement[] outside = { frame("java.lang.reflect.Method", "invoke"), frame("Harness", "run") };
+        sampler.record(parking);
+        sampler.record(parking);
+        sampler.record(recursive);
+        sampler.record(outside);
+
+        StackProfile profile = sampler.getProfile();
+        assertEquals(4, profile.getSamples());
+        assertEquals(1, profile.getOutsideSamples());
+        Map<String, Integer> stacks = profile.getStacks();
+        assertEquals(2, stacks.size());
+        assertEquals(Integer.valueOf(2), stacks.get("serve_v1;" + VARIANT + ".serve;sun.misc.Unsafe.park"));
+        assertEquals(Integer.valueOf(1), stacks.get("serve_v1;" + VARIANT + ".serve;" + VARIANT + ".serve"));
+
+        Map<String, Integer> hotFrames = profile.getHotFrames();
+        assertEquals("sun.misc.Unsafe.park", hotFrames.keySet().iterator().next());
+        assertEquals(Integer.valueOf(1), hotFrames.get(VARIANT + ".serve"));
+    }
+
+    /**
+     * Samples a thread calling the variant.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testSample() throws NoSuchMethodException, InterruptedException {
+        Thread target = new Thread(() -> {
+            for (int i = 0; i < 50; i++) {
+                ClassWithLatency.serve();
+            }
+        });
+        StackSampler sampler = new StackSampler(target, ClassWithLatency.class.getMethod("serve"), "serve", 500);
+
+        target.start();
+        sampler.start();
+        target.join();
+        sampler.stop();
+
+        StackProfile profile = sampler.getProfile();
+        assertTrue(profile.getSamples() > 0);
+        assertTrue(profile.getStacks().size() > 0);
+        for (String stack : profile.getStacks().keySet()) {
+            assertTrue(stack, stack.startsWith("serve;" + VARIANT + ".serve"));
+        }
+        assertTrue(profile.getAverageSamplingTime() > 0);
+        assertTrue(profile.getSamplingOverhead() > 0 && profile.getSamplingOverhead() < 1);
+    }
+
+    private static StackTraceElement frame(String className, String methodName) {
+        return new StackTraceElement(className, methodName, null, -1);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.recording;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test cases for {@link SampleReader}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class SampleReaderTest {
+
+    /** A temporary folder for the recorded files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests the conversion of the samples to CSV.
+     *
+     * @throws IOException
+     *             if the files cannot be written or read
+     */
+    @Test
+    public void testWriteCsv() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("samples.bin");
+        try (SampleRecorder recorder = new SampleRecorder(file, 10)) {
+            int id = recorder.register("sort, quick");
+            recorder.record(id, 2, 7L, System.nanoTime(), 1000, 3);
+        }
+        Path csv = folder.getRoot().toPath().resolve("samples.csv");
+
+        try (SampleReader reader = new SampleReader(file)) {
+            reader.writeCsv(csv);
+        }
+
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("variant,check,thread,start_ns,duration_ns,calls,ns_per_call", lines.get(0));
+        assertTrue(lines.get(1), lines.get(1).matches("\"sort, quick\",2,7,\\d+,1000,3,333"));
+    }
+
+    /**
+     * Ensures other files are rejected.
+     *
+     * @throws IOException
+     *             expected
+     */
+    @Test(expected = IOException.class)
+    public void testNotSamples() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("other.bin");
+        Files.write(file, new byte[100]);
+
+        new SampleReader(file).close();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.recording;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.keyboardplaying.comparer.model.TimingSample;
+
+/**
+ * Test cases for {@link SampleRecorder}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class SampleRecorderTest {
+
+    /** A temporary folder for the recorded files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Ensures recorded samples can be read back, along with the labels of the variants.
+     *
+     * @throws IOException
+     *             if the file cannot be written or read
+     */
+    @Test
+    public void testRecordAndRead() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("samples.bin");
+        try (SampleRecorder recorder = new SampleRecorder(file, 10)) {
+            int reference = recorder.register("hello");
+            int variant = recorder.register("hello1");
+            long origin = System.nanoTime();
+            recorder.record(reference, 0, 1L, origin, 1500, 3);
+            recorder.record(variant, 1, 42L, origin + 2000, 800, 4);
+            assertEquals(2, recorder.getCount());
+        }
+
+        try (SampleReader reader = new SampleReader(file)) {
+            assertEquals(2, reader.getCount());
+            assertEquals(0, reader.getDropped());
+            assertEquals(Arrays.asList("hello", "hello1"), reader.getVariants());
+
+            TimingSample first = reader.get(0);
+            assertEquals("hello", first.getVariant());
+            assertEquals(0, first.getCheck());
+            assertEquals(1L, first.getThread());
+            assertEquals(1500, first.getDuration());
+            assertEquals(3, first.getCalls());
+            assertEquals(500., first.getTimePerCall(), 0.);
+
+            TimingSample second = reader.get(1);
+            assertEquals("hello1", second.getVariant());
+            assertEquals(1, second.getCheck());
+            assertEquals(42L, second.getThread());
+            assertEquals(2000, second.getStart() - first.getStart());
+        }
+    }
+
+    /**
+     * Ensures samples beyond the capacity are dropped and counted.
+     *
+     * @throws IOException
+     *             if the file cannot be written or read
+     */
+    @Test
+    public void testDropped() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("full.bin");
+        SampleRecorder recorder = new SampleRecorder(file, 3);
+        int id = recorder.register("hello");
+        for (int i = 0; i < 5; i++) {
+            recorder.record(id, 0, 1L, System.nanoTime(), i, 1);
+        }
+        recorder.close();
+        // Ignored once closed
+        recorder.record(id, 0, 1L, System.nanoTime(), 0, 1);
+
+        assertEquals(3, recorder.getCount());
+        assertEquals(2, recorder.getDropped());
+        try (SampleReader reader = new SampleReader(file)) {
+            assertEquals(3, reader.getCount());
+            assertEquals(2, reader.getDropped());
+            assertEquals(2, reader.get(2).getDuration());
+        }
+    }
+
+    /**
+     * Ensures closing the recorder while other threads record only publishes complete samples.
+     *
+     * @throws IOException
+     *             if the file cannot be written or read
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testCloseWhileRecording() throws IOException, InterruptedException {
+        Path file = folder.getRoot().toPath().resolve("concurrent.bin");
+        final SampleRecorder recorder = new SampleRecorder(file, 1000000);
+        final int id = recorder.register("hello");
+        final CountDownLatch started = new CountDownLatch(4);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final long thread = t + 1;
+            Thread writer = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 1000000; i++) {
+                    recorder.record(id, 1, thread, System.nanoTime(), 42, 7);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        started.await();
+        recorder.close();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        try (SampleReader reader = new SampleReader(file)) {
+            assertEquals(recorder.getCount(), reader.getCount());
+            for (long i = 0; i < reader.getCount(); i++) {
+                TimingSample sample = reader.get(i);
+                assertEquals(1, sample.getCheck());
+                assertTrue(sample.getThread() > 0);
+                assertEquals(42, sample.getDuration());
+                assertEquals(7, sample.getCalls());
+            }
+        }
+    }
+
+    /**
+     * Ensures the file is allocated on disk when the recorder is created, rather than left sparse.
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testAllocation() throws IOException, InterruptedException {
+        Path file = folder.getRoot().toPath().resolve("allocated.bin");
+        try (SampleRecorder recorder = new SampleRecorder(file, 1000000)) {
+            Process du = new ProcessBuilder("du", "-k", file.toString()).redirectErrorStream(true).start();
+            String line;
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(du.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                line = out.readLine();
+            }
+            assumeTrue(du.waitFor() == 0 && line != null);
+
+            // 40 MB of samples
+            long kilobytes = Long.parseLong(line.split("\\s+")[0]);
+            assertTrue(kilobytes >= 1000000L * SampleRecorder.SAMPLE_SIZE / 1024);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.report;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+import org.keyboardplaying.comparer.test.ClassWithVariants;
+
+/**
+ * Test cases for {@link BarChart}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class BarChartTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Ensures the bars are ranked, scaled and labelled.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     */
+    @Test
+    public void testToSvg() throws NoSuchMethodException {
+        BarChart chart = new BarChart();
+        chart.add("greetings <v2>", buildResults());
+
+        String svg = chart.toSvg();
+
+        assertTrue(svg, svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\""));
+        assertTrue(svg, svg.contains("greetings &lt;v2&gt;"));
+        // Ranked from the fastest, the slowest check taking the whole width
+        assertTrue(svg, svg.indexOf(">hello1<") < svg.indexOf(">hello<"));
+        assertTrue(svg, svg.contains("width=\"160.0\""));
+        assertTrue(svg, svg.contains("width=\"320.0\""));
+        assertTrue(svg, svg.contains("2.000 us (2.00x faster)"));
+        assertTrue(svg, svg.contains("4.000 us (REF)"));
+        // Range of the checks of the reference
+        assertTrue(svg, svg.contains("<line x1=\"440.0\" y1=\"76\" x2=\"600.0\""));
+        assertTrue(svg, svg.endsWith("</svg>\n"));
+    }
+
+    /**
+     * Ensures the HTML page embeds the chart.
+     *
+     * @throws NoSuchMethodException
+     *             if test is not properly implemented
+     * @throws IOException
+     *             if the page cannot be written
+     */
+    @Test
+    public void testWriteHtml() throws NoSuchMethodException, IOException {
+        BarChart chart = new BarChart();
+        chart.add("", buildResults());
+        Path file = folder.newFile("chart.html").toPath();
+
+        chart.writeHtml(file);
+
+        String html = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(html, html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html, html.contains("<svg"));
+        assertTrue(html, html.endsWith("</html>\n"));
+    }
+
+    private static List<ImplCheckResult> buildResults() throws NoSuchMethodException {
+        List<ImplCheckResult> results = new ArrayList<>();
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello"), ClassWithVariants.hello()));
+        results.add(new ImplCheckResult(ClassWithVariants.class.getMethod("hello1"), ClassWithVariants.hello1()));
+        results.get(0).addExecutionTime(30, 10);
+        results.get(0).addExecutionTime(50, 10);
+        results.get(1).addExecutionTime(20, 10);
+        return results;
+    }
+}
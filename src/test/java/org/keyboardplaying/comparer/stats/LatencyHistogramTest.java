@@ -0,0 +1,78 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link LatencyHistogram}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class LatencyHistogramTest {
+
+    /** Ensures small values are counted exactly. */
+    @Test
+    public void testLinearRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    /** Ensures large values are counted with a bounded relative error. */
+    @Test
+    public void testRelativeError() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            assertTrue((highest - value) <= value / 64);
+            assertTrue(index == 0 || LatencyHistogram.highestEquivalentValue(index - 1) < value);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    /** Ensures merging histograms gives the same percentiles as recording everything in one. */
+    @Test
+    public void testAdd() {
+        LatencyHistogram even = new LatencyHistogram();
+        LatencyHistogram odd = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (long i = 0; i < 10000; i++) {
+            long value = i * 1000;
+            (i % 2 == 0 ? even : odd).record(value);
+            all.record(value);
+        }
+        even.add(odd);
+
+        assertEquals(all.getTotalCount(), even.getTotalCount());
+        assertEquals(all.getMax(), even.getMax());
+        assertEquals(all.getValueAtPercentile(99.9), even.getValueAtPercentile(99.9));
+        long p99 = even.getValueAtPercentile(99);
+        assertTrue(Math.abs(p99 - 9899000) <= 9899000 / 64);
+    }
+}
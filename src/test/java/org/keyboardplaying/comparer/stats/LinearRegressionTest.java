@@ -0,0 +1,77 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link LinearRegression}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class LinearRegressionTest {
+
+    private static final double DELTA = 1e-6;
+
+    /** Ensures the line is correctly fitted. */
+    @Test
+    public void testFit() {
+        LinearRegression regression = LinearRegression.ofSeries(new double[] { 1, 3, 5, 7 });
+
+        assertEquals(4, regression.getSize());
+        assertEquals(2, regression.getSlope(), DELTA);
+        assertEquals(1, regression.getIntercept(), DELTA);
+        assertEquals(9, regression.predict(4), DELTA);
+    }
+
+    /** Ensures the Student's t-distribution matches reference values. */
+    @Test
+    public void testStudentCdf() {
+        assertEquals(0.5, LinearRegression.studentCdf(0, 5), DELTA);
+        // 95th and 97.5th percentiles from the reference tables
+        assertEquals(0.95, LinearRegression.studentCdf(2.015048, 5), DELTA);
+        assertEquals(0.975, LinearRegression.studentCdf(2.228139, 10), DELTA);
+        assertEquals(0.025, LinearRegression.studentCdf(-2.228139, 10), DELTA);
+        // one degree of freedom is the Cauchy distribution
+        assertEquals(0.75, LinearRegression.studentCdf(1, 1), DELTA);
+    }
+
+    /** Ensures a noisy decreasing series is detected as significantly decreasing, and only so. */
+    @Test
+    public void testSignificance() {
+        double[] noise = { 0.3, -0.2, 0.1, -0.4, 0.2, -0.1, 0.4, -0.3, 0.0, 0.2 };
+        double[] decreasing = new double[noise.length];
+        for (int i = 0; i < noise.length; i++) {
+            decreasing[i] = 100 - i + noise[i];
+        }
+
+        LinearRegression regression = LinearRegression.ofSeries(decreasing);
+        assertTrue(regression.getDecreasingPValue() < 0.001);
+        assertTrue(regression.getIncreasingPValue() > 0.999);
+
+        LinearRegression flat = LinearRegression.ofSeries(noise);
+        assertTrue(flat.getDecreasingPValue() > 0.05);
+        assertTrue(flat.getIncreasingPValue() > 0.05);
+    }
+
+    /** Ensures too few measures are rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotEnoughMeasures() {
+        new LinearRegression(new double[] { 1 }, new double[] { 1 });
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.stats;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link OutlierDetection}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class OutlierDetectionTest {
+
+    private static final double DELTA = 1e-6;
+
+    /** Ensures the modified z-score rejects a disturbed measure and keeps the others in their order. */
+    @Test
+    public void testMad() {
+        assertEquals(Arrays.asList(10., 10.2, 9.8, 10.1),
+                OutlierDetection.MAD.filter(Arrays.asList(10., 10.2, 9.8, 30., 10.1)));
+    }
+
+    /** Ensures the mean absolute deviation is used when most measures are equal. */
+    @Test
+    public void testMadOfEqualMeasures() {
+        assertEquals(Arrays.asList(10., 10., 10., 10.),
+                OutlierDetection.MAD.filter(Arrays.asList(10., 10., 12., 10., 10.)));
+        assertEquals(Arrays.asList(10., 10., 10.), OutlierDetection.MAD.filter(Arrays.asList(10., 10., 10.)));
+    }
+
+    /** Ensures Tukey's fences reject the measures far from the quartiles. */
+    @Test
+    public void testTukey() {
+        assertEquals(Arrays.asList(1., 2., 3., 4., 5., 6., 7., 8.),
+                OutlierDetection.TUKEY.filter(Arrays.asList(1., 2., 3., 4., 50., 5., 6., 7., 8.)));
+        // the low fence as well
+        assertEquals(Arrays.asList(1., 2., 3., 4., 5., 6., 7., 8.),
+                OutlierDetection.TUKEY.filter(Arrays.asList(-20., 1., 2., 3., 4., 5., 6., 7., 8.)));
+    }
+
+    /** Ensures nothing is rejected from too short a series. */
+    @Test
+    public void testShortSeries() {
+        assertEquals(Arrays.asList(1., 100.), OutlierDetection.MAD.filter(Arrays.asList(1., 100.)));
+        assertEquals(Collections.emptyList(), OutlierDetection.TUKEY.filter(Collections.<Double> emptyList()));
+    }
+
+    /** Ensures the median is correctly computed. */
+    @Test
+    public void testMedian() {
+        assertEquals(2, OutlierDetection.median(Arrays.asList(3., 1., 2.)), DELTA);
+        assertEquals(2.5, OutlierDetection.median(Arrays.asList(4., 1., 3., 2.)), DELTA);
+        assertEquals(0, OutlierDetection.median(Collections.<Double> emptyList()), DELTA);
+    }
+}
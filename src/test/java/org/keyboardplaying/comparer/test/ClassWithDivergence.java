@@ -0,0 +1,81 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+/**
+ * A class whose variants give the same results on most inputs, but not all, to test the equivalence verification.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithDivergence {
+
+    /**
+     * Returns the absolute value of an integer.
+     *
+     * @param value
+     *            the integer
+     * @return the absolute value
+     */
+    public static int abs(int value) {
+        return Math.abs(value);
+    }
+
+    /**
+     * A correct variant of {@link #abs(int)}.
+     *
+     * @param value
+     *            the integer
+     * @return the absolute value
+     */
+    public static int abs1(int value) {
+        return value < 0 ? -value : value;
+    }
+
+    /**
+     * A variant of {@link #abs(int)} which is wrong on one input out of 1024.
+     *
+     * @param value
+     *            the integer
+     * @return the absolute value, or its successor when the value is a multiple of 1024
+     */
+    public static int abs2(int value) {
+        return (value & 1023) == 0 ? Math.abs(value) + 1 : Math.abs(value);
+    }
+
+    /**
+     * Returns an integer and its opposite.
+     *
+     * @param value
+     *            the integer
+     * @return a new array containing the integer and its opposite
+     */
+    public static int[] pair(int value) {
+        return new int[] { value, -value };
+    }
+
+    /**
+     * A variant of {@link #pair(int)}, returning an equal but distinct array.
+     *
+     * @param value
+     *            the integer
+     * @return a new array containing the integer and its opposite
+     */
+    public static int[] pair1(int value) {
+        int[] pair = new int[2];
+        pair[0] = value;
+        pair[1] = -value;
+        return pair;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A class whose methods complete asynchronously, to test asynchronous comparisons.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithFutures {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "futures");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicInteger FAILED_CALLBACKS = new AtomicInteger();
+
+    /**
+     * Returns the double of a value, after about a millisecond.
+     *
+     * @param value
+     *            the value
+     * @return a future completing with the double of the value
+     */
+    public static CompletableFuture<Integer> twice(int value) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        SCHEDULER.schedule(() -> future.complete(2 * value), 1, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * A variant of {@link #twice(int)} completing immediately.
+     *
+     * @param value
+     *            the value
+     * @return a completed future
+     */
+    public static CompletableFuture<Integer> twice1(int value) {
+        return CompletableFuture.completedFuture(2 * value);
+    }
+
+    /**
+     * A variant of {@link #twice(int)} failing for negative values.
+     *
+     * @param value
+     *            the value
+     * @return a future completing with the double of the value, or exceptionally if the value is negative
+     */
+    public static CompletableFuture<Integer> twice2(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value");
+        }
+        return twice1(value);
+    }
+
+    /**
+     * Passes the double of a value to a callback, after about a millisecond.
+     *
+     * @param value
+     *            the value
+     * @param callback
+     *            the callback, receiving the result or an error
+     */
+    public static void twiceLater(int value, BiConsumer<Integer, Throwable> callback) {
+        SCHEDULER.schedule(() -> callback.accept(2 * value, null), 1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A variant of {@link #twiceLater(int, BiConsumer)} calling the callback with an error.
+     *
+     * @param value
+     *            the value
+     * @param callback
+     *            the callback, receiving the result or an error
+     */
+    public static void twiceLater1(int value, BiConsumer<Integer, Throwable> callback) {
+        callback.accept(null, new IllegalStateException("Unavailable"));
+    }
+
+    /**
+     * Returns the number of times a callback of {@link #testLater(int, Predicate)} threw an exception.
+     *
+     * @return the number of failed callbacks
+     */
+    public static int getFailedCallbacks() {
+        return FAILED_CALLBACKS.get();
+    }
+
+    /**
+     * Passes a value to a predicate, whose result is primitive, after about a millisecond.
+     *
+     * @param value
+     *            the value
+     * @param callback
+     *            the callback, receiving the value
+     */
+    public static void testLater(int value, Predicate<Integer> callback) {
+        SCHEDULER.schedule(() -> {
+            try {
+                callback.test(value);
+            } catch (RuntimeException e) {
+                FAILED_CALLBACKS.incrementAndGet();
+            }
+        }, 1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A variant of {@link #testLater(int, Predicate)} going through a default method of the callback.
+     *
+     * @param value
+     *            the value
+     * @param callback
+     *            the callback, receiving the value
+     */
+    public static void testLater1(int value, Predicate<Integer> callback) {
+        callback.negate().test(value);
+    }
+
+    /**
+     * Returns a future which never completes.
+     *
+     * @param value
+     *            the value
+     * @return an incomplete future
+     */
+    public static CompletableFuture<Integer> never(int value) {
+        return new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class whose original method takes about a millisecond per call, to test open-loop comparisons.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithLatency {
+
+    /**
+     * Waits for about a millisecond.
+     *
+     * @return {@code 0}
+     */
+    public static int serve() {
+        LockSupport.parkNanos(1000000L);
+        return 0;
+    }
+
+    /**
+     * Returns immediately.
+     *
+     * @return {@code 0}
+     */
+    public static int serve1() {
+        return 0;
+    }
+}
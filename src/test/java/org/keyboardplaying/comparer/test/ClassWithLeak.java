@@ -0,0 +1,85 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class whose original methods degrade over time, to test soak tests.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithLeak {
+
+    private static final long PAUSE = 20000L;
+    /** The simulated time of a call to {@link #scan1()}, in nanoseconds. */
+    private static final long SCAN_COST = 1000L;
+
+    private final List<byte[]> retained = new ArrayList<>();
+    private long scans;
+    private long clock;
+
+    /**
+     * Retains 1 KiB at each call.
+     *
+     * @return the number of calls so far
+     */
+    public int grow() {
+        retained.add(new byte[1024]);
+        LockSupport.parkNanos(PAUSE);
+        return retained.size();
+    }
+
+    /**
+     * Does not retain anything.
+     *
+     * @return {@code 0}
+     */
+    public int grow1() {
+        LockSupport.parkNanos(PAUSE);
+        return 0;
+    }
+
+    /**
+     * Returns the simulated time spent in {@link #scan()} and {@link #scan1()}.
+     *
+     * @return the simulated time, in nanoseconds
+     */
+    public long nanoTime() {
+        return clock;
+    }
+
+    /**
+     * Simulates a scan of all previous calls: each call takes one simulated nanosecond more than the previous one.
+     *
+     * @return the number of calls so far
+     */
+    public long scan() {
+        clock += SCAN_COST + scans;
+        return ++scans;
+    }
+
+    /**
+     * Simulates a call taking a constant time.
+     *
+     * @return the simulated cost of the call
+     */
+    public long scan1() {
+        clock += SCAN_COST;
+        return SCAN_COST;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A class whose methods block while holding a lock, to test concurrent comparisons.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithLocks {
+
+    private static final long WAIT_NS = 100000;
+
+    private final Object monitor = new Object();
+    private final Lock lock = new ReentrantLock();
+    private long count;
+
+    /**
+     * Increments a counter, waiting a little while holding a monitor, which pins virtual threads before Java 24.
+     *
+     * @return the new value of the counter
+     */
+    public long increment() {
+        synchronized (monitor) {
+            LockSupport.parkNanos(WAIT_NS);
+            return ++count;
+        }
+    }
+
+    /**
+     * A variant of {@link #increment()} waiting while holding a {@link ReentrantLock}.
+     *
+     * @return the new value of the counter
+     */
+    public long increment1() {
+        lock.lock();
+        try {
+            LockSupport.parkNanos(WAIT_NS);
+            return ++count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A variant of {@link #increment()} waiting without holding any lock.
+     *
+     * @return the new value of the counter
+     */
+    public long increment2() {
+        LockSupport.parkNanos(WAIT_NS);
+        synchronized (monitor) {
+            return ++count;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+import java.util.Arrays;
+
+/**
+ * A class whose variants sort their parameter in place, to test the hooks restoring the input before each call.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithSort {
+
+    /**
+     * Sorts an array in place.
+     *
+     * @param values
+     *            the array to sort
+     * @return the smallest value
+     */
+    public static int sort(int[] values) {
+        Arrays.sort(values);
+        return values[0];
+    }
+
+    /**
+     * A variant of {@link #sort(int[])} using an insertion sort.
+     *
+     * @param values
+     *            the array to sort
+     * @return the smallest value
+     */
+    public static int sort1(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            int value = values[i];
+            int j = i - 1;
+            while (j >= 0 && values[j] > value) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+        return values[0];
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+/**
+ * A class whose variants share a static state, to test the isolation of variants.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithState {
+
+    private static int calls = 0;
+
+    /**
+     * Increments the shared counter.
+     *
+     * @return the number of calls to any variant so far, this one included
+     */
+    public static int count() {
+        return ++calls;
+    }
+
+    /**
+     * Increments the shared counter.
+     *
+     * @return the number of calls to any variant so far, this one included
+     */
+    public static int count1() {
+        return ++calls;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+/**
+ * A class whose variants are identical, to test that the order of the variants does not bias their measures.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class ClassWithTwins {
+
+    /**
+     * Sums the first integers.
+     *
+     * @return the sum of the 100 first integers
+     */
+    public static long twin() {
+        long sum = 0;
+        for (int i = 0; i < 100; i++) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    /**
+     * Same as {@link #twin()}.
+     *
+     * @return the sum of the 100 first integers
+     */
+    public static long twin1() {
+        long sum = 0;
+        for (int i = 0; i < 100; i++) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    /**
+     * Same as {@link #twin()}.
+     *
+     * @return the sum of the 100 first integers
+     */
+    public static long twin2() {
+        long sum = 0;
+        for (int i = 0; i < 100; i++) {
+            sum += i;
+        }
+        return sum;
+    }
+}
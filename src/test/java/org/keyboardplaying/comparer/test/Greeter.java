@@ -0,0 +1,83 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+/**
+ * An interface with variants and several implementations, to test polymorphic call sites.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public interface Greeter {
+
+    /**
+     * Greets someone.
+     *
+     * @param name
+     *            the name of the person to greet
+     * @return a greeting
+     */
+    String greet(String name);
+
+    /**
+     * Greets someone, using a {@link StringBuilder}.
+     *
+     * @param name
+     *            the name of the person to greet
+     * @return a greeting
+     */
+    String greet1(String name);
+
+    /** An English implementation. */
+    class English implements Greeter {
+
+        @Override
+        public String greet(String name) {
+            return "Hello, " + name;
+        }
+
+        @Override
+        public String greet1(String name) {
+            return new StringBuilder("Hello, ").append(name).toString();
+        }
+    }
+
+    /** A French implementation. */
+    class French implements Greeter {
+
+        @Override
+        public String greet(String name) {
+            return "Bonjour, " + name;
+        }
+
+        @Override
+        public String greet1(String name) {
+            return new StringBuilder("Bonjour, ").append(name).toString();
+        }
+    }
+
+    /** A German implementation. */
+    class German implements Greeter {
+
+        @Override
+        public String greet(String name) {
+            return "Hallo, " + name;
+        }
+
+        @Override
+        public String greet1(String name) {
+            return new StringBuilder("Hallo, ").append(name).toString();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Builds jars containing two versions of the same class, to test version-vs-version comparisons.
+ * <p/>
+ * The built class is {@value #CLASS_NAME}. Its static method {@code repeat(String, int)} and its instance method
+ * {@code length(String)} return the same results in both versions, but version 1.0 is much slower.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public final class VersionedJars {
+
+    /** The name of the class in both jars. */
+    public static final String CLASS_NAME = "example.Repeater";
+
+    private static final String SLOW = "package example;\n"
+            + "public class Repeater {\n"
+            + "    public static String repeat(String s, int times) {\n"
+            + "        String result = \"\";\n"
+            + "        for (int i = 0; i < times; i++) { result = result + s; }\n"
+            + "        return result;\n"
+            + "    }\n"
+            + "    public int length(String s) { return repeat(s, 10).length(); }\n"
+            + "}\n";
+    private static final String FAST = "package example;\n"
+            + "public class Repeater {\n"
+            + "    public static String repeat(String s, int times) {\n"
+            + "        StringBuilder result = new StringBuilder(s.length() * times);\n"
+            + "        for (int i = 0; i < times; i++) { result.append(s); }\n"
+            + "        return result.toString();\n"
+            + "    }\n"
+            + "    public int length(String s) { return s.length() * 10; }\n"
+            + "}\n";
+
+    private VersionedJars() {
+        // utility class
+    }
+
+    /**
+     * Builds the slow version of the class.
+     *
+     * @param dir
+     *            the directory to write the jar into
+     * @return the jar, named {@code repeater-1.0.jar}
+     * @throws IOException
+     *             if the jar cannot be written
+     */
+    public static File buildSlow(File dir) throws IOException {
+        return build(dir, "repeater-1.0", SLOW);
+    }
+
+    /**
+     * Builds the fast version of the class.
+     *
+     * @param dir
+     *            the directory to write the jar into
+     * @return the jar, named {@code repeater-1.1.jar}
+     * @throws IOException
+     *             if the jar cannot be written
+     */
+    public static File buildFast(File dir) throws IOException {
+        return build(dir, "repeater-1.1", FAST);
+    }
+
+    private static File build(File dir, String name, String source) throws IOException {
+        Path sources = Files.createDirectories(dir.toPath().resolve(name).resolve("example"));
+        Path sourceFile = sources.resolve("Repeater.java");
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler.run(null, null, null, "-source", "8", "-target", "8", "-nowarn", sourceFile.toString()) != 0) {
+            throw new IOException("Could not compile " + sourceFile);
+        }
+
+        File jar = new File(dir, name + ".jar");
+        try (OutputStream out = Files.newOutputStream(jar.toPath()); JarOutputStream jos = new JarOutputStream(out)) {
+            jos.putNextEntry(new JarEntry("example/Repeater.class"));
+            jos.write(Files.readAllBytes(sources.resolve("Repeater.class")));
+            jos.closeEntry();
+        }
+        return jar;
+    }
+}
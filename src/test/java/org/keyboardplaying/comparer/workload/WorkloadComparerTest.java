@@ -0,0 +1,157 @@
+/*
+ * This file is part of java-implementation-comparer.
+ *
+ * java-implementation-comparer is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * java-implementation-comparer is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * java-implementation-comparer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.keyboardplaying.comparer.workload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.keyboardplaying.comparer.core.ImplComparer;
+import org.keyboardplaying.comparer.model.ComparisonException;
+import org.keyboardplaying.comparer.model.ImplCheckResult;
+
+/**
+ * Test cases for {@link WorkloadComparer}.
+ *
+ * @author Cyrille Chopelet (http://keyboardplaying.org)
+ */
+public class WorkloadComparerTest {
+
+    private WorkloadComparer comparer;
+
+    /** Creates a short workload comparer. */
+    @Before
+    public void setUp() {
+        ImplComparer timer = new ImplComparer();
+        timer.setChecks(1);
+        timer.setIterations(200);
+        comparer = new WorkloadComparer(timer);
+        comparer.setElements(10000);
+    }
+
+    /**
+     * Ensures lists are compared on the same operations, and their footprint is measured.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testCompareLists() throws ComparisonException {
+        Map<String, Supplier<List<Integer>>> factories = new LinkedHashMap<>();
+        factories.put("ArrayList", ArrayList::new);
+        factories.put("LinkedList", LinkedList::new);
+
+        List<ImplCheckResult> results = comparer.compareLists(factories, WorkloadMix.READ_HEAVY);
+
+        assertEquals(2, results.size());
+        assertEquals("ArrayList", results.get(0).getLabel());
+        assertEquals("LinkedList", results.get(1).getLabel());
+        assertEquals(results.get(0).getMethodResult(), results.get(1).getMethodResult());
+        for (ImplCheckResult result : results) {
+            assertEquals(200, result.getNumberOfExecutions());
+            assertEquals(10000, result.getWorkload().getElements());
+            assertEquals(100, result.getWorkload().getOperations());
+        }
+        // each node of a linked list is larger than a slot of an array
+        assertTrue(results.get(1).getWorkload().getBytesPerElement() > results.get(0).getWorkload()
+                .getBytesPerElement());
+    }
+
+    /**
+     * Ensures maps give the same results on skewed get-or-put operations.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testCompareMaps() throws ComparisonException {
+        Map<String, Supplier<Map<Integer, Integer>>> factories = new LinkedHashMap<>();
+        factories.put("HashMap", HashMap::new);
+        factories.put("TreeMap", TreeMap::new);
+
+        List<ImplCheckResult> results = comparer.compareMaps(factories, WorkloadMix.GET_OR_PUT);
+
+        assertEquals(2, results.size());
+        assertEquals(results.get(0).getMethodResult(), results.get(1).getMethodResult());
+    }
+
+    /**
+     * Ensures sets give the same results on write-heavy operations.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testCompareSets() throws ComparisonException {
+        comparer.setOperations(101);
+        Map<String, Supplier<Set<Integer>>> factories = new LinkedHashMap<>();
+        factories.put("HashSet", HashSet::new);
+        factories.put("TreeSet", TreeSet::new);
+
+        List<ImplCheckResult> results = comparer.compareSets(factories, WorkloadMix.WRITE_HEAVY);
+
+        assertEquals(results.get(0).getMethodResult(), results.get(1).getMethodResult());
+        assertEquals(100, results.get(0).getWorkload().getOperations());
+    }
+
+    /**
+     * Ensures iterations count an operation per element.
+     *
+     * @throws ComparisonException
+     *             if the comparison fails
+     */
+    @Test
+    public void testCompareQueues() throws ComparisonException {
+        Map<String, Supplier<Queue<Integer>>> factories = new LinkedHashMap<>();
+        factories.put("ArrayDeque", ArrayDeque::new);
+        factories.put("LinkedList", LinkedList::new);
+
+        List<ImplCheckResult> results = comparer.compareQueues(factories, WorkloadMix.ITERATE);
+
+        // sum of 0 to 9999
+        assertEquals(49995000L, results.get(0).getMethodResult());
+        assertEquals(results.get(0).getMethodResult(), results.get(1).getMethodResult());
+        assertEquals(10000, results.get(0).getWorkload().getOperations());
+    }
+
+    /**
+     * Ensures mixes which do not apply to a kind of collection are rejected.
+     *
+     * @throws ComparisonException
+     *             expected
+     */
+    @Test(expected = ComparisonException.class)
+    public void testUnsupportedMix() throws ComparisonException {
+        Map<String, Supplier<List<Integer>>> factories = new LinkedHashMap<>();
+        factories.put("ArrayList", ArrayList::new);
+
+        comparer.compareLists(factories, WorkloadMix.GET_OR_PUT);
+    }
+}